@@ -0,0 +1,51 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * An {@link Agent} that only counts the {@link Message}s that it is sent, so that a benchmark measures the cost of
+ * delivering {@link Message}s rather than handling them.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class BenchmarkAgent implements Agent {
+    /**
+     * The {@link UUID} of this {@link BenchmarkAgent}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull UUID uuid = UUID.randomUUID();
+
+    /**
+     * The number of {@link Message}s that this {@link BenchmarkAgent} has been sent.
+     *
+     * @since v0.0.2
+     */
+    private long received = 0;
+
+    @Override
+    public void handleMessage(final @NotNull Message message) {
+        received++;
+    }
+
+    @Override
+    public @NotNull UUID getUUID() {
+        return uuid;
+    }
+
+    /**
+     * Get the number of {@link Message}s that this {@link BenchmarkAgent} has been sent.
+     *
+     * @return The number of {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long getReceived() {
+        return received;
+    }
+}
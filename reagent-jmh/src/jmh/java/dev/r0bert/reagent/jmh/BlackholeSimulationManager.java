@@ -0,0 +1,64 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.AbstractSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A {@link SimulationManager} that consumes every {@link Message} it is given with a {@link Blackhole} instead of
+ * queueing it, so that a benchmark measures the cost of creating {@link Message}s without the queue growing.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class BlackholeSimulationManager extends AbstractSimulationManager {
+    /**
+     * The {@link Blackhole} that consumes the {@link Message}s.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Blackhole blackhole;
+
+    /**
+     * Create a new {@link BlackholeSimulationManager}.
+     *
+     * @param startTime The start time of the simulation.
+     * @param endTime   The end time of the simulation.
+     * @param blackhole The {@link Blackhole} that consumes the {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    BlackholeSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                               final @NotNull Blackhole blackhole) {
+        super(startTime, endTime);
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getCurrentTime() {
+        return getStartTime();
+    }
+
+    @Override
+    public void scheduleMessage(final @NotNull Message message, final @NotNull ZonedDateTime time) {
+        blackhole.consume(message);
+    }
+
+    @Override
+    public void sendMessageNow(final @NotNull Message message) {
+        blackhole.consume(message);
+    }
+
+    @Override
+    public void run() {
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+    }
+}
@@ -0,0 +1,145 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link CoreSimulationManager#scheduleMessage(Message, ZonedDateTime)} and
+ * {@link CoreSimulationManager#run()}.
+ * <p>
+ * Each invocation starts from a new {@link CoreSimulationManager} with {@link #agentCount} {@link BenchmarkAgent}s
+ * added, and schedules {@link #messagesPerAgent} {@link Message}s for each of them at random times within a day.
+ * {@link #schedule()} measures only scheduling, and {@link #scheduleAndRun()} also sends every {@link Message}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CoreSimulationManagerBenchmark {
+    /**
+     * The number of {@link BenchmarkAgent}s in the simulation.
+     *
+     * @since v0.0.2
+     */
+    @Param({"1000", "100000"})
+    public int agentCount;
+
+    /**
+     * The number of {@link Message}s that are scheduled for each {@link BenchmarkAgent}.
+     *
+     * @since v0.0.2
+     */
+    @Param({"1", "10"})
+    public int messagesPerAgent;
+
+    /**
+     * The start time of the simulation.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ZonedDateTime startTime = ZonedDateTime.parse("2023-01-01T00:00:00Z");
+
+    /**
+     * The {@link BenchmarkAgent}s in the simulation.
+     *
+     * @since v0.0.2
+     */
+    private BenchmarkAgent[] agents;
+
+    /**
+     * The {@link Message}s to schedule.
+     *
+     * @since v0.0.2
+     */
+    private Message[] messages;
+
+    /**
+     * The time that each {@link Message} is scheduled for.
+     *
+     * @since v0.0.2
+     */
+    private ZonedDateTime[] times;
+
+    /**
+     * The {@link CoreSimulationManager} for the current invocation.
+     *
+     * @since v0.0.2
+     */
+    private CoreSimulationManager simulationManager;
+
+    /**
+     * Create the {@link BenchmarkAgent}s, {@link Message}s and times.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        var random = new SplittableRandom(42);
+        agents = new BenchmarkAgent[agentCount];
+        messages = new Message[agentCount * messagesPerAgent];
+        times = new ZonedDateTime[messages.length];
+        for (var i = 0; i < agentCount; i++) {
+            agents[i] = new BenchmarkAgent();
+            for (var j = 0; j < messagesPerAgent; j++) {
+                var index = i * messagesPerAgent + j;
+                messages[index] = new RegularEventMessage(agents[i], null);
+                times[index] = startTime.plusSeconds(random.nextInt(86_400));
+            }
+        }
+    }
+
+    /**
+     * Create a new {@link CoreSimulationManager} with the {@link BenchmarkAgent}s added.
+     * Each invocation schedules at least a thousand {@link Message}s, so the cost of the setup is not significant.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        for (var agent : agents) {
+            simulationManager.addAgent(agent);
+        }
+    }
+
+    /**
+     * Schedule every {@link Message}.
+     *
+     * @return The {@link CoreSimulationManager}, so that the scheduling is not eliminated.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull CoreSimulationManager schedule() {
+        for (var i = 0; i < messages.length; i++) {
+            simulationManager.scheduleMessage(messages[i], times[i]);
+        }
+        return simulationManager;
+    }
+
+    /**
+     * Schedule every {@link Message}, and then run the simulation to send them.
+     *
+     * @return The {@link CoreSimulationManager}, so that the run is not eliminated.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull CoreSimulationManager scheduleAndRun() {
+        schedule();
+        simulationManager.run();
+        return simulationManager;
+    }
+}
@@ -0,0 +1,114 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the fan-out of
+ * {@link DirectedWeightedSocialNetwork#sendSocialMessages(dev.r0bert.reagent.core.simulationmanager.SimulationManager,
+ * SocialMessageSpecification)}.
+ * <p>
+ * The network has {@link #SENDER_COUNT} senders, each with {@link #degree} outgoing edges to random
+ * {@link BenchmarkAgent}s. Each operation sends one {@link SocialMessageSpecification} from every sender, and the
+ * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s are consumed by a
+ * {@link BlackholeSimulationManager}, so the result is the cost of walking the edges and creating the
+ * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(DirectedWeightedSocialNetworkBenchmark.SENDER_COUNT)
+public class DirectedWeightedSocialNetworkBenchmark {
+    /**
+     * The number of {@link BenchmarkAgent}s that send {@link SocialMessageSpecification}s.
+     *
+     * @since v0.0.2
+     */
+    static final int SENDER_COUNT = 100;
+
+    /**
+     * The number of {@link BenchmarkAgent}s that are sent to.
+     *
+     * @since v0.0.2
+     */
+    private static final int TARGET_COUNT = 10_000;
+
+    /**
+     * The number of outgoing edges of each sender.
+     *
+     * @since v0.0.2
+     */
+    @Param({"10", "100", "1000"})
+    public int degree;
+
+    /**
+     * The {@link DirectedWeightedSocialNetwork}.
+     *
+     * @since v0.0.2
+     */
+    private DirectedWeightedSocialNetwork network;
+
+    /**
+     * The {@link SocialMessageSpecification} of each sender.
+     *
+     * @since v0.0.2
+     */
+    private SocialMessageSpecification[] specifications;
+
+    /**
+     * Build the {@link DirectedWeightedSocialNetwork}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        network = new DirectedWeightedSocialNetwork();
+        var targets = new BenchmarkAgent[TARGET_COUNT];
+        for (var i = 0; i < targets.length; i++) {
+            targets[i] = new BenchmarkAgent();
+            network.addAgent(targets[i]);
+        }
+        specifications = new SocialMessageSpecification[SENDER_COUNT];
+        for (var i = 0; i < SENDER_COUNT; i++) {
+            var sender = new BenchmarkAgent();
+            network.addAgent(sender);
+            var start = random.nextInt(TARGET_COUNT);
+            for (var j = 0; j < degree; j++) {
+                network.addEdge(sender, targets[(start + j) % TARGET_COUNT], random.nextDouble());
+            }
+            specifications[i] = new SocialMessageSpecification(null, sender.getUUID(),
+                    new RegularEventMessage(sender, null));
+        }
+    }
+
+    /**
+     * Send a {@link SocialMessageSpecification} from every sender.
+     *
+     * @param blackhole The {@link Blackhole} that consumes the
+     *                  {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public void sendSocialMessages(final @NotNull Blackhole blackhole) {
+        var startTime = ZonedDateTime.parse("2023-01-01T00:00:00Z");
+        var simulationManager = new BlackholeSimulationManager(startTime, startTime.plusDays(1), blackhole);
+        for (var specification : specifications) {
+            network.sendSocialMessages(simulationManager, specification);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.CalendarEventQueue;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.EventQueue;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.TreeMapEventQueue;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link EventQueue} implementations.
+ * <p>
+ * {@link #hold(Blackhole)} is the classic "hold" model: the queue is kept at a steady size while the earliest
+ * {@link Message} is repeatedly removed and a new one is added at a random tick in the future.
+ * {@link #fillAndDrain(Blackhole)} adds a burst of {@link Message}s over a fixed number of distinct ticks and then
+ * drains the queue in order, like a run of {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager}.
+ * </p>
+ * <p>
+ * The {@code baseline} queue type is a {@link ZonedDateTimeEventQueue}, the structure that
+ * {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager} used in v0.0.1.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventQueueBenchmark {
+    /**
+     * The {@link EventQueue} implementation to benchmark.
+     *
+     * @since v0.0.2
+     */
+    @Param({"baseline", "calendar", "treemap"})
+    public String queueType;
+
+    /**
+     * The number of {@link Message}s held in the queue.
+     *
+     * @since v0.0.2
+     */
+    @Param({"1000", "100000"})
+    public int queueSize;
+
+    /**
+     * The number of {@link Message}s that share each tick in {@link #fillAndDrain(Blackhole)}.
+     *
+     * @since v0.0.2
+     */
+    @Param({"1", "100"})
+    public int messagesPerTick;
+
+    /**
+     * The {@link EventQueue} for {@link #hold(Blackhole)}.
+     *
+     * @since v0.0.2
+     */
+    private EventQueue holdQueue;
+
+    /**
+     * The source of random ticks.
+     *
+     * @since v0.0.2
+     */
+    private SplittableRandom random;
+
+    /**
+     * The {@link Message} that is added to the queue.
+     *
+     * @since v0.0.2
+     */
+    private final Message message = new BenchmarkMessage();
+
+    /**
+     * Create a new, empty {@link EventQueue} of the type being benchmarked.
+     *
+     * @return The {@link EventQueue}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull EventQueue newQueue() {
+        return switch (queueType) {
+            case "baseline" -> new ZonedDateTimeEventQueue();
+            case "calendar" -> new CalendarEventQueue();
+            case "treemap" -> new TreeMapEventQueue();
+            default -> throw new IllegalArgumentException("Unknown queue type " + queueType);
+        };
+    }
+
+    /**
+     * Fill the queue for {@link #hold(Blackhole)}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        holdQueue = newQueue();
+        for (var i = 0; i < queueSize; i++) {
+            holdQueue.add(random.nextLong(1_000_000_000L), message);
+        }
+    }
+
+    /**
+     * Remove the earliest {@link Message} and add a new one in the future.
+     *
+     * @param blackhole The {@link Blackhole} to consume the removed {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public void hold(final @NotNull Blackhole blackhole) {
+        var tick = holdQueue.peekTick();
+        blackhole.consume(holdQueue.poll(tick));
+        holdQueue.add(tick + random.nextLong(1_000_000_000L), message);
+    }
+
+    /**
+     * Add {@link #queueSize} {@link Message}s and then remove them all in order.
+     *
+     * @param blackhole The {@link Blackhole} to consume the removed {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public void fillAndDrain(final @NotNull Blackhole blackhole) {
+        var queue = newQueue();
+        var ticks = Math.max(1, queueSize / messagesPerTick);
+        for (var i = 0; i < queueSize; i++) {
+            queue.add(1_000_000L * random.nextInt(ticks), message);
+        }
+        while (!queue.isEmpty()) {
+            var tick = queue.peekTick();
+            Message polled;
+            while ((polled = queue.poll(tick)) != null) {
+                blackhole.consume(polled);
+            }
+        }
+    }
+
+    /**
+     * A {@link Message} with no behaviour.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class BenchmarkMessage implements Message {
+        /**
+         * The {@link UUID} of the message, sender and destination.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull UUID uuid = UUID.randomUUID();
+
+        @Override
+        public @NotNull UUID getDestination() {
+            return uuid;
+        }
+
+        @Override
+        public @NotNull UUID getSender() {
+            return uuid;
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
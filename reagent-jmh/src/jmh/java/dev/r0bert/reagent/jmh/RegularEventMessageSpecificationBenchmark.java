@@ -0,0 +1,140 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessageSpecification;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of scheduling {@link dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage}s with
+ * {@link RegularEventMessageSpecification#createAndScheduleRegularEventMessages}.
+ * <p>
+ * Each {@link BenchmarkAgent} has a {@link RegularEventMessageSpecification} that is scheduled every
+ * {@link #intervalMinutes} minutes for a day. {@link #schedule()} measures only scheduling, and
+ * {@link #scheduleAndRun()} also runs the simulation, which includes creating each occurrence.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegularEventMessageSpecificationBenchmark {
+    /**
+     * The number of {@link BenchmarkAgent}s in the simulation.
+     *
+     * @since v0.0.2
+     */
+    @Param({"1000", "10000"})
+    public int agentCount;
+
+    /**
+     * The number of minutes between each occurrence.
+     *
+     * @since v0.0.2
+     */
+    @Param({"60", "5"})
+    public int intervalMinutes;
+
+    /**
+     * The start time of the simulation.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ZonedDateTime startTime = ZonedDateTime.parse("2023-01-01T00:00:00Z");
+
+    /**
+     * The {@link BenchmarkAgent}s in the simulation.
+     *
+     * @since v0.0.2
+     */
+    private BenchmarkAgent[] agents;
+
+    /**
+     * The {@link RegularEventMessageSpecification} of each {@link BenchmarkAgent}.
+     *
+     * @since v0.0.2
+     */
+    private RegularEventMessageSpecification[] specifications;
+
+    /**
+     * The interval between each occurrence.
+     *
+     * @since v0.0.2
+     */
+    private Duration interval;
+
+    /**
+     * The {@link CoreSimulationManager} for the current invocation.
+     *
+     * @since v0.0.2
+     */
+    private CoreSimulationManager simulationManager;
+
+    /**
+     * Create the {@link BenchmarkAgent}s and {@link RegularEventMessageSpecification}s.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        interval = Duration.ofMinutes(intervalMinutes);
+        agents = new BenchmarkAgent[agentCount];
+        specifications = new RegularEventMessageSpecification[agentCount];
+        for (var i = 0; i < agentCount; i++) {
+            agents[i] = new BenchmarkAgent();
+            specifications[i] = new RegularEventMessageSpecification(agents[i], null);
+        }
+    }
+
+    /**
+     * Create a new {@link CoreSimulationManager} with the {@link BenchmarkAgent}s added.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        for (var agent : agents) {
+            simulationManager.addAgent(agent);
+        }
+    }
+
+    /**
+     * Schedule the {@link RegularEventMessageSpecification} of every {@link BenchmarkAgent}.
+     *
+     * @return The {@link CoreSimulationManager}, so that the scheduling is not eliminated.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull CoreSimulationManager schedule() {
+        var endTime = startTime.plusDays(1);
+        for (var specification : specifications) {
+            specification.createAndScheduleRegularEventMessages(simulationManager, interval, startTime, endTime);
+        }
+        return simulationManager;
+    }
+
+    /**
+     * Schedule the {@link RegularEventMessageSpecification} of every {@link BenchmarkAgent}, and then run the
+     * simulation.
+     *
+     * @return The {@link CoreSimulationManager}, so that the run is not eliminated.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull CoreSimulationManager scheduleAndRun() {
+        schedule();
+        simulationManager.run();
+        return simulationManager;
+    }
+}
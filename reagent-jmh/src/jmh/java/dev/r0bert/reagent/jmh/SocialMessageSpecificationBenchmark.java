@@ -0,0 +1,142 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessage;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the methods that convert a {@link SocialMessageSpecification} to {@link SocialMessage}s.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SocialMessageSpecificationBenchmark {
+    /**
+     * The number of destinations of each conversion.
+     *
+     * @since v0.0.2
+     */
+    @Param({"10", "1000"})
+    public int destinationCount;
+
+    /**
+     * The {@link SocialMessageSpecification} to convert.
+     *
+     * @since v0.0.2
+     */
+    private SocialMessageSpecification specification;
+
+    /**
+     * The destinations, as {@link UUID}s.
+     *
+     * @since v0.0.2
+     */
+    private List<UUID> uuids;
+
+    /**
+     * The destinations, as {@link Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private List<Agent> agents;
+
+    /**
+     * The destinations, as {@link SocialMessageSpecification.UUIDWeightPair}s.
+     *
+     * @since v0.0.2
+     */
+    private List<SocialMessageSpecification.UUIDWeightPair> uuidWeightPairs;
+
+    /**
+     * The destinations, as {@link SocialMessageSpecification.AgentWeightPair}s.
+     *
+     * @since v0.0.2
+     */
+    private List<SocialMessageSpecification.AgentWeightPair> agentWeightPairs;
+
+    /**
+     * Create the {@link SocialMessageSpecification} and destinations.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        var sender = new BenchmarkAgent();
+        specification = new SocialMessageSpecification(null, sender.getUUID(), new RegularEventMessage(sender, null));
+        uuids = new ArrayList<>(destinationCount);
+        agents = new ArrayList<>(destinationCount);
+        uuidWeightPairs = new ArrayList<>(destinationCount);
+        agentWeightPairs = new ArrayList<>(destinationCount);
+        for (var i = 0; i < destinationCount; i++) {
+            var agent = new BenchmarkAgent();
+            var weight = random.nextDouble();
+            uuids.add(agent.getUUID());
+            agents.add(agent);
+            uuidWeightPairs.add(new SocialMessageSpecification.UUIDWeightPair(agent.getUUID(), weight));
+            agentWeightPairs.add(new SocialMessageSpecification.AgentWeightPair(agent, weight));
+        }
+    }
+
+    /**
+     * Convert to {@link SocialMessage}s from {@link UUID}s.
+     *
+     * @return The {@link SocialMessage}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull Collection<SocialMessage> fromUUIDs() {
+        return specification.toSocialMessagesFromUUIDs(uuids);
+    }
+
+    /**
+     * Convert to {@link SocialMessage}s from {@link Agent}s.
+     *
+     * @return The {@link SocialMessage}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull Collection<SocialMessage> fromAgents() {
+        return specification.toSocialMessagesFromAgents(agents);
+    }
+
+    /**
+     * Convert to {@link SocialMessage}s from {@link UUID}s and weights.
+     *
+     * @return The {@link SocialMessage}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull Collection<SocialMessage> fromUUIDsAndWeights() {
+        return specification.toSocialMessagesFromUUIDsAndWeights(uuidWeightPairs);
+    }
+
+    /**
+     * Convert to {@link SocialMessage}s from {@link Agent}s and weights.
+     *
+     * @return The {@link SocialMessage}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Benchmark
+    public @NotNull Collection<SocialMessage> fromAgentsAndWeights() {
+        return specification.toSocialMessagesFromAgentsAndWeights(agentWeightPairs);
+    }
+}
@@ -0,0 +1,132 @@
+package dev.r0bert.reagent.jmh;
+
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.EventQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An {@link EventQueue} backed by a {@link TreeMap} keyed by {@link ZonedDateTime} with a {@link LinkedList} per time.
+ * <p>
+ * This is the structure that {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager} used in v0.0.1,
+ * and is used by {@link EventQueueBenchmark} as the baseline. Each tick is converted to a {@link ZonedDateTime} a
+ * number of nanoseconds after {@link #ORIGIN}, as the original {@link ZonedDateTime} arithmetic did.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class ZonedDateTimeEventQueue implements EventQueue {
+    /**
+     * The time of tick zero.
+     *
+     * @since v0.0.2
+     */
+    private static final @NotNull ZonedDateTime ORIGIN = ZonedDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * The {@link Message}s waiting to be sent, keyed by time.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull SortedMap<ZonedDateTime, Queue<Message>> messageQueue = new TreeMap<>();
+
+    /**
+     * The number of {@link Message}s waiting to be sent.
+     *
+     * @since v0.0.2
+     */
+    private long size = 0;
+
+    /**
+     * Convert a tick to a {@link ZonedDateTime}.
+     *
+     * @param tick The tick.
+     * @return The {@link ZonedDateTime}, {@code tick} nanoseconds after {@link #ORIGIN}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull ZonedDateTime toTime(final long tick) {
+        return ORIGIN.plusNanos(tick);
+    }
+
+    /**
+     * Convert a {@link ZonedDateTime} to a tick.
+     *
+     * @param time The {@link ZonedDateTime}.
+     * @return The number of nanoseconds between {@link #ORIGIN} and {@code time}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long toTick(final @NotNull ZonedDateTime time) {
+        return Duration.between(ORIGIN, time).toNanos();
+    }
+
+    @Override
+    public void add(final long tick, final @NotNull Message message) {
+        var time = toTime(tick);
+        messageQueue.putIfAbsent(time, new LinkedList<>());
+        messageQueue.get(time).add(message);
+        size++;
+    }
+
+    @Override
+    public @Nullable Message poll(final long tick) {
+        var time = toTime(tick);
+        if (!messageQueue.containsKey(time)) {
+            return null;
+        }
+
+        var queue = messageQueue.get(time);
+        var message = queue.remove();
+        size--;
+        if (queue.isEmpty()) {
+            messageQueue.remove(time);
+        }
+        return message;
+    }
+
+    @Override
+    public long peekTick() {
+        return toTick(messageQueue.firstKey());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return messageQueue.isEmpty();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int distinctTickCount() {
+        return messageQueue.size();
+    }
+
+    @Override
+    public void forEach(final @NotNull EventConsumer consumer) {
+        messageQueue.forEach((time, queue) -> {
+            var tick = toTick(time);
+            queue.forEach(message -> consumer.accept(tick, message));
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ZonedDateTimeEventQueue{" +
+                "size=" + size +
+                ", distinctTickCount=" + messageQueue.size() +
+                '}';
+    }
+}
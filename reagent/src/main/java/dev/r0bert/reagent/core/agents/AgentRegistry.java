@@ -0,0 +1,250 @@
+package dev.r0bert.reagent.core.agents;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An {@link AgentRegistry} interns the {@link UUID} of each {@link Agent} to a dense {@code int} handle.
+ * <p>
+ * Handles are assigned in the order that {@link Agent}s are registered, starting from zero, and the {@link Agent}s
+ * are held in an array indexed by handle. {@link UUID}s are looked up in an open-addressing table keyed on the two
+ * halves of the {@link UUID}, so no {@link Integer}s or map entries are allocated per {@link Agent}. Registering is
+ * not thread-safe, but looking up is, as long as no {@link Agent} is being registered at the same time.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class AgentRegistry {
+    /**
+     * The handle returned for a {@link UUID} that is not registered.
+     *
+     * @since v0.0.2
+     */
+    public static final int NO_HANDLE = -1;
+
+    /**
+     * The {@link Agent}s, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull Agent[] agents = new Agent[16];
+
+    /**
+     * The {@link UUID}s of the {@link Agent}s, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull UUID[] uuids = new UUID[16];
+
+    /**
+     * The number of registered {@link Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private int size = 0;
+
+    /**
+     * The slots of the lookup table, each holding a handle plus one, or zero if the slot is empty.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull int[] slots = new int[32];
+
+    /**
+     * The handle of the {@link Agent} with a null {@link UUID}, if any.
+     *
+     * @since v0.0.2
+     */
+    private int nullHandle = NO_HANDLE;
+
+    /**
+     * Register an {@link Agent}.
+     * If an {@link Agent} with the same {@link UUID} is already registered, it is replaced and keeps its handle.
+     *
+     * @param agent The {@link Agent} to register.
+     * @return The handle of the {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int register(final @NotNull Agent agent) {
+        var uuid = agent.getUUID();
+        var existing = getHandle(uuid);
+        if (existing != NO_HANDLE) {
+            agents[existing] = agent;
+            return existing;
+        }
+
+        if (size == agents.length) {
+            agents = Arrays.copyOf(agents, size * 2);
+            uuids = Arrays.copyOf(uuids, size * 2);
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        var handle = size++;
+        agents[handle] = agent;
+        uuids[handle] = uuid;
+        if (uuid == null) {
+            nullHandle = handle;
+        } else {
+            insert(uuid, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Get the handle of an {@link Agent}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The handle, or {@link #NO_HANDLE} if there is no {@link Agent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getHandle(final @Nullable UUID uuid) {
+        if (uuid == null) {
+            return nullHandle;
+        }
+        var mask = slots.length - 1;
+        for (var slot = slotOf(uuid, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+            var handle = slots[slot] - 1;
+            if (uuid.equals(uuids[handle])) {
+                return handle;
+            }
+        }
+        return NO_HANDLE;
+    }
+
+    /**
+     * Get an {@link Agent} by handle.
+     *
+     * @param handle The handle of the {@link Agent}.
+     * @return The {@link Agent}.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the handle.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Agent getAgent(final int handle) {
+        Objects.checkIndex(handle, size);
+        return agents[handle];
+    }
+
+    /**
+     * Get an {@link Agent} by {@link UUID}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The {@link Agent}, or null if there is no {@link Agent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Agent getAgent(final @Nullable UUID uuid) {
+        var handle = getHandle(uuid);
+        return handle == NO_HANDLE ? null : agents[handle];
+    }
+
+    /**
+     * Get the {@link UUID} of an {@link Agent} by handle.
+     *
+     * @param handle The handle of the {@link Agent}.
+     * @return The {@link UUID}.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the handle.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public UUID getUUID(final int handle) {
+        Objects.checkIndex(handle, size);
+        return uuids[handle];
+    }
+
+    /**
+     * Get the {@link Agent} that a {@link Message} is sent to.
+     * If the {@link Message} has a {@link Message#getDestinationHandle()} for the {@link Agent} in this
+     * {@link AgentRegistry}, it is looked up by handle; otherwise it is looked up by {@link UUID}. The handle is
+     * checked by comparing the {@link UUID}s, which is only a reference comparison when the {@link Message} holds the
+     * same {@link UUID} instance that the {@link Agent} was registered with.
+     *
+     * @param message The {@link Message}.
+     * @return The {@link Agent}, or null if there is no {@link Agent} with the destination of the {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Agent getDestination(final @NotNull Message message) {
+        var handle = message.getDestinationHandle();
+        var destination = message.getDestination();
+        if (handle >= 0 && handle < size
+                && (uuids[handle] == destination || Objects.equals(uuids[handle], destination))) {
+            return agents[handle];
+        }
+        return getAgent(destination);
+    }
+
+    /**
+     * Get the number of registered {@link Agent}s.
+     *
+     * @return The number of registered {@link Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the first slot to probe for a {@link UUID}.
+     *
+     * @param uuid The {@link UUID}.
+     * @param mask The number of slots minus one.
+     * @return The slot.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static int slotOf(final @NotNull UUID uuid, final int mask) {
+        var hash = (uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * Insert a {@link UUID} into the lookup table.
+     *
+     * @param uuid   The {@link UUID}.
+     * @param handle The handle of the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void insert(final @NotNull UUID uuid, final int handle) {
+        var mask = slots.length - 1;
+        var slot = slotOf(uuid, mask);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = handle + 1;
+    }
+
+    /**
+     * Rebuild the lookup table with more slots.
+     *
+     * @param slotCount The new number of slots, a power of two.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void rehash(final int slotCount) {
+        slots = new int[slotCount];
+        for (var handle = 0; handle < size; handle++) {
+            if (uuids[handle] != null) {
+                insert(uuids[handle], handle);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AgentRegistry{" +
+                "size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package dev.r0bert.reagent.core.agents;
+
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * A {@link CheckpointableAgent} is an {@link Agent} whose state is saved in a checkpoint.
+ * <p>
+ * When a simulation is restored, a {@link CheckpointableAgent} with the same {@link java.util.UUID} must already have
+ * been added to it, and its state is then read back into it. {@link Agent}s whose class has a
+ * {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} are instead recreated by the codec.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface CheckpointableAgent extends Agent {
+    /**
+     * Write the state of this {@link CheckpointableAgent}.
+     *
+     * @param output The {@link CheckpointOutput} to write to.
+     * @throws IOException If the state could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void writeState(final @NotNull CheckpointOutput output) throws IOException;
+
+    /**
+     * Read the state of this {@link CheckpointableAgent}, as written by {@link #writeState(CheckpointOutput)}.
+     *
+     * @param input The {@link CheckpointInput} to read from.
+     * @throws IOException If the state could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void readState(final @NotNull CheckpointInput input) throws IOException;
+}
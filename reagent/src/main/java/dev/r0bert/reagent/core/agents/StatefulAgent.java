@@ -0,0 +1,35 @@
+package dev.r0bert.reagent.core.agents;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link StatefulAgent} is an {@link Agent} whose state can be saved and restored.
+ * <p>
+ * Optimistic simulation managers save the state of a {@link StatefulAgent} before each message it handles, and
+ * restore it if that message has to be rolled back. The saved state must not be changed by later messages, so it
+ * should be immutable or a copy.
+ * </p>
+ *
+ * @param <S> The type of the saved state.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface StatefulAgent<S> extends Agent {
+    /**
+     * Save the state of this {@link StatefulAgent}.
+     *
+     * @return The saved state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull S saveState();
+
+    /**
+     * Restore the state of this {@link StatefulAgent} to a state returned by {@link #saveState()}.
+     *
+     * @param state The saved state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void restoreState(final @NotNull S state);
+}
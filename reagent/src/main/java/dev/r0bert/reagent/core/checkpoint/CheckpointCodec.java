@@ -0,0 +1,37 @@
+package dev.r0bert.reagent.core.checkpoint;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * A {@link CheckpointCodec} writes objects of a class to a checkpoint, and reads them back.
+ *
+ * @param <T> The class of the objects.
+ * @author Robert Greener
+ * @see CheckpointCodecs
+ * @since v0.0.2
+ */
+public interface CheckpointCodec<T> {
+    /**
+     * Write an object.
+     *
+     * @param value  The object.
+     * @param output The {@link CheckpointOutput} to write to.
+     * @throws IOException If the object could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void write(final @NotNull T value, final @NotNull CheckpointOutput output) throws IOException;
+
+    /**
+     * Read an object that was written by {@link #write(Object, CheckpointOutput)}.
+     *
+     * @param input The {@link CheckpointInput} to read from.
+     * @return The object.
+     * @throws IOException If the object could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull T read(final @NotNull CheckpointInput input) throws IOException;
+}
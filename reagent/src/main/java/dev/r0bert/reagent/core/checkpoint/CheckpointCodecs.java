@@ -0,0 +1,229 @@
+package dev.r0bert.reagent.core.checkpoint;
+
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessageSpecification;
+import dev.r0bert.reagent.core.messages.wakeup.WakeUpMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A {@link CheckpointCodecs} is a registry of the {@link CheckpointCodec} for each class of object that can be written
+ * to a checkpoint.
+ * <p>
+ * Codecs are looked up by the exact class of an object. Each object is written with the index of its class, and the
+ * names of the classes are written once at the start of the checkpoint, so a checkpoint can be read with a
+ * {@link CheckpointCodecs} that has the same classes registered in any order.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class CheckpointCodecs {
+    /**
+     * The {@link Registration}s, in the order that they were registered.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull List<Registration<?>> registrations = new ArrayList<>();
+
+    /**
+     * The {@link Registration} of each class.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<Class<?>, Registration<?>> byClass = new HashMap<>();
+
+    /**
+     * The {@link Registration} of each class, by name.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<String, Registration<?>> byName = new HashMap<>();
+
+    /**
+     * Create a new {@link CheckpointCodecs} with the {@link CheckpointCodec}s for the {@link RegularEventMessage},
+     * {@link WakeUpMessage} and {@link RegularEventMessageSpecification} registered.
+     *
+     * @return The new {@link CheckpointCodecs}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull CheckpointCodecs withDefaults() {
+        return new CheckpointCodecs()
+                .register(RegularEventMessage.class, new RegularEventMessageCodec())
+                .register(WakeUpMessage.class, new WakeUpMessageCodec())
+                .register(RegularEventMessageSpecification.class, new RegularEventMessageSpecificationCodec());
+    }
+
+    /**
+     * Register the {@link CheckpointCodec} for a class.
+     *
+     * @param type  The class.
+     * @param codec The {@link CheckpointCodec}.
+     * @param <T>   The class.
+     * @return This {@link CheckpointCodecs}.
+     * @throws IllegalArgumentException If a {@link CheckpointCodec} is already registered for the class.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public <T> @NotNull CheckpointCodecs register(final @NotNull Class<T> type, final @NotNull CheckpointCodec<T> codec) {
+        if (byClass.containsKey(type)) {
+            throw new IllegalArgumentException(String.format("A codec is already registered for %s", type.getName()));
+        }
+        var registration = new Registration<>(registrations.size(), type, codec);
+        registrations.add(registration);
+        byClass.put(type, registration);
+        byName.put(type.getName(), registration);
+        return this;
+    }
+
+    /**
+     * Check whether a {@link CheckpointCodec} is registered for a class.
+     *
+     * @param type The class.
+     * @return True if a {@link CheckpointCodec} is registered for the class.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean isRegistered(final @NotNull Class<?> type) {
+        return byClass.containsKey(type);
+    }
+
+    /**
+     * Get the {@link Registration} of a class.
+     *
+     * @param type The class.
+     * @return The {@link Registration}, or null if the class is not registered.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Nullable Registration<?> get(final @NotNull Class<?> type) {
+        return byClass.get(type);
+    }
+
+    /**
+     * Get the {@link Registration} of a class by name.
+     *
+     * @param name The name of the class.
+     * @return The {@link Registration}, or null if the class is not registered.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Nullable Registration<?> get(final @NotNull String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Get the {@link Registration}s, in the order that they were registered.
+     *
+     * @return The {@link Registration}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull List<Registration<?>> getRegistrations() {
+        return Collections.unmodifiableList(registrations);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointCodecs{" +
+                "classes=" + byName.keySet() +
+                '}';
+    }
+
+    /**
+     * The registration of a {@link CheckpointCodec} for a class.
+     *
+     * @param index The index of the class in the checkpoint.
+     * @param type  The class.
+     * @param codec The {@link CheckpointCodec}.
+     * @param <T>   The class.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    record Registration<T>(int index, @NotNull Class<T> type, @NotNull CheckpointCodec<T> codec) {
+        /**
+         * Write an object of the class.
+         *
+         * @param value  The object, which must be of the class.
+         * @param output The {@link CheckpointOutput} to write to.
+         * @throws IOException If the object could not be written.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        void write(final @NotNull Object value, final @NotNull CheckpointOutput output) throws IOException {
+            codec.write(type.cast(value), output);
+        }
+    }
+
+    /**
+     * The {@link CheckpointCodec} for a {@link RegularEventMessage}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class RegularEventMessageCodec implements CheckpointCodec<RegularEventMessage> {
+        @Override
+        public void write(final @NotNull RegularEventMessage value, final @NotNull CheckpointOutput output)
+                throws IOException {
+            output.writeUUID(value.getDestination());
+            output.writeUUID(value.getUUID());
+        }
+
+        @Override
+        public @NotNull RegularEventMessage read(final @NotNull CheckpointInput input) throws IOException {
+            var agent = input.readUUID();
+            return new RegularEventMessage(agent, input.readUUID());
+        }
+    }
+
+    /**
+     * The {@link CheckpointCodec} for a {@link WakeUpMessage}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class WakeUpMessageCodec implements CheckpointCodec<WakeUpMessage> {
+        @Override
+        public void write(final @NotNull WakeUpMessage value, final @NotNull CheckpointOutput output)
+                throws IOException {
+            output.writeUUID(value.getDestination());
+            output.writeUUID(value.getUUID());
+            output.writeTime(value.getWakeTime());
+        }
+
+        @Override
+        public @NotNull WakeUpMessage read(final @NotNull CheckpointInput input) throws IOException {
+            var agent = input.readUUID();
+            var uuid = input.readUUID();
+            return new WakeUpMessage(agent, uuid, input.readTime());
+        }
+    }
+
+    /**
+     * The {@link CheckpointCodec} for a {@link RegularEventMessageSpecification}.
+     * The {@link dev.r0bert.reagent.core.agents.Agent} of the specification must be in the simulation being restored.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class RegularEventMessageSpecificationCodec
+            implements CheckpointCodec<RegularEventMessageSpecification> {
+        @Override
+        public void write(final @NotNull RegularEventMessageSpecification value,
+                          final @NotNull CheckpointOutput output) throws IOException {
+            output.writeUUID(value.getAgent().getUUID());
+            output.writeUUID(value.getUUID());
+        }
+
+        @Override
+        public @NotNull RegularEventMessageSpecification read(final @NotNull CheckpointInput input)
+                throws IOException {
+            var agent = input.getAgent(input.readUUID());
+            return new RegularEventMessageSpecification(agent, input.readUUID());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package dev.r0bert.reagent.core.checkpoint;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A {@link CheckpointInput} reads the primitive values and objects of a checkpoint that was written by a
+ * {@link CheckpointOutput}.
+ * <p>
+ * The file is read from a {@link FileChannel} into a direct {@link ByteBuffer}. The names of the classes in the
+ * checkpoint are matched to the classes registered in the {@link CheckpointCodecs} when the {@link CheckpointInput}
+ * is opened, so a class only has to be registered if an object of it is read.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class CheckpointInput implements Closeable {
+    /**
+     * The {@link FileChannel} that the checkpoint is read from.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * The buffer of bytes that have been read from the file but not yet used.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(CheckpointOutput.BUFFER_SIZE);
+
+    /**
+     * The {@link CheckpointCodecs.Registration} of each class in the checkpoint, by index, or null if the class is
+     * not registered.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull CheckpointCodecs.Registration<?>[] registrations;
+
+    /**
+     * The names of the classes in the checkpoint, by index.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull String[] classNames;
+
+    /**
+     * The function that finds an {@link Agent} in the simulation being restored by {@link UUID}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Function<UUID, Agent> agents;
+
+    /**
+     * Create a new {@link CheckpointInput}.
+     *
+     * @param path   The {@link Path} of the file to read from.
+     * @param codecs The {@link CheckpointCodecs} that objects are read with.
+     * @param agents The function that finds an {@link Agent} in the simulation being restored by {@link UUID},
+     *               returning null if there is none.
+     * @throws IOException If the file could not be opened or read from, or is not a checkpoint.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CheckpointInput(final @NotNull Path path, final @NotNull CheckpointCodecs codecs,
+                           final @NotNull Function<UUID, Agent> agents) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.agents = agents;
+        buffer.limit(0);
+
+        try {
+            if (readLong() != CheckpointOutput.MAGIC) {
+                throw new IOException("The file is not a checkpoint");
+            }
+            var version = readInt();
+            if (version != CheckpointOutput.VERSION) {
+                throw new IOException(String.format("The checkpoint version %d is not supported", version));
+            }
+            var count = readInt();
+            if (count < 0) {
+                throw new IOException("The checkpoint is corrupt");
+            }
+            this.registrations = new CheckpointCodecs.Registration<?>[count];
+            this.classNames = new String[count];
+            for (var i = 0; i < count; i++) {
+                classNames[i] = readString();
+                registrations[i] = codecs.get(classNames[i]);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Make sure that there is a number of bytes in the buffer, reading them from the file if there are not.
+     *
+     * @param bytes The number of bytes, no more than {@link CheckpointOutput#BUFFER_SIZE}.
+     * @throws EOFException If the file ends first.
+     * @throws IOException  If the file could not be read from.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void ensureAvailable(final int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The checkpoint ended unexpectedly");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Read a byte.
+     *
+     * @return The byte.
+     * @throws IOException If the byte could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public byte readByte() throws IOException {
+        ensureAvailable(Byte.BYTES);
+        return buffer.get();
+    }
+
+    /**
+     * Read a boolean.
+     *
+     * @return The boolean.
+     * @throws IOException If the boolean could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    /**
+     * Read an int.
+     *
+     * @return The int.
+     * @throws IOException If the int could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int readInt() throws IOException {
+        ensureAvailable(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    /**
+     * Read a long.
+     *
+     * @return The long.
+     * @throws IOException If the long could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long readLong() throws IOException {
+        ensureAvailable(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    /**
+     * Read a double.
+     *
+     * @return The double.
+     * @throws IOException If the double could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double readDouble() throws IOException {
+        ensureAvailable(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Read a {@link UUID}.
+     *
+     * @return The {@link UUID}.
+     * @throws IOException If the {@link UUID} could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull UUID readUUID() throws IOException {
+        ensureAvailable(2 * Long.BYTES);
+        var mostSignificantBits = buffer.getLong();
+        return new UUID(mostSignificantBits, buffer.getLong());
+    }
+
+    /**
+     * Read a {@link String}.
+     *
+     * @return The {@link String}.
+     * @throws IOException If the {@link String} could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull String readString() throws IOException {
+        var length = readInt();
+        if (length < 0) {
+            throw new IOException("The checkpoint is corrupt");
+        }
+        var bytes = new byte[length];
+        var offset = 0;
+        while (offset < length) {
+            ensureAvailable(1);
+            var chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a {@link ZonedDateTime}.
+     *
+     * @return The {@link ZonedDateTime}.
+     * @throws IOException If the {@link ZonedDateTime} could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull ZonedDateTime readTime() throws IOException {
+        var epochSecond = readLong();
+        var nano = readInt();
+        var zone = ZoneId.of(readString());
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), zone);
+    }
+
+    /**
+     * Read an object with the {@link CheckpointCodec} that is registered for its class.
+     *
+     * @return The object.
+     * @throws IOException              If the object could not be read.
+     * @throws IllegalArgumentException If no {@link CheckpointCodec} is registered for the class of the object.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Object readObject() throws IOException {
+        var index = readInt();
+        if (index < 0 || index >= registrations.length) {
+            throw new IOException("The checkpoint is corrupt");
+        }
+        var registration = registrations[index];
+        if (registration == null) {
+            throw new IllegalArgumentException(String.format("No codec is registered for %s", classNames[index]));
+        }
+        return registration.codec().read(this);
+    }
+
+    /**
+     * Get an {@link Agent} in the simulation being restored.
+     * This is used by {@link CheckpointCodec}s for objects that refer to an {@link Agent}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The {@link Agent}.
+     * @throws IllegalStateException If there is no {@link Agent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Agent getAgent(final @NotNull UUID uuid) {
+        var agent = agents.apply(uuid);
+        if (agent == null) {
+            throw new IllegalStateException(String.format("The agent %s is not in the simulation", uuid));
+        }
+        return agent;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointInput{" +
+                "classes=" + String.join(", ", classNames) +
+                '}';
+    }
+}
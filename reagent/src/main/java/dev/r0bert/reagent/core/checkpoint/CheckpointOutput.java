@@ -0,0 +1,283 @@
+package dev.r0bert.reagent.core.checkpoint;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * A {@link CheckpointOutput} writes the primitive values and objects of a checkpoint to a file.
+ * <p>
+ * Values are written in big-endian order into a direct {@link ByteBuffer}, which is written to a {@link FileChannel}
+ * whenever it fills, so no stream or object is allocated per value. The names of the classes registered in the
+ * {@link CheckpointCodecs} are written when the {@link CheckpointOutput} is opened, and each object written with
+ * {@link #writeObject(Object)} is written as the index of its class followed by the output of its
+ * {@link CheckpointCodec}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class CheckpointOutput implements Closeable {
+    /**
+     * The value that every checkpoint starts with.
+     *
+     * @since v0.0.2
+     */
+    static final long MAGIC = 0x5245414745435054L;
+
+    /**
+     * The version of the format of the checkpoint.
+     *
+     * @since v0.0.2
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of bytes that are buffered before they are written to the file.
+     *
+     * @since v0.0.2
+     */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The {@link FileChannel} that the checkpoint is written to.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * The buffer of bytes that have not yet been written to the file.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * The {@link CheckpointCodecs} that objects are written with.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull CheckpointCodecs codecs;
+
+    /**
+     * Create a new {@link CheckpointOutput}, replacing the file if it exists.
+     *
+     * @param path   The {@link Path} of the file to write to.
+     * @param codecs The {@link CheckpointCodecs} that objects are written with.
+     * @throws IOException If the file could not be opened or written to.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CheckpointOutput(final @NotNull Path path, final @NotNull CheckpointCodecs codecs) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.codecs = codecs;
+
+        try {
+            writeLong(MAGIC);
+            writeInt(VERSION);
+            var registrations = codecs.getRegistrations();
+            writeInt(registrations.size());
+            for (var registration : registrations) {
+                writeString(registration.type().getName());
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Make sure that there is room in the buffer for a number of bytes, writing it to the file if there is not.
+     *
+     * @param bytes The number of bytes, no more than {@link #BUFFER_SIZE}.
+     * @throws IOException If the buffer could not be written to the file.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void ensureRemaining(final int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffer to the file.
+     *
+     * @throws IOException If the buffer could not be written to the file.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Write a byte.
+     *
+     * @param value The byte.
+     * @throws IOException If the byte could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeByte(final byte value) throws IOException {
+        ensureRemaining(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    /**
+     * Write a boolean.
+     *
+     * @param value The boolean.
+     * @throws IOException If the boolean could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeBoolean(final boolean value) throws IOException {
+        writeByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Write an int.
+     *
+     * @param value The int.
+     * @throws IOException If the int could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeInt(final int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Write a long.
+     *
+     * @param value The long.
+     * @throws IOException If the long could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeLong(final long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Write a double.
+     *
+     * @param value The double.
+     * @throws IOException If the double could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeDouble(final double value) throws IOException {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Write a {@link UUID}.
+     *
+     * @param value The {@link UUID}.
+     * @throws IOException If the {@link UUID} could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeUUID(final @NotNull UUID value) throws IOException {
+        ensureRemaining(2 * Long.BYTES);
+        buffer.putLong(value.getMostSignificantBits());
+        buffer.putLong(value.getLeastSignificantBits());
+    }
+
+    /**
+     * Write a {@link String}, as its length in bytes followed by its UTF-8 bytes.
+     *
+     * @param value The {@link String}.
+     * @throws IOException If the {@link String} could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeString(final @NotNull String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        var offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            var length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Write a {@link ZonedDateTime}, as its instant and the id of its time-zone.
+     *
+     * @param value The {@link ZonedDateTime}.
+     * @throws IOException If the {@link ZonedDateTime} could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeTime(final @NotNull ZonedDateTime value) throws IOException {
+        var instant = value.toInstant();
+        writeLong(instant.getEpochSecond());
+        writeInt(instant.getNano());
+        writeString(value.getZone().getId());
+    }
+
+    /**
+     * Write an object with the {@link CheckpointCodec} that is registered for its class.
+     *
+     * @param value The object.
+     * @throws IOException              If the object could not be written.
+     * @throws IllegalArgumentException If no {@link CheckpointCodec} is registered for the class of the object.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeObject(final @NotNull Object value) throws IOException {
+        var registration = codecs.get(value.getClass());
+        if (registration == null) {
+            throw new IllegalArgumentException(String.format("No codec is registered for %s",
+                    value.getClass().getName()));
+        }
+        writeInt(registration.index());
+        registration.write(value, this);
+    }
+
+    /**
+     * Write the rest of the buffer to the file, force it to the storage device, and close the file.
+     *
+     * @throws IOException If the file could not be written to or closed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointOutput{" +
+                "codecs=" + codecs +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains the binary checkpoint format that a
+ * {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager} is saved to and restored from, and the
+ * {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec}s that write the objects in it.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.checkpoint;
@@ -0,0 +1,197 @@
+package dev.r0bert.reagent.core.ids;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link CounterIdGenerator} is a seeded, per-thread, counter-based {@link IdGenerator}.
+ * <p>
+ * Each thread is given its own stream the first time it generates an id, and counts up within it, so generating an id
+ * needs no synchronisation. The first id of each stream is the seed and the index of the stream mixed together, so
+ * streams start at unrelated points of the {@code long}s, and each id is its stream's first id plus the counter, mixed
+ * again. A program that generates ids on the same threads in the same order always gets the same ids. Ids from the
+ * same stream are always different; ids from different streams are only the same if the streams overlap, which is
+ * vanishingly unlikely as a stream holds 2<sup>32</sup> ids. Once a stream runs out, the thread is given a new one,
+ * and once 2<sup>63</sup> streams have been given out an {@link IllegalStateException} is thrown.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class CounterIdGenerator implements IdGenerator {
+    /**
+     * The number of ids in a stream.
+     *
+     * @since v0.0.2
+     */
+    static final long STREAM_SIZE = 1L << 32;
+
+    /**
+     * The seed of this {@link CounterIdGenerator}.
+     *
+     * @since v0.0.2
+     */
+    private final long seed;
+
+    /**
+     * The number of ids in each stream of this {@link CounterIdGenerator}.
+     *
+     * @since v0.0.2
+     */
+    private final long streamSize;
+
+    /**
+     * The index of the next stream to be given to a thread, which is negative once the streams have run out.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AtomicLong nextStream;
+
+    /**
+     * The stream of the current thread.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ThreadLocal<Stream> stream = ThreadLocal.withInitial(() -> new Stream(nextStream()));
+
+    /**
+     * Create a new {@link CounterIdGenerator}.
+     *
+     * @param seed The seed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CounterIdGenerator(final long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * Create a new {@link CounterIdGenerator} that resumes one that has already given out some streams, for example
+     * when a checkpoint is restored. Every thread is given a new stream, so the ids are different to those of the
+     * streams that have already been given out.
+     *
+     * @param seed        The seed.
+     * @param streamCount The number of streams that have already been given out, or a negative number if the streams
+     *                    have run out.
+     * @author Robert Greener
+     * @see #getStreamCount()
+     * @since v0.0.2
+     */
+    public CounterIdGenerator(final long seed, final long streamCount) {
+        this(seed, streamCount, STREAM_SIZE);
+    }
+
+    /**
+     * Create a new {@link CounterIdGenerator} with a given number of ids in each stream.
+     *
+     * @param seed        The seed.
+     * @param streamCount The number of streams that have already been given out.
+     * @param streamSize  The number of ids in each stream.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    CounterIdGenerator(final long seed, final long streamCount, final long streamSize) {
+        this.seed = seed;
+        this.streamSize = streamSize;
+        this.nextStream = new AtomicLong(streamCount);
+    }
+
+    /**
+     * Generate the next id from the stream of the current thread.
+     *
+     * @return The next id.
+     * @throws IllegalStateException If the stream has run out and 2<sup>63</sup> streams have already been given out.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public long nextId() {
+        var current = stream.get();
+        if (current.counter == streamSize) {
+            current.base = nextStream();
+            current.counter = 0;
+        }
+        return Ids.mix(current.base + current.counter++);
+    }
+
+    /**
+     * Take the next stream.
+     *
+     * @return The first id of the stream, before mixing.
+     * @throws IllegalStateException If 2<sup>63</sup> streams have already been given out.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private long nextStream() {
+        var index = nextStream.getAndIncrement();
+        if (index < 0) {
+            nextStream.set(Long.MIN_VALUE);
+            throw new IllegalStateException("The id generator has run out of streams");
+        }
+        return Ids.mix(seed ^ index);
+    }
+
+    /**
+     * Get the seed of this {@link CounterIdGenerator}.
+     *
+     * @return The seed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the number of streams that have been given out, so that a {@link CounterIdGenerator} can be resumed with
+     * {@link #CounterIdGenerator(long, long)}.
+     *
+     * @return The number of streams that have been given out, or a negative number if the streams have run out.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getStreamCount() {
+        return nextStream.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CounterIdGenerator{" +
+                "seed=" + seed +
+                '}';
+    }
+
+    /**
+     * The stream of ids of a thread.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Stream {
+        /**
+         * The first id of the stream, before mixing.
+         *
+         * @since v0.0.2
+         */
+        private long base;
+
+        /**
+         * The number of ids generated from the stream.
+         *
+         * @since v0.0.2
+         */
+        private long counter = 0;
+
+        /**
+         * Create a new {@link Stream}.
+         *
+         * @param base The first id of the stream, before mixing.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Stream(final long base) {
+            this.base = base;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.r0bert.reagent.core.ids;
+
+/**
+ * An {@link IdGenerator} generates unique {@code long} ids.
+ * Implementations must be thread-safe.
+ *
+ * @author Robert Greener
+ * @see Ids
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    /**
+     * Generate the next id.
+     *
+     * @return The next id, which is different to every other id generated by this {@link IdGenerator}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long nextId();
+}
@@ -0,0 +1,103 @@
+package dev.r0bert.reagent.core.ids;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * {@link Ids} holds the {@link IdGenerator} that {@link dev.r0bert.reagent.core.messages.Message}s and their
+ * specifications use when they are not given a {@link UUID}.
+ * <p>
+ * The default is a {@link CounterIdGenerator} with a seed of zero. A {@link UUID} is only created from an id when it
+ * is asked for, with {@link #toUUID(long)}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class Ids {
+    /**
+     * The {@link IdGenerator} in use.
+     *
+     * @since v0.0.2
+     */
+    private static volatile @NotNull IdGenerator idGenerator = new CounterIdGenerator(0);
+
+    /**
+     * {@link Ids} can not be instantiated.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private Ids() {
+    }
+
+    /**
+     * Generate the next id with the {@link IdGenerator} in use.
+     *
+     * @return The next id.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static long nextId() {
+        return idGenerator.nextId();
+    }
+
+    /**
+     * Get the {@link IdGenerator} in use.
+     *
+     * @return The {@link IdGenerator}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Set the {@link IdGenerator} to use.
+     * This should be done before any {@link dev.r0bert.reagent.core.messages.Message}s are created, for example to
+     * seed a run so that it is reproducible.
+     *
+     * @param idGenerator The {@link IdGenerator}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static void setIdGenerator(final @NotNull IdGenerator idGenerator) {
+        Ids.idGenerator = idGenerator;
+    }
+
+    /**
+     * Create the {@link UUID} for an id.
+     * The {@link UUID} is marked as version 4 with the IETF variant, so it is compatible with
+     * {@link UUID#randomUUID()}. Different ids always give different {@link UUID}s: the least significant bits are
+     * the low 62 bits of the id, the two lowest bits of the most significant bits are the top two bits of the id, and
+     * the rest are a mix of it.
+     *
+     * @param id The id.
+     * @return The {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull UUID toUUID(final long id) {
+        var mostSignificantBits = (mix(~id) & ~0xF003L) | 0x4000L | (id >>> 62);
+        var leastSignificantBits = (id & ~0xC000_0000_0000_0000L) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Mix the bits of a {@code long}, with the finaliser of SplitMix64.
+     * This is a bijection, so different inputs always give different outputs.
+     *
+     * @param value The {@code long}.
+     * @return The mixed {@code long}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static long mix(final long value) {
+        var z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
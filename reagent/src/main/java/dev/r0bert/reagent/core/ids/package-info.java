@@ -0,0 +1,9 @@
+/**
+ * This package contains the {@link dev.r0bert.reagent.core.ids.IdGenerator}s that give
+ * {@link dev.r0bert.reagent.core.messages.Message}s and their specifications their identity, without generating a
+ * random {@link java.util.UUID} for each one.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.ids;
@@ -29,4 +29,17 @@ public interface Message extends UUIDd {
      * @since v0.0.1
      */
     @NotNull UUID getSender();
+
+    /**
+     * Get the handle of the destination of the message, as given by
+     * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager#getAgentHandle(UUID)}.
+     * The handle is only a hint: it is ignored if it does not belong to the destination.
+     *
+     * @return The handle of the destination of the message, or -1 if it is not known.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default int getDestinationHandle() {
+        return -1;
+    }
 }
@@ -0,0 +1,30 @@
+package dev.r0bert.reagent.core.messages;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link MessageCombiner} merges two {@link Message}s of the same class for the same destination into one, so that
+ * the destination handles one {@link Message} instead of many.
+ * <p>
+ * It is only suitable for {@link Message}s that the destination only needs the aggregate of, such as a sum of weights.
+ * The order that {@link Message}s are combined in is not defined, so combining must be associative and commutative.
+ * </p>
+ *
+ * @param <M> The class of the {@link Message}s.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface MessageCombiner<M extends Message> {
+    /**
+     * Combine two {@link Message}s.
+     * This may return a new {@link Message}, or one of the two after changing it.
+     *
+     * @param first  The first {@link Message}, which may itself be the result of combining {@link Message}s.
+     * @param second The second {@link Message}, which has the same class and destination as the first.
+     * @return The combined {@link Message}, which must have the same class and destination as the two.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull M combine(final @NotNull M first, final @NotNull M second);
+}
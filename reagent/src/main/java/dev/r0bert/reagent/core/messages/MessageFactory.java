@@ -0,0 +1,24 @@
+package dev.r0bert.reagent.core.messages;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A {@link MessageFactory} creates the {@link Message} for each occurrence of a recurring event.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface MessageFactory {
+    /**
+     * Create the {@link Message} for an occurrence.
+     *
+     * @param time The time of the occurrence.
+     * @return The new {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull Message createMessage(final @NotNull ZonedDateTime time);
+}
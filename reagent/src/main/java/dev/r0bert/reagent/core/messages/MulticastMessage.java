@@ -0,0 +1,69 @@
+package dev.r0bert.reagent.core.messages;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A {@link MulticastMessage} is a single {@link Message} that is sent to many recipients.
+ * <p>
+ * It is scheduled and queued as one {@link Message}, and is only expanded into a delivery {@link Message} per recipient,
+ * with {@link #getDelivery(int)}, when it is sent. Implementations should hold the recipients in arrays, so that a
+ * {@link MulticastMessage} to a million recipients is a handful of objects while it waits in the queue.
+ * </p>
+ * <p>
+ * A {@link MulticastMessage} is never itself handed to an {@link dev.r0bert.reagent.core.agents.Agent}, so its
+ * {@link #getDestination()} is not used to route it; by convention it is the sender. It should be sent with
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager#sendMulticastNow(MulticastMessage)}, which
+ * expands it straight away unless the {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager} can defer the
+ * expansion.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface MulticastMessage extends Message {
+    /**
+     * Get the number of recipients.
+     *
+     * @return The number of recipients.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getRecipientCount();
+
+    /**
+     * Get a recipient.
+     *
+     * @param index The index of the recipient, from zero to {@link #getRecipientCount()} exclusive.
+     * @return The {@link UUID} of the recipient.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull UUID getRecipient(final int index);
+
+    /**
+     * Create the {@link Message} that is delivered to a recipient.
+     * Its {@link Message#getDestination()} must be {@link #getRecipient(int)}.
+     *
+     * @param index The index of the recipient, from zero to {@link #getRecipientCount()} exclusive.
+     * @return The {@link Message}.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull Message getDelivery(final int index);
+
+    /**
+     * Get the {@link UUID} of the sender, which is the destination of a {@link MulticastMessage} by convention.
+     *
+     * @return The {@link UUID} of the sender.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    default @NotNull UUID getDestination() {
+        return getSender();
+    }
+}
@@ -1,6 +1,7 @@
 package dev.r0bert.reagent.core.messages.regularevent;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -22,11 +23,18 @@ public class RegularEventMessage implements Message {
     private final @NotNull UUID agentUuid;
 
     /**
-     * The {@link UUID} of this {@link RegularEventMessage}.
+     * The id that the {@link UUID} of this {@link RegularEventMessage} is created from, if it was not given one.
+     *
+     * @since v0.0.2
+     */
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link RegularEventMessage}, or null until it is first asked for.
      *
      * @since v0.0.1
      */
-    private final @NotNull UUID uuid;
+    private @Nullable UUID uuid;
 
     /**
      * Create a new {@link RegularEventMessage}.
@@ -38,10 +46,26 @@ public class RegularEventMessage implements Message {
      * @since v0.0.1
      */
     public RegularEventMessage(final @NotNull Agent agent, final @Nullable UUID uuid) {
-        this.uuid = uuid == null ? UUID.randomUUID() : uuid;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
         this.agentUuid = agent.getUUID();
     }
 
+    /**
+     * Create a new {@link RegularEventMessage} for an {@link Agent} by {@link UUID}.
+     * This is used to recreate a {@link RegularEventMessage}, for example when restoring a checkpoint.
+     *
+     * @param agentUuid The {@link UUID} of the {@link Agent} that this {@link RegularEventMessage} is sent to and from.
+     * @param uuid      The {@link UUID} of this {@link RegularEventMessage}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public RegularEventMessage(final @NotNull UUID agentUuid, final @NotNull UUID uuid) {
+        this.uuid = uuid;
+        this.id = 0;
+        this.agentUuid = agentUuid;
+    }
+
     /**
      * Get the {@link UUID} of the {@link Agent} that this {@link RegularEventMessage} is sent to and from.
      *
@@ -75,6 +99,11 @@ public class RegularEventMessage implements Message {
      */
     @Override
     public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
         return uuid;
     }
 
@@ -90,7 +119,7 @@ public class RegularEventMessage implements Message {
         return "RegularEventMessage{" +
                 "destination=" + agentUuid +
                 ", sender=" + agentUuid +
-                ", uuid=" + uuid +
+                ", uuid=" + getUUID() +
                 '}';
     }
 }
@@ -1,7 +1,10 @@
 package dev.r0bert.reagent.core.messages.regularevent;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.ids.Ids;
+import dev.r0bert.reagent.core.messages.MessageFactory;
 import dev.r0bert.reagent.core.properties.UUIDd;
+import dev.r0bert.reagent.core.simulationmanager.Recurrence;
 import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,16 +21,22 @@ import java.util.UUID;
  * @author Robert Greener
  * @since v0.0.1
  */
-public class RegularEventMessageSpecification implements UUIDd {
+public class RegularEventMessageSpecification implements UUIDd, MessageFactory {
     /**
      * The {@link Agent} that this {@link RegularEventMessage} is sent to and from.
      */
     private final @NotNull Agent agent;
 
     /**
-     * The {@link UUID} of this {@link RegularEventMessageSpecification}.
+     * The id that the {@link UUID} of this {@link RegularEventMessageSpecification} is created from, if it was not
+     * given one.
      */
-    private final @NotNull UUID uuid;
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link RegularEventMessageSpecification}, or null until it is first asked for.
+     */
+    private @Nullable UUID uuid;
 
     /**
      * The {@link Logger} for this class.
@@ -44,12 +53,15 @@ public class RegularEventMessageSpecification implements UUIDd {
      * @since v0.0.1
      */
     public RegularEventMessageSpecification(final @NotNull Agent agent, final @Nullable UUID uuid) {
-        this.uuid = uuid == null ? UUID.randomUUID() : uuid;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
         this.agent = agent;
     }
 
     /**
      * Create and schedule a series of {@link RegularEventMessage}s.
+     * The series is scheduled as a {@link Recurrence}, so a {@link SimulationManager} that supports it only creates
+     * each {@link RegularEventMessage} when the one before it is sent.
      *
      * @param simulationManager The {@link SimulationManager} to schedule the {@link RegularEventMessage}s with.
      * @param interval          The {@link Duration} between each {@link RegularEventMessage}.
@@ -64,22 +76,23 @@ public class RegularEventMessageSpecification implements UUIDd {
                                                       final @NotNull Duration interval,
                                                       final @NotNull ZonedDateTime startTime,
                                                       final @NotNull ZonedDateTime endTime) {
-        if (startTime.isAfter(endTime) || startTime.equals(endTime)) {
-            throw new IllegalArgumentException("The start time is not before the end time");
-        }
-        if (interval.isZero()) {
-            throw new IllegalArgumentException("The time interval is zero.");
-        }
-        if (interval.isNegative()) {
-            throw new IllegalArgumentException("The time interval is negative");
-        }
+        var recurrence = new Recurrence(this, interval, startTime, endTime);
         logger.atDebug().log("Creating and scheduling regular event messages for agent {} with interval {} from {} to {}",
                 agent, interval, startTime, endTime);
-        for (var currentTime = startTime; currentTime.isBefore(endTime); currentTime = currentTime.plus(interval)) {
-            var message = this.createMessage();
-            logger.atDebug().log("Scheduling message {} at time {}", message, currentTime);
-            simulationManager.scheduleMessage(message, currentTime);
-        }
+        simulationManager.scheduleRecurringMessages(recurrence);
+    }
+
+    /**
+     * Create the {@link RegularEventMessage} for an occurrence.
+     *
+     * @param time The time of the occurrence.
+     * @return The new {@link RegularEventMessage} that was created.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public @NotNull RegularEventMessage createMessage(final @NotNull ZonedDateTime time) {
+        return this.createMessage();
     }
 
     /**
@@ -94,6 +107,17 @@ public class RegularEventMessageSpecification implements UUIDd {
         return new RegularEventMessage(agent, null);
     }
 
+    /**
+     * Get the {@link Agent} that the {@link RegularEventMessage}s are sent to and from.
+     *
+     * @return The {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Agent getAgent() {
+        return agent;
+    }
+
     /**
      * Convert this {@link RegularEventMessageSpecification} to a {@link String} representation.
      *
@@ -118,6 +142,11 @@ public class RegularEventMessageSpecification implements UUIDd {
      */
     @Override
     public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
         return uuid;
     }
 }
@@ -1,6 +1,7 @@
 package dev.r0bert.reagent.core.messages.wakeup;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
 import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
 import org.jetbrains.annotations.NotNull;
@@ -24,11 +25,18 @@ public class WakeUpMessage implements Message {
     private final @NotNull UUID agentUuid;
 
     /**
-     * The {@link UUID} of this {@link WakeUpMessage}.
+     * The id that the {@link UUID} of this {@link WakeUpMessage} is created from, if it was not given one.
+     *
+     * @since v0.0.2
+     */
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link WakeUpMessage}, or null until it is first asked for.
      *
      * @since v0.0.1
      */
-    private final @NotNull UUID uuid;
+    private @Nullable UUID uuid;
 
     /**
      * The time that this {@link WakeUpMessage} is sent.
@@ -50,13 +58,32 @@ public class WakeUpMessage implements Message {
      */
     public WakeUpMessage(final @NotNull SimulationManager simulationManager, final @Nullable UUID uuid,
                          final @NotNull Agent agent, final @NotNull ZonedDateTime wakeTime) {
-        this.uuid = uuid == null ? UUID.randomUUID() : uuid;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
         this.wakeTime = wakeTime;
         this.agentUuid = agent.getUUID();
 
         simulationManager.scheduleMessage(this, getWakeTime());
     }
 
+    /**
+     * Create a new {@link WakeUpMessage} for an {@link Agent} by {@link UUID}, without scheduling it.
+     * This is used to recreate a {@link WakeUpMessage}, for example when restoring a checkpoint.
+     *
+     * @param agentUuid The {@link UUID} of the {@link Agent} that this {@link WakeUpMessage} is sent to and from.
+     * @param uuid      The {@link UUID} of this {@link WakeUpMessage}.
+     * @param wakeTime  The time that this {@link WakeUpMessage} is sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public WakeUpMessage(final @NotNull UUID agentUuid, final @NotNull UUID uuid,
+                         final @NotNull ZonedDateTime wakeTime) {
+        this.uuid = uuid;
+        this.id = 0;
+        this.wakeTime = wakeTime;
+        this.agentUuid = agentUuid;
+    }
+
     /**
      * Get the {@link UUID} of the {@link Agent} that this {@link WakeUpMessage} is sent to and from.
      *
@@ -90,6 +117,11 @@ public class WakeUpMessage implements Message {
      */
     @Override
     public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
         return uuid;
     }
 
@@ -111,7 +143,7 @@ public class WakeUpMessage implements Message {
      */
     @Override
     public String toString() {
-        return "WakeUpMessage{" + "sender=" + getSender() + ", destination=" + getDestination() + ", uuid=" + uuid +
+        return "WakeUpMessage{" + "sender=" + getSender() + ", destination=" + getDestination() + ", uuid=" + getUUID() +
                 ", wakeTime=" + wakeTime + '}';
     }
 }
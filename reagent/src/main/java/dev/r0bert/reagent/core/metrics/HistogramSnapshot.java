@@ -0,0 +1,88 @@
+package dev.r0bert.reagent.core.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A {@link HistogramSnapshot} is the state of a {@link LatencyHistogram} at one point in time.
+ *
+ * @param count        The number of durations.
+ * @param totalNanos   The sum of the durations, in nanoseconds.
+ * @param maxNanos     The longest duration, in nanoseconds.
+ * @param bucketCounts The number of durations in each bucket of the {@link LatencyHistogram}.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public record HistogramSnapshot(long count, long totalNanos, long maxNanos, long @NotNull [] bucketCounts) {
+    /**
+     * Get the mean duration.
+     *
+     * @return The mean duration, in nanoseconds, or zero if there are no durations.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double meanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Get an estimate of a percentile of the durations.
+     * The estimate is the upper bound of the bucket that the percentile falls in, capped at {@link #maxNanos()}.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The estimate, in nanoseconds, or zero if there are no durations.
+     * @throws IllegalArgumentException If the percentile is not between 0 and 100.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long percentileNanos(final double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile is not between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        var seen = 0L;
+        for (var i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                var upperBound = i + 1 < bucketCounts.length ? LatencyHistogram.lowerBoundOf(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(upperBound, maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HistogramSnapshot that)) {
+            return false;
+        }
+        return count == that.count && totalNanos == that.totalNanos && maxNanos == that.maxNanos &&
+                Arrays.equals(bucketCounts, that.bucketCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        var result = Long.hashCode(count);
+        result = 31 * result + Long.hashCode(totalNanos);
+        result = 31 * result + Long.hashCode(maxNanos);
+        return 31 * result + Arrays.hashCode(bucketCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count +
+                ", meanNanos=" + meanNanos() +
+                ", p50Nanos=" + percentileNanos(50) +
+                ", p99Nanos=" + percentileNanos(99) +
+                ", maxNanos=" + maxNanos +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+package dev.r0bert.reagent.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link LatencyHistogram} counts durations in nanoseconds in log-linear buckets.
+ * <p>
+ * Each power of two is split into {@link #SUB_BUCKETS} buckets of equal width, so a duration is placed in a bucket
+ * whose bounds are within 25% of it. Recording is lock-free and allocates nothing, and may be done from many threads
+ * at once.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class LatencyHistogram {
+    /**
+     * The number of bits of each duration, below its highest set bit, that select a bucket.
+     *
+     * @since v0.0.2
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    /**
+     * The number of buckets that each power of two is split into.
+     *
+     * @since v0.0.2
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets.
+     *
+     * @since v0.0.2
+     */
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of durations in each bucket.
+     *
+     * @since v0.0.2
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The sum of the durations.
+     *
+     * @since v0.0.2
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * The longest duration.
+     *
+     * @since v0.0.2
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Get the bucket of a duration.
+     *
+     * @param nanos The duration, in nanoseconds, which must not be negative.
+     * @return The index of the bucket.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static int bucketOf(final long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        var subBucket = (int) (nanos >>> exponent) - SUB_BUCKETS;
+        return (exponent + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the smallest duration in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The smallest duration, in nanoseconds.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static long lowerBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        var exponent = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << exponent;
+    }
+
+    /**
+     * Record a duration.
+     * Negative durations, which can only come from a clock going backwards, are recorded as zero.
+     *
+     * @param nanos The duration, in nanoseconds.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void record(final long nanos) {
+        var value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        total.add(value);
+        var current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Take a {@link HistogramSnapshot} of the durations recorded so far.
+     * Durations that are recorded while the {@link HistogramSnapshot} is taken may or may not be included.
+     *
+     * @return The {@link HistogramSnapshot}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public HistogramSnapshot snapshot() {
+        var counts = new long[BUCKET_COUNT];
+        var bucketTotal = 0L;
+        for (var i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            bucketTotal += counts[i];
+        }
+        return new HistogramSnapshot(bucketTotal, total.sum(), max.get(), counts);
+    }
+
+    @Override
+    public String toString() {
+        var count = 0L;
+        for (var i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return "LatencyHistogram{" +
+                "count=" + count +
+                ", max=" + max.get() +
+                '}';
+    }
+}
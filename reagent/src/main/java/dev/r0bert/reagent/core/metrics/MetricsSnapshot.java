@@ -0,0 +1,62 @@
+package dev.r0bert.reagent.core.metrics;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * A {@link MetricsSnapshot} is the state of a {@link RecordingSimulationMetrics} at one point in time.
+ *
+ * @param messageTypes    The {@link MessageTypeSnapshot} of each class of {@link Message} that has been scheduled or
+ *                        sent.
+ * @param pendingMessages The number of {@link Message}s that were waiting to be sent when the time last advanced.
+ * @param pendingTicks    The number of distinct times that {@link Message}s were waiting to be sent at when the time
+ *                        last advanced.
+ * @param simulatedNanos  The number of nanoseconds of simulated time that have passed since the start time.
+ * @param wallNanos       The number of nanoseconds of wall-clock time that the simulation has spent running.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public record MetricsSnapshot(@NotNull Map<Class<? extends Message>, MessageTypeSnapshot> messageTypes,
+                              long pendingMessages, int pendingTicks, long simulatedNanos, long wallNanos) {
+    /**
+     * Create a new {@link MetricsSnapshot}.
+     *
+     * @param messageTypes    The {@link MessageTypeSnapshot} of each class of {@link Message}.
+     * @param pendingMessages The number of {@link Message}s that were waiting to be sent.
+     * @param pendingTicks    The number of distinct times that {@link Message}s were waiting to be sent at.
+     * @param simulatedNanos  The number of nanoseconds of simulated time that have passed.
+     * @param wallNanos       The number of nanoseconds of wall-clock time that the simulation has spent running.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public MetricsSnapshot {
+        messageTypes = Map.copyOf(messageTypes);
+    }
+
+    /**
+     * Get the ratio of simulated time to wall-clock time.
+     *
+     * @return The number of simulated seconds that passed per second of running, or zero if the simulation has not
+     * run.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double simulatedToWallRatio() {
+        return wallNanos == 0 ? 0 : (double) simulatedNanos / wallNanos;
+    }
+
+    /**
+     * The metrics of one class of {@link Message}.
+     *
+     * @param scheduled The number of {@link Message}s of the class that have been scheduled.
+     * @param sent      The number of {@link Message}s of the class that have been sent.
+     * @param handler   The {@link HistogramSnapshot} of the time that destinations took to handle the
+     *                  {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public record MessageTypeSnapshot(long scheduled, long sent, @NotNull HistogramSnapshot handler) {
+    }
+}
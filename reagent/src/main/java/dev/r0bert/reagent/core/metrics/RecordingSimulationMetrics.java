@@ -0,0 +1,172 @@
+package dev.r0bert.reagent.core.metrics;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RecordingSimulationMetrics} record what a {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}
+ * does in memory, to be read with {@link #snapshot()}.
+ * <p>
+ * Counters are {@link LongAdder}s and handler times are held in a {@link LatencyHistogram} per class of
+ * {@link Message}, so recording does not lock and does not allocate once a class has been seen. Nothing is exported:
+ * callers poll {@link #snapshot()} and publish the {@link MetricsSnapshot} however they like.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class RecordingSimulationMetrics implements SimulationMetrics {
+    /**
+     * The metrics of each class of {@link Message}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ConcurrentMap<Class<? extends Message>, MessageTypeMetrics> messageTypes =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The number of {@link Message}s that were waiting to be sent when the time last advanced.
+     *
+     * @since v0.0.2
+     */
+    private volatile long pendingMessages = 0;
+
+    /**
+     * The number of distinct times that {@link Message}s were waiting to be sent at when the time last advanced.
+     *
+     * @since v0.0.2
+     */
+    private volatile int pendingTicks = 0;
+
+    /**
+     * The number of nanoseconds between the start time and the current time.
+     *
+     * @since v0.0.2
+     */
+    private volatile long tick = 0;
+
+    /**
+     * The wall-clock time, from {@link System#nanoTime()}, that the current run started, or -1 if it is not running.
+     *
+     * @since v0.0.2
+     */
+    private volatile long runStartedAt = -1;
+
+    /**
+     * The number of nanoseconds of wall-clock time that finished runs took.
+     *
+     * @since v0.0.2
+     */
+    private volatile long finishedRunNanos = 0;
+
+    /**
+     * Get the metrics of a class of {@link Message}, creating them if needed.
+     *
+     * @param type The class of {@link Message}.
+     * @return The metrics.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull MessageTypeMetrics metricsOf(final @NotNull Class<? extends Message> type) {
+        var metrics = messageTypes.get(type);
+        if (metrics == null) {
+            metrics = messageTypes.computeIfAbsent(type, ignored -> new MessageTypeMetrics());
+        }
+        return metrics;
+    }
+
+    @Override
+    public void messageScheduled(final @NotNull Class<? extends Message> type) {
+        metricsOf(type).scheduled.increment();
+    }
+
+    @Override
+    public void messageDispatched(final @NotNull Class<? extends Message> type, final long handlerNanos) {
+        var metrics = metricsOf(type);
+        metrics.sent.increment();
+        metrics.handler.record(handlerNanos);
+    }
+
+    @Override
+    public void timeAdvanced(final long tick, final long pendingMessages, final int pendingTicks) {
+        this.tick = tick;
+        this.pendingMessages = pendingMessages;
+        this.pendingTicks = pendingTicks;
+    }
+
+    @Override
+    public synchronized void runStarted() {
+        runStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void runFinished() {
+        if (runStartedAt >= 0) {
+            finishedRunNanos += System.nanoTime() - runStartedAt;
+            runStartedAt = -1;
+        }
+    }
+
+    /**
+     * Take a {@link MetricsSnapshot} of the metrics recorded so far.
+     * This may be called from any thread, including while the simulation is running.
+     *
+     * @return The {@link MetricsSnapshot}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull MetricsSnapshot snapshot() {
+        var types = new HashMap<Class<? extends Message>, MetricsSnapshot.MessageTypeSnapshot>();
+        messageTypes.forEach((type, metrics) -> types.put(type, new MetricsSnapshot.MessageTypeSnapshot(
+                metrics.scheduled.sum(), metrics.sent.sum(), metrics.handler.snapshot())));
+
+        long wallNanos;
+        synchronized (this) {
+            wallNanos = finishedRunNanos + (runStartedAt >= 0 ? System.nanoTime() - runStartedAt : 0);
+        }
+        return new MetricsSnapshot(types, pendingMessages, pendingTicks, tick, wallNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordingSimulationMetrics{" +
+                "messageTypes=" + messageTypes.size() +
+                ", pendingMessages=" + pendingMessages +
+                ", pendingTicks=" + pendingTicks +
+                '}';
+    }
+
+    /**
+     * The metrics of one class of {@link Message}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class MessageTypeMetrics {
+        /**
+         * The number of {@link Message}s of the class that have been scheduled.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull LongAdder scheduled = new LongAdder();
+
+        /**
+         * The number of {@link Message}s of the class that have been sent.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull LongAdder sent = new LongAdder();
+
+        /**
+         * The time that destinations took to handle the {@link Message}s of the class.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull LatencyHistogram handler = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,92 @@
+package dev.r0bert.reagent.core.metrics;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link SimulationMetrics} are told about what a {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}
+ * does as it runs.
+ * <p>
+ * The methods are called on the threads that schedule and send {@link Message}s, so implementations must be
+ * thread-safe and should be cheap. A {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager} that is given
+ * {@link #NONE} does not time or report anything.
+ * </p>
+ *
+ * @author Robert Greener
+ * @see RecordingSimulationMetrics
+ * @since v0.0.2
+ */
+public interface SimulationMetrics {
+    /**
+     * The {@link SimulationMetrics} that ignore everything, which turns metrics off.
+     *
+     * @since v0.0.2
+     */
+    @NotNull SimulationMetrics NONE = new SimulationMetrics() {
+        @Override
+        public void messageScheduled(final @NotNull Class<? extends Message> type) {
+        }
+
+        @Override
+        public void messageDispatched(final @NotNull Class<? extends Message> type, final long handlerNanos) {
+        }
+
+        @Override
+        public void timeAdvanced(final long tick, final long pendingMessages, final int pendingTicks) {
+        }
+
+        @Override
+        public String toString() {
+            return "SimulationMetrics.NONE";
+        }
+    };
+
+    /**
+     * Called when a {@link Message} is scheduled.
+     *
+     * @param type The class of the {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void messageScheduled(final @NotNull Class<? extends Message> type);
+
+    /**
+     * Called when a {@link Message} has been handled by its destination.
+     *
+     * @param type         The class of the {@link Message}.
+     * @param handlerNanos The number of nanoseconds that the destination took to handle the {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void messageDispatched(final @NotNull Class<? extends Message> type, final long handlerNanos);
+
+    /**
+     * Called when the current time of the simulation moves to the next time that has {@link Message}s, before they
+     * are sent.
+     *
+     * @param tick            The number of nanoseconds between the start time and the new current time.
+     * @param pendingMessages The number of {@link Message}s waiting to be sent, including those for the new time.
+     * @param pendingTicks    The number of distinct times that {@link Message}s are waiting to be sent at.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void timeAdvanced(final long tick, final long pendingMessages, final int pendingTicks);
+
+    /**
+     * Called when the simulation starts running.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void runStarted() {
+    }
+
+    /**
+     * Called when the simulation stops running.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void runFinished() {
+    }
+}
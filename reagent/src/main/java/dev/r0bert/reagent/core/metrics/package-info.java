@@ -0,0 +1,10 @@
+/**
+ * This package contains the {@link dev.r0bert.reagent.core.metrics.SimulationMetrics} that a
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager} reports to, and the
+ * {@link dev.r0bert.reagent.core.metrics.RecordingSimulationMetrics} that records them for export as a
+ * {@link dev.r0bert.reagent.core.metrics.MetricsSnapshot}.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.metrics;
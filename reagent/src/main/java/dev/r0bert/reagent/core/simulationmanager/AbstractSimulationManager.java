@@ -0,0 +1,308 @@
+package dev.r0bert.reagent.core.simulationmanager;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.metrics.SimulationMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * An {@link AbstractSimulationManager} holds the start and end times of a simulation, and the conversions between
+ * times and ticks that {@link SimulationManager} implementations use internally.
+ * <p>
+ * The conversions are made by a {@link SimulationClock}. By default, a tick is a number of nanoseconds since the start
+ * time. Times converted back from ticks are in the time-zone of the start time. Times are checked against the start,
+ * end and current times as ticks, so checking a time converts it once and compares {@code long}s.
+ * </p>
+ * <p>
+ * It also holds the {@link SimulationMetrics} that the simulation reports to, and sends {@link Message}s to
+ * {@link Agent}s with {@link #dispatch(Agent, Message)}, which times them if metrics are set.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public abstract class AbstractSimulationManager implements SimulationManager {
+    /**
+     * The start time of the simulation.
+     *
+     * @since v0.0.1
+     */
+    private final @NotNull ZonedDateTime startTime;
+
+    /**
+     * The end time of the simulation.
+     *
+     * @since v0.0.1
+     */
+    private final @NotNull ZonedDateTime endTime;
+
+    /**
+     * The {@link SimulationClock} that converts between times and ticks.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull SimulationClock clock;
+
+    /**
+     * The tick of the end time.
+     *
+     * @since v0.0.2
+     */
+    private final long endTick;
+
+    /**
+     * The {@link SimulationMetrics} that the simulation reports to.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull SimulationMetrics metrics = SimulationMetrics.NONE;
+
+    /**
+     * Whether {@link #metrics} is not {@link SimulationMetrics#NONE}.
+     *
+     * @since v0.0.2
+     */
+    private boolean metricsEnabled = false;
+
+    /**
+     * Create a new {@link AbstractSimulationManager} with a {@link SimulationClock} of the default resolution.
+     *
+     * @param startTime The start time of the simulation.
+     * @param endTime   The end time of the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected AbstractSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime) {
+        this(new SimulationClock(startTime), endTime);
+    }
+
+    /**
+     * Create a new {@link AbstractSimulationManager}.
+     *
+     * @param clock   The {@link SimulationClock}, whose start time is the start time of the simulation.
+     * @param endTime The end time of the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected AbstractSimulationManager(final @NotNull SimulationClock clock, final @NotNull ZonedDateTime endTime) {
+        this.clock = clock;
+        this.startTime = clock.getStartTime();
+        this.endTime = endTime;
+        long tick;
+        try {
+            tick = clock.toTick(endTime);
+        } catch (ArithmeticException e) {
+            tick = endTime.isBefore(startTime) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        this.endTick = tick;
+    }
+
+    /**
+     * Convert a time to a tick.
+     *
+     * @param time The time to convert.
+     * @return The number of ticks since the start time.
+     * @throws ArithmeticException If the time is too far from the start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long toTick(final @NotNull ZonedDateTime time) {
+        return clock.toTick(time);
+    }
+
+    /**
+     * Convert a tick to a time in the time-zone of the start time.
+     *
+     * @param tick The number of ticks since the start time.
+     * @return The time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected @NotNull ZonedDateTime fromTick(final long tick) {
+        return clock.toTime(tick);
+    }
+
+    /**
+     * Convert a {@link Duration} to a number of ticks.
+     *
+     * @param duration The {@link Duration} to convert.
+     * @return The number of ticks.
+     * @throws ArithmeticException If the {@link Duration} is too long.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long toTicks(final @NotNull Duration duration) {
+        return clock.toTicks(duration);
+    }
+
+    /**
+     * Get the tick of the current time.
+     * Implementations that hold the current time as a tick should override this to return it without converting.
+     *
+     * @return The tick of the current time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long getCurrentTick() {
+        return toTick(this.getCurrentTime());
+    }
+
+    /**
+     * Get the tick of the end time.
+     *
+     * @return The tick of the end time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * Check that the time is valid.
+     *
+     * @param time The time to check.
+     * @throws IllegalArgumentException If the time is before the start time, after the end time, or before the
+     *                                  current time, or if it does not fall on a tick.
+     * @author Robert Greener
+     * @since v0.0.1
+     */
+    protected void checkTimeIsValid(final @NotNull ZonedDateTime time) {
+        toValidTick(time);
+    }
+
+    /**
+     * Check that the time is valid, and convert it to a tick.
+     *
+     * @param time The time to check.
+     * @return The tick of the time.
+     * @throws IllegalArgumentException If the time is before the start time, after the end time, or before the
+     *                                  current time, or if it is too far from the start time to be a tick of the
+     *                                  {@link SimulationClock}, or does not fall on one of its ticks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long toValidTick(final @NotNull ZonedDateTime time) {
+        long tick;
+        try {
+            tick = toTick(time);
+        } catch (ArithmeticException e) {
+            if (time.isBefore(this.getStartTime())) {
+                throw new IllegalArgumentException(String.format("The time is before the start time %s",
+                        this.getStartTime()));
+            } else if (time.isAfter(this.getEndTime())) {
+                throw new IllegalArgumentException(String.format("The time is after the end time %s",
+                        this.getEndTime()));
+            }
+            tick = Long.MAX_VALUE;
+        }
+        // Long.MAX_VALUE is the tick that means there is nothing left to do, so nothing can be sent at it.
+        if (tick == Long.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("The time %s is too far from the start time %s for the " +
+                    "resolution %s", time, this.getStartTime(), clock.getResolution()));
+        }
+        checkTickIsValid(tick);
+        if (!clock.isOnTick(time)) {
+            throw new IllegalArgumentException(String.format("The time %s is not a whole number of ticks of the " +
+                    "resolution %s from the start time %s", time, clock.getResolution(), this.getStartTime()));
+        }
+        return tick;
+    }
+
+    /**
+     * Check that the tick is valid.
+     *
+     * @param tick The tick to check.
+     * @throws IllegalArgumentException If the tick is before the start time, after the end time, or before the
+     *                                  current time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void checkTickIsValid(final long tick) {
+        if (tick < 0) {
+            throw new IllegalArgumentException(String.format("The time is before the start time %s",
+                    this.getStartTime()));
+        } else if (tick > endTick) {
+            throw new IllegalArgumentException(String.format("The time is after the end time %s", this.getEndTime()));
+        } else if (tick < getCurrentTick()) {
+            throw new IllegalArgumentException(String.format("The time is before the current time %s",
+                    this.getCurrentTime()));
+        }
+    }
+
+    /**
+     * Get the {@link SimulationClock} that converts between times and ticks.
+     *
+     * @return The {@link SimulationClock}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Send a {@link Message} to an {@link Agent}, reporting it to the {@link SimulationMetrics} if they are set.
+     *
+     * @param agent   The {@link Agent}.
+     * @param message The {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void dispatch(final @NotNull Agent agent, final @NotNull Message message) {
+        if (!metricsEnabled) {
+            agent.handleMessage(message);
+            return;
+        }
+        var start = System.nanoTime();
+        try {
+            agent.handleMessage(message);
+        } finally {
+            metrics.messageDispatched(message.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * This must not be called while the simulation is running.
+     *
+     * @param metrics The {@link SimulationMetrics}, or {@link SimulationMetrics#NONE} to turn metrics off.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void setMetrics(final @NotNull SimulationMetrics metrics) {
+        this.metrics = metrics;
+        this.metricsEnabled = metrics != SimulationMetrics.NONE;
+    }
+
+    @Override
+    public @NotNull SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get whether {@link SimulationMetrics} other than {@link SimulationMetrics#NONE} are set.
+     * Implementations should check this before doing any work to report to them.
+     *
+     * @return Whether metrics are set.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getEndTime() {
+        return endTime;
+    }
+}
@@ -1,58 +1,165 @@
 package dev.r0bert.reagent.core.simulationmanager;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.agents.CheckpointableAgent;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodecs;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.ids.CounterIdGenerator;
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MessageCombiner;
+import dev.r0bert.reagent.core.messages.MessageFactory;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.metrics.SimulationMetrics;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.CalendarEventQueue;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.EventQueue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The {@link CoreSimulationManager} is the default implementation of the {@link SimulationManager}.
  * <p>
  * {@inheritDoc}
  * </p>
+ * <p>
+ * Internally, times are held in the {@link EventQueue} as ticks. The current time is reported in the time-zone of the
+ * start time.
+ * </p>
+ * <p>
+ * By default, the {@link Message}s for a time are sent one at a time on the thread that called {@link #run()}. If a
+ * dispatch {@link Executor} is set with {@link #setDispatchExecutor(Executor)}, the {@link Message}s for a time are
+ * instead sent in waves: every {@link Message} waiting for the time is partitioned by
+ * {@link Message#getDestination()}, and the partitions are sent in parallel on the {@link Executor}. The
+ * {@link Message}s for a single {@link Agent} are always sent in order, on one thread. {@link Message}s that are
+ * scheduled while a wave is being sent are collected per partition, and added to the queue once the wave has
+ * finished, so {@link Message}s sent with {@link #sendMessageNow(Message)} are sent in a later wave at the same time.
+ * </p>
+ * <p>
+ * {@link Agent}s are held in an {@link AgentRegistry}, so a {@link Message} whose
+ * {@link Message#getDestinationHandle()} is the handle from {@link #getAgentHandle(UUID)} is sent without looking up
+ * its destination {@link UUID}.
+ * </p>
+ * <p>
+ * A {@link MulticastMessage} is held in the queue as one {@link Message}, and is expanded into its deliveries only
+ * when it is sent.
+ * </p>
+ * <p>
+ * A {@link MessageCombiner} can be set for a class of {@link Message} with
+ * {@link #setMessageCombiner(Class, MessageCombiner)}. The {@link Message}s of that class, including the deliveries
+ * of {@link MulticastMessage}s, that are sent to the same {@link Agent} in the same wave at a time are then combined
+ * into one before they are sent. While any {@link MessageCombiner} is set, the {@link Message}s for a time are sent in
+ * waves even if there is no dispatch {@link Executor}, on the thread that called {@link #run()}.
+ * </p>
+ * <p>
+ * Only the next occurrence of each {@link Recurrence} is held in the queue. When it is sent, the occurrence after it
+ * is created and scheduled. The first occurrence is queued when the {@link Recurrence} is scheduled, but each later
+ * occurrence is only queued when the one before it is sent, so it is sent after every {@link Message} that was
+ * already scheduled for its time, even those scheduled after the {@link Recurrence}.
+ * </p>
+ * <p>
+ * A simulation can be paused with {@link #runUntil(ZonedDateTime)}, saved with
+ * {@link #checkpoint(Path, CheckpointCodecs)}, and resumed in a new {@link CoreSimulationManager} with
+ * {@link #restore(Path, CheckpointCodecs)}.
+ * </p>
+ * <p>
+ * If {@link SimulationMetrics} are set with {@link #setMetrics(SimulationMetrics)}, every {@link Message} that is
+ * scheduled and sent is reported to them, along with the time each {@link Agent} took to handle it. While they are
+ * {@link SimulationMetrics#NONE}, the default, nothing is timed.
+ * </p>
  *
  * @author Robert Greener
  * @since v0.0.1
  */
-public class CoreSimulationManager implements SimulationManager {
+public class CoreSimulationManager extends AbstractSimulationManager {
     /**
-     * The start time of the simulation.
+     * The current time of the simulation.
      *
      * @since v0.0.1
      */
-    private final @NotNull ZonedDateTime startTime;
+    private @NotNull ZonedDateTime currentTime;
+
+    /**
+     * The current time and its tick, or null if the current time has not been converted to a tick yet. They are held
+     * together so that a thread never sees the tick of one time with another.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable CurrentTick currentTick = null;
 
     /**
-     * The end time of the simulation.
+     * The queue of messages to be sent, keyed by tick.
      *
      * @since v0.0.1
      */
-    private final @NotNull ZonedDateTime endTime;
+    private final @NotNull EventQueue messageQueue;
 
     /**
-     * The current time of the simulation.
+     * The agents in the simulation.
      *
      * @since v0.0.1
      */
-    private @NotNull ZonedDateTime currentTime;
+    private final @NotNull AgentRegistry agents = new AgentRegistry();
 
     /**
-     * The queue of messages to be sent.
+     * The {@link RecurrenceState} of each {@link Message} in the queue that is the next occurrence of a
+     * {@link Recurrence}.
      *
-     * @since v0.0.1
+     * @since v0.0.2
      */
-    private final @NotNull SortedMap<ZonedDateTime, Queue<Message>> messageQueue = new TreeMap<>();
+    private final @NotNull Map<Message, RecurrenceState> recurrences = new IdentityHashMap<>();
 
     /**
-     * The agents in the simulation.
+     * The {@link Executor} that {@link Message}s are sent on, or null if they are sent on the thread that called
+     * {@link #run()}.
      *
-     * @since v0.0.1
+     * @since v0.0.2
+     */
+    private @Nullable Executor dispatchExecutor = null;
+
+    /**
+     * The number of partitions that each wave of {@link Message}s is split into when sending in parallel.
+     *
+     * @since v0.0.2
+     */
+    private int dispatchPartitionCount = 1;
+
+    /**
+     * Whether a wave of {@link Message}s is currently being sent in parallel.
+     *
+     * @since v0.0.2
      */
-    private final @NotNull Map<UUID, Agent> agents = new LinkedHashMap<>();
+    private boolean dispatchingInParallel = false;
+
+    /**
+     * The {@link DispatchPartition} that the current thread is sending, if any.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ThreadLocal<DispatchPartition> currentPartition = new ThreadLocal<>();
+
+    /**
+     * The {@link MessageCombiner} for each class of {@link Message}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<Class<?>, MessageCombiner<Message>> combiners = new HashMap<>();
 
     /**
      * The {@link Logger} for this class.
@@ -70,76 +177,539 @@ public class CoreSimulationManager implements SimulationManager {
      * @since v0.0.1
      */
     public CoreSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime) {
-        this.startTime = startTime;
-        this.endTime = endTime;
-        this.currentTime = startTime;
+        this(startTime, endTime, new CalendarEventQueue());
+    }
+
+    /**
+     * Create a new {@link CoreSimulationManager}.
+     *
+     * @param startTime    The start time of the simulation.
+     * @param endTime      The end time of the simulation.
+     * @param messageQueue The empty {@link EventQueue} to hold the messages to be sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CoreSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                 final @NotNull EventQueue messageQueue) {
+        this(new SimulationClock(startTime), endTime, messageQueue);
     }
 
     /**
-     * Check that the time is valid.
+     * Create a new {@link CoreSimulationManager} with a {@link SimulationClock}, such as one with a coarser resolution
+     * than a nanosecond.
      *
-     * @param time The time to check.
-     * @throws IllegalArgumentException If the time is before the start time, after the end time, or before the
-     *                                  current time.
+     * @param clock        The {@link SimulationClock}, whose start time is the start time of the simulation.
+     * @param endTime      The end time of the simulation.
+     * @param messageQueue The empty {@link EventQueue} to hold the messages to be sent.
      * @author Robert Greener
-     * @since v0.0.1
+     * @since v0.0.2
      */
-    protected void checkTimeIsValid(final @NotNull ZonedDateTime time) {
-        if (time.isBefore(this.getStartTime())) {
-            throw new IllegalArgumentException(String.format("The time is before the start time %s",
-                    this.getStartTime()));
-        } else if (time.isAfter(this.getEndTime())) {
-            throw new IllegalArgumentException(String.format("The time is after the end time %s", this.getEndTime()));
-        } else if (time.isBefore(this.getCurrentTime())) {
-            throw new IllegalArgumentException(String.format("The time is before the current time %s",
-                    this.getCurrentTime()));
-        }
+    public CoreSimulationManager(final @NotNull SimulationClock clock, final @NotNull ZonedDateTime endTime,
+                                 final @NotNull EventQueue messageQueue) {
+        super(clock, endTime);
+        this.currentTime = clock.getStartTime();
+        this.messageQueue = messageQueue;
     }
 
     @Override
-    public @NotNull ZonedDateTime getStartTime() {
-        return startTime;
+    public @NotNull ZonedDateTime getCurrentTime() {
+        return currentTime;
     }
 
     @Override
-    public @NotNull ZonedDateTime getEndTime() {
-        return endTime;
+    protected long getCurrentTick() {
+        var time = currentTime;
+        var current = currentTick;
+        if (current == null || current.time() != time) {
+            current = new CurrentTick(time, super.toTick(time));
+            currentTick = current;
+        }
+        return current.tick();
     }
 
     @Override
-    public @NotNull ZonedDateTime getCurrentTime() {
-        return currentTime;
+    protected long toTick(final @NotNull ZonedDateTime time) {
+        return time == currentTime ? getCurrentTick() : super.toTick(time);
     }
 
     @Override
     public void scheduleMessage(final @NotNull Message message, final @NotNull ZonedDateTime time) {
-        checkTimeIsValid(time);
+        var tick = toValidTick(time);
 
         logger.atDebug().log("Scheduling message {} for time {}", message, time);
 
-        messageQueue.putIfAbsent(time, new LinkedList<>());
+        scheduleMessageAtTick(message, tick);
+    }
 
-        var queue = messageQueue.get(time);
-        queue.add(message);
+    /**
+     * Schedule a {@link Message} to be sent at a tick that has already been checked.
+     * Both {@link #scheduleMessage(Message, ZonedDateTime)} and {@link #sendMessageNow(Message)} schedule through
+     * this method, so {@link #sendMessageNow(Message)} never converts the current time.
+     *
+     * @param message The {@link Message} to be sent.
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void scheduleMessageAtTick(final @NotNull Message message, final long tick) {
+        if (isMetricsEnabled()) {
+            getMetrics().messageScheduled(message.getClass());
+        }
+        if (dispatchingInParallel) {
+            var partition = currentPartition.get();
+            if (partition != null) {
+                partition.scheduled.add(new ScheduledMessage(tick, message));
+                return;
+            }
+        }
+        messageQueue.add(tick, message);
     }
 
     @Override
     public void sendMessageNow(final @NotNull Message message) {
-        scheduleMessage(message, this.getCurrentTime());
+        var tick = getCurrentTick();
+        checkTickIsValid(tick);
+
+        logger.atDebug().log("Sending message {} now at time {}", message, currentTime);
+
+        scheduleMessageAtTick(message, tick);
+    }
+
+    /**
+     * Send a {@link MulticastMessage} at the current time.
+     * It is queued as one {@link Message}, and is only expanded into its deliveries when it is sent.
+     *
+     * @param message The {@link MulticastMessage} to send.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void sendMulticastNow(final @NotNull MulticastMessage message) {
+        sendMessageNow(message);
+    }
+
+    @Override
+    public void scheduleMessages(final @NotNull Collection<? extends Message> messages,
+                                 final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+
+        logger.atDebug().log("Scheduling {} messages for time {}", messages::size, () -> time);
+
+        if (isMetricsEnabled()) {
+            for (var message : messages) {
+                getMetrics().messageScheduled(message.getClass());
+            }
+        }
+        if (dispatchingInParallel) {
+            var partition = currentPartition.get();
+            if (partition != null) {
+                for (var message : messages) {
+                    partition.scheduled.add(new ScheduledMessage(tick, message));
+                }
+                return;
+            }
+        }
+        messageQueue.addAll(tick, messages);
+    }
+
+    /**
+     * Schedule a {@link Recurrence}, so that its {@link Message} is sent at each occurrence.
+     * Only the next occurrence is created and queued; the one after it is created once it is sent.
+     * <p>
+     * The first occurrence is sent in the order that it was scheduled with the other {@link Message}s for its time.
+     * Each later occurrence is queued when the one before it is sent, so it is sent after the {@link Message}s that
+     * were scheduled for its time before then, whether they were scheduled before or after the {@link Recurrence}.
+     * </p>
+     *
+     * @param recurrence The {@link Recurrence} to schedule.
+     * @throws IllegalArgumentException If the start time of the {@link Recurrence} is before the start time or the
+     *                                  current time, or if its interval is shorter than the resolution of the
+     *                                  {@link SimulationClock}, too long for it, or not a whole number of its ticks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void scheduleRecurringMessages(final @NotNull Recurrence recurrence) {
+        logger.atDebug().log("Scheduling recurrence {}", recurrence);
+
+        long intervalTicks;
+        try {
+            intervalTicks = toTicks(recurrence.interval());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("The interval %s is too long for the resolution %s",
+                    recurrence.interval(), getClock().getResolution()), e);
+        }
+        if (intervalTicks <= 0) {
+            throw new IllegalArgumentException(String.format("The interval %s is shorter than the resolution %s",
+                    recurrence.interval(), getClock().getResolution()));
+        }
+        if (!getClock().getResolution().multipliedBy(intervalTicks).equals(recurrence.interval())) {
+            throw new IllegalArgumentException(String.format("The interval %s is not a whole number of ticks of the " +
+                    "resolution %s", recurrence.interval(), getClock().getResolution()));
+        }
+        if (recurrence.startTime().isAfter(this.getEndTime())) {
+            return;
+        }
+
+        var startTick = toValidTick(recurrence.startTime());
+        long endTick;
+        try {
+            endTick = toTick(recurrence.endTime());
+        } catch (ArithmeticException e) {
+            // The end time is after the start time, so it can only be too far after it.
+            endTick = Long.MAX_VALUE;
+        }
+        var lastTick = Math.min(endTick - 1, getEndTick());
+        if (startTick > lastTick) {
+            return;
+        }
+        scheduleOccurrence(new RecurrenceState(recurrence.messageFactory(), intervalTicks, lastTick), startTick);
+    }
+
+    /**
+     * Create and schedule an occurrence of a {@link Recurrence}.
+     * The occurrence is registered before it is scheduled, as it may be sent as soon as it is scheduled, and is
+     * unregistered again if it can not be scheduled.
+     *
+     * @param recurrence The {@link RecurrenceState} of the {@link Recurrence}.
+     * @param tick       The tick of the occurrence.
+     * @throws IllegalArgumentException If the tick is not valid.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void scheduleOccurrence(final @NotNull RecurrenceState recurrence, final long tick) {
+        checkTickIsValid(tick);
+        var time = fromTick(tick);
+        var message = recurrence.messageFactory.createMessage(time);
+        recurrence.tick = tick;
+        synchronized (recurrences) {
+            recurrences.put(message, recurrence);
+        }
+        try {
+            logger.atDebug().log("Scheduling occurrence {} for time {}", message, time);
+            scheduleMessageAtTick(message, tick);
+        } catch (RuntimeException | Error e) {
+            synchronized (recurrences) {
+                recurrences.remove(message);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Schedule the next occurrence of a {@link Recurrence}, if a {@link Message} that is being sent is an occurrence
+     * of one.
+     * This must be called for every {@link Message} that is taken from the queue to be sent.
+     *
+     * @param message The {@link Message} that is being sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void rescheduleIfRecurring(final @NotNull Message message) {
+        RecurrenceState recurrence;
+        synchronized (recurrences) {
+            if (recurrences.isEmpty()) {
+                return;
+            }
+            recurrence = recurrences.remove(message);
+        }
+        if (recurrence == null) {
+            return;
+        }
+        var next = recurrence.tick + recurrence.intervalTicks;
+        if (next > recurrence.tick && next <= recurrence.lastTick) {
+            scheduleOccurrence(recurrence, next);
+        }
     }
 
     @Override
     public void run() {
         logger.atInfo().log("Running simulation from {} to {}", this.getStartTime(), this.getEndTime());
 
-        while (this.getCurrentTime().isBefore(this.getEndTime()) && !messageQueue.isEmpty()) {
-            currentTime = messageQueue.firstKey();
-            runForTime(currentTime);
-        }
+        runBeforeTick(Long.MAX_VALUE);
 
         logger.atInfo().log("Simulation finished");
     }
 
+    /**
+     * Run the simulation until a time.
+     * Every {@link Message} that is scheduled before the time is sent, and the simulation can then be continued with
+     * {@link #run()} or this method, or saved with {@link #checkpoint(Path, CheckpointCodecs)}.
+     *
+     * @param time The time to run the simulation until, exclusive.
+     * @throws IllegalArgumentException If the time is before the current time, or is not within the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void runUntil(final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+
+        logger.atInfo().log("Running simulation from {} until {}", this.getCurrentTime(), time);
+
+        runBeforeTick(tick);
+    }
+
+    /**
+     * Send every {@link Message} that is scheduled before a tick.
+     * Both {@link #run()} and {@link #runUntil(ZonedDateTime)} run the simulation through this method.
+     *
+     * @param tick The tick to stop at, exclusive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void runBeforeTick(final long tick) {
+        getMetrics().runStarted();
+        try {
+            long nextTick;
+            while (getCurrentTick() < getEndTick() && (nextTick = getNextTick()) < tick) {
+                if (isMetricsEnabled()) {
+                    getMetrics().timeAdvanced(getClock().toNanos(nextTick), messageQueue.size(),
+                            messageQueue.distinctTickCount());
+                }
+                currentTime = fromTick(nextTick);
+                currentTick = new CurrentTick(currentTime, nextTick);
+                runForTime(currentTime);
+            }
+        } finally {
+            getMetrics().runFinished();
+        }
+    }
+
+    /**
+     * Get the next tick that the simulation has something to do at.
+     * By default, this is the tick of the next {@link Message} in the queue.
+     *
+     * @return The next tick, or {@link Long#MAX_VALUE} if there is nothing left to do.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected long getNextTick() {
+        return messageQueue.isEmpty() ? Long.MAX_VALUE : messageQueue.peekTick();
+    }
+
+    /**
+     * Save the state of the simulation to a file.
+     * <p>
+     * The checkpoint holds the current time, the state of the {@link CounterIdGenerator} in {@link Ids}, the
+     * {@link Message}s in the queue, the next occurrence of each {@link Recurrence}, and the {@link Agent}s. Any other
+     * {@link dev.r0bert.reagent.core.ids.IdGenerator} is not saved. An {@link Agent} whose class has a
+     * {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} in the {@link CheckpointCodecs} is written by it,
+     * and any other {@link CheckpointableAgent} has its state written. Other {@link Agent}s are not saved, and must be
+     * added again before restoring. The checkpoint is written to a temporary file first, which is then moved over the
+     * file, so an existing checkpoint is not lost if writing fails.
+     * </p>
+     * <p>
+     * This must not be called while the simulation is running.
+     * </p>
+     *
+     * @param path   The {@link Path} of the file to save to.
+     * @param codecs The {@link CheckpointCodecs} for the {@link Message}s, {@link MessageFactory}s and
+     *               {@link Agent}s in the simulation.
+     * @throws IOException              If the file could not be written.
+     * @throws IllegalArgumentException If there is no {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} for
+     *                                  a {@link Message} or {@link MessageFactory} in the queue.
+     * @author Robert Greener
+     * @see #restore(Path, CheckpointCodecs)
+     * @since v0.0.2
+     */
+    public void checkpoint(final @NotNull Path path, final @NotNull CheckpointCodecs codecs) throws IOException {
+        logger.atInfo().log("Saving checkpoint at time {} to {}", this.getCurrentTime(), path);
+
+        var directory = path.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new CheckpointOutput(temporary, codecs)) {
+                writeCheckpoint(output, codecs);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Write the state of the simulation.
+     *
+     * @param output The {@link CheckpointOutput} to write to.
+     * @param codecs The {@link CheckpointCodecs} that the {@link CheckpointOutput} writes with.
+     * @throws IOException If the state could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void writeCheckpoint(final @NotNull CheckpointOutput output, final @NotNull CheckpointCodecs codecs)
+            throws IOException {
+        output.writeTime(this.getStartTime());
+        output.writeTime(this.getEndTime());
+        output.writeLong(getClock().getResolution().toNanos());
+        output.writeTime(this.getCurrentTime());
+        if (Ids.getIdGenerator() instanceof CounterIdGenerator idGenerator) {
+            output.writeBoolean(true);
+            output.writeLong(idGenerator.getSeed());
+            output.writeLong(idGenerator.getStreamCount());
+        } else {
+            logger.atWarn().log("The id generator {} is not saved in the checkpoint", Ids::getIdGenerator);
+            output.writeBoolean(false);
+        }
+
+        var encoded = 0;
+        var checkpointable = 0;
+        for (var handle = 0; handle < agents.size(); handle++) {
+            var agent = agents.getAgent(handle);
+            if (codecs.isRegistered(agent.getClass())) {
+                encoded++;
+            } else if (agent instanceof CheckpointableAgent) {
+                checkpointable++;
+            }
+        }
+        output.writeInt(encoded);
+        for (var handle = 0; handle < agents.size(); handle++) {
+            var agent = agents.getAgent(handle);
+            if (codecs.isRegistered(agent.getClass())) {
+                output.writeObject(agent);
+            }
+        }
+        output.writeInt(checkpointable);
+        for (var handle = 0; handle < agents.size(); handle++) {
+            if (!codecs.isRegistered(agents.getAgent(handle).getClass())
+                    && agents.getAgent(handle) instanceof CheckpointableAgent agent) {
+                output.writeUUID(agent.getUUID());
+                agent.writeState(output);
+            }
+        }
+
+        output.writeLong(messageQueue.size());
+        try {
+            messageQueue.forEach((tick, message) -> {
+                try {
+                    output.writeLong(tick);
+                    output.writeObject(message);
+                    var recurrence = recurrences.get(message);
+                    output.writeBoolean(recurrence != null);
+                    if (recurrence != null) {
+                        output.writeObject(recurrence.messageFactory);
+                        output.writeLong(recurrence.intervalTicks);
+                        output.writeLong(recurrence.lastTick);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeCheckpointState(output);
+    }
+
+    /**
+     * Write the state that a subclass adds to the simulation, after the state of this {@link CoreSimulationManager}.
+     * By default, nothing is written.
+     *
+     * @param output The {@link CheckpointOutput} to write to.
+     * @throws IOException If the state could not be written.
+     * @author Robert Greener
+     * @see #readCheckpointState(CheckpointInput)
+     * @since v0.0.2
+     */
+    protected void writeCheckpointState(final @NotNull CheckpointOutput output) throws IOException {
+    }
+
+    /**
+     * Read the state written by {@link #writeCheckpointState(CheckpointOutput)}, after the state of this
+     * {@link CoreSimulationManager} has been restored. By default, nothing is read.
+     *
+     * @param input The {@link CheckpointInput} to read from.
+     * @throws IOException If the state could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected void readCheckpointState(final @NotNull CheckpointInput input) throws IOException {
+    }
+
+    /**
+     * Restore the state of the simulation from a file written by {@link #checkpoint(Path, CheckpointCodecs)}.
+     * <p>
+     * This must be called on a new {@link CoreSimulationManager} with the same start and end times and
+     * {@link SimulationClock} resolution as the one that was saved, before any {@link Message}s are scheduled. Every
+     * {@link CheckpointableAgent} that was saved, and every {@link Agent} that was not saved but is sent
+     * {@link Message}s, must already have been added to it. If a {@link CounterIdGenerator} was saved, it is resumed
+     * and set in {@link Ids}, so new ids are different to the ids in the checkpoint.
+     * </p>
+     * <p>
+     * {@link Ids} is shared by the whole process, so restoring replaces the
+     * {@link dev.r0bert.reagent.core.ids.IdGenerator} used by every other simulation in the same JVM, and should not be
+     * done while another simulation is running.
+     * </p>
+     *
+     * @param path   The {@link Path} of the file to restore from.
+     * @param codecs The {@link CheckpointCodecs} for the {@link Message}s, {@link MessageFactory}s and
+     *               {@link Agent}s in the checkpoint.
+     * @throws IOException              If the file could not be read, or is not a checkpoint.
+     * @throws IllegalArgumentException If the start time, end time or resolution of the checkpoint is different, or
+     *                                  there is no {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} for an
+     *                                  object in the checkpoint.
+     * @throws IllegalStateException    If a {@link Message} has already been scheduled, or a
+     *                                  {@link CheckpointableAgent} in the checkpoint has not been added.
+     * @author Robert Greener
+     * @see #checkpoint(Path, CheckpointCodecs)
+     * @since v0.0.2
+     */
+    public void restore(final @NotNull Path path, final @NotNull CheckpointCodecs codecs) throws IOException {
+        if (!messageQueue.isEmpty()) {
+            throw new IllegalStateException("Messages have already been scheduled");
+        }
+
+        logger.atInfo().log("Restoring checkpoint from {}", path);
+
+        try (var input = new CheckpointInput(path, codecs, agents::getAgent)) {
+            var startTime = input.readTime();
+            var endTime = input.readTime();
+            if (!startTime.isEqual(this.getStartTime()) || !endTime.isEqual(this.getEndTime())) {
+                throw new IllegalArgumentException(String.format(
+                        "The checkpoint is for a simulation from %s to %s", startTime, endTime));
+            }
+            var resolution = Duration.ofNanos(input.readLong());
+            if (!resolution.equals(getClock().getResolution())) {
+                throw new IllegalArgumentException(String.format(
+                        "The checkpoint is for a simulation with a resolution of %s", resolution));
+            }
+            var time = input.readTime();
+            if (input.readBoolean()) {
+                var seed = input.readLong();
+                Ids.setIdGenerator(new CounterIdGenerator(seed, input.readLong()));
+            }
+
+            var encoded = input.readInt();
+            for (var i = 0; i < encoded; i++) {
+                addAgent((Agent) input.readObject());
+            }
+            var checkpointable = input.readInt();
+            for (var i = 0; i < checkpointable; i++) {
+                var uuid = input.readUUID();
+                if (!(agents.getAgent(uuid) instanceof CheckpointableAgent agent)) {
+                    throw new IllegalStateException(String.format(
+                            "The checkpointable agent %s has not been added", uuid));
+                }
+                agent.readState(input);
+            }
+
+            var size = input.readLong();
+            for (var i = 0L; i < size; i++) {
+                var tick = input.readLong();
+                var message = (Message) input.readObject();
+                if (input.readBoolean()) {
+                    var messageFactory = (MessageFactory) input.readObject();
+                    var intervalTicks = input.readLong();
+                    var recurrence = new RecurrenceState(messageFactory, intervalTicks, input.readLong());
+                    recurrence.tick = tick;
+                    recurrences.put(message, recurrence);
+                }
+                messageQueue.add(tick, message);
+            }
+            readCheckpointState(input);
+            currentTime = time.withZoneSameInstant(this.getStartTime().getZone());
+        }
+    }
+
     /**
      * Run the simulation for a specific time.
      *
@@ -149,26 +719,374 @@ public class CoreSimulationManager implements SimulationManager {
      * @since v0.0.1
      */
     protected void runForTime(final @NotNull ZonedDateTime time) {
-        checkTimeIsValid(time);
+        var tick = toValidTick(time);
 
         logger.atInfo().log("Running simulation for time {}", time);
 
-        if (!messageQueue.containsKey(time)) {
+        if (dispatchExecutor != null) {
+            runForTickInParallel(tick, dispatchExecutor);
             return;
+        } else if (!combiners.isEmpty()) {
+            runForTickInParallel(tick, Runnable::run);
+            return;
+        }
+
+        Message message;
+        while ((message = messageQueue.poll(tick)) != null) {
+            rescheduleIfRecurring(message);
+            if (message instanceof MulticastMessage multicast) {
+                for (var i = 0; i < multicast.getRecipientCount(); i++) {
+                    var delivery = multicast.getDelivery(i);
+                    dispatch(agents.getDestination(delivery), delivery);
+                }
+            } else {
+                dispatch(agents.getDestination(message), message);
+            }
         }
+    }
 
-        while (!messageQueue.get(time).isEmpty()) {
-            var message = messageQueue.get(time).remove();
-            var agent = agents.get(message.getDestination());
-            agent.handleMessage(message);
+    /**
+     * Send the {@link Message}s for a tick in waves on an {@link Executor}, combining them with the
+     * {@link MessageCombiner}s.
+     *
+     * @param tick     The tick to send the {@link Message}s for.
+     * @param executor The {@link Executor} to send the {@link Message}s on.
+     * @author Robert Greener
+     * @see #setDispatchExecutor(Executor)
+     * @since v0.0.2
+     */
+    private void runForTickInParallel(final long tick, final @NotNull Executor executor) {
+        var partitions = new DispatchPartition[dispatchPartitionCount];
+        for (var i = 0; i < partitions.length; i++) {
+            partitions[i] = new DispatchPartition();
         }
 
-        messageQueue.remove(time);
+        var wave = 0;
+        while (true) {
+            var waveSize = 0;
+            Message message;
+            while ((message = messageQueue.poll(tick)) != null) {
+                rescheduleIfRecurring(message);
+                if (message instanceof MulticastMessage multicast) {
+                    for (var i = 0; i < multicast.getRecipientCount(); i++) {
+                        var delivery = multicast.getDelivery(i);
+                        var index = Math.floorMod(delivery.getDestination().hashCode(), partitions.length);
+                        partitions[index].add(delivery, combiners);
+                    }
+                    waveSize += multicast.getRecipientCount();
+                } else {
+                    var index = Math.floorMod(message.getDestination().hashCode(), partitions.length);
+                    partitions[index].add(message, combiners);
+                    waveSize++;
+                }
+            }
+            if (waveSize == 0) {
+                return;
+            }
+
+            logger.atDebug().log("Sending wave {} of {} messages", wave++, waveSize);
+
+            var futures = new ArrayList<CompletableFuture<Void>>(partitions.length);
+            dispatchingInParallel = true;
+            try {
+                for (var partition : partitions) {
+                    if (!partition.messages.isEmpty()) {
+                        futures.add(CompletableFuture.runAsync(() -> partition.dispatch(this), executor));
+                    }
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                } else if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            } finally {
+                dispatchingInParallel = false;
+            }
+
+            for (var partition : partitions) {
+                for (var scheduled : partition.scheduled) {
+                    messageQueue.add(scheduled.tick(), scheduled.message());
+                }
+                partition.scheduled.clear();
+            }
+        }
+    }
+
+    /**
+     * Send the {@link Message}s for each time in parallel on an {@link Executor}.
+     * The number of partitions is four times the parallelism of the {@link Executor} if it is a {@link ForkJoinPool},
+     * or four times the number of available processors otherwise.
+     *
+     * @param executor The {@link Executor} to send {@link Message}s on, or null to send them on the thread that called
+     *                 {@link #run()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setDispatchExecutor(final @Nullable Executor executor) {
+        var parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() :
+                Runtime.getRuntime().availableProcessors();
+        setDispatchExecutor(executor, 4 * parallelism);
+    }
+
+    /**
+     * Send the {@link Message}s for each time in parallel on an {@link Executor}.
+     *
+     * @param executor       The {@link Executor} to send {@link Message}s on, or null to send them on the thread that
+     *                       called {@link #run()}.
+     * @param partitionCount The number of partitions to split the {@link Message}s for each wave into.
+     * @throws IllegalArgumentException If the partition count is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setDispatchExecutor(final @Nullable Executor executor, final int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partition count is not positive");
+        }
+        logger.atDebug().log("Setting dispatch executor {} with {} partitions", executor, partitionCount);
+        this.dispatchExecutor = executor;
+        this.dispatchPartitionCount = partitionCount;
+    }
+
+    /**
+     * Get the {@link Executor} that {@link Message}s are sent on.
+     *
+     * @return The {@link Executor}, or null if {@link Message}s are sent on the thread that called {@link #run()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Executor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    /**
+     * Set the {@link MessageCombiner} for a class of {@link Message}.
+     * Only {@link Message}s whose class is exactly the class are combined by it.
+     * This must not be called while the simulation is running.
+     *
+     * @param messageClass The class of {@link Message}.
+     * @param combiner     The {@link MessageCombiner}, or null to stop combining {@link Message}s of the class.
+     * @param <M>          The class of {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends Message> void setMessageCombiner(final @NotNull Class<M> messageClass,
+                                                       final @Nullable MessageCombiner<M> combiner) {
+        logger.atDebug().log("Setting message combiner {} for {}", combiner, messageClass);
+        if (combiner == null) {
+            combiners.remove(messageClass);
+        } else {
+            combiners.put(messageClass, (MessageCombiner<Message>) combiner);
+        }
+    }
+
+    /**
+     * Get the {@link MessageCombiner} for a class of {@link Message}.
+     *
+     * @param messageClass The class of {@link Message}.
+     * @param <M>          The class of {@link Message}.
+     * @return The {@link MessageCombiner}, or null if {@link Message}s of the class are not combined.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends Message> @Nullable MessageCombiner<M> getMessageCombiner(final @NotNull Class<M> messageClass) {
+        return (MessageCombiner<M>) combiners.get(messageClass);
+    }
+
+    /**
+     * Get the {@link EventQueue} that holds the {@link Message}s to be sent.
+     *
+     * @return The {@link EventQueue}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected @NotNull EventQueue getMessageQueue() {
+        return messageQueue;
+    }
+
+    /**
+     * Get an {@link Agent} in the simulation.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The {@link Agent}, or null if there is no {@link Agent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected @Nullable Agent getAgent(final @NotNull UUID uuid) {
+        return agents.getAgent(uuid);
     }
 
     @Override
     public void addAgent(final @NotNull Agent agent) {
         logger.atDebug().log("Adding agent {}", agent);
-        this.agents.put(agent.getUUID(), agent);
+        this.agents.register(agent);
+    }
+
+    @Override
+    public int getAgentHandle(final @NotNull UUID agent) {
+        return agents.getHandle(agent);
+    }
+
+    /**
+     * A {@link Message} that was scheduled while a wave was being sent in parallel.
+     *
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @param message The {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record ScheduledMessage(long tick, @NotNull Message message) {
+    }
+
+    /**
+     * The destination and class of the {@link Message}s that are combined into one.
+     *
+     * @param destination The {@link UUID} of the destination.
+     * @param type        The class of the {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record CombinedKey(@NotNull UUID destination, @NotNull Class<?> type) {
+    }
+
+    /**
+     * A {@link CurrentTick} is the current time and its tick.
+     *
+     * @param time The current time.
+     * @param tick The tick of the current time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record CurrentTick(@NotNull ZonedDateTime time, long tick) {
+    }
+
+    /**
+     * The state of a scheduled {@link Recurrence}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class RecurrenceState {
+        /**
+         * The {@link MessageFactory} that creates the {@link Message} for each occurrence.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull MessageFactory messageFactory;
+
+        /**
+         * The number of ticks between each occurrence.
+         *
+         * @since v0.0.2
+         */
+        private final long intervalTicks;
+
+        /**
+         * The last tick that an occurrence may be at.
+         *
+         * @since v0.0.2
+         */
+        private final long lastTick;
+
+        /**
+         * The tick of the occurrence in the queue.
+         *
+         * @since v0.0.2
+         */
+        private long tick;
+
+        /**
+         * Create a new {@link RecurrenceState}.
+         *
+         * @param messageFactory The {@link MessageFactory} that creates the {@link Message} for each occurrence.
+         * @param intervalTicks  The number of ticks between each occurrence.
+         * @param lastTick       The last tick that an occurrence may be at.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private RecurrenceState(final @NotNull MessageFactory messageFactory, final long intervalTicks,
+                                final long lastTick) {
+            this.messageFactory = messageFactory;
+            this.intervalTicks = intervalTicks;
+            this.lastTick = lastTick;
+        }
+    }
+
+    /**
+     * A partition of a wave of {@link Message}s that is sent on a single thread.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class DispatchPartition {
+        /**
+         * The {@link Message}s to send, in order.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull List<Message> messages = new ArrayList<>();
+
+        /**
+         * The {@link Message}s that were scheduled while sending this partition.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull List<ScheduledMessage> scheduled = new ArrayList<>();
+
+        /**
+         * The index in {@link #messages} of the {@link Message} that each destination and class are combined into.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Map<CombinedKey, Integer> combined = new HashMap<>();
+
+        /**
+         * Add a {@link Message} to send, combining it with an earlier {@link Message} in this partition if there is a
+         * {@link MessageCombiner} for its class.
+         *
+         * @param message   The {@link Message}.
+         * @param combiners The {@link MessageCombiner} for each class of {@link Message}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void add(final @NotNull Message message,
+                         final @NotNull Map<Class<?>, MessageCombiner<Message>> combiners) {
+            var combiner = combiners.isEmpty() ? null : combiners.get(message.getClass());
+            if (combiner == null) {
+                messages.add(message);
+                return;
+            }
+            var index = combined.putIfAbsent(new CombinedKey(message.getDestination(), message.getClass()),
+                    messages.size());
+            if (index == null) {
+                messages.add(message);
+            } else {
+                messages.set(index, combiner.combine(messages.get(index), message));
+            }
+        }
+
+        /**
+         * Send the {@link Message}s in this partition.
+         *
+         * @param simulationManager The {@link CoreSimulationManager} that is sending the {@link Message}s.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void dispatch(final @NotNull CoreSimulationManager simulationManager) {
+            simulationManager.currentPartition.set(this);
+            try {
+                for (var message : messages) {
+                    simulationManager.dispatch(simulationManager.agents.getDestination(message), message);
+                }
+            } finally {
+                messages.clear();
+                combined.clear();
+                simulationManager.currentPartition.remove();
+            }
+        }
     }
 }
@@ -0,0 +1,43 @@
+package dev.r0bert.reagent.core.simulationmanager;
+
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MessageFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * A {@link Recurrence} is a {@link Message} that is sent at a regular interval.
+ * A {@link Message} is created by the {@link MessageFactory} for each occurrence, from the start time (inclusive) to
+ * the end time (exclusive).
+ *
+ * @param messageFactory The {@link MessageFactory} that creates the {@link Message} for each occurrence.
+ * @param interval       The {@link Duration} between each occurrence.
+ * @param startTime      The time of the first occurrence.
+ * @param endTime        The time to stop at.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public record Recurrence(@NotNull MessageFactory messageFactory, @NotNull Duration interval,
+                         @NotNull ZonedDateTime startTime, @NotNull ZonedDateTime endTime) {
+    /**
+     * Create a new {@link Recurrence}.
+     *
+     * @throws IllegalArgumentException If the start time is not before the end time, or if the interval is zero or
+     *                                  negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public Recurrence {
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("The start time is not before the end time");
+        }
+        if (interval.isZero()) {
+            throw new IllegalArgumentException("The time interval is zero.");
+        }
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("The time interval is negative");
+        }
+    }
+}
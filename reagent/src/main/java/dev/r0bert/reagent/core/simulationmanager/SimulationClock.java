@@ -0,0 +1,239 @@
+package dev.r0bert.reagent.core.simulationmanager;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * A {@link SimulationClock} converts between the times of a simulation and ticks.
+ * <p>
+ * A tick is a whole number of resolutions since the start time, held as a primitive {@code long}, so that
+ * {@link SimulationManager}s can compare and add times without allocating or looking up time-zone rules.
+ * {@link ZonedDateTime}s are only created at the edges of the API. A time that is not a whole number of resolutions
+ * from the start time is rounded down to the tick before it by {@link #toTick(ZonedDateTime)}, and can be found with
+ * {@link #isOnTick(ZonedDateTime)}.
+ * </p>
+ * <p>
+ * Times are converted back from ticks through their instant, so they are always correct across daylight saving
+ * changes, and are in the time-zone of the start time. The last time that was converted is cached, as many
+ * {@link dev.r0bert.reagent.core.messages.Message}s are sent at the same time. A {@link SimulationClock} is immutable
+ * apart from this cache, and is safe to use from many threads.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class SimulationClock {
+    /**
+     * The resolution of a {@link SimulationClock} that is created without one, which is one nanosecond.
+     *
+     * @since v0.0.2
+     */
+    public static final @NotNull Duration DEFAULT_RESOLUTION = Duration.ofNanos(1);
+
+    /**
+     * The start time of the simulation, which is tick zero.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ZonedDateTime startTime;
+
+    /**
+     * The number of seconds from the epoch to the start time.
+     *
+     * @since v0.0.2
+     */
+    private final long startEpochSecond;
+
+    /**
+     * The nanosecond of the second of the start time.
+     *
+     * @since v0.0.2
+     */
+    private final int startNano;
+
+    /**
+     * The number of nanoseconds in a tick.
+     *
+     * @since v0.0.2
+     */
+    private final long resolutionNanos;
+
+    /**
+     * The last tick that was converted to a time, and the time, or null if no tick has been converted yet.
+     *
+     * @since v0.0.2
+     */
+    private volatile @Nullable ConvertedTick lastConverted = null;
+
+    /**
+     * Create a new {@link SimulationClock} with the {@link #DEFAULT_RESOLUTION}.
+     *
+     * @param startTime The start time of the simulation, which is tick zero.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public SimulationClock(final @NotNull ZonedDateTime startTime) {
+        this(startTime, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Create a new {@link SimulationClock}.
+     *
+     * @param startTime  The start time of the simulation, which is tick zero.
+     * @param resolution The {@link Duration} of a tick.
+     * @throws IllegalArgumentException If the resolution is not positive, or is too long.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public SimulationClock(final @NotNull ZonedDateTime startTime, final @NotNull Duration resolution) {
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("The resolution is not positive");
+        }
+        try {
+            this.resolutionNanos = resolution.toNanos();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The resolution is too long", e);
+        }
+        this.startTime = startTime;
+        this.startEpochSecond = startTime.toEpochSecond();
+        this.startNano = startTime.getNano();
+    }
+
+    /**
+     * Convert a time to a tick.
+     *
+     * @param time The time to convert.
+     * @return The number of ticks since the start time, rounded down.
+     * @throws ArithmeticException If the time is too far from the start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long toTick(final @NotNull ZonedDateTime time) {
+        var nanos = nanosSinceStart(time);
+        return resolutionNanos == 1 ? nanos : Math.floorDiv(nanos, resolutionNanos);
+    }
+
+    /**
+     * Check whether a time is a whole number of resolutions from the start time, so that it is not rounded by
+     * {@link #toTick(ZonedDateTime)}.
+     *
+     * @param time The time to check.
+     * @return Whether the time falls on a tick.
+     * @throws ArithmeticException If the time is too far from the start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean isOnTick(final @NotNull ZonedDateTime time) {
+        return resolutionNanos == 1 || Math.floorMod(nanosSinceStart(time), resolutionNanos) == 0;
+    }
+
+    /**
+     * Get the number of nanoseconds from the start time to a time.
+     *
+     * @param time The time.
+     * @return The number of nanoseconds, which is negative if the time is before the start time.
+     * @throws ArithmeticException If the time is too far from the start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private long nanosSinceStart(final @NotNull ZonedDateTime time) {
+        var seconds = Math.subtractExact(time.toEpochSecond(), startEpochSecond);
+        return Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), time.getNano() - startNano);
+    }
+
+    /**
+     * Convert a tick to a time in the time-zone of the start time.
+     *
+     * @param tick The number of ticks since the start time.
+     * @return The time.
+     * @throws ArithmeticException If the tick is too far from the start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull ZonedDateTime toTime(final long tick) {
+        var converted = lastConverted;
+        if (converted != null && converted.tick() == tick) {
+            return converted.time();
+        }
+        var nanos = resolutionNanos == 1 ? tick : Math.multiplyExact(tick, resolutionNanos);
+        var time = startTime.toInstant().plusNanos(nanos).atZone(startTime.getZone());
+        lastConverted = new ConvertedTick(tick, time);
+        return time;
+    }
+
+    /**
+     * Convert a {@link Duration} to a number of ticks.
+     *
+     * @param duration The {@link Duration} to convert.
+     * @return The number of ticks, rounded down.
+     * @throws ArithmeticException If the {@link Duration} is too long.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long toTicks(final @NotNull Duration duration) {
+        var nanos = duration.toNanos();
+        return resolutionNanos == 1 ? nanos : Math.floorDiv(nanos, resolutionNanos);
+    }
+
+    /**
+     * Convert a number of ticks to a number of nanoseconds.
+     *
+     * @param ticks The number of ticks to convert.
+     * @return The number of nanoseconds, or {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE} if it is too large to be
+     * a {@code long}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long toNanos(final long ticks) {
+        if (ticks > Long.MAX_VALUE / resolutionNanos) {
+            return Long.MAX_VALUE;
+        } else if (ticks < Long.MIN_VALUE / resolutionNanos) {
+            return Long.MIN_VALUE;
+        }
+        return ticks * resolutionNanos;
+    }
+
+    /**
+     * Get the start time of the simulation, which is tick zero.
+     *
+     * @return The start time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull ZonedDateTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Get the {@link Duration} of a tick.
+     *
+     * @return The resolution.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Duration getResolution() {
+        return Duration.ofNanos(resolutionNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationClock{" +
+                "startTime=" + startTime +
+                ", resolution=" + getResolution() +
+                '}';
+    }
+
+    /**
+     * A {@link ConvertedTick} is a tick and the time that it was converted to.
+     *
+     * @param tick The tick.
+     * @param time The time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record ConvertedTick(long tick, @NotNull ZonedDateTime time) {
+    }
+}
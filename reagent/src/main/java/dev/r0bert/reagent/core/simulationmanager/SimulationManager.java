@@ -2,9 +2,13 @@ package dev.r0bert.reagent.core.simulationmanager;
 
 import dev.r0bert.reagent.core.agents.Agent;
 import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.metrics.SimulationMetrics;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.UUID;
 
 /**
  * A {@link SimulationManager} is responsible for managing the simulation.
@@ -61,6 +65,72 @@ public interface SimulationManager {
      */
     void sendMessageNow(final @NotNull Message message);
 
+    /**
+     * Schedule {@link Message}s to be sent at a specific time, in the order of the {@link Collection}.
+     * By default, each {@link Message} is scheduled with {@link #scheduleMessage(Message, ZonedDateTime)};
+     * implementations should override this to check the time and find where to queue the {@link Message}s only once.
+     *
+     * @param messages The {@link Message}s to schedule.
+     * @param time     The time to send the {@link Message}s.
+     * @throws IllegalArgumentException If the time is not valid.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void scheduleMessages(final @NotNull Collection<? extends Message> messages,
+                                  final @NotNull ZonedDateTime time) {
+        for (var message : messages) {
+            scheduleMessage(message, time);
+        }
+    }
+
+    /**
+     * Send {@link Message}s at the current time, in the order of the {@link Collection}.
+     *
+     * @param messages The {@link Message}s to send.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void sendMessagesNow(final @NotNull Collection<? extends Message> messages) {
+        scheduleMessages(messages, this.getCurrentTime());
+    }
+
+    /**
+     * Send a {@link MulticastMessage} to each of its recipients at the current time.
+     * By default, each delivery of the {@link MulticastMessage} is sent with {@link #sendMessageNow(Message)};
+     * implementations that can queue the {@link MulticastMessage} as one {@link Message}, and expand it only when it is
+     * sent, should override this.
+     *
+     * @param message The {@link MulticastMessage} to send.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void sendMulticastNow(final @NotNull MulticastMessage message) {
+        for (var i = 0; i < message.getRecipientCount(); i++) {
+            sendMessageNow(message.getDelivery(i));
+        }
+    }
+
+    /**
+     * Schedule a {@link Recurrence}, so that its {@link Message} is sent at each occurrence.
+     * Occurrences after the end time of the simulation are not sent.
+     * <p>
+     * By default, a {@link Message} is created and scheduled for every occurrence up front. Implementations should
+     * override this to create only the next occurrence, and schedule the one after it once it is sent.
+     * </p>
+     *
+     * @param recurrence The {@link Recurrence} to schedule.
+     * @throws IllegalArgumentException If the start time of the {@link Recurrence} is not valid.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void scheduleRecurringMessages(final @NotNull Recurrence recurrence) {
+        for (var time = recurrence.startTime();
+             time.isBefore(recurrence.endTime()) && !time.isAfter(this.getEndTime());
+             time = time.plus(recurrence.interval())) {
+            this.scheduleMessage(recurrence.messageFactory().createMessage(time), time);
+        }
+    }
+
     /**
      * Run the simulation.
      *
@@ -77,4 +147,40 @@ public interface SimulationManager {
      * @since v0.0.1
      */
     void addAgent(final @NotNull Agent agent);
+
+    /**
+     * Get the handle of an {@link Agent}: a dense {@code int} that {@link Message}s can use to address the
+     * {@link Agent} with {@link Message#getDestinationHandle()}.
+     *
+     * @param agent The {@link UUID} of the {@link Agent}.
+     * @return The handle of the {@link Agent}, or -1 if it does not have one.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default int getAgentHandle(final @NotNull UUID agent) {
+        return -1;
+    }
+
+    /**
+     * Set the {@link SimulationMetrics} that this {@link SimulationManager} reports to.
+     * Metrics are optional, so by default this does nothing and {@link #getMetrics()} stays
+     * {@link SimulationMetrics#NONE}; implementations that extend {@link AbstractSimulationManager} report to them.
+     *
+     * @param metrics The {@link SimulationMetrics}, or {@link SimulationMetrics#NONE} to turn metrics off.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void setMetrics(final @NotNull SimulationMetrics metrics) {
+    }
+
+    /**
+     * Get the {@link SimulationMetrics} that this {@link SimulationManager} reports to.
+     *
+     * @return The {@link SimulationMetrics}, which is {@link SimulationMetrics#NONE} by default.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default @NotNull SimulationMetrics getMetrics() {
+        return SimulationMetrics.NONE;
+    }
 }
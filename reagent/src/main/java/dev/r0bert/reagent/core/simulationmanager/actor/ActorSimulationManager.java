@@ -0,0 +1,466 @@
+package dev.r0bert.reagent.core.simulationmanager.actor;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link ActorSimulationManager} is a {@link CoreSimulationManager} that gives each {@link Agent} its own mailbox.
+ * <p>
+ * When the simulation reaches a time, every {@link Message} for that time is put in the mailbox of its destination.
+ * Each non-empty mailbox is drained by its own task on an {@link Executor}, so an {@link Agent} that blocks in
+ * {@link Agent#handleMessage(Message)} does not hold up the others. A {@link Message} sent with
+ * {@link #sendMessageNow(Message)} goes straight into the mailbox of its destination. The simulation only moves on to
+ * the next time once every mailbox is empty and every {@link Agent} has finished handling its {@link Message}s.
+ * </p>
+ * <p>
+ * Each {@link Agent} handles its {@link Message}s one at a time, in the order they were put in its mailbox. A task
+ * handles at most {@link #DRAIN_BATCH_SIZE} {@link Message}s before it gives its thread to the other mailboxes and
+ * is submitted again, so that the mailboxes share an {@link Executor} with fewer threads than mailboxes fairly.
+ * {@link Agent}s must not be added while the simulation is running. The dispatch {@link Executor} and
+ * {@link dev.r0bert.reagent.core.messages.MessageCombiner}s of {@link CoreSimulationManager} are not used.
+ * </p>
+ * <p>
+ * If no {@link Executor} is given and the runtime does not support virtual threads, the mailboxes are drained on a
+ * fixed pool with a thread per available processor. An {@link Agent} that blocks in
+ * {@link Agent#handleMessage(Message)} then holds up one of those threads, and if every thread is blocked waiting for
+ * an {@link Agent} whose mailbox has not started draining, the simulation never moves on. Such {@link Agent}s need
+ * virtual threads, or an {@link Executor} with enough threads to be given to the constructor.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class ActorSimulationManager extends CoreSimulationManager {
+    /**
+     * The largest number of {@link Message}s that a task handles from a mailbox before it is submitted again.
+     *
+     * @since v0.0.2
+     */
+    static final int DRAIN_BATCH_SIZE = 64;
+
+    /**
+     * The {@link Executor} that mailboxes are drained on, or null if a new {@link ExecutorService} is created for each
+     * run.
+     *
+     * @since v0.0.2
+     */
+    private final @Nullable Executor executor;
+
+    /**
+     * The {@link Executor} that mailboxes are drained on during the current run.
+     *
+     * @since v0.0.2
+     */
+    private volatile @Nullable Executor runExecutor = null;
+
+    /**
+     * The mailboxes of the {@link Agent}s, created when an {@link Agent} is first sent a {@link Message}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * The number of {@link Message}s that have been put in a mailbox but not yet handled.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AtomicLong pending = new AtomicLong();
+
+    /**
+     * The monitor that {@link #runForTime(ZonedDateTime)} waits on until {@link #pending} reaches zero.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Object barrier = new Object();
+
+    /**
+     * The first exception thrown by an {@link Agent} at the current time.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * The lock that guards the message queue while the simulation is running.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Object queueLock = new Object();
+
+    /**
+     * The tick that mailboxes are currently being drained for, or {@link Long#MIN_VALUE} if they are not.
+     *
+     * @since v0.0.2
+     */
+    private volatile long mailboxTick = Long.MIN_VALUE;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(ActorSimulationManager.class);
+
+    /**
+     * Create a new {@link ActorSimulationManager}.
+     * Each run uses a new virtual thread per mailbox if the runtime supports virtual threads, or a fixed thread pool
+     * with a thread per available processor otherwise.
+     *
+     * @param startTime The start time of the simulation.
+     * @param endTime   The end time of the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ActorSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime) {
+        super(startTime, endTime);
+        this.executor = null;
+    }
+
+    /**
+     * Create a new {@link ActorSimulationManager}.
+     *
+     * @param startTime The start time of the simulation.
+     * @param endTime   The end time of the simulation.
+     * @param executor  The {@link Executor} to drain mailboxes on. It is not shut down by this
+     *                  {@link ActorSimulationManager}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ActorSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                  final @NotNull Executor executor) {
+        super(startTime, endTime);
+        this.executor = executor;
+    }
+
+    /**
+     * Create an {@link ExecutorService} that starts a new virtual thread for each task, if the runtime supports
+     * virtual threads, or a fixed thread pool with a thread per available processor otherwise.
+     *
+     * @return The {@link ExecutorService}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            var threads = Runtime.getRuntime().availableProcessors();
+            logger.atWarn().log("Virtual threads are not available, so mailboxes are drained on {} threads; agents " +
+                    "that block in handleMessage hold up the others", threads);
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    @Override
+    protected void scheduleMessageAtTick(final @NotNull Message message, final long tick) {
+        if (tick == mailboxTick) {
+            logger.atDebug().log("Delivering message {} now", message);
+            if (isMetricsEnabled()) {
+                getMetrics().messageScheduled(message.getClass());
+            }
+            deliver(message);
+            return;
+        }
+
+        synchronized (queueLock) {
+            super.scheduleMessageAtTick(message, tick);
+        }
+    }
+
+    @Override
+    public void scheduleMessages(final @NotNull Collection<? extends Message> messages,
+                                 final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+        if (tick == mailboxTick) {
+            for (var message : messages) {
+                scheduleMessageAtTick(message, tick);
+            }
+            return;
+        }
+
+        synchronized (queueLock) {
+            super.scheduleMessages(messages, time);
+        }
+    }
+
+    /**
+     * Send every {@link Message} that is scheduled before a tick.
+     * If no {@link Executor} was given, a new {@link ExecutorService} is created to drain the mailboxes, and is shut
+     * down once the run has finished. This is used by both {@link #run()} and {@link #runUntil(ZonedDateTime)}.
+     *
+     * @param tick The tick to stop at, exclusive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    protected void runBeforeTick(final long tick) {
+        runWithExecutor(() -> super.runBeforeTick(tick));
+    }
+
+    /**
+     * Run something with {@link #runExecutor} set, creating and shutting down a new {@link ExecutorService} if no
+     * {@link Executor} was given. If {@link #runExecutor} is already set, it is run as it is.
+     *
+     * @param runnable What to run.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void runWithExecutor(final @NotNull Runnable runnable) {
+        if (runExecutor != null) {
+            runnable.run();
+            return;
+        }
+
+        var ownedExecutor = executor == null ? newDefaultExecutor() : null;
+        runExecutor = ownedExecutor == null ? executor : ownedExecutor;
+        try {
+            runnable.run();
+        } finally {
+            runExecutor = null;
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Run the simulation for a specific time.
+     * Every {@link Message} for the time is put in a mailbox, and this method returns once every mailbox is empty.
+     *
+     * @param time The time to run the simulation for.
+     * @throws IllegalStateException If the thread is interrupted while waiting for the mailboxes to empty.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    protected void runForTime(final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+        if (runExecutor == null) {
+            runWithExecutor(() -> runForTime(time));
+            return;
+        }
+
+        logger.atInfo().log("Running simulation for time {}", time);
+
+        mailboxTick = tick;
+        try {
+            synchronized (queueLock) {
+                Message message;
+                while ((message = getMessageQueue().poll(tick)) != null) {
+                    deliver(message);
+                }
+            }
+            awaitEmptyMailboxes();
+        } finally {
+            mailboxTick = Long.MIN_VALUE;
+        }
+
+        var thrown = failure.getAndSet(null);
+        if (thrown instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (thrown instanceof Error error) {
+            throw error;
+        } else if (thrown != null) {
+            throw new CompletionException(thrown);
+        }
+    }
+
+    /**
+     * Put a {@link Message} in the mailbox of its destination, or of each of its recipients if it is a
+     * {@link MulticastMessage}, and start draining the mailboxes that are not already being drained.
+     *
+     * @param message The {@link Message}.
+     * @throws IllegalArgumentException If there is no {@link Agent} with the destination of the {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void deliver(final @NotNull Message message) {
+        rescheduleIfRecurring(message);
+        if (message instanceof MulticastMessage multicast) {
+            for (var i = 0; i < multicast.getRecipientCount(); i++) {
+                putInMailbox(multicast.getDelivery(i));
+            }
+        } else {
+            putInMailbox(message);
+        }
+    }
+
+    /**
+     * Put a {@link Message} in the mailbox of its destination, and start draining the mailbox if it is not already
+     * being drained.
+     *
+     * @param message The {@link Message}, which must not be a {@link MulticastMessage}.
+     * @throws IllegalArgumentException If there is no {@link Agent} with the destination of the {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void putInMailbox(final @NotNull Message message) {
+        var mailbox = mailboxes.computeIfAbsent(message.getDestination(), uuid -> {
+            var agent = getAgent(uuid);
+            if (agent == null) {
+                throw new IllegalArgumentException(String.format("There is no agent with UUID %s", uuid));
+            }
+            return new Mailbox(agent);
+        });
+        pending.incrementAndGet();
+        mailbox.messages.add(message);
+        if (mailbox.draining.compareAndSet(false, true)) {
+            startDraining(mailbox);
+        }
+    }
+
+    /**
+     * Start draining a mailbox on the {@link Executor}.
+     *
+     * @param mailbox The mailbox.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void startDraining(final @NotNull Mailbox mailbox) {
+        try {
+            runExecutor.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+            mailbox.draining.set(false);
+            failure.compareAndSet(null, e);
+            var dropped = 0;
+            while (mailbox.messages.poll() != null) {
+                dropped++;
+            }
+            messagesHandled(dropped);
+        }
+    }
+
+    /**
+     * Record that {@link Message}s have been handled, and wake up {@link #runForTime(ZonedDateTime)} if there are no
+     * {@link Message}s left.
+     *
+     * @param count The number of {@link Message}s that have been handled.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void messagesHandled(final long count) {
+        if (count > 0 && pending.addAndGet(-count) == 0) {
+            synchronized (barrier) {
+                barrier.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Wait until every mailbox is empty and every {@link Agent} has finished handling its {@link Message}s.
+     *
+     * @throws IllegalStateException If the thread is interrupted while waiting.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void awaitEmptyMailboxes() {
+        synchronized (barrier) {
+            while (pending.get() != 0) {
+                try {
+                    barrier.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the mailboxes to empty", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ActorSimulationManager{" +
+                "startTime=" + this.getStartTime() +
+                ", endTime=" + this.getEndTime() +
+                ", currentTime=" + this.getCurrentTime() +
+                ", executor=" + executor +
+                "}";
+    }
+
+    /**
+     * The mailbox of a single {@link Agent}.
+     * It is drained by at most one task at a time.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private final class Mailbox implements Runnable {
+        /**
+         * The {@link Agent} that owns this mailbox.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Agent agent;
+
+        /**
+         * The {@link Message}s waiting to be handled.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull ConcurrentLinkedQueue<Message> messages = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Whether a task is draining this mailbox.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * Create a new {@link Mailbox}.
+         *
+         * @param agent The {@link Agent} that owns this mailbox.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Mailbox(final @NotNull Agent agent) {
+            this.agent = agent;
+        }
+
+        /**
+         * Handle {@link Message}s until this mailbox is empty, or until {@link #DRAIN_BATCH_SIZE} {@link Message}s
+         * have been handled, in which case this mailbox is submitted to be drained again.
+         *
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        @Override
+        public void run() {
+            var handled = 0;
+            do {
+                Message message;
+                while ((message = messages.poll()) != null) {
+                    try {
+                        dispatch(agent, message);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        messagesHandled(1);
+                    }
+                    // A Message left in the mailbox is still pending, so the run can not finish and shut down the
+                    // Executor before this mailbox is submitted again.
+                    if (++handled >= DRAIN_BATCH_SIZE && !messages.isEmpty()) {
+                        startDraining(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!messages.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains the actor {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}, which gives
+ * each {@link dev.r0bert.reagent.core.agents.Agent} its own mailbox.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.actor;
@@ -0,0 +1,588 @@
+package dev.r0bert.reagent.core.simulationmanager.conservative;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.simulationmanager.AbstractSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.CalendarEventQueue;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.EventQueue;
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import dev.r0bert.reagent.core.simulationmanager.partition.PartitionAssignment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link ConservativeSimulationManager} is a conservative parallel discrete-event {@link AbstractSimulationManager}.
+ * <p>
+ * The {@link Agent}s are split into logical processes by a {@link PartitionAssignment}. Each logical process has its
+ * own {@link EventQueue} and clock. The simulation runs in rounds. At the start of a round, each logical process
+ * computes a safe horizon: the earliest time that any other logical process could still send it a {@link Message},
+ * which is the earliest pending time of that logical process plus its {@link Lookahead}. Every logical process then
+ * handles, in parallel, all of its {@link Message}s that are before its horizon. {@link Message}s sent to other
+ * logical processes are held until the end of the round and then delivered. If no logical process can make progress,
+ * which happens when the lookahead is zero, every logical process handles the {@link Message}s at the earliest
+ * pending time, in waves, as {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager} does.
+ * </p>
+ * <p>
+ * Within an {@link Agent#handleMessage(Message)}, {@link #getCurrentTime()} is the clock of the logical process of the
+ * {@link Agent}. A {@link Message} to an {@link Agent} in another logical process must be scheduled at least the
+ * {@link Lookahead} after that clock, otherwise an {@link IllegalArgumentException} is thrown. {@link Agent}s must be
+ * added, and {@link Message}s scheduled from outside an {@link Agent}, before the simulation is run. A
+ * {@link MulticastMessage} is expanded into its deliveries when it is scheduled, as they may belong to different
+ * logical processes.
+ * {@link dev.r0bert.reagent.core.simulationmanager.Recurrence}s are not scheduled lazily: the default
+ * {@link #scheduleRecurringMessages(dev.r0bert.reagent.core.simulationmanager.Recurrence)} creates and schedules
+ * every occurrence up front.
+ * </p>
+ * <p>
+ * If {@link dev.r0bert.reagent.core.metrics.SimulationMetrics} are set, every {@link Message} that is scheduled and
+ * sent is reported to them, along with the time each {@link Agent} took to handle it. The time is advanced once per
+ * round, to the earliest pending time; the pending {@link Message}s and times are summed over the logical processes,
+ * so a time that is pending on several logical processes is counted once for each.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class ConservativeSimulationManager extends AbstractSimulationManager {
+    /**
+     * The {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull PartitionAssignment partitionAssignment;
+
+    /**
+     * The {@link Lookahead} of the logical processes.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Lookahead lookahead;
+
+    /**
+     * The {@link Executor} that the logical processes are run on.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The logical processes, indexed by partition.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull LogicalProcess[] logicalProcesses;
+
+    /**
+     * The logical process that the current thread is running, if any.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ThreadLocal<LogicalProcess> currentProcess = new ThreadLocal<>();
+
+    /**
+     * The earliest pending time of all the logical processes at the start of the current round.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull ZonedDateTime currentTime;
+
+    /**
+     * Whether the simulation is running.
+     *
+     * @since v0.0.2
+     */
+    private boolean running = false;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(ConservativeSimulationManager.class);
+
+    /**
+     * Create a new {@link ConservativeSimulationManager} that places {@link Agent}s by the hash of their
+     * {@link UUID}, and runs the logical processes on the common {@link ForkJoinPool}.
+     *
+     * @param startTime      The start time of the simulation.
+     * @param endTime        The end time of the simulation.
+     * @param partitionCount The number of logical processes.
+     * @param lookahead      The {@link Lookahead} of the logical processes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ConservativeSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                         final int partitionCount, final @NotNull Lookahead lookahead) {
+        this(startTime, endTime, new HashPartitionAssignment(partitionCount), lookahead, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new {@link ConservativeSimulationManager}.
+     *
+     * @param startTime           The start time of the simulation.
+     * @param endTime             The end time of the simulation.
+     * @param partitionAssignment The {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     * @param lookahead           The {@link Lookahead} of the logical processes.
+     * @param executor            The {@link Executor} to run the logical processes on.
+     * @throws IllegalArgumentException If the lookahead of a logical process is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ConservativeSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                         final @NotNull PartitionAssignment partitionAssignment,
+                                         final @NotNull Lookahead lookahead, final @NotNull Executor executor) {
+        super(startTime, endTime);
+        this.partitionAssignment = partitionAssignment;
+        this.lookahead = lookahead;
+        this.executor = executor;
+        this.currentTime = startTime;
+        this.logicalProcesses = new LogicalProcess[partitionAssignment.getPartitionCount()];
+        for (var i = 0; i < logicalProcesses.length; i++) {
+            var minimumLookahead = lookahead.getMinimumLookahead(i);
+            if (minimumLookahead.isNegative()) {
+                throw new IllegalArgumentException(String.format("The lookahead of partition %d is negative", i));
+            }
+            logicalProcesses[i] = new LogicalProcess(i, toTicks(minimumLookahead));
+        }
+    }
+
+    /**
+     * Get the logical process of an {@link Agent}.
+     *
+     * @param agent The {@link UUID} of the {@link Agent}.
+     * @return The logical process.
+     * @throws IllegalStateException If the {@link PartitionAssignment} returns a partition that is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull LogicalProcess logicalProcessOf(final @NotNull UUID agent) {
+        var partition = partitionAssignment.getPartition(agent);
+        if (partition < 0 || partition >= logicalProcesses.length) {
+            throw new IllegalStateException(String.format("The partition %d of agent %s is out of range", partition,
+                    agent));
+        }
+        return logicalProcesses[partition];
+    }
+
+    /**
+     * Get the current time of the simulation.
+     * Within {@link Agent#handleMessage(Message)} this is the clock of the logical process of the {@link Agent};
+     * otherwise it is the earliest pending time at the start of the current round.
+     *
+     * @return The current time of the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public @NotNull ZonedDateTime getCurrentTime() {
+        var process = currentProcess.get();
+        return process == null ? currentTime : fromTick(process.clock);
+    }
+
+    @Override
+    protected long getCurrentTick() {
+        var process = currentProcess.get();
+        return process == null ? toTick(currentTime) : process.clock;
+    }
+
+    /**
+     * Schedule a {@link Message} to be sent at a specific time.
+     *
+     * @param message The {@link Message} to be sent.
+     * @param time    The time that the {@link Message} is to be sent.
+     * @throws IllegalArgumentException If the time is not valid, or if the {@link Message} is to another logical
+     *                                  process and the time is within the {@link Lookahead}.
+     * @throws IllegalStateException    If the simulation is running and this is not called from an {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void scheduleMessage(final @NotNull Message message, final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+        if (isMetricsEnabled()) {
+            getMetrics().messageScheduled(message.getClass());
+        }
+        scheduleAtTick(message, tick);
+    }
+
+    /**
+     * Schedule a {@link Message} to be sent at a tick that has already been checked.
+     *
+     * @param message The {@link Message} to be sent.
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @throws IllegalArgumentException If the {@link Message} is to another logical process and the tick is within the
+     *                                  {@link Lookahead}.
+     * @throws IllegalStateException    If the simulation is running and this is not called from an {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void scheduleAtTick(final @NotNull Message message, final long tick) {
+        if (message instanceof MulticastMessage multicast) {
+            for (var i = 0; i < multicast.getRecipientCount(); i++) {
+                scheduleAtTick(multicast.getDelivery(i), tick);
+            }
+            return;
+        }
+
+        logger.atDebug().log("Scheduling message {} for tick {}", message, tick);
+
+        var target = logicalProcessOf(message.getDestination());
+        var process = currentProcess.get();
+        if (process == null) {
+            if (running) {
+                throw new IllegalStateException("Messages can only be scheduled by agents while the simulation is " +
+                        "running");
+            }
+            target.queue.add(tick, message);
+        } else if (process == target) {
+            process.queue.add(tick, message);
+        } else {
+            if (tick - process.clock < process.lookaheadTicks(message.getClass())) {
+                throw new IllegalArgumentException(String.format("The message %s is scheduled for %s, which is " +
+                        "within the lookahead of partition %d", message, fromTick(tick), process.index));
+            }
+            process.outbox.add(new RoutedMessage(target, tick, message));
+        }
+    }
+
+    @Override
+    public void sendMessageNow(final @NotNull Message message) {
+        var tick = getCurrentTick();
+        checkTickIsValid(tick);
+        if (isMetricsEnabled()) {
+            getMetrics().messageScheduled(message.getClass());
+        }
+        scheduleAtTick(message, tick);
+    }
+
+    @Override
+    public void run() {
+        logger.atInfo().log("Running simulation from {} to {} on {} logical processes", this.getStartTime(),
+                this.getEndTime(), logicalProcesses.length);
+
+        running = true;
+        getMetrics().runStarted();
+        var rounds = 0L;
+        try {
+            while (true) {
+                var earliest = Long.MAX_VALUE;
+                for (var process : logicalProcesses) {
+                    process.next = process.queue.isEmpty() ? Long.MAX_VALUE : process.queue.peekTick();
+                    earliest = Math.min(earliest, process.next);
+                }
+                if (earliest == Long.MAX_VALUE) {
+                    break;
+                }
+                if (isMetricsEnabled()) {
+                    reportTimeAdvanced(earliest);
+                }
+                currentTime = fromTick(earliest);
+
+                runRound(earliest);
+                deliverOutboxes();
+                rounds++;
+            }
+        } finally {
+            running = false;
+            getMetrics().runFinished();
+        }
+
+        logger.atInfo().log("Simulation finished after {} rounds", rounds);
+    }
+
+    /**
+     * Report the start of a round to the {@link dev.r0bert.reagent.core.metrics.SimulationMetrics}, with the
+     * {@link Message}s and times pending on every logical process.
+     *
+     * @param earliest The earliest pending tick of all the logical processes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void reportTimeAdvanced(final long earliest) {
+        var pendingMessages = 0L;
+        var pendingTicks = 0;
+        for (var process : logicalProcesses) {
+            pendingMessages += process.queue.size();
+            pendingTicks += process.queue.distinctTickCount();
+        }
+        getMetrics().timeAdvanced(getClock().toNanos(earliest), pendingMessages, pendingTicks);
+    }
+
+    /**
+     * Run one round: every logical process handles its {@link Message}s that are before its safe horizon, or, if no
+     * logical process can make progress, the {@link Message}s at the earliest pending time.
+     *
+     * @param earliest The earliest pending tick of all the logical processes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void runRound(final long earliest) {
+        // The horizon of each logical process is the minimum of (next + lookahead) over every *other* process, so
+        // keep the smallest and second-smallest values.
+        var smallest = Long.MAX_VALUE;
+        var secondSmallest = Long.MAX_VALUE;
+        LogicalProcess smallestProcess = null;
+        for (var process : logicalProcesses) {
+            var bound = saturatedAdd(process.next, process.minimumLookaheadTicks);
+            if (bound < smallest) {
+                secondSmallest = smallest;
+                smallest = bound;
+                smallestProcess = process;
+            } else if (bound < secondSmallest) {
+                secondSmallest = bound;
+            }
+        }
+
+        var runnable = new ArrayList<LogicalProcess>();
+        for (var process : logicalProcesses) {
+            process.horizon = process == smallestProcess ? secondSmallest : smallest;
+            if (process.next < process.horizon) {
+                runnable.add(process);
+            }
+        }
+
+        if (runnable.isEmpty()) {
+            logger.atDebug().log("No logical process can make progress, running tick {}", earliest);
+            for (var process : logicalProcesses) {
+                if (process.next == earliest) {
+                    process.horizon = earliest + 1;
+                    runnable.add(process);
+                }
+            }
+        }
+
+        if (runnable.size() == 1) {
+            runnable.get(0).run(this);
+            return;
+        }
+
+        var futures = new CompletableFuture<?>[runnable.size()];
+        for (var i = 0; i < futures.length; i++) {
+            var process = runnable.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> process.run(this), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deliver the {@link Message}s that were sent between logical processes in the last round, in partition order.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void deliverOutboxes() {
+        for (var process : logicalProcesses) {
+            for (var routed : process.outbox) {
+                routed.target().queue.add(routed.tick(), routed.message());
+            }
+            process.outbox.clear();
+        }
+    }
+
+    /**
+     * Add two ticks, saturating at {@link Long#MAX_VALUE}.
+     *
+     * @param tick  The tick.
+     * @param ticks The non-negative number of ticks to add.
+     * @return The sum.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long saturatedAdd(final long tick, final long ticks) {
+        var sum = tick + ticks;
+        return sum < tick ? Long.MAX_VALUE : sum;
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        logger.atDebug().log("Adding agent {}", agent);
+        if (running) {
+            throw new IllegalStateException("Agents can not be added while the simulation is running");
+        }
+        logicalProcessOf(agent.getUUID()).agents.put(agent.getUUID(), agent);
+    }
+
+    /**
+     * Get the {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     *
+     * @return The {@link PartitionAssignment}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull PartitionAssignment getPartitionAssignment() {
+        return partitionAssignment;
+    }
+
+    /**
+     * Get the {@link Lookahead} of the logical processes.
+     *
+     * @return The {@link Lookahead}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Lookahead getLookahead() {
+        return lookahead;
+    }
+
+    @Override
+    public String toString() {
+        return "ConservativeSimulationManager{" +
+                "startTime=" + this.getStartTime() +
+                ", endTime=" + this.getEndTime() +
+                ", currentTime=" + currentTime +
+                ", partitionCount=" + logicalProcesses.length +
+                "}";
+    }
+
+    /**
+     * A {@link Message} sent between logical processes, waiting to be delivered at the end of a round.
+     *
+     * @param target  The logical process to deliver to.
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @param message The {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record RoutedMessage(@NotNull LogicalProcess target, long tick, @NotNull Message message) {
+    }
+
+    /**
+     * A logical process: a partition of the {@link Agent}s with its own {@link EventQueue} and clock.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private final class LogicalProcess {
+        /**
+         * The partition of this logical process.
+         *
+         * @since v0.0.2
+         */
+        private final int index;
+
+        /**
+         * The smallest lookahead of this logical process, in ticks.
+         *
+         * @since v0.0.2
+         */
+        private final long minimumLookaheadTicks;
+
+        /**
+         * The lookahead of each class of {@link Message} sent from this logical process, in ticks.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Map<Class<? extends Message>, Long> lookaheadTicksByType = new HashMap<>();
+
+        /**
+         * The {@link Agent}s in this logical process.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Map<UUID, Agent> agents = new HashMap<>();
+
+        /**
+         * The {@link Message}s waiting to be sent to the {@link Agent}s in this logical process.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull EventQueue queue = new CalendarEventQueue();
+
+        /**
+         * The {@link Message}s sent to other logical processes in the current round.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull List<RoutedMessage> outbox = new ArrayList<>();
+
+        /**
+         * The tick of the {@link Message}s that this logical process is handling, or last handled.
+         *
+         * @since v0.0.2
+         */
+        private long clock = 0;
+
+        /**
+         * The earliest pending tick at the start of the current round.
+         *
+         * @since v0.0.2
+         */
+        private long next = Long.MAX_VALUE;
+
+        /**
+         * The tick that this logical process may run up to, exclusive, in the current round.
+         *
+         * @since v0.0.2
+         */
+        private long horizon = Long.MIN_VALUE;
+
+        /**
+         * Create a new {@link LogicalProcess}.
+         *
+         * @param index                 The partition of this logical process.
+         * @param minimumLookaheadTicks The smallest lookahead of this logical process, in ticks.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private LogicalProcess(final int index, final long minimumLookaheadTicks) {
+            this.index = index;
+            this.minimumLookaheadTicks = minimumLookaheadTicks;
+        }
+
+        /**
+         * Get the lookahead of a class of {@link Message} sent from this logical process.
+         *
+         * @param type The class of the {@link Message}.
+         * @return The lookahead, in ticks.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private long lookaheadTicks(final @NotNull Class<? extends Message> type) {
+            return lookaheadTicksByType.computeIfAbsent(type, t -> toTicks(lookahead.getLookahead(index, t)));
+        }
+
+        /**
+         * Handle every {@link Message} before the horizon.
+         *
+         * @param simulationManager The {@link ConservativeSimulationManager} running this logical process.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void run(final @NotNull ConservativeSimulationManager simulationManager) {
+            simulationManager.currentProcess.set(this);
+            try {
+                while (!queue.isEmpty()) {
+                    var tick = queue.peekTick();
+                    if (tick >= horizon) {
+                        break;
+                    }
+                    clock = tick;
+                    Message message;
+                    while ((message = queue.poll(tick)) != null) {
+                        simulationManager.dispatch(agents.get(message.getDestination()), message);
+                    }
+                }
+            } finally {
+                simulationManager.currentProcess.remove();
+            }
+        }
+    }
+}
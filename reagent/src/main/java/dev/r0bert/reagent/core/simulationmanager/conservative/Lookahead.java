@@ -0,0 +1,45 @@
+package dev.r0bert.reagent.core.simulationmanager.conservative;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * A {@link Lookahead} declares how far ahead of its own clock each logical process of a
+ * {@link ConservativeSimulationManager} sends {@link Message}s to other logical processes.
+ * <p>
+ * A {@link Message} sent from one logical process to another must be scheduled at least the lookahead after the time
+ * of the {@link Message} that is being handled. The larger the lookahead, the further each logical process can run
+ * without waiting for the others.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface Lookahead {
+    /**
+     * Get the smallest lookahead of any {@link Message} sent from a logical process.
+     *
+     * @param partition The partition of the logical process.
+     * @return The lookahead, which must not be negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull Duration getMinimumLookahead(final int partition);
+
+    /**
+     * Get the lookahead of a type of {@link Message} sent from a logical process.
+     * This must not be smaller than {@link #getMinimumLookahead(int)}.
+     *
+     * @param partition The partition of the logical process.
+     * @param type      The class of the {@link Message}.
+     * @return The lookahead.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default @NotNull Duration getLookahead(final int partition, final @NotNull Class<? extends Message> type) {
+        return getMinimumLookahead(partition);
+    }
+}
@@ -0,0 +1,83 @@
+package dev.r0bert.reagent.core.simulationmanager.conservative;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A {@link MessageTypeLookahead} is a {@link Lookahead} that is declared per class of {@link Message}, and is the same
+ * for every logical process.
+ * <p>
+ * Classes are matched exactly; a {@link Message} whose class has no lookahead of its own uses the default lookahead.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class MessageTypeLookahead implements Lookahead {
+    /**
+     * The lookahead of each class of {@link Message}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<Class<? extends Message>, Duration> lookaheads;
+
+    /**
+     * The lookahead of {@link Message}s whose class is not in {@link #lookaheads}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Duration defaultLookahead;
+
+    /**
+     * The smallest lookahead of any class of {@link Message}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Duration minimumLookahead;
+
+    /**
+     * Create a new {@link MessageTypeLookahead}.
+     *
+     * @param lookaheads       The lookahead of each class of {@link Message}.
+     * @param defaultLookahead The lookahead of any other class of {@link Message}.
+     * @throws IllegalArgumentException If any lookahead is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public MessageTypeLookahead(final @NotNull Map<Class<? extends Message>, Duration> lookaheads,
+                                final @NotNull Duration defaultLookahead) {
+        var minimum = defaultLookahead;
+        for (var lookahead : lookaheads.values()) {
+            if (lookahead.compareTo(minimum) < 0) {
+                minimum = lookahead;
+            }
+        }
+        if (minimum.isNegative()) {
+            throw new IllegalArgumentException("A lookahead is negative");
+        }
+        this.lookaheads = Map.copyOf(lookaheads);
+        this.defaultLookahead = defaultLookahead;
+        this.minimumLookahead = minimum;
+    }
+
+    @Override
+    public @NotNull Duration getMinimumLookahead(final int partition) {
+        return minimumLookahead;
+    }
+
+    @Override
+    public @NotNull Duration getLookahead(final int partition, final @NotNull Class<? extends Message> type) {
+        return lookaheads.getOrDefault(type, defaultLookahead);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageTypeLookahead{" +
+                "lookaheads=" + lookaheads +
+                ", defaultLookahead=" + defaultLookahead +
+                '}';
+    }
+}
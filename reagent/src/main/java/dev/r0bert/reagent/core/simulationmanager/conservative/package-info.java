@@ -0,0 +1,10 @@
+/**
+ * This package contains the conservative parallel discrete-event
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}, which splits the
+ * {@link dev.r0bert.reagent.core.agents.Agent}s into logical processes that advance independently up to a safe
+ * horizon.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.conservative;
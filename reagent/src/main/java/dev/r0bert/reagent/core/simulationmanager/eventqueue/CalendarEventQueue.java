@@ -0,0 +1,545 @@
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link CalendarEventQueue} is an {@link EventQueue} implemented as a calendar queue.
+ * <p>
+ * Ticks are hashed into an array of buckets, each covering {@code bucketWidth} ticks, that wraps around like the days
+ * of a calendar. Each bucket holds its ticks in sorted order, and each tick holds its {@link Message}s in a growable
+ * array. Finding the earliest tick is usually a scan of a few buckets from the last earliest tick, and adding a
+ * {@link Message} to an existing tick is a binary search in a small bucket followed by an array store. The number of
+ * buckets and their width are recalculated as the number of distinct ticks grows and shrinks.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class CalendarEventQueue implements EventQueue {
+    /**
+     * The smallest number of buckets the queue will use.
+     *
+     * @since v0.0.2
+     */
+    private static final int MINIMUM_BUCKET_COUNT = 16;
+
+    /**
+     * The buckets of the calendar.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull Bucket[] buckets;
+
+    /**
+     * The number of ticks covered by each bucket.
+     *
+     * @since v0.0.2
+     */
+    private long bucketWidth;
+
+    /**
+     * A tick that is less than or equal to every tick in the queue.
+     * The search for the earliest tick starts from here.
+     *
+     * @since v0.0.2
+     */
+    private long lowerBound = 0;
+
+    /**
+     * The {@link TickEntry} with the earliest tick, or null if it has not been found since the queue was last changed.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable TickEntry earliest = null;
+
+    /**
+     * The number of {@link Message}s in the queue.
+     *
+     * @since v0.0.2
+     */
+    private long size = 0;
+
+    /**
+     * The number of distinct ticks in the queue.
+     *
+     * @since v0.0.2
+     */
+    private int distinctTickCount = 0;
+
+    /**
+     * Create a new {@link CalendarEventQueue}.
+     * The width of the buckets is estimated from the ticks that are added.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CalendarEventQueue() {
+        this(1);
+    }
+
+    /**
+     * Create a new {@link CalendarEventQueue}.
+     *
+     * @param initialBucketWidth The number of ticks covered by each bucket until the queue is first resized.
+     * @throws IllegalArgumentException If the initial bucket width is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public CalendarEventQueue(final long initialBucketWidth) {
+        if (initialBucketWidth <= 0) {
+            throw new IllegalArgumentException("The bucket width is not positive");
+        }
+        this.bucketWidth = initialBucketWidth;
+        this.buckets = newBuckets(MINIMUM_BUCKET_COUNT);
+    }
+
+    /**
+     * Create an array of empty buckets.
+     *
+     * @param count The number of buckets.
+     * @return The buckets.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull Bucket[] newBuckets(final int count) {
+        var newBuckets = new Bucket[count];
+        for (var i = 0; i < count; i++) {
+            newBuckets[i] = new Bucket();
+        }
+        return newBuckets;
+    }
+
+    /**
+     * Get the bucket that a tick belongs in.
+     *
+     * @param tick The tick.
+     * @return The bucket.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull Bucket bucketFor(final long tick) {
+        return buckets[(int) Math.floorMod(Math.floorDiv(tick, bucketWidth), (long) buckets.length)];
+    }
+
+    @Override
+    public void add(final long tick, final @NotNull Message message) {
+        entryFor(tick).add(message);
+        size++;
+
+        if (distinctTickCount > 2 * buckets.length) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    @Override
+    public void addAll(final long tick, final @NotNull Collection<? extends Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        var added = entryFor(tick).addAll(messages);
+        size += added;
+
+        if (distinctTickCount > 2 * buckets.length) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    /**
+     * Get the {@link TickEntry} for a tick, creating it if there is none.
+     *
+     * @param tick The tick.
+     * @return The {@link TickEntry}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull TickEntry entryFor(final long tick) {
+        if (size == 0 || tick < lowerBound) {
+            lowerBound = tick;
+        }
+
+        var bucket = bucketFor(tick);
+        var index = bucket.search(tick);
+        if (index >= 0) {
+            return bucket.entries[index];
+        }
+        var entry = new TickEntry(tick);
+        bucket.insert(-index - 1, entry);
+        distinctTickCount++;
+        if (earliest != null && tick < earliest.tick) {
+            earliest = entry;
+        }
+        return entry;
+    }
+
+    @Override
+    public @Nullable Message poll(final long tick) {
+        if (size == 0) {
+            return null;
+        }
+
+        TickEntry entry;
+        Bucket bucket = null;
+        if (earliest != null && earliest.tick == tick) {
+            entry = earliest;
+        } else {
+            bucket = bucketFor(tick);
+            var index = bucket.search(tick);
+            if (index < 0) {
+                return null;
+            }
+            entry = bucket.entries[index];
+        }
+
+        var message = entry.poll();
+        size--;
+
+        if (entry.isEmpty()) {
+            (bucket == null ? bucketFor(tick) : bucket).remove(tick);
+            distinctTickCount--;
+            if (earliest == entry) {
+                earliest = null;
+            }
+            if (buckets.length > MINIMUM_BUCKET_COUNT && distinctTickCount < buckets.length / 4) {
+                resize(buckets.length / 2);
+            }
+        }
+
+        return message;
+    }
+
+    @Override
+    public long peekTick() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        return findEarliest().tick;
+    }
+
+    /**
+     * Find the {@link TickEntry} with the earliest tick.
+     * The queue must not be empty.
+     *
+     * @return The {@link TickEntry}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull TickEntry findEarliest() {
+        if (earliest != null) {
+            return earliest;
+        }
+
+        var count = buckets.length;
+        var virtualBucket = Math.floorDiv(lowerBound, bucketWidth);
+        for (var i = 0; i < count; i++, virtualBucket++) {
+            var bucket = buckets[(int) Math.floorMod(virtualBucket, (long) count)];
+            if (bucket.size > 0 && Math.floorDiv(bucket.entries[0].tick, bucketWidth) == virtualBucket) {
+                return setEarliest(bucket.entries[0]);
+            }
+        }
+
+        // Every tick is at least a full calendar year away, so fall back to looking at the head of every bucket.
+        TickEntry best = null;
+        for (var bucket : buckets) {
+            if (bucket.size > 0 && (best == null || bucket.entries[0].tick < best.tick)) {
+                best = bucket.entries[0];
+            }
+        }
+        assert best != null;
+        return setEarliest(best);
+    }
+
+    /**
+     * Remember the {@link TickEntry} with the earliest tick.
+     *
+     * @param entry The {@link TickEntry}.
+     * @return The {@link TickEntry}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull TickEntry setEarliest(final @NotNull TickEntry entry) {
+        earliest = entry;
+        lowerBound = entry.tick;
+        return entry;
+    }
+
+    /**
+     * Redistribute the ticks into a new number of buckets, recalculating the width of the buckets from the average
+     * separation between ticks.
+     *
+     * @param newCount The new number of buckets.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void resize(final int newCount) {
+        var entries = new TickEntry[distinctTickCount];
+        var n = 0;
+        for (var bucket : buckets) {
+            System.arraycopy(bucket.entries, 0, entries, n, bucket.size);
+            n += bucket.size;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(entry -> entry.tick));
+
+        if (entries.length > 1) {
+            var separation = (entries[entries.length - 1].tick - entries[0].tick) / (entries.length - 1);
+            bucketWidth = Math.max(1, separation > Long.MAX_VALUE / 3 ? Long.MAX_VALUE : 3 * separation);
+        }
+
+        buckets = newBuckets(Math.max(MINIMUM_BUCKET_COUNT, newCount));
+        for (var entry : entries) {
+            var bucket = bucketFor(entry.tick);
+            bucket.insert(bucket.size, entry);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int distinctTickCount() {
+        return distinctTickCount;
+    }
+
+    @Override
+    public void forEach(final @NotNull EventConsumer consumer) {
+        for (var bucket : buckets) {
+            for (var i = 0; i < bucket.size; i++) {
+                var entry = bucket.entries[i];
+                for (var j = entry.head; j < entry.tail; j++) {
+                    consumer.accept(entry.tick, entry.messages[j]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarEventQueue{" +
+                "size=" + size +
+                ", distinctTickCount=" + distinctTickCount +
+                ", bucketCount=" + buckets.length +
+                ", bucketWidth=" + bucketWidth +
+                '}';
+    }
+
+    /**
+     * A bucket of the calendar, holding {@link TickEntry}s sorted by tick.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Bucket {
+        /**
+         * The {@link TickEntry}s in this bucket, sorted by tick.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull TickEntry[] entries = new TickEntry[2];
+
+        /**
+         * The number of {@link TickEntry}s in this bucket.
+         *
+         * @since v0.0.2
+         */
+        private int size = 0;
+
+        /**
+         * Binary search for a tick in this bucket.
+         *
+         * @param tick The tick.
+         * @return The index of the tick, or {@code -(insertion point) - 1} if it is not in this bucket.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private int search(final long tick) {
+            var low = 0;
+            var high = size - 1;
+            while (low <= high) {
+                var mid = (low + high) >>> 1;
+                var midTick = entries[mid].tick;
+                if (midTick < tick) {
+                    low = mid + 1;
+                } else if (midTick > tick) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Insert a {@link TickEntry} into this bucket.
+         *
+         * @param index The index to insert at.
+         * @param entry The {@link TickEntry}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void insert(final int index, final @NotNull TickEntry entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            System.arraycopy(entries, index, entries, index + 1, size - index);
+            entries[index] = entry;
+            size++;
+        }
+
+        /**
+         * Remove a tick from this bucket.
+         *
+         * @param tick The tick, which must be in this bucket.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void remove(final long tick) {
+            var index = search(tick);
+            System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+            entries[--size] = null;
+        }
+    }
+
+    /**
+     * The {@link Message}s to be sent at a single tick, in the order that they were added.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class TickEntry {
+        /**
+         * The tick.
+         *
+         * @since v0.0.2
+         */
+        private final long tick;
+
+        /**
+         * The {@link Message}s, from {@link #head} inclusive to {@link #tail} exclusive.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull Message[] messages = new Message[4];
+
+        /**
+         * The index of the next {@link Message} to poll.
+         *
+         * @since v0.0.2
+         */
+        private int head = 0;
+
+        /**
+         * The index that the next {@link Message} will be added at.
+         *
+         * @since v0.0.2
+         */
+        private int tail = 0;
+
+        /**
+         * Create a new {@link TickEntry}.
+         *
+         * @param tick The tick.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private TickEntry(final long tick) {
+            this.tick = tick;
+        }
+
+        /**
+         * Add a {@link Message}.
+         *
+         * @param message The {@link Message}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void add(final @NotNull Message message) {
+            ensureCapacity(1);
+            messages[tail++] = message;
+        }
+
+        /**
+         * Add {@link Message}s, in the order of the {@link Collection}.
+         *
+         * @param added The {@link Message}s.
+         * @return The number of {@link Message}s that were added.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private int addAll(final @NotNull Collection<? extends Message> added) {
+            ensureCapacity(added.size());
+            var start = tail;
+            for (var message : added) {
+                if (tail == messages.length) {
+                    ensureCapacity(1);
+                }
+                messages[tail++] = message;
+            }
+            return tail - start;
+        }
+
+        /**
+         * Make sure that there is room after {@link #tail} for a number of {@link Message}s, moving the
+         * {@link Message}s to the start of the array if that frees enough room, or growing the array otherwise.
+         *
+         * @param additional The number of {@link Message}s.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void ensureCapacity(final int additional) {
+            if (messages.length - tail >= additional) {
+                return;
+            }
+            var count = tail - head;
+            if (head > 0 && count <= messages.length / 2 && count + additional <= messages.length) {
+                System.arraycopy(messages, head, messages, 0, count);
+                Arrays.fill(messages, count, tail, null);
+            } else {
+                var length = Math.max(messages.length * 2, count + additional);
+                messages = Arrays.copyOfRange(messages, head, head + length);
+            }
+            head = 0;
+            tail = count;
+        }
+
+        /**
+         * Remove and return the earliest added {@link Message}.
+         * This entry must not be empty.
+         *
+         * @return The {@link Message}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull Message poll() {
+            var message = messages[head];
+            messages[head++] = null;
+            return message;
+        }
+
+        /**
+         * Check whether this entry is empty.
+         *
+         * @return True if there are no {@link Message}s left.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private boolean isEmpty() {
+            return head == tail;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link EventQueue} holds the {@link Message}s that are waiting to be sent, keyed by the tick at which they are to
+ * be sent.
+ * <p>
+ * Ticks are primitive {@code long}s; the unit of a tick is chosen by the owner of the queue. {@link Message}s that are
+ * added for the same tick are returned in the order that they were added.
+ * </p>
+ * <p>
+ * Implementations are not required to be thread-safe.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface EventQueue {
+    /**
+     * Add a {@link Message} to be sent at a tick.
+     *
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @param message The {@link Message} to add.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void add(final long tick, final @NotNull Message message);
+
+    /**
+     * Add {@link Message}s to be sent at a tick, in the order of the {@link Collection}.
+     * By default, each {@link Message} is added with {@link #add(long, Message)}; implementations should override this
+     * to find the tick only once.
+     *
+     * @param tick     The tick that the {@link Message}s are to be sent at.
+     * @param messages The {@link Message}s to add.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void addAll(final long tick, final @NotNull Collection<? extends Message> messages) {
+        for (var message : messages) {
+            add(tick, message);
+        }
+    }
+
+    /**
+     * Remove and return the earliest added {@link Message} that is to be sent at a tick.
+     *
+     * @param tick The tick to poll.
+     * @return The {@link Message}, or null if there are no {@link Message}s for the tick.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Nullable Message poll(final long tick);
+
+    /**
+     * Get the earliest tick that has a {@link Message} waiting to be sent.
+     *
+     * @return The earliest tick.
+     * @throws NoSuchElementException If the queue is empty.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long peekTick();
+
+    /**
+     * Check whether the queue is empty.
+     *
+     * @return True if there are no {@link Message}s waiting to be sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    boolean isEmpty();
+
+    /**
+     * Get the number of {@link Message}s waiting to be sent.
+     *
+     * @return The number of {@link Message}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long size();
+
+    /**
+     * Get the number of distinct ticks that have a {@link Message} waiting to be sent.
+     *
+     * @return The number of distinct ticks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int distinctTickCount();
+
+    /**
+     * Call an {@link EventConsumer} with every {@link Message} waiting to be sent, without removing them.
+     * The ticks are visited in no particular order, but the {@link Message}s for each tick are visited in the order
+     * that they were added.
+     *
+     * @param consumer The {@link EventConsumer}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void forEach(final @NotNull EventConsumer consumer);
+
+    /**
+     * An {@link EventConsumer} accepts a {@link Message} and the tick that it is to be sent at.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @FunctionalInterface
+    interface EventConsumer {
+        /**
+         * Accept a {@link Message}.
+         *
+         * @param tick    The tick that the {@link Message} is to be sent at.
+         * @param message The {@link Message}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        void accept(final long tick, final @NotNull Message message);
+    }
+}
@@ -0,0 +1,100 @@
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * A {@link TreeMapEventQueue} is an {@link EventQueue} backed by a {@link TreeMap} with a {@link Queue} per tick.
+ * <p>
+ * Each tick has an {@link ArrayDeque} of its {@link Message}s, in the order they were added. This is simpler than
+ * {@link CalendarEventQueue}, and is kept as a reference implementation to test and benchmark it against.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class TreeMapEventQueue implements EventQueue {
+    /**
+     * The {@link Message}s waiting to be sent, keyed by tick.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull NavigableMap<Long, Queue<Message>> messages = new TreeMap<>();
+
+    /**
+     * The number of {@link Message}s waiting to be sent.
+     *
+     * @since v0.0.2
+     */
+    private long size = 0;
+
+    @Override
+    public void add(final long tick, final @NotNull Message message) {
+        messages.computeIfAbsent(tick, t -> new ArrayDeque<>()).add(message);
+        size++;
+    }
+
+    @Override
+    public void addAll(final long tick, final @NotNull Collection<? extends Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        this.messages.computeIfAbsent(tick, t -> new ArrayDeque<>()).addAll(messages);
+        size += messages.size();
+    }
+
+    @Override
+    public @Nullable Message poll(final long tick) {
+        var queue = messages.get(tick);
+        if (queue == null) {
+            return null;
+        }
+
+        var message = queue.remove();
+        size--;
+        if (queue.isEmpty()) {
+            messages.remove(tick);
+        }
+        return message;
+    }
+
+    @Override
+    public long peekTick() {
+        return messages.firstKey();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int distinctTickCount() {
+        return messages.size();
+    }
+
+    @Override
+    public void forEach(final @NotNull EventConsumer consumer) {
+        messages.forEach((tick, queue) -> queue.forEach(message -> consumer.accept(tick, message)));
+    }
+
+    @Override
+    public String toString() {
+        return "TreeMapEventQueue{" +
+                "size=" + size +
+                ", distinctTickCount=" + messages.size() +
+                '}';
+    }
+}
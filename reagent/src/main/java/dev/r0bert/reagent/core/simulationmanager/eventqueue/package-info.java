@@ -0,0 +1,9 @@
+/**
+ * This package contains the {@link dev.r0bert.reagent.core.simulationmanager.eventqueue.EventQueue}s that hold the
+ * {@link dev.r0bert.reagent.core.messages.Message}s waiting to be sent by a
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
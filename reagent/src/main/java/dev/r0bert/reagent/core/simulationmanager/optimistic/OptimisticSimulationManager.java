@@ -0,0 +1,839 @@
+package dev.r0bert.reagent.core.simulationmanager.optimistic;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.StatefulAgent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.simulationmanager.AbstractSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import dev.r0bert.reagent.core.simulationmanager.partition.PartitionAssignment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * An {@link OptimisticSimulationManager} is an optimistic (Time Warp) parallel discrete-event
+ * {@link AbstractSimulationManager}.
+ * <p>
+ * The {@link Agent}s are split into logical processes by a {@link PartitionAssignment}. The simulation runs in rounds.
+ * In each round, every logical process handles up to a batch of its pending {@link Message}s in parallel, without
+ * waiting to find out whether another logical process will send it an earlier {@link Message}. {@link Message}s sent to
+ * other logical processes are delivered at the end of the round. If a delivered {@link Message} is in the past of its
+ * logical process (a straggler), the logical process is rolled back: the state of each {@link StatefulAgent} is
+ * restored, the rolled back {@link Message}s are put back in the queue, and an anti-message is sent to cancel each
+ * {@link Message} that they sent. After delivery, the global virtual time (the earliest pending time of any logical
+ * process) is computed, and the history before it is discarded, as it can no longer be rolled back.
+ * </p>
+ * <p>
+ * {@link Agent}s that are not {@link StatefulAgent}s are treated as stateless, and any side effects outside the
+ * saved state of an {@link Agent} may be repeated when a {@link Message} is rolled back and handled again. Within
+ * {@link Agent#handleMessage(Message)}, {@link #getCurrentTime()} is the time of the {@link Message} being handled.
+ * {@link Message}s for the same time are handled in an order that does not depend on how the logical processes are
+ * run. Like the waves of {@link dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager}, a {@link Message}
+ * sent for the time that is being handled is handled after every {@link Message} that led to it; {@link Message}s in
+ * the same wave are handled in the order that they were scheduled if they were scheduled before the simulation was
+ * run, and otherwise by the logical process that sent them and the order that it sent them in. {@link Agent}s must be
+ * added, and {@link Message}s scheduled from outside an {@link Agent}, before the simulation is run. A
+ * {@link MulticastMessage} is expanded into its deliveries when it is scheduled, as they may belong to different
+ * logical processes.
+ * {@link dev.r0bert.reagent.core.simulationmanager.Recurrence}s are not scheduled lazily: the default
+ * {@link #scheduleRecurringMessages(dev.r0bert.reagent.core.simulationmanager.Recurrence)} creates and schedules
+ * every occurrence up front.
+ * </p>
+ * <p>
+ * If {@link dev.r0bert.reagent.core.metrics.SimulationMetrics} are set, every {@link Message} that is scheduled and
+ * handled is reported to them, along with the time each {@link Agent} took to handle it. A {@link Message} that is
+ * rolled back and handled again is reported each time it is handled, as is any {@link Message} sent again by it. The
+ * time is advanced once per round, to the global virtual time, with the {@link Message}s and times pending on each
+ * logical process summed, so a time that is pending on several logical processes is counted once for each.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class OptimisticSimulationManager extends AbstractSimulationManager {
+    /**
+     * The default maximum number of {@link Message}s that a logical process handles in a round.
+     *
+     * @since v0.0.2
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * The {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull PartitionAssignment partitionAssignment;
+
+    /**
+     * The {@link Executor} that the logical processes are run on.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The maximum number of {@link Message}s that a logical process handles in a round.
+     *
+     * @since v0.0.2
+     */
+    private final int batchSize;
+
+    /**
+     * The logical processes, indexed by partition.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull LogicalProcess[] logicalProcesses;
+
+    /**
+     * The logical process that the current thread is running, if any.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ThreadLocal<LogicalProcess> currentProcess = new ThreadLocal<>();
+
+    /**
+     * The sequence number of the next {@link Event} scheduled before the simulation is run.
+     *
+     * @since v0.0.2
+     */
+    private long nextSequence = 0;
+
+    /**
+     * The global virtual time: the earliest time that can still be handled.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull ZonedDateTime currentTime;
+
+    /**
+     * Whether the simulation is running.
+     *
+     * @since v0.0.2
+     */
+    private boolean running = false;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(OptimisticSimulationManager.class);
+
+    /**
+     * Create a new {@link OptimisticSimulationManager} that places {@link Agent}s by the hash of their {@link UUID},
+     * and runs the logical processes on the common {@link ForkJoinPool} with the {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @param startTime      The start time of the simulation.
+     * @param endTime        The end time of the simulation.
+     * @param partitionCount The number of logical processes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public OptimisticSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                       final int partitionCount) {
+        this(startTime, endTime, new HashPartitionAssignment(partitionCount), ForkJoinPool.commonPool(),
+                DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a new {@link OptimisticSimulationManager}.
+     *
+     * @param startTime           The start time of the simulation.
+     * @param endTime             The end time of the simulation.
+     * @param partitionAssignment The {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     * @param executor            The {@link Executor} to run the logical processes on.
+     * @param batchSize           The maximum number of {@link Message}s that a logical process handles in a round.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public OptimisticSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                       final @NotNull PartitionAssignment partitionAssignment,
+                                       final @NotNull Executor executor, final int batchSize) {
+        super(startTime, endTime);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.partitionAssignment = partitionAssignment;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.currentTime = startTime;
+        this.logicalProcesses = new LogicalProcess[partitionAssignment.getPartitionCount()];
+        for (var i = 0; i < logicalProcesses.length; i++) {
+            logicalProcesses[i] = new LogicalProcess(i);
+        }
+    }
+
+    /**
+     * Get the logical process of an {@link Agent}.
+     *
+     * @param agent The {@link UUID} of the {@link Agent}.
+     * @return The logical process.
+     * @throws IllegalStateException If the {@link PartitionAssignment} returns a partition that is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull LogicalProcess logicalProcessOf(final @NotNull UUID agent) {
+        var partition = partitionAssignment.getPartition(agent);
+        if (partition < 0 || partition >= logicalProcesses.length) {
+            throw new IllegalStateException(String.format("The partition %d of agent %s is out of range", partition,
+                    agent));
+        }
+        return logicalProcesses[partition];
+    }
+
+    /**
+     * Get the current time of the simulation.
+     * Within {@link Agent#handleMessage(Message)} this is the time of the {@link Message} being handled; otherwise it
+     * is the global virtual time.
+     *
+     * @return The current time of the simulation.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public @NotNull ZonedDateTime getCurrentTime() {
+        var process = currentProcess.get();
+        return process == null ? currentTime : fromTick(process.clock);
+    }
+
+    @Override
+    protected long getCurrentTick() {
+        var process = currentProcess.get();
+        return process == null ? toTick(currentTime) : process.clock;
+    }
+
+    /**
+     * Schedule a {@link Message} to be sent at a specific time.
+     *
+     * @param message The {@link Message} to be sent.
+     * @param time    The time that the {@link Message} is to be sent.
+     * @throws IllegalArgumentException If the time is not valid.
+     * @throws IllegalStateException    If the simulation is running and this is not called from an {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void scheduleMessage(final @NotNull Message message, final @NotNull ZonedDateTime time) {
+        var tick = toValidTick(time);
+        if (isMetricsEnabled()) {
+            getMetrics().messageScheduled(message.getClass());
+        }
+        scheduleAtTick(message, tick);
+    }
+
+    /**
+     * Schedule a {@link Message} to be sent at a tick that has already been checked.
+     *
+     * @param message The {@link Message} to be sent.
+     * @param tick    The tick that the {@link Message} is to be sent at.
+     * @throws IllegalStateException If the simulation is running and this is not called from an {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void scheduleAtTick(final @NotNull Message message, final long tick) {
+        if (message instanceof MulticastMessage multicast) {
+            for (var i = 0; i < multicast.getRecipientCount(); i++) {
+                scheduleAtTick(multicast.getDelivery(i), tick);
+            }
+            return;
+        }
+
+        logger.atDebug().log("Scheduling message {} for tick {}", message, tick);
+
+        var target = logicalProcessOf(message.getDestination());
+        var process = currentProcess.get();
+        if (process == null) {
+            if (running) {
+                throw new IllegalStateException("Messages can only be scheduled by agents while the simulation is " +
+                        "running");
+            }
+            target.pending.add(new Event(tick, 0, Event.NO_SOURCE, nextSequence++, message, target));
+        } else {
+            var cause = Objects.requireNonNull(process.current).event();
+            var wave = tick == cause.tick ? cause.wave + 1 : 0;
+            process.send(new Event(tick, wave, process.index, process.nextSequence++, message, target));
+        }
+    }
+
+    @Override
+    public void sendMessageNow(final @NotNull Message message) {
+        var tick = getCurrentTick();
+        checkTickIsValid(tick);
+        if (isMetricsEnabled()) {
+            getMetrics().messageScheduled(message.getClass());
+        }
+        scheduleAtTick(message, tick);
+    }
+
+    @Override
+    public void run() {
+        logger.atInfo().log("Running simulation from {} to {} on {} logical processes", this.getStartTime(),
+                this.getEndTime(), logicalProcesses.length);
+
+        running = true;
+        getMetrics().runStarted();
+        var rounds = 0L;
+        try {
+            while (true) {
+                var globalVirtualTime = Long.MAX_VALUE;
+                for (var process : logicalProcesses) {
+                    if (!process.pending.isEmpty()) {
+                        globalVirtualTime = Math.min(globalVirtualTime, process.pending.first().tick);
+                    }
+                }
+                if (globalVirtualTime == Long.MAX_VALUE) {
+                    break;
+                }
+                if (isMetricsEnabled()) {
+                    reportTimeAdvanced(globalVirtualTime);
+                }
+                currentTime = fromTick(globalVirtualTime);
+                for (var process : logicalProcesses) {
+                    process.collectFossils(globalVirtualTime);
+                }
+
+                runInParallel(Arrays.stream(logicalProcesses).filter(process -> !process.pending.isEmpty()).toList(),
+                        LogicalProcess::handleBatch);
+                deliverOutboxes();
+                rounds++;
+            }
+            currentTime = lastHandledTime();
+        } finally {
+            running = false;
+            for (var process : logicalProcesses) {
+                process.processed.clear();
+            }
+            getMetrics().runFinished();
+        }
+
+        logger.atInfo().log("Simulation finished after {} rounds and {} rollbacks", rounds, getRollbackCount());
+    }
+
+    /**
+     * Report the start of a round to the {@link dev.r0bert.reagent.core.metrics.SimulationMetrics}, with the
+     * {@link Message}s and times pending on every logical process.
+     *
+     * @param globalVirtualTime The global virtual time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void reportTimeAdvanced(final long globalVirtualTime) {
+        var pendingMessages = 0L;
+        var pendingTicks = 0;
+        for (var process : logicalProcesses) {
+            pendingMessages += process.pending.size();
+            pendingTicks += process.distinctPendingTickCount();
+        }
+        getMetrics().timeAdvanced(getClock().toNanos(globalVirtualTime), pendingMessages, pendingTicks);
+    }
+
+    /**
+     * Get the time of the last {@link Message} handled by any logical process.
+     *
+     * @return The time of the last {@link Message} handled.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull ZonedDateTime lastHandledTime() {
+        var last = toTick(currentTime);
+        for (var process : logicalProcesses) {
+            if (!process.processed.isEmpty()) {
+                last = Math.max(last, process.processed.getLast().event.tick);
+            }
+        }
+        return fromTick(last);
+    }
+
+    /**
+     * Deliver the {@link Message}s and anti-messages sent between logical processes, until none are left.
+     * Delivering can roll logical processes back, which sends more anti-messages.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void deliverOutboxes() {
+        while (true) {
+            var receiving = new LinkedHashSet<LogicalProcess>();
+            for (var process : logicalProcesses) {
+                for (var delivery : process.outbox) {
+                    delivery.event().target.inbox.add(delivery);
+                    receiving.add(delivery.event().target);
+                }
+                process.outbox.clear();
+            }
+            if (receiving.isEmpty()) {
+                return;
+            }
+            runInParallel(List.copyOf(receiving), LogicalProcess::receive);
+        }
+    }
+
+    /**
+     * Run an action on each of some logical processes, in parallel on the {@link Executor}.
+     *
+     * @param processes The logical processes.
+     * @param action    The action to run on each of them.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void runInParallel(final @NotNull List<LogicalProcess> processes,
+                               final @NotNull BiConsumer<LogicalProcess, OptimisticSimulationManager> action) {
+        if (processes.size() == 1) {
+            action.accept(processes.get(0), this);
+            return;
+        }
+
+        var futures = new CompletableFuture<?>[processes.size()];
+        for (var i = 0; i < futures.length; i++) {
+            var process = processes.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> action.accept(process, this), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        logger.atDebug().log("Adding agent {}", agent);
+        if (running) {
+            throw new IllegalStateException("Agents can not be added while the simulation is running");
+        }
+        logicalProcessOf(agent.getUUID()).agents.put(agent.getUUID(), agent);
+    }
+
+    /**
+     * Get the {@link PartitionAssignment} that places {@link Agent}s on logical processes.
+     *
+     * @return The {@link PartitionAssignment}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull PartitionAssignment getPartitionAssignment() {
+        return partitionAssignment;
+    }
+
+    /**
+     * Get the maximum number of {@link Message}s that a logical process handles in a round.
+     *
+     * @return The batch size.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Get the number of {@link Message}s that have been rolled back.
+     *
+     * @return The number of {@link Message}s that have been rolled back.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getRollbackCount() {
+        var rollbacks = 0L;
+        for (var process : logicalProcesses) {
+            rollbacks += process.rollbacks;
+        }
+        return rollbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimisticSimulationManager{" +
+                "startTime=" + this.getStartTime() +
+                ", endTime=" + this.getEndTime() +
+                ", currentTime=" + currentTime +
+                ", partitionCount=" + logicalProcesses.length +
+                ", batchSize=" + batchSize +
+                "}";
+    }
+
+    /**
+     * Restore the state of an {@link Agent}, if it is a {@link StatefulAgent}.
+     *
+     * @param agent The {@link Agent}.
+     * @param state The state saved before the rolled back {@link Message}, or null if the {@link Agent} is stateless.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    private static void restoreState(final @NotNull Agent agent, final @Nullable Object state) {
+        if (state != null) {
+            ((StatefulAgent<Object>) agent).restoreState(state);
+        }
+    }
+
+    /**
+     * An {@link Event} is a {@link Message} scheduled at a tick.
+     * {@link Event}s are ordered by tick, then by wave, then by the logical process that sent them, and then by
+     * sequence number. An {@link Event} sent for the tick of the {@link Event} being handled is in the next wave, so it
+     * is always after the {@link Event}s that led to it. A logical process numbers the {@link Event}s that it sends
+     * itself, and takes the numbers back when it rolls back, so an {@link Event} that is sent again after a rollback
+     * has the same place in the order.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Event implements Comparable<Event> {
+        /**
+         * The source of an {@link Event} that was scheduled before the simulation was run, which is before the index of
+         * every logical process.
+         *
+         * @since v0.0.2
+         */
+        private static final int NO_SOURCE = -1;
+
+        /**
+         * The tick that the {@link Message} is to be sent at.
+         *
+         * @since v0.0.2
+         */
+        private final long tick;
+
+        /**
+         * The number of {@link Event}s for the same tick that led to this {@link Event}.
+         *
+         * @since v0.0.2
+         */
+        private final int wave;
+
+        /**
+         * The index of the logical process that sent this {@link Event}, or {@link #NO_SOURCE}.
+         *
+         * @since v0.0.2
+         */
+        private final int source;
+
+        /**
+         * The sequence number of this {@link Event} among those sent by its source.
+         *
+         * @since v0.0.2
+         */
+        private final long sequence;
+
+        /**
+         * The {@link Message}.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Message message;
+
+        /**
+         * The logical process of the destination of the {@link Message}.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull LogicalProcess target;
+
+        /**
+         * Whether this {@link Event} has been handled, and not rolled back.
+         *
+         * @since v0.0.2
+         */
+        private boolean processed = false;
+
+        /**
+         * Create a new {@link Event}.
+         *
+         * @param tick     The tick that the {@link Message} is to be sent at.
+         * @param wave     The number of {@link Event}s for the same tick that led to this {@link Event}.
+         * @param source   The index of the logical process that sent this {@link Event}, or {@link #NO_SOURCE}.
+         * @param sequence The sequence number of this {@link Event} among those sent by its source.
+         * @param message  The {@link Message}.
+         * @param target   The logical process of the destination of the {@link Message}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Event(final long tick, final int wave, final int source, final long sequence,
+                      final @NotNull Message message, final @NotNull LogicalProcess target) {
+            this.tick = tick;
+            this.wave = wave;
+            this.source = source;
+            this.sequence = sequence;
+            this.message = message;
+            this.target = target;
+        }
+
+        @Override
+        public int compareTo(final @NotNull Event other) {
+            var byTick = Long.compare(tick, other.tick);
+            if (byTick != 0) {
+                return byTick;
+            }
+            var byWave = Integer.compare(wave, other.wave);
+            if (byWave != 0) {
+                return byWave;
+            }
+            var bySource = Integer.compare(source, other.source);
+            return bySource != 0 ? bySource : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A handled {@link Event}, with what is needed to roll it back.
+     *
+     * @param event        The {@link Event}.
+     * @param agent        The {@link Agent} that handled it.
+     * @param state        The state of the {@link Agent} before it handled the {@link Event}, or null if it is
+     *                     stateless.
+     * @param nextSequence The sequence number of the next {@link Event} sent by the logical process before it handled
+     *                     the {@link Event}.
+     * @param sent         The {@link Event}s sent while handling it.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record ProcessedEvent(@NotNull Event event, @NotNull Agent agent, @Nullable Object state,
+                                  long nextSequence, @NotNull List<Event> sent) {
+    }
+
+    /**
+     * An {@link Event}, or an anti-message cancelling it, sent between logical processes.
+     *
+     * @param event The {@link Event}.
+     * @param anti  Whether this is an anti-message.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record Delivery(@NotNull Event event, boolean anti) {
+    }
+
+    /**
+     * A logical process: a partition of the {@link Agent}s with its own pending {@link Event}s and history.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class LogicalProcess {
+        /**
+         * The index of this logical process.
+         *
+         * @since v0.0.2
+         */
+        private final int index;
+
+        /**
+         * The {@link Agent}s in this logical process.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Map<UUID, Agent> agents = new HashMap<>();
+
+        /**
+         * The {@link Event}s waiting to be handled.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull TreeSet<Event> pending = new TreeSet<>();
+
+        /**
+         * The {@link Event}s handled since the global virtual time, in order.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull ArrayDeque<ProcessedEvent> processed = new ArrayDeque<>();
+
+        /**
+         * The {@link Event}s and anti-messages sent to other logical processes in the current round.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull List<Delivery> outbox = new ArrayList<>();
+
+        /**
+         * The {@link Event}s and anti-messages delivered to this logical process at the end of the current round.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull List<Delivery> inbox = new ArrayList<>();
+
+        /**
+         * The {@link Event} being handled, if any.
+         *
+         * @since v0.0.2
+         */
+        private @Nullable ProcessedEvent current = null;
+
+        /**
+         * The tick of the {@link Event} being handled, or last handled.
+         *
+         * @since v0.0.2
+         */
+        private long clock = 0;
+
+        /**
+         * The number of {@link Event}s that have been rolled back.
+         *
+         * @since v0.0.2
+         */
+        private long rollbacks = 0;
+
+        /**
+         * The sequence number of the next {@link Event} sent by this logical process.
+         *
+         * @since v0.0.2
+         */
+        private long nextSequence = 0;
+
+        /**
+         * Create a new logical process.
+         *
+         * @param index The index of the logical process.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private LogicalProcess(final int index) {
+            this.index = index;
+        }
+
+        /**
+         * Handle up to a batch of pending {@link Event}s.
+         *
+         * @param simulationManager The {@link OptimisticSimulationManager} running this logical process.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void handleBatch(final @NotNull OptimisticSimulationManager simulationManager) {
+            simulationManager.currentProcess.set(this);
+            try {
+                for (var i = 0; i < simulationManager.batchSize && !pending.isEmpty(); i++) {
+                    var event = pending.pollFirst();
+                    var agent = agents.get(event.message.getDestination());
+                    var state = agent instanceof StatefulAgent<?> statefulAgent ? statefulAgent.saveState() : null;
+                    current = new ProcessedEvent(event, agent, state, nextSequence, new ArrayList<>());
+                    processed.addLast(current);
+                    event.processed = true;
+                    clock = event.tick;
+                    simulationManager.dispatch(agent, event.message);
+                }
+            } finally {
+                current = null;
+                simulationManager.currentProcess.remove();
+            }
+        }
+
+        /**
+         * Count the distinct ticks of the pending {@link Event}s, by skipping from each tick to the next.
+         *
+         * @return The number of distinct ticks.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private int distinctPendingTickCount() {
+            var count = 0;
+            var event = pending.isEmpty() ? null : pending.first();
+            while (event != null) {
+                count++;
+                if (event.tick == Long.MAX_VALUE) {
+                    break;
+                }
+                event = pending.ceiling(new Event(event.tick + 1, Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE,
+                        event.message, event.target));
+            }
+            return count;
+        }
+
+        /**
+         * Send an {@link Event} from the {@link Event} being handled.
+         *
+         * @param event The {@link Event}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void send(final @NotNull Event event) {
+            Objects.requireNonNull(current).sent().add(event);
+            if (event.target == this) {
+                pending.add(event);
+            } else {
+                outbox.add(new Delivery(event, false));
+            }
+        }
+
+        /**
+         * Receive the {@link Event}s and anti-messages in the inbox, rolling back if any are in the past.
+         *
+         * @param simulationManager The {@link OptimisticSimulationManager} running this logical process.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void receive(final @NotNull OptimisticSimulationManager simulationManager) {
+            for (var delivery : inbox) {
+                var event = delivery.event();
+                if (delivery.anti()) {
+                    if (event.processed) {
+                        rollBack(event);
+                    }
+                    pending.remove(event);
+                } else {
+                    if (!processed.isEmpty() && event.compareTo(processed.getLast().event()) < 0) {
+                        rollBack(event);
+                    }
+                    pending.add(event);
+                }
+            }
+            inbox.clear();
+        }
+
+        /**
+         * Roll back every handled {@link Event} that is not before an {@link Event}.
+         *
+         * @param to The {@link Event}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void rollBack(final @NotNull Event to) {
+            while (!processed.isEmpty() && processed.getLast().event().compareTo(to) >= 0) {
+                var rolledBack = processed.removeLast();
+                restoreState(rolledBack.agent(), rolledBack.state());
+                nextSequence = rolledBack.nextSequence();
+                rolledBack.event().processed = false;
+                pending.add(rolledBack.event());
+                for (var sent : rolledBack.sent()) {
+                    if (sent.target == this) {
+                        if (sent.processed) {
+                            rollBack(sent);
+                        }
+                        pending.remove(sent);
+                    } else {
+                        outbox.add(new Delivery(sent, true));
+                    }
+                }
+                rollbacks++;
+            }
+        }
+
+        /**
+         * Discard the history before the global virtual time, which can no longer be rolled back.
+         *
+         * @param globalVirtualTime The global virtual time.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void collectFossils(final long globalVirtualTime) {
+            while (!processed.isEmpty() && processed.getFirst().event().tick < globalVirtualTime) {
+                processed.removeFirst();
+            }
+        }
+    }
+}
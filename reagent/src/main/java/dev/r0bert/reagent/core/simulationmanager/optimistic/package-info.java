@@ -0,0 +1,9 @@
+/**
+ * This package contains the optimistic (Time Warp) parallel discrete-event
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}, which lets logical processes run ahead
+ * speculatively and rolls them back when a message arrives in their past.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.optimistic;
@@ -0,0 +1,53 @@
+package dev.r0bert.reagent.core.simulationmanager.partition;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A {@link HashPartitionAssignment} is a {@link PartitionAssignment} that places each
+ * {@link dev.r0bert.reagent.core.agents.Agent} by the hash of its {@link UUID}.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class HashPartitionAssignment implements PartitionAssignment {
+    /**
+     * The number of partitions.
+     *
+     * @since v0.0.2
+     */
+    private final int partitionCount;
+
+    /**
+     * Create a new {@link HashPartitionAssignment}.
+     *
+     * @param partitionCount The number of partitions.
+     * @throws IllegalArgumentException If the number of partitions is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public HashPartitionAssignment(final int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partition count is not positive");
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    @Override
+    public int getPartition(final @NotNull UUID agent) {
+        return Math.floorMod(agent.hashCode(), partitionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "HashPartitionAssignment{" +
+                "partitionCount=" + partitionCount +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package dev.r0bert.reagent.core.simulationmanager.partition;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A {@link PartitionAssignment} places each {@link dev.r0bert.reagent.core.agents.Agent} on one of a fixed number of
+ * partitions.
+ * <p>
+ * Implementations must be safe to read from multiple threads, and must always return the same partition for the same
+ * {@link UUID}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface PartitionAssignment {
+    /**
+     * Get the number of partitions.
+     *
+     * @return The number of partitions.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getPartitionCount();
+
+    /**
+     * Get the partition of an {@link dev.r0bert.reagent.core.agents.Agent}.
+     *
+     * @param agent The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent}.
+     * @return The partition, from zero inclusive to {@link #getPartitionCount()} exclusive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getPartition(final @NotNull UUID agent);
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains the {@link dev.r0bert.reagent.core.simulationmanager.partition.PartitionAssignment}s that
+ * place {@link dev.r0bert.reagent.core.agents.Agent}s on the partitions of a parallel
+ * {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.partition;
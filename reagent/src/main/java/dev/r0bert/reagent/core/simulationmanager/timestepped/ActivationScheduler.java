@@ -0,0 +1,60 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * An {@link ActivationScheduler} decides which {@link SteppedAgent}s are stepped at a step of a
+ * {@link TimeSteppedSimulationManager}, in which stages, and in what order.
+ * <p>
+ * It is asked for the stages of every step, so it can return different stages for different ticks. A
+ * {@link SteppedAgent} can be in more than one stage, and is told which stage it is being stepped in by
+ * {@link StepContext#getStage()}. A {@link SteppedAgent} that is not in any stage keeps its state.
+ * </p>
+ *
+ * @author Robert Greener
+ * @see RandomActivation
+ * @see StagedActivation
+ * @see TypeActivation
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface ActivationScheduler {
+    /**
+     * The {@link ActivationScheduler} that steps every {@link SteppedAgent} in one independent stage, in the order
+     * they were added.
+     *
+     * @since v0.0.2
+     */
+    @NotNull ActivationScheduler ALL_INDEPENDENT = (tick, agents) ->
+            List.of(new ActivationStage(handles(agents), true));
+
+    /**
+     * Get the stages of a step.
+     *
+     * @param tick   The tick of the step.
+     * @param agents The {@link AgentRegistry} of the {@link SteppedAgent}s, whose handles are used in the stages.
+     * @return The stages, in the order they are run.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull List<ActivationStage> schedule(final long tick, final @NotNull AgentRegistry agents);
+
+    /**
+     * Get the handle of every {@link SteppedAgent}, in the order they were added.
+     *
+     * @param agents The {@link AgentRegistry} of the {@link SteppedAgent}s.
+     * @return The handles.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static @NotNull int[] handles(final @NotNull AgentRegistry agents) {
+        var handles = new int[agents.size()];
+        for (var handle = 0; handle < handles.length; handle++) {
+            handles[handle] = handle;
+        }
+        return handles;
+    }
+}
@@ -0,0 +1,21 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ActivationStage} is one stage of a step: the {@link SteppedAgent}s to step, in order.
+ * <p>
+ * The stages of a step are run one after the other. If a stage is independent, its {@link SteppedAgent}s do not
+ * depend on the order that they are stepped in, so they are stepped in parallel on the step
+ * {@link java.util.concurrent.Executor} of the {@link TimeSteppedSimulationManager}. Otherwise, they are stepped one
+ * at a time, in order, on the thread that called {@link TimeSteppedSimulationManager#run()}.
+ * </p>
+ *
+ * @param handles     The handles of the {@link SteppedAgent}s to step, in order. This must not be changed once the
+ *                    {@link ActivationStage} has been returned by an {@link ActivationScheduler}.
+ * @param independent Whether the {@link SteppedAgent}s can be stepped in parallel.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public record ActivationStage(@NotNull int[] handles, boolean independent) {
+}
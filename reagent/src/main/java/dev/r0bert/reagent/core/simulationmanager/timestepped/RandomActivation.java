@@ -0,0 +1,70 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link RandomActivation} steps every {@link SteppedAgent} one at a time, in a new random order at each step.
+ * <p>
+ * The order at a tick depends only on the seed and the tick, so a simulation is reproducible however it is run, and
+ * however many steps are skipped.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class RandomActivation implements ActivationScheduler {
+    /**
+     * The seed of the random orders.
+     *
+     * @since v0.0.2
+     */
+    private final long seed;
+
+    /**
+     * Create a new {@link RandomActivation}.
+     *
+     * @param seed The seed of the random orders.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public RandomActivation(final long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public @NotNull List<ActivationStage> schedule(final long tick, final @NotNull AgentRegistry agents) {
+        return List.of(new ActivationStage(shuffle(ActivationScheduler.handles(agents), seed, tick), false));
+    }
+
+    /**
+     * Shuffle handles in place, with a Fisher-Yates shuffle seeded from a seed and a tick.
+     *
+     * @param handles The handles to shuffle.
+     * @param seed    The seed.
+     * @param tick    The tick.
+     * @return The handles.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static @NotNull int[] shuffle(final @NotNull int[] handles, final long seed, final long tick) {
+        var random = new SplittableRandom(seed ^ tick * 0x9E3779B97F4A7C15L);
+        for (var i = handles.length - 1; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var handle = handles[i];
+            handles[i] = handles[j];
+            handles[j] = handle;
+        }
+        return handles;
+    }
+
+    @Override
+    public String toString() {
+        return "RandomActivation{" +
+                "seed=" + seed +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link StagedActivation} steps every {@link SteppedAgent} once in each of a number of stages, so that every
+ * {@link SteppedAgent} finishes one phase of a step before any {@link SteppedAgent} starts the next.
+ * <p>
+ * A {@link SteppedAgent} finds which phase it is in with {@link StepContext#getStage()}, and can read the states that
+ * were written in earlier phases of the step with {@link StepContext#getStagedState(java.util.UUID)}. Each phase can
+ * be independent, in which case its {@link SteppedAgent}s are stepped in parallel. Otherwise, they are stepped one at
+ * a time, in the order they were added, or in a random order that is shuffled once per step if there is a seed.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class StagedActivation implements ActivationScheduler {
+    /**
+     * Whether each stage is independent.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull boolean[] independent;
+
+    /**
+     * Whether the order is shuffled at each step.
+     *
+     * @since v0.0.2
+     */
+    private final boolean shuffled;
+
+    /**
+     * The seed of the random orders, if the order is shuffled.
+     *
+     * @since v0.0.2
+     */
+    private final long seed;
+
+    /**
+     * Create a new {@link StagedActivation} that steps the {@link SteppedAgent}s in the order they were added.
+     *
+     * @param independent Whether each stage is independent. There is one stage per value.
+     * @throws IllegalArgumentException If there are no stages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public StagedActivation(final @NotNull boolean... independent) {
+        this(false, 0, independent);
+    }
+
+    /**
+     * Create a new {@link StagedActivation} that steps the {@link SteppedAgent}s in a random order, which is the same
+     * in every stage of a step.
+     *
+     * @param seed        The seed of the random orders.
+     * @param independent Whether each stage is independent. There is one stage per value.
+     * @throws IllegalArgumentException If there are no stages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public StagedActivation(final long seed, final @NotNull boolean... independent) {
+        this(true, seed, independent);
+    }
+
+    /**
+     * Create a new {@link StagedActivation}.
+     *
+     * @param shuffled    Whether the order is shuffled at each step.
+     * @param seed        The seed of the random orders.
+     * @param independent Whether each stage is independent.
+     * @throws IllegalArgumentException If there are no stages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private StagedActivation(final boolean shuffled, final long seed, final @NotNull boolean[] independent) {
+        if (independent.length == 0) {
+            throw new IllegalArgumentException("There are no stages");
+        }
+        this.independent = independent.clone();
+        this.shuffled = shuffled;
+        this.seed = seed;
+    }
+
+    @Override
+    public @NotNull List<ActivationStage> schedule(final long tick, final @NotNull AgentRegistry agents) {
+        var handles = ActivationScheduler.handles(agents);
+        if (shuffled) {
+            RandomActivation.shuffle(handles, seed, tick);
+        }
+        var stages = new ArrayList<ActivationStage>(independent.length);
+        for (var stageIndependent : independent) {
+            stages.add(new ActivationStage(handles, stageIndependent));
+        }
+        return stages;
+    }
+
+    /**
+     * Get the number of stages.
+     *
+     * @return The number of stages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getStageCount() {
+        return independent.length;
+    }
+}
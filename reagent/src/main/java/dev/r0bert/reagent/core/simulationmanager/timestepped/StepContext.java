@@ -0,0 +1,276 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@link StepContext} is what a {@link SteppedAgent} reads and writes during a step.
+ * <p>
+ * The states that are read with {@link #getState(UUID)} are the states as of the end of the previous step. The state
+ * that is written with {@link #setState(Object)} is seen from the next step on, or by later stages of this step with
+ * {@link #getStagedState(UUID)}; if no state is written, the current state is kept.
+ * {@link Message}s sent with {@link #send(Message)} are sent at the next step, before any {@link SteppedAgent} is
+ * stepped.
+ * </p>
+ * <p>
+ * A {@link StepContext} is only valid during the call to {@link SteppedAgent#step(StepContext)} that it is passed to.
+ * </p>
+ *
+ * @param <S> The type of the state.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class StepContext<S> {
+    /**
+     * The {@link AgentRegistry} of the {@link SteppedAgent}s, whose handles index the states.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AgentRegistry agents;
+
+    /**
+     * The states as of the end of the previous step, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Object[] states;
+
+    /**
+     * The states being written in this step, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Object[] nextStates;
+
+    /**
+     * The tick of the last step that each {@link SteppedAgent} was stepped in, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull long[] steppedTicks;
+
+    /**
+     * The tick of the step.
+     *
+     * @since v0.0.2
+     */
+    private final long tick;
+
+    /**
+     * The time of the step.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ZonedDateTime time;
+
+    /**
+     * The index of the {@link ActivationStage} of the step.
+     *
+     * @since v0.0.2
+     */
+    private final int stage;
+
+    /**
+     * The {@link Message}s sent during the step.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull List<Message> messages = new ArrayList<>();
+
+    /**
+     * The handle of the {@link SteppedAgent} being stepped.
+     *
+     * @since v0.0.2
+     */
+    private int handle = AgentRegistry.NO_HANDLE;
+
+    /**
+     * The state that the {@link SteppedAgent} being stepped had two steps ago, or null if it may still be read.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable Object reusableState = null;
+
+    /**
+     * Create a new {@link StepContext}.
+     *
+     * @param agents       The {@link AgentRegistry} of the {@link SteppedAgent}s.
+     * @param states       The states as of the end of the previous step.
+     * @param nextStates   The states being written in this step.
+     * @param steppedTicks The tick of the last step that each {@link SteppedAgent} was stepped in.
+     * @param tick         The tick of the step.
+     * @param time         The time of the step.
+     * @param stage        The index of the {@link ActivationStage} of the step.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    StepContext(final @NotNull AgentRegistry agents, final @NotNull Object[] states,
+                final @NotNull Object[] nextStates, final @NotNull long[] steppedTicks, final long tick,
+                final @NotNull ZonedDateTime time, final int stage) {
+        this.agents = agents;
+        this.states = states;
+        this.nextStates = nextStates;
+        this.steppedTicks = steppedTicks;
+        this.tick = tick;
+        this.time = time;
+        this.stage = stage;
+    }
+
+    /**
+     * Step a {@link SteppedAgent} with this {@link StepContext}.
+     * The first time a {@link SteppedAgent} is stepped in a step, its next state starts as its current state.
+     *
+     * @param handle The handle of the {@link SteppedAgent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    void step(final int handle) {
+        this.handle = handle;
+        if (steppedTicks[handle] != tick) {
+            reusableState = nextStates[handle] != states[handle] ? nextStates[handle] : null;
+            nextStates[handle] = states[handle];
+            steppedTicks[handle] = tick;
+        } else {
+            reusableState = null;
+        }
+        ((SteppedAgent<S>) agents.getAgent(handle)).step(this);
+    }
+
+    /**
+     * Get the {@link Message}s sent during the step.
+     *
+     * @return The {@link Message}s, in the order they were sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull List<Message> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Get the tick of the step.
+     *
+     * @return The tick.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the time of the step.
+     *
+     * @return The time.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull ZonedDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Get the index of the {@link ActivationStage} of the step, which is zero if there is only one.
+     *
+     * @return The index of the stage.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getStage() {
+        return stage;
+    }
+
+    /**
+     * Get the state of the {@link SteppedAgent} being stepped, as of the end of the previous step.
+     *
+     * @return The state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull S getState() {
+        return (S) states[handle];
+    }
+
+    /**
+     * Get the state of a {@link SteppedAgent}, as of the end of the previous step.
+     *
+     * @param agent The {@link UUID} of the {@link SteppedAgent}.
+     * @return The state, or null if there is no {@link SteppedAgent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable S getState(final @NotNull UUID agent) {
+        var other = agents.getHandle(agent);
+        return other == AgentRegistry.NO_HANDLE ? null : (S) states[other];
+    }
+
+    /**
+     * Get the state of a {@link SteppedAgent} as it has been written so far in this step, or as of the end of the
+     * previous step if it has not been stepped yet in this step.
+     * This should only be used to read the states written in earlier stages, or earlier in a stage that is not
+     * independent; the states being written in the same independent stage may be read in any order.
+     *
+     * @param agent The {@link UUID} of the {@link SteppedAgent}.
+     * @return The state, or null if there is no {@link SteppedAgent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable S getStagedState(final @NotNull UUID agent) {
+        var other = agents.getHandle(agent);
+        if (other == AgentRegistry.NO_HANDLE) {
+            return null;
+        }
+        return (S) (steppedTicks[other] == tick ? nextStates[other] : states[other]);
+    }
+
+    /**
+     * Get the state that the {@link SteppedAgent} being stepped had two steps ago, which is no longer read by any
+     * {@link SteppedAgent}. A mutable state can be overwritten and passed to {@link #setState(Object)}, so that no
+     * state is allocated per step.
+     *
+     * @return The state, or null if there is none, if it is the same object as the current state, or if the
+     * {@link SteppedAgent} has already been stepped in an earlier stage of this step.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable S getReusableState() {
+        return (S) reusableState;
+    }
+
+    /**
+     * Set the state of the {@link SteppedAgent} being stepped, as of the end of this step.
+     * It must not be a state that any {@link SteppedAgent} can read in this step, other than the one from
+     * {@link #getReusableState()}.
+     *
+     * @param state The next state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setState(final @NotNull S state) {
+        nextStates[handle] = state;
+    }
+
+    /**
+     * Send a {@link Message} at the next step.
+     * It is not sent if the next step is after the end of the simulation.
+     *
+     * @param message The {@link Message} to send.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void send(final @NotNull Message message) {
+        messages.add(message);
+    }
+}
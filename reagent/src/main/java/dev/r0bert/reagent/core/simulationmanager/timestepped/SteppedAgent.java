@@ -0,0 +1,39 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link SteppedAgent} is an {@link Agent} that acts once per step of a {@link TimeSteppedSimulationManager}.
+ * <p>
+ * Each {@link SteppedAgent} has a state, which is double-buffered: during a step, every {@link SteppedAgent} reads the
+ * states that were written in the previous step, and writes its next state, which is not seen by any other
+ * {@link SteppedAgent} until the next step. So the {@link SteppedAgent}s can be stepped in parallel, and in any order.
+ * </p>
+ *
+ * @param <S> The type of the state.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface SteppedAgent<S> extends Agent {
+    /**
+     * Get the state of this {@link SteppedAgent} before its first step.
+     *
+     * @return The initial state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull S getInitialState();
+
+    /**
+     * Take a step.
+     * This is called on an arbitrary thread, at the same time as the other {@link SteppedAgent}s are stepped, so it
+     * must only change this {@link SteppedAgent}, and must only talk to the simulation through the
+     * {@link StepContext}.
+     *
+     * @param context The {@link StepContext} of the step.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void step(final @NotNull StepContext<S> context);
+}
@@ -0,0 +1,436 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodecs;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.SimulationClock;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.CalendarEventQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link TimeSteppedSimulationManager} is a {@link CoreSimulationManager} that steps every {@link SteppedAgent} once
+ * per step interval, from the start time of the simulation up to and including its end time.
+ * <p>
+ * At each step, the {@link Message}s in the queue for that time are sent first, as in a {@link CoreSimulationManager}.
+ * Then the {@link SteppedAgent}s are stepped in the stages from the {@link ActivationScheduler}, against the states
+ * written in the previous step, and the new states replace them once every stage has finished. By default, every
+ * {@link SteppedAgent} is stepped in one stage, in parallel on the step {@link Executor}. The states are
+ * held in two arrays indexed by handle, which are swapped after each step. {@link Message}s sent with
+ * {@link StepContext#send(Message)} are scheduled for the next step. {@link Message}s can still be scheduled for any
+ * time, as in a {@link CoreSimulationManager}, for events that do not happen every step.
+ * </p>
+ * <p>
+ * Every {@link SteppedAgent} that is added must have states of type {@code S}. {@link Agent}s that are not
+ * {@link SteppedAgent}s are only sent {@link Message}s. {@link Agent}s must not be added while the simulation is
+ * running. A checkpoint saves the states with the {@link CheckpointCodecs}, so a
+ * {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} must be registered for the class of every state.
+ * </p>
+ *
+ * @param <S> The type of the states of the {@link SteppedAgent}s.
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class TimeSteppedSimulationManager<S> extends CoreSimulationManager {
+    /**
+     * The number of ticks between steps.
+     *
+     * @since v0.0.2
+     */
+    private final long stepTicks;
+
+    /**
+     * The tick of the next step, or {@link Long#MAX_VALUE} if there are no more steps.
+     *
+     * @since v0.0.2
+     */
+    private long nextStepTick = 0;
+
+    /**
+     * The {@link SteppedAgent}s, whose handles index the states.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AgentRegistry steppedAgents = new AgentRegistry();
+
+    /**
+     * The states as of the end of the last step, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull Object[] states = new Object[16];
+
+    /**
+     * The states that are written in the next step, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull Object[] nextStates = new Object[16];
+
+    /**
+     * The tick of the last step that each {@link SteppedAgent} was stepped in, indexed by handle.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull long[] steppedTicks = new long[16];
+
+    /**
+     * The {@link ActivationScheduler} that decides the stages of each step.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull ActivationScheduler activationScheduler = ActivationScheduler.ALL_INDEPENDENT;
+
+    /**
+     * The {@link Executor} that {@link SteppedAgent}s are stepped on, or null to step them on the thread that called
+     * {@link #run()}.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable Executor stepExecutor;
+
+    /**
+     * The number of chunks that the {@link SteppedAgent}s are split into for each step.
+     *
+     * @since v0.0.2
+     */
+    private int stepChunkCount;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(TimeSteppedSimulationManager.class);
+
+    /**
+     * Create a new {@link TimeSteppedSimulationManager}.
+     *
+     * @param startTime    The start time of the simulation.
+     * @param endTime      The end time of the simulation.
+     * @param stepInterval The time between steps.
+     * @throws IllegalArgumentException If the step interval is shorter than the resolution of the clock, or is not a
+     *                                  whole number of its ticks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public TimeSteppedSimulationManager(final @NotNull ZonedDateTime startTime, final @NotNull ZonedDateTime endTime,
+                                        final @NotNull Duration stepInterval) {
+        this(new SimulationClock(startTime), endTime, stepInterval);
+    }
+
+    /**
+     * Create a new {@link TimeSteppedSimulationManager} with a {@link SimulationClock}.
+     * The {@link SteppedAgent}s are stepped on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param clock        The {@link SimulationClock}, whose start time is the start time of the simulation.
+     * @param endTime      The end time of the simulation.
+     * @param stepInterval The time between steps.
+     * @throws IllegalArgumentException If the step interval is shorter than the resolution of the clock, or is not a
+     *                                  whole number of its ticks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public TimeSteppedSimulationManager(final @NotNull SimulationClock clock, final @NotNull ZonedDateTime endTime,
+                                        final @NotNull Duration stepInterval) {
+        super(clock, endTime, new CalendarEventQueue());
+        this.stepTicks = clock.toTicks(stepInterval);
+        if (stepTicks <= 0) {
+            throw new IllegalArgumentException(String.format("The step interval %s is shorter than the resolution %s",
+                    stepInterval, clock.getResolution()));
+        }
+        if (!clock.getResolution().multipliedBy(stepTicks).equals(stepInterval)) {
+            throw new IllegalArgumentException(String.format("The step interval %s is not a whole number of ticks " +
+                    "of the resolution %s", stepInterval, clock.getResolution()));
+        }
+        this.stepExecutor = ForkJoinPool.commonPool();
+        this.stepChunkCount = 4 * ForkJoinPool.commonPool().getParallelism();
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        super.addAgent(agent);
+        if (agent instanceof SteppedAgent<?> stepped) {
+            var handle = steppedAgents.register(stepped);
+            if (handle == states.length) {
+                states = Arrays.copyOf(states, 2 * handle);
+                nextStates = Arrays.copyOf(nextStates, 2 * handle);
+                steppedTicks = Arrays.copyOf(steppedTicks, 2 * handle);
+            }
+            var state = stepped.getInitialState();
+            states[handle] = state;
+            nextStates[handle] = state;
+            steppedTicks[handle] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Get the state of a {@link SteppedAgent}, as of the end of the last step.
+     * This must not be called while the {@link SteppedAgent}s are being stepped.
+     *
+     * @param agent The {@link UUID} of the {@link SteppedAgent}.
+     * @return The state, or null if there is no {@link SteppedAgent} with the {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable S getState(final @NotNull UUID agent) {
+        var handle = steppedAgents.getHandle(agent);
+        return handle == AgentRegistry.NO_HANDLE ? null : (S) states[handle];
+    }
+
+    /**
+     * Get the time between steps.
+     *
+     * @return The time between steps.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Duration getStepInterval() {
+        return getClock().getResolution().multipliedBy(stepTicks);
+    }
+
+    /**
+     * Write the tick of the next step, and the state of each {@link SteppedAgent} as of the end of the last step, with
+     * the {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} that is registered for the class of the state.
+     *
+     * @param output The {@link CheckpointOutput} to write to.
+     * @throws IOException              If the state could not be written.
+     * @throws IllegalArgumentException If no {@link dev.r0bert.reagent.core.checkpoint.CheckpointCodec} is registered
+     *                                  for the class of a state.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    protected void writeCheckpointState(final @NotNull CheckpointOutput output) throws IOException {
+        output.writeLong(nextStepTick);
+        output.writeInt(steppedAgents.size());
+        for (var handle = 0; handle < steppedAgents.size(); handle++) {
+            output.writeUUID(steppedAgents.getAgent(handle).getUUID());
+            output.writeObject(states[handle]);
+        }
+    }
+
+    /**
+     * Read the tick of the next step, and the state of each {@link SteppedAgent}, written by
+     * {@link #writeCheckpointState(CheckpointOutput)}.
+     *
+     * @param input The {@link CheckpointInput} to read from.
+     * @throws IOException           If the state could not be read.
+     * @throws IllegalStateException If a {@link SteppedAgent} in the checkpoint has not been added.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    protected void readCheckpointState(final @NotNull CheckpointInput input) throws IOException {
+        nextStepTick = input.readLong();
+        var count = input.readInt();
+        for (var i = 0; i < count; i++) {
+            var uuid = input.readUUID();
+            var handle = steppedAgents.getHandle(uuid);
+            if (handle == AgentRegistry.NO_HANDLE) {
+                throw new IllegalStateException(String.format("The stepped agent %s has not been added", uuid));
+            }
+            var state = input.readObject();
+            states[handle] = state;
+            nextStates[handle] = state;
+        }
+    }
+
+    @Override
+    protected long getNextTick() {
+        return Math.min(super.getNextTick(), nextStepTick <= getEndTick() ? nextStepTick : Long.MAX_VALUE);
+    }
+
+    @Override
+    protected void runForTime(final @NotNull ZonedDateTime time) {
+        super.runForTime(time);
+
+        var tick = toTick(time);
+        if (tick == nextStepTick) {
+            step(tick, time);
+            nextStepTick = tick > Long.MAX_VALUE - stepTicks ? Long.MAX_VALUE : tick + stepTicks;
+        }
+    }
+
+    /**
+     * Step the {@link SteppedAgent}s in the stages from the {@link ActivationScheduler}, swap the states, and schedule
+     * the {@link Message}s they sent for the next step.
+     *
+     * @param tick The tick of the step.
+     * @param time The time of the step.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void step(final long tick, final @NotNull ZonedDateTime time) {
+        var stages = activationScheduler.schedule(tick, steppedAgents);
+
+        logger.atDebug().log("Stepping {} agents in {} stages at time {}", steppedAgents::size, stages::size,
+                () -> time);
+
+        var contexts = new ArrayList<StepContext<S>>();
+        for (var stage = 0; stage < stages.size(); stage++) {
+            var handles = stages.get(stage).handles();
+            var executor = stages.get(stage).independent() ? stepExecutor : null;
+            var chunkCount = executor == null ? 1 : Math.max(1, Math.min(stepChunkCount, handles.length));
+            var stageContexts = new ArrayList<StepContext<S>>(chunkCount);
+            for (var i = 0; i < chunkCount; i++) {
+                stageContexts.add(new StepContext<>(steppedAgents, states, nextStates, steppedTicks, tick, time,
+                        stage));
+            }
+            if (executor == null) {
+                for (var handle : handles) {
+                    stageContexts.get(0).step(handle);
+                }
+            } else {
+                stepInParallel(stageContexts, handles, executor);
+            }
+            contexts.addAll(stageContexts);
+        }
+
+        for (var handle = 0; handle < steppedAgents.size(); handle++) {
+            if (steppedTicks[handle] != tick) {
+                nextStates[handle] = states[handle];
+            }
+        }
+        var swap = states;
+        states = nextStates;
+        nextStates = swap;
+
+        var next = tick + stepTicks;
+        for (var context : contexts) {
+            if (next > tick && next <= getEndTick()) {
+                for (var message : context.getMessages()) {
+                    scheduleMessageAtTick(message, next);
+                }
+            } else if (!context.getMessages().isEmpty()) {
+                logger.atDebug().log("Dropping {} messages sent after the last step", context.getMessages().size());
+            }
+        }
+    }
+
+    /**
+     * Step the {@link SteppedAgent}s of a stage in contiguous chunks, one per {@link StepContext}, on an
+     * {@link Executor}.
+     *
+     * @param contexts The {@link StepContext} of each chunk.
+     * @param handles  The handles of the {@link SteppedAgent}s of the stage.
+     * @param executor The {@link Executor} to step the chunks on.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static void stepInParallel(final @NotNull List<? extends StepContext<?>> contexts,
+                                       final @NotNull int[] handles, final @NotNull Executor executor) {
+        var futures = new CompletableFuture<?>[contexts.size()];
+        for (var i = 0; i < futures.length; i++) {
+            var context = contexts.get(i);
+            var start = (int) ((long) handles.length * i / futures.length);
+            var end = (int) ((long) handles.length * (i + 1) / futures.length);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (var index = start; index < end; index++) {
+                    context.step(handles[index]);
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Set the {@link ActivationScheduler} that decides the stages of each step.
+     * This must not be called while the simulation is running.
+     *
+     * @param activationScheduler The {@link ActivationScheduler}, which is
+     *                            {@link ActivationScheduler#ALL_INDEPENDENT} by default.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setActivationScheduler(final @NotNull ActivationScheduler activationScheduler) {
+        logger.atDebug().log("Setting activation scheduler {}", activationScheduler);
+        this.activationScheduler = activationScheduler;
+    }
+
+    /**
+     * Get the {@link ActivationScheduler} that decides the stages of each step.
+     *
+     * @return The {@link ActivationScheduler}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull ActivationScheduler getActivationScheduler() {
+        return activationScheduler;
+    }
+
+    /**
+     * Step the {@link SteppedAgent}s in parallel on an {@link Executor}.
+     * The number of chunks is four times the parallelism of the {@link Executor} if it is a {@link ForkJoinPool}, or
+     * four times the number of available processors otherwise.
+     *
+     * @param executor The {@link Executor} to step the {@link SteppedAgent}s on, or null to step them on the thread
+     *                 that called {@link #run()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setStepExecutor(final @Nullable Executor executor) {
+        var parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() :
+                Runtime.getRuntime().availableProcessors();
+        setStepExecutor(executor, 4 * parallelism);
+    }
+
+    /**
+     * Step the {@link SteppedAgent}s in parallel on an {@link Executor}.
+     *
+     * @param executor   The {@link Executor} to step the {@link SteppedAgent}s on, or null to step them on the thread
+     *                   that called {@link #run()}.
+     * @param chunkCount The number of chunks to split the {@link SteppedAgent}s into for each step.
+     * @throws IllegalArgumentException If the chunk count is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setStepExecutor(final @Nullable Executor executor, final int chunkCount) {
+        if (chunkCount <= 0) {
+            throw new IllegalArgumentException("The chunk count is not positive");
+        }
+        logger.atDebug().log("Setting step executor {} with {} chunks", executor, chunkCount);
+        this.stepExecutor = executor;
+        this.stepChunkCount = chunkCount;
+    }
+
+    /**
+     * Get the {@link Executor} that {@link SteppedAgent}s are stepped on.
+     *
+     * @return The {@link Executor}, or null if {@link SteppedAgent}s are stepped on the thread that called
+     * {@link #run()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Executor getStepExecutor() {
+        return stepExecutor;
+    }
+}
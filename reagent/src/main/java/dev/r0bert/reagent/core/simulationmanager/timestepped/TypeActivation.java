@@ -0,0 +1,94 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TypeActivation} steps the {@link SteppedAgent}s in one stage per type, so that every {@link SteppedAgent}
+ * of one type is stepped before any {@link SteppedAgent} of the next.
+ * <p>
+ * Each {@link SteppedAgent} is stepped in the stage of the first type that it is an instance of, or in a last stage
+ * if it is an instance of none of them. So stage {@code i} is always the stage of type {@code i}, even if there are no
+ * {@link SteppedAgent}s of that type. Within a stage, the {@link SteppedAgent}s are stepped in the order they were
+ * added, in parallel if the stages are independent.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class TypeActivation implements ActivationScheduler {
+    /**
+     * The types, in the order that their stages are run.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull List<Class<? extends Agent>> types;
+
+    /**
+     * Whether the stages are independent.
+     *
+     * @since v0.0.2
+     */
+    private final boolean independent;
+
+    /**
+     * Create a new {@link TypeActivation}.
+     *
+     * @param types       The types, in the order that their stages are run.
+     * @param independent Whether the stages are independent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public TypeActivation(final @NotNull List<Class<? extends Agent>> types, final boolean independent) {
+        this.types = List.copyOf(types);
+        this.independent = independent;
+    }
+
+    @Override
+    public @NotNull List<ActivationStage> schedule(final long tick, final @NotNull AgentRegistry agents) {
+        var counts = new int[types.size() + 1];
+        var stageOf = new int[agents.size()];
+        for (var handle = 0; handle < stageOf.length; handle++) {
+            stageOf[handle] = stageOf(agents.getAgent(handle));
+            counts[stageOf[handle]]++;
+        }
+
+        var handles = new int[counts.length][];
+        for (var stage = 0; stage < counts.length; stage++) {
+            handles[stage] = new int[counts[stage]];
+            counts[stage] = 0;
+        }
+        for (var handle = 0; handle < stageOf.length; handle++) {
+            var stage = stageOf[handle];
+            handles[stage][counts[stage]++] = handle;
+        }
+
+        var stages = new ArrayList<ActivationStage>(handles.length);
+        for (var stage : handles) {
+            stages.add(new ActivationStage(stage, independent));
+        }
+        return stages;
+    }
+
+    /**
+     * Get the stage of an {@link Agent}.
+     *
+     * @param agent The {@link Agent}.
+     * @return The index of the first type that the {@link Agent} is an instance of, or the number of types if there is
+     * none.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private int stageOf(final @NotNull Agent agent) {
+        for (var i = 0; i < types.size(); i++) {
+            if (types.get(i).isInstance(agent)) {
+                return i;
+            }
+        }
+        return types.size();
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains the time-stepped {@link dev.r0bert.reagent.core.simulationmanager.SimulationManager}, which
+ * steps every {@link dev.r0bert.reagent.core.simulationmanager.timestepped.SteppedAgent} once per tick against
+ * double-buffered state.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
@@ -0,0 +1,711 @@
+package dev.r0bert.reagent.social.bsp;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.ids.Ids;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.social.simulationmanager.SocialSimulationManager;
+import dev.r0bert.reagent.social.socialnetwork.HasSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.partition.SocialNetworkPartitioning;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link BspEngine} runs a {@link VertexProgram} over an {@link IndexedSocialNetwork} in bulk-synchronous supersteps.
+ * <p>
+ * Each vertex of the network has a {@code double} value. The vertices are split into partitions, and each partition
+ * is computed by one task on the {@link Executor}. In each superstep, every vertex that has not voted to halt, or that
+ * was sent a message, is computed. Once every partition has been computed, the messages are delivered. Messages are
+ * never held as {@link Message} objects: each partition appends the messages it sends to one {@link MessageBuffer} per
+ * destination partition, and each destination partition then gathers its buffers into a primitive inbox, ordered by
+ * vertex. If there is a combiner, the messages for each vertex are combined into one as they are gathered. The engine
+ * halts once every vertex has voted to halt and no messages are waiting to be delivered.
+ * </p>
+ * <p>
+ * A {@link BspEngine} is also an {@link Agent}: each {@link Message} that it is sent runs one superstep. So once it is
+ * added to a {@link SocialSimulationManager} with {@link SocialSimulationManager#addBspEngine(BspEngine)}, supersteps
+ * can be scheduled as events, for example with a recurring
+ * {@link dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage}.
+ * </p>
+ * <p>
+ * The network must not change while the {@link BspEngine} is being used.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class BspEngine implements Agent, HasSocialNetwork {
+    /**
+     * The {@link IndexedSocialNetwork} that the {@link VertexProgram} is run over.
+     *
+     * @since v0.0.2
+     */
+    final @NotNull IndexedSocialNetwork network;
+
+    /**
+     * The value of each vertex, by index.
+     *
+     * @since v0.0.2
+     */
+    final @NotNull double[] values;
+
+    /**
+     * Whether each vertex has voted to halt, by index.
+     *
+     * @since v0.0.2
+     */
+    final @NotNull boolean[] halted;
+
+    /**
+     * The partition of each vertex, by index.
+     *
+     * @since v0.0.2
+     */
+    final @NotNull int[] partitionOf;
+
+    /**
+     * The local index of each vertex on its partition, by index.
+     *
+     * @since v0.0.2
+     */
+    final @NotNull int[] localIndices;
+
+    /**
+     * The {@link VertexProgram} that is run at each vertex.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull VertexProgram program;
+
+    /**
+     * The partitions.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Partition[] partitions;
+
+    /**
+     * The {@link UUID} of this {@link BspEngine} as an {@link Agent}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull UUID uuid = Ids.toUUID(Ids.nextId());
+
+    /**
+     * The function that combines two messages for the same vertex, or null if messages are not combined.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable DoubleBinaryOperator combiner = null;
+
+    /**
+     * The {@link Executor} that partitions are computed on, or null to compute them on the calling thread.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * The number of supersteps that have been run.
+     *
+     * @since v0.0.2
+     */
+    private long superstep = 0;
+
+    /**
+     * The number of vertices that had not voted to halt at the end of the last superstep.
+     *
+     * @since v0.0.2
+     */
+    private long activeCount;
+
+    /**
+     * The number of messages waiting to be delivered in the next superstep.
+     *
+     * @since v0.0.2
+     */
+    private long messageCount = 0;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(BspEngine.class);
+
+    /**
+     * Create a new {@link BspEngine} that splits the vertices into contiguous ranges of indices.
+     *
+     * @param network        The {@link IndexedSocialNetwork} to run the {@link VertexProgram} over.
+     * @param program        The {@link VertexProgram}.
+     * @param partitionCount The number of partitions.
+     * @throws IllegalArgumentException If the partition count is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public BspEngine(final @NotNull IndexedSocialNetwork network, final @NotNull VertexProgram program,
+                     final int partitionCount) {
+        this(network, program, partitionCount, contiguousPartitions(network.getAgentCount(), partitionCount));
+    }
+
+    /**
+     * Create a new {@link BspEngine} that splits the vertices as a {@link SocialNetworkPartitioning} does, so that
+     * most messages stay on the partition they are sent from.
+     *
+     * @param network      The {@link IndexedSocialNetwork} to run the {@link VertexProgram} over.
+     * @param program      The {@link VertexProgram}.
+     * @param partitioning The {@link SocialNetworkPartitioning} of the network.
+     * @throws IllegalArgumentException If the {@link SocialNetworkPartitioning} does not have the same number of
+     *                                  vertices as the network.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public BspEngine(final @NotNull IndexedSocialNetwork network, final @NotNull VertexProgram program,
+                     final @NotNull SocialNetworkPartitioning partitioning) {
+        this(network, program, partitioning.getPartitionCount(), partitionsOf(network, partitioning));
+    }
+
+    /**
+     * Create a new {@link BspEngine}.
+     *
+     * @param network        The {@link IndexedSocialNetwork} to run the {@link VertexProgram} over.
+     * @param program        The {@link VertexProgram}.
+     * @param partitionCount The number of partitions.
+     * @param partitionOf    The partition of each vertex, by index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private BspEngine(final @NotNull IndexedSocialNetwork network, final @NotNull VertexProgram program,
+                      final int partitionCount, final @NotNull int[] partitionOf) {
+        this.network = network;
+        this.program = program;
+        this.partitionOf = partitionOf;
+        this.values = new double[partitionOf.length];
+        this.halted = new boolean[partitionOf.length];
+        this.localIndices = new int[partitionOf.length];
+        this.activeCount = partitionOf.length;
+
+        var sizes = new int[partitionCount];
+        for (var vertex = 0; vertex < partitionOf.length; vertex++) {
+            localIndices[vertex] = sizes[partitionOf[vertex]]++;
+            values[vertex] = program.getInitialValue(network.getUUID(vertex));
+        }
+        this.partitions = new Partition[partitionCount];
+        for (var partition = 0; partition < partitionCount; partition++) {
+            partitions[partition] = new Partition(this, partitionCount, sizes[partition]);
+        }
+        for (var vertex = 0; vertex < partitionOf.length; vertex++) {
+            partitions[partitionOf[vertex]].vertices[localIndices[vertex]] = vertex;
+        }
+    }
+
+    /**
+     * Split vertices into contiguous ranges of indices.
+     *
+     * @param vertexCount    The number of vertices.
+     * @param partitionCount The number of partitions.
+     * @return The partition of each vertex, by index.
+     * @throws IllegalArgumentException If the partition count is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull int[] contiguousPartitions(final int vertexCount, final int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partition count is not positive");
+        }
+        var partitionOf = new int[vertexCount];
+        for (var partition = 0; partition < partitionCount; partition++) {
+            var start = (int) ((long) vertexCount * partition / partitionCount);
+            var end = (int) ((long) vertexCount * (partition + 1) / partitionCount);
+            Arrays.fill(partitionOf, start, end, partition);
+        }
+        return partitionOf;
+    }
+
+    /**
+     * Get the partition of each vertex from a {@link SocialNetworkPartitioning}.
+     *
+     * @param network      The {@link IndexedSocialNetwork}.
+     * @param partitioning The {@link SocialNetworkPartitioning} of the network.
+     * @return The partition of each vertex, by index.
+     * @throws IllegalArgumentException If the {@link SocialNetworkPartitioning} does not have the same number of
+     *                                  vertices as the network.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull int[] partitionsOf(final @NotNull IndexedSocialNetwork network,
+                                               final @NotNull SocialNetworkPartitioning partitioning) {
+        var size = 0L;
+        for (var partition = 0; partition < partitioning.getPartitionCount(); partition++) {
+            size += partitioning.getSize(partition);
+        }
+        if (size != network.getAgentCount()) {
+            throw new IllegalArgumentException(String.format(
+                    "The partitioning has %d vertices, but the social network has %d", size,
+                    network.getAgentCount()));
+        }
+        var partitionOf = new int[network.getAgentCount()];
+        for (var vertex = 0; vertex < partitionOf.length; vertex++) {
+            partitionOf[vertex] = partitioning.getPartitionOf(vertex);
+        }
+        return partitionOf;
+    }
+
+    /**
+     * Run one superstep, unless the engine has halted.
+     *
+     * @return Whether the engine has not halted after the superstep.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean superstep() {
+        if (isHalted()) {
+            return false;
+        }
+
+        logger.atDebug().log("Running superstep {} with {} active vertices and {} messages", superstep,
+                activeCount, messageCount);
+
+        forEachPartition(partition -> partitions[partition].compute(program));
+        forEachPartition(partition -> partitions[partition].deliver(partitions, partition, combiner));
+        var active = 0L;
+        var messages = 0L;
+        for (var partition : partitions) {
+            for (var outbox : partition.outboxes) {
+                outbox.clear();
+            }
+            active += partition.activeCount;
+            messages += partition.messageCount;
+        }
+        activeCount = active;
+        messageCount = messages;
+        superstep++;
+        return !isHalted();
+    }
+
+    /**
+     * Run supersteps until the engine halts, or a number of supersteps have been run.
+     *
+     * @param maximumSupersteps The largest number of supersteps to run.
+     * @return The number of supersteps that were run.
+     * @throws IllegalArgumentException If the maximum number of supersteps is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long run(final long maximumSupersteps) {
+        if (maximumSupersteps < 0) {
+            throw new IllegalArgumentException("The maximum number of supersteps is negative");
+        }
+        var count = 0L;
+        while (count < maximumSupersteps && !isHalted()) {
+            superstep();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Run a task for each partition, in parallel on the {@link Executor}.
+     *
+     * @param task The task, which is passed the index of the partition.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void forEachPartition(final @NotNull IntConsumer task) {
+        var executor = this.executor;
+        if (executor == null || partitions.length == 1) {
+            for (var partition = 0; partition < partitions.length; partition++) {
+                task.accept(partition);
+            }
+            return;
+        }
+
+        var futures = new CompletableFuture<?>[partitions.length];
+        for (var partition = 0; partition < partitions.length; partition++) {
+            var index = partition;
+            futures[partition] = CompletableFuture.runAsync(() -> task.accept(index), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether the engine has halted: every vertex has voted to halt, and no messages are waiting to be
+     * delivered.
+     *
+     * @return Whether the engine has halted.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean isHalted() {
+        return activeCount == 0 && messageCount == 0;
+    }
+
+    /**
+     * Get the number of supersteps that have been run.
+     *
+     * @return The number of supersteps.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getSuperstep() {
+        return superstep;
+    }
+
+    /**
+     * Get the value of a vertex.
+     *
+     * @param vertex The index of the vertex.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If there is no vertex with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getValue(final int vertex) {
+        return values[vertex];
+    }
+
+    /**
+     * Get the value of the vertex of an {@link Agent}.
+     *
+     * @param agent The {@link UUID} of the {@link Agent}.
+     * @return The value.
+     * @throws IllegalArgumentException If the {@link Agent} is not in the network.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getValue(final @NotNull UUID agent) {
+        var vertex = network.indexOf(agent);
+        if (vertex == IndexedSocialNetwork.NO_INDEX) {
+            throw new IllegalArgumentException(String.format("The agent %s is not in the social network", agent));
+        }
+        return values[vertex];
+    }
+
+    /**
+     * Get the number of partitions.
+     *
+     * @return The number of partitions.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Set the function that combines two messages for the same vertex, such as {@link Double#sum(double, double)}.
+     * It must be associative and commutative. This must not be called while a superstep is running.
+     *
+     * @param combiner The function, or null to deliver every message.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setCombiner(final @Nullable DoubleBinaryOperator combiner) {
+        logger.atDebug().log("Setting combiner {}", combiner);
+        this.combiner = combiner;
+    }
+
+    /**
+     * Get the function that combines two messages for the same vertex.
+     *
+     * @return The function, or null if every message is delivered.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable DoubleBinaryOperator getCombiner() {
+        return combiner;
+    }
+
+    /**
+     * Set the {@link Executor} that partitions are computed on, which is the {@link ForkJoinPool#commonPool()} by
+     * default. This must not be called while a superstep is running.
+     *
+     * @param executor The {@link Executor}, or null to compute the partitions on the calling thread.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setExecutor(final @Nullable Executor executor) {
+        logger.atDebug().log("Setting executor {}", executor);
+        this.executor = executor;
+    }
+
+    /**
+     * Get the {@link Executor} that partitions are computed on.
+     *
+     * @return The {@link Executor}, or null if partitions are computed on the calling thread.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Run one superstep, whatever the {@link Message} is.
+     *
+     * @param message The {@link Message} that triggers the superstep.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void handleMessage(final @NotNull Message message) {
+        superstep();
+    }
+
+    @Override
+    public @NotNull UUID getUUID() {
+        return uuid;
+    }
+
+    @Override
+    public @NotNull IndexedSocialNetwork getSocialNetwork() {
+        return network;
+    }
+
+    @Override
+    public String toString() {
+        return "BspEngine{" +
+                "uuid=" + uuid +
+                ", partitions=" + partitions.length +
+                ", superstep=" + superstep +
+                '}';
+    }
+
+    /**
+     * A partition of the vertices, which is computed on one thread.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Partition {
+        /**
+         * The index of each vertex of this partition, by local index.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull int[] vertices;
+
+        /**
+         * The messages sent from this partition in the current superstep, by destination partition.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull MessageBuffer[] outboxes;
+
+        /**
+         * Whether each vertex has voted to halt, by index.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull boolean[] halted;
+
+        /**
+         * The {@link VertexContext} that the vertices of this partition are computed with.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull VertexContext context;
+
+        /**
+         * The start of the messages of each vertex in {@link #inbox}, by local index, followed by the end of the
+         * messages of the last vertex.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull int[] offsets;
+
+        /**
+         * The next position in {@link #inbox} of each vertex while the messages are being gathered, by local index.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull int[] cursors;
+
+        /**
+         * Whether each vertex has been sent a message while combining, by local index.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull boolean[] received;
+
+        /**
+         * The combined message of each vertex while combining, by local index.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull double[] combined;
+
+        /**
+         * The messages sent to the vertices of this partition in the last superstep, ordered by local index.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull double[] inbox = new double[16];
+
+        /**
+         * The number of vertices of this partition that had not voted to halt at the end of the last superstep.
+         *
+         * @since v0.0.2
+         */
+        private long activeCount = 0;
+
+        /**
+         * The number of messages in {@link #inbox}.
+         *
+         * @since v0.0.2
+         */
+        private long messageCount = 0;
+
+        /**
+         * Create a new {@link Partition}.
+         *
+         * @param engine         The {@link BspEngine}.
+         * @param partitionCount The number of partitions.
+         * @param size           The number of vertices of this partition.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Partition(final @NotNull BspEngine engine, final int partitionCount, final int size) {
+            this.vertices = new int[size];
+            this.outboxes = new MessageBuffer[partitionCount];
+            for (var i = 0; i < partitionCount; i++) {
+                outboxes[i] = new MessageBuffer();
+            }
+            this.halted = engine.halted;
+            this.context = new VertexContext(engine, outboxes);
+            this.offsets = new int[size + 1];
+            this.cursors = new int[size];
+            this.received = new boolean[size];
+            this.combined = new double[size];
+        }
+
+        /**
+         * Compute every vertex of this partition that has not voted to halt, or that was sent a message.
+         *
+         * @param program The {@link VertexProgram}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void compute(final @NotNull VertexProgram program) {
+            context.setInbox(offsets, inbox);
+            var active = 0L;
+            for (var local = 0; local < vertices.length; local++) {
+                var vertex = vertices[local];
+                if (halted[vertex] && offsets[local] == offsets[local + 1]) {
+                    continue;
+                }
+                halted[vertex] = false;
+                context.moveTo(vertex, local);
+                program.compute(context);
+                if (!halted[vertex]) {
+                    active++;
+                }
+            }
+            activeCount = active;
+        }
+
+        /**
+         * Gather the messages sent to this partition from every partition into {@link #inbox}.
+         *
+         * @param partitions The partitions.
+         * @param index      The index of this partition.
+         * @param combiner   The function that combines two messages for the same vertex, or null.
+         * @throws IllegalStateException If more messages were sent to this partition than fit in an array.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void deliver(final @NotNull Partition[] partitions, final int index,
+                             final @Nullable DoubleBinaryOperator combiner) {
+            if (combiner != null) {
+                deliverCombined(partitions, index, combiner);
+                return;
+            }
+
+            Arrays.fill(offsets, 0);
+            var total = 0L;
+            for (var partition : partitions) {
+                var buffer = partition.outboxes[index];
+                for (var i = 0; i < buffer.size(); i++) {
+                    offsets[buffer.getDestination(i) + 1]++;
+                }
+                total += buffer.size();
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException(String.format("%d messages were sent to partition %d", total, index));
+            }
+            for (var local = 0; local < vertices.length; local++) {
+                offsets[local + 1] += offsets[local];
+            }
+            if (inbox.length < total) {
+                inbox = new double[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(total, 2L * inbox.length))];
+            }
+            System.arraycopy(offsets, 0, cursors, 0, cursors.length);
+            for (var partition : partitions) {
+                var buffer = partition.outboxes[index];
+                for (var i = 0; i < buffer.size(); i++) {
+                    inbox[cursors[buffer.getDestination(i)]++] = buffer.getValue(i);
+                }
+            }
+            messageCount = total;
+        }
+
+        /**
+         * Gather the messages sent to this partition from every partition into {@link #inbox}, combining the
+         * messages for each vertex into one.
+         *
+         * @param partitions The partitions.
+         * @param index      The index of this partition.
+         * @param combiner   The function that combines two messages for the same vertex.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void deliverCombined(final @NotNull Partition[] partitions, final int index,
+                                     final @NotNull DoubleBinaryOperator combiner) {
+            for (var partition : partitions) {
+                var buffer = partition.outboxes[index];
+                for (var i = 0; i < buffer.size(); i++) {
+                    var local = buffer.getDestination(i);
+                    if (received[local]) {
+                        combined[local] = combiner.applyAsDouble(combined[local], buffer.getValue(i));
+                    } else {
+                        received[local] = true;
+                        combined[local] = buffer.getValue(i);
+                    }
+                }
+            }
+            if (inbox.length < vertices.length) {
+                inbox = new double[vertices.length];
+            }
+            var count = 0;
+            for (var local = 0; local < vertices.length; local++) {
+                offsets[local] = count;
+                if (received[local]) {
+                    inbox[count++] = combined[local];
+                    received[local] = false;
+                }
+            }
+            offsets[vertices.length] = count;
+            messageCount = count;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.r0bert.reagent.social.bsp;
+
+import java.util.Arrays;
+
+/**
+ * A {@link MessageBuffer} holds the messages sent from one partition to another in a superstep, as the local index of
+ * each destination on its partition and the value of each message, in two growable primitive arrays.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class MessageBuffer {
+    /**
+     * The local index of the destination of each message.
+     *
+     * @since v0.0.2
+     */
+    private int[] destinations = new int[16];
+
+    /**
+     * The value of each message.
+     *
+     * @since v0.0.2
+     */
+    private double[] values = new double[16];
+
+    /**
+     * The number of messages.
+     *
+     * @since v0.0.2
+     */
+    private int size = 0;
+
+    /**
+     * Add a message.
+     *
+     * @param destination The local index of the destination.
+     * @param value       The value of the message.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void add(final int destination, final double value) {
+        if (size == destinations.length) {
+            destinations = Arrays.copyOf(destinations, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        destinations[size] = destination;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Get the local index of the destination of a message.
+     *
+     * @param index The index of the message.
+     * @return The local index of the destination.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getDestination(final int index) {
+        return destinations[index];
+    }
+
+    /**
+     * Get the value of a message.
+     *
+     * @param index The index of the message.
+     * @return The value.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    double getValue(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Get the number of messages.
+     *
+     * @return The number of messages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove every message, keeping the arrays for the next superstep.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,279 @@
+package dev.r0bert.reagent.social.bsp;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A {@link VertexContext} is what a {@link VertexProgram} reads and writes when it computes a vertex.
+ * <p>
+ * Vertices are identified by their index in the
+ * {@link dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork}. The messages that are read are the ones
+ * sent to the vertex in the previous superstep, or a single combined message if the {@link BspEngine} has a combiner.
+ * Messages that are sent are delivered in the next superstep. A {@link VertexContext} is only valid during the call to
+ * {@link VertexProgram#compute(VertexContext)} that it is passed to.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class VertexContext {
+    /**
+     * The {@link BspEngine} that is computing the vertex.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull BspEngine engine;
+
+    /**
+     * The buffers of the messages sent from the partition of the vertex, indexed by destination partition.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull MessageBuffer[] outboxes;
+
+    /**
+     * The start of the messages of each vertex of the partition in {@link #messages}, by local index, followed by
+     * the end of the messages of the last vertex.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull int[] offsets = new int[1];
+
+    /**
+     * The messages sent to the vertices of the partition in the previous superstep.
+     *
+     * @since v0.0.2
+     */
+    private @NotNull double[] messages = new double[0];
+
+    /**
+     * The index of the vertex.
+     *
+     * @since v0.0.2
+     */
+    private int vertex;
+
+    /**
+     * The local index of the vertex on its partition.
+     *
+     * @since v0.0.2
+     */
+    private int localIndex;
+
+    /**
+     * Create a new {@link VertexContext} for the vertices of a partition.
+     *
+     * @param engine   The {@link BspEngine}.
+     * @param outboxes The buffers of the messages sent from the partition, indexed by destination partition.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    VertexContext(final @NotNull BspEngine engine, final @NotNull MessageBuffer[] outboxes) {
+        this.engine = engine;
+        this.outboxes = outboxes;
+    }
+
+    /**
+     * Set the messages sent to the vertices of the partition in the previous superstep.
+     *
+     * @param offsets  The start of the messages of each vertex, by local index, followed by the end of the last.
+     * @param messages The messages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void setInbox(final @NotNull int[] offsets, final @NotNull double[] messages) {
+        this.offsets = offsets;
+        this.messages = messages;
+    }
+
+    /**
+     * Move this {@link VertexContext} to a vertex.
+     *
+     * @param vertex     The index of the vertex.
+     * @param localIndex The local index of the vertex on its partition.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void moveTo(final int vertex, final int localIndex) {
+        this.vertex = vertex;
+        this.localIndex = localIndex;
+    }
+
+    /**
+     * Get the superstep that is being computed, starting from zero.
+     *
+     * @return The superstep.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getSuperstep() {
+        return engine.getSuperstep();
+    }
+
+    /**
+     * Get the index of the vertex.
+     *
+     * @return The index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getVertex() {
+        return vertex;
+    }
+
+    /**
+     * Get the {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} of the vertex.
+     *
+     * @return The {@link UUID}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull UUID getUUID() {
+        return engine.network.getUUID(vertex);
+    }
+
+    /**
+     * Get the value of the vertex.
+     *
+     * @return The value.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getValue() {
+        return engine.values[vertex];
+    }
+
+    /**
+     * Set the value of the vertex.
+     *
+     * @param value The value.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setValue(final double value) {
+        engine.values[vertex] = value;
+    }
+
+    /**
+     * Get the number of messages sent to the vertex in the previous superstep.
+     * If the {@link BspEngine} has a combiner, this is one if any were sent, and zero otherwise.
+     *
+     * @return The number of messages.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getMessageCount() {
+        return offsets[localIndex + 1] - offsets[localIndex];
+    }
+
+    /**
+     * Get a message sent to the vertex in the previous superstep.
+     *
+     * @param index The index of the message, from zero to {@link #getMessageCount()}.
+     * @return The message.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getMessage(final int index) {
+        Objects.checkIndex(index, getMessageCount());
+        return messages[offsets[localIndex] + index];
+    }
+
+    /**
+     * Get the number of out-edges of the vertex.
+     *
+     * @return The number of out-edges.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getOutDegree() {
+        return (int) (engine.network.getEdgeEnd(vertex) - engine.network.getEdgeStart(vertex));
+    }
+
+    /**
+     * Get the index of the target of an out-edge of the vertex.
+     *
+     * @param index The index of the out-edge, from zero to {@link #getOutDegree()}.
+     * @return The index of the target.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getTarget(final int index) {
+        Objects.checkIndex(index, getOutDegree());
+        return engine.network.getTarget(engine.network.getEdgeStart(vertex) + index);
+    }
+
+    /**
+     * Get the weight of an out-edge of the vertex.
+     *
+     * @param index The index of the out-edge, from zero to {@link #getOutDegree()}.
+     * @return The weight.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getEdgeWeight(final int index) {
+        Objects.checkIndex(index, getOutDegree());
+        return engine.network.getEdgeWeight(engine.network.getEdgeStart(vertex) + index);
+    }
+
+    /**
+     * Send a message to a vertex, to be delivered in the next superstep.
+     *
+     * @param target  The index of the vertex.
+     * @param message The message.
+     * @throws IndexOutOfBoundsException If there is no vertex with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void send(final int target, final double message) {
+        Objects.checkIndex(target, engine.values.length);
+        outboxes[engine.partitionOf[target]].add(engine.localIndices[target], message);
+    }
+
+    /**
+     * Send the same message along every out-edge of the vertex, to be delivered in the next superstep.
+     *
+     * @param message The message.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void sendToOutEdges(final double message) {
+        var end = engine.network.getEdgeEnd(vertex);
+        for (var edge = engine.network.getEdgeStart(vertex); edge < end; edge++) {
+            var target = engine.network.getTarget(edge);
+            outboxes[engine.partitionOf[target]].add(engine.localIndices[target], message);
+        }
+    }
+
+    /**
+     * Send a message along every out-edge of the vertex, multiplied by the weight of the edge, to be delivered in the
+     * next superstep.
+     *
+     * @param message The message.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void sendWeightedToOutEdges(final double message) {
+        var end = engine.network.getEdgeEnd(vertex);
+        for (var edge = engine.network.getEdgeStart(vertex); edge < end; edge++) {
+            var target = engine.network.getTarget(edge);
+            outboxes[engine.partitionOf[target]].add(engine.localIndices[target],
+                    message * engine.network.getEdgeWeight(edge));
+        }
+    }
+
+    /**
+     * Vote to halt, so that the vertex is not computed again until it is sent a message.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void voteToHalt() {
+        engine.halted[vertex] = true;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.r0bert.reagent.social.bsp;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A {@link VertexProgram} is the computation that a {@link BspEngine} runs at each vertex in each superstep.
+ * <p>
+ * In each superstep, a vertex reads the messages that were sent to it in the previous superstep, updates its value,
+ * sends messages along its out-edges or to any other vertex, and may vote to halt. A vertex that has voted to halt is
+ * not computed again until it is sent a message. {@link #compute(VertexContext)} is called on the worker thread of the
+ * partition that the vertex is on, so it must only talk to the engine through the {@link VertexContext}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+@FunctionalInterface
+public interface VertexProgram {
+    /**
+     * Get the value of a vertex before the first superstep.
+     * By default, this is zero.
+     *
+     * @param agent The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} of the vertex.
+     * @return The initial value.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default double getInitialValue(final @NotNull UUID agent) {
+        return 0.0;
+    }
+
+    /**
+     * Compute a vertex in a superstep.
+     *
+     * @param context The {@link VertexContext} of the vertex.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    void compute(final @NotNull VertexContext context);
+}
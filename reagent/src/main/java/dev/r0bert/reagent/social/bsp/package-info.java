@@ -0,0 +1,9 @@
+/**
+ * This package contains a bulk-synchronous engine that runs vertex programs over an
+ * {@link dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork} in supersteps, passing messages along its
+ * edges in primitive buffers.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.bsp;
@@ -1,5 +1,6 @@
 package dev.r0bert.reagent.social.messages.socialmessage;
 
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,11 +31,18 @@ public class SocialMessage implements Message {
     private final @NotNull UUID sender;
 
     /**
-     * The {@link UUID} of this {@link SocialMessage}.
+     * The id that the {@link UUID} of this {@link SocialMessage} is created from, if it was not given one.
+     *
+     * @since v0.0.2
+     */
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link SocialMessage}, or null until it is first asked for.
      *
      * @since v0.0.1
      */
-    private final @NotNull UUID uuid;
+    private @Nullable UUID uuid;
 
     /**
      * The {@link Message} that is sent in this {@link SocialMessage}.
@@ -50,6 +58,14 @@ public class SocialMessage implements Message {
      */
     private final double weight;
 
+    /**
+     * The handle of the {@link dev.r0bert.reagent.core.agents.Agent} that this {@link SocialMessage} is sent to, or -1
+     * if it is not known.
+     *
+     * @since v0.0.2
+     */
+    private final int destinationHandle;
+
     /**
      * Create a new {@link SocialMessage}.
      * If the {@link UUID} is null, a new {@link UUID} will be generated.
@@ -84,9 +100,33 @@ public class SocialMessage implements Message {
      */
     public SocialMessage(final @NotNull UUID destination, final @NotNull UUID sender, final UUID uuid,
                          final @NotNull Message payload, final double weight) {
+        this(destination, -1, sender, uuid, payload, weight);
+    }
+
+    /**
+     * Create a new {@link SocialMessage} that addresses its destination by handle as well as by {@link UUID}.
+     * If the {@link UUID} is null, a new {@link UUID} will be generated.
+     *
+     * @param destination       The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} that this
+     *                          {@link SocialMessage} is sent to.
+     * @param destinationHandle The handle of the {@link dev.r0bert.reagent.core.agents.Agent} that this
+     *                          {@link SocialMessage} is sent to, or -1 if it is not known.
+     * @param sender            The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} that this
+     *                          {@link SocialMessage} is sent from.
+     * @param uuid              The {@link UUID} of this {@link SocialMessage}.
+     * @param payload           The {@link Message} that is sent in this {@link SocialMessage}.
+     * @param weight            The weight of this {@link SocialMessage}.
+     * @author Robert Greener
+     * @see dev.r0bert.reagent.core.simulationmanager.SimulationManager#getAgentHandle(UUID)
+     * @since v0.0.2
+     */
+    public SocialMessage(final @NotNull UUID destination, final int destinationHandle, final @NotNull UUID sender,
+                         final @Nullable UUID uuid, final @NotNull Message payload, final double weight) {
         this.destination = destination;
+        this.destinationHandle = destinationHandle;
         this.sender = sender;
-        this.uuid = uuid == null ? UUID.randomUUID() : uuid;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
         this.payload = payload;
         this.weight = weight;
     }
@@ -96,6 +136,11 @@ public class SocialMessage implements Message {
         return destination;
     }
 
+    @Override
+    public int getDestinationHandle() {
+        return destinationHandle;
+    }
+
     @Override
     public @NotNull UUID getSender() {
         return sender;
@@ -103,6 +148,11 @@ public class SocialMessage implements Message {
 
     @Override
     public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
         return uuid;
     }
 
@@ -130,7 +180,7 @@ public class SocialMessage implements Message {
 
     @Override
     public String toString() {
-        return "SocialMessage{" + "destination=" + destination + ", sender=" + sender + ", uuid=" + uuid + ", payload" +
+        return "SocialMessage{" + "destination=" + destination + ", sender=" + sender + ", uuid=" + getUUID() + ", payload" +
                 "=" + payload + ", weight=" + weight + '}';
     }
 }
@@ -0,0 +1,45 @@
+package dev.r0bert.reagent.social.messages.socialmessage;
+
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodec;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * The {@link CheckpointCodec} for a {@link SocialMessage}.
+ * <p>
+ * The payload is written with {@link CheckpointOutput#writeObject(Object)}, so a {@link CheckpointCodec} must also be
+ * registered for the class of the payload. The handle of the destination is not written, as handles are only valid in
+ * the simulation that they were created in.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class SocialMessageCodec implements CheckpointCodec<SocialMessage> {
+    @Override
+    public void write(final @NotNull SocialMessage value, final @NotNull CheckpointOutput output) throws IOException {
+        output.writeUUID(value.getDestination());
+        output.writeUUID(value.getSender());
+        output.writeUUID(value.getUUID());
+        output.writeObject(value.getPayload());
+        output.writeDouble(value.getWeight());
+    }
+
+    @Override
+    public @NotNull SocialMessage read(final @NotNull CheckpointInput input) throws IOException {
+        var destination = input.readUUID();
+        var sender = input.readUUID();
+        var uuid = input.readUUID();
+        var payload = (Message) input.readObject();
+        return new SocialMessage(destination, sender, uuid, payload, input.readDouble());
+    }
+
+    @Override
+    public String toString() {
+        return "SocialMessageCodec{}";
+    }
+}
@@ -1,6 +1,7 @@
 package dev.r0bert.reagent.social.messages.socialmessage;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
 import dev.r0bert.reagent.core.properties.UUIDd;
 import org.apache.logging.log4j.LogManager;
@@ -20,11 +21,18 @@ import java.util.UUID;
  */
 public class SocialMessageSpecification implements UUIDd {
     /**
-     * The {@link UUID} of this {@link SocialMessageSpecification}.
+     * The id that the {@link UUID} of this {@link SocialMessageSpecification} is created from, if it was not given one.
+     *
+     * @since v0.0.2
+     */
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link SocialMessageSpecification}, or null until it is first asked for.
      *
      * @since v0.0.1
      */
-    private final @NotNull UUID uuid;
+    private @Nullable UUID uuid;
 
     /**
      * The {@link UUID} of the {@link Agent} that this {@link SocialMessageSpecification} is sent from.
@@ -58,7 +66,8 @@ public class SocialMessageSpecification implements UUIDd {
      * @since v0.0.1
      */
     public SocialMessageSpecification(final @Nullable UUID uuid, final @NotNull UUID sender, final @NotNull Message payload) {
-        this.uuid = uuid == null ? UUID.randomUUID() : uuid;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
         this.sender = sender;
         this.payload = payload;
     }
@@ -73,8 +82,8 @@ public class SocialMessageSpecification implements UUIDd {
      * @since v0.0.1
      */
     public @NotNull Collection<SocialMessage> toSocialMessagesFromUUIDs(final @NotNull Collection<UUID> destinations) {
-        logger.atTrace().log("Converting SocialMessageSpecification {} from Sender {} to Destinations {}", uuid,
-                sender, destinations.size());
+        logger.atTrace().log("Converting SocialMessageSpecification {} from Sender {} to Destinations {}",
+                this::getUUID, () -> sender, destinations::size);
         return destinations.stream().map(destination -> new SocialMessage(destination, sender, null, payload, 1.0)).toList();
     }
 
@@ -112,8 +121,8 @@ public class SocialMessageSpecification implements UUIDd {
      * @since v0.0.1
      */
     public @NotNull Collection<SocialMessage> toSocialMessagesFromUUIDsAndWeights(final @NotNull Collection<UUIDWeightPair> destinations) {
-        logger.atTrace().log("Converting SocialMessageSpecification {} from Sender {} to Destinations {}", uuid,
-                sender, destinations.size());
+        logger.atTrace().log("Converting SocialMessageSpecification {} from Sender {} to Destinations {}",
+                this::getUUID, () -> sender, destinations::size);
         return destinations.stream().map(destination -> new SocialMessage(destination.uuid, sender, null, payload,
                 destination.weight)).toList();
     }
@@ -143,8 +152,72 @@ public class SocialMessageSpecification implements UUIDd {
         return toSocialMessagesFromUUIDsAndWeights(destinations.stream().map(AgentWeightPair::toUUIDWeightPair).toList());
     }
 
+    /**
+     * Convert this {@link SocialMessageSpecification} to a {@link SocialMessage} to a destination whose handle is
+     * known.
+     *
+     * @param destination       The {@link UUID} of the {@link Agent} that the {@link SocialMessage} is sent to.
+     * @param destinationHandle The handle of the {@link Agent} that the {@link SocialMessage} is sent to.
+     * @param weight            The weight of the {@link SocialMessage}.
+     * @return The {@link SocialMessage}.
+     * @author Robert Greener
+     * @see dev.r0bert.reagent.core.simulationmanager.SimulationManager#getAgentHandle(UUID)
+     * @since v0.0.2
+     */
+    public @NotNull SocialMessage toSocialMessage(final @NotNull UUID destination, final int destinationHandle,
+                                                  final double weight) {
+        return new SocialMessage(destination, destinationHandle, sender, null, payload, weight);
+    }
+
+    /**
+     * Convert this {@link SocialMessageSpecification} to a single {@link SocialMulticastMessage} to many destinations.
+     * The arrays are not copied, and must not be changed afterwards.
+     *
+     * @param destinations       The {@link UUID}s of the {@link Agent}s that the {@link SocialMulticastMessage} is
+     *                           sent to.
+     * @param destinationHandles The handles of the {@link Agent}s, or null if they are not known.
+     * @param weights            The weight of the {@link SocialMessage} to each {@link Agent}.
+     * @return The {@link SocialMulticastMessage}.
+     * @throws IllegalArgumentException If the arrays are not all the same length.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull SocialMulticastMessage toMulticastMessage(final @NotNull UUID[] destinations,
+                                                              final @Nullable int[] destinationHandles,
+                                                              final @NotNull double[] weights) {
+        logger.atTrace().log("Converting SocialMessageSpecification {} from Sender {} to a multicast to {} destinations",
+                this::getUUID, () -> sender, () -> destinations.length);
+        return new SocialMulticastMessage(sender, null, payload, destinations, destinationHandles, weights);
+    }
+
+    /**
+     * Convert this {@link SocialMessageSpecification} to a single {@link SocialMulticastMessage} to many destinations.
+     *
+     * @param destinations The {@link Collection} of {@link UUIDWeightPair}s that this
+     *                     {@link SocialMessageSpecification} is sent to.
+     * @return The {@link SocialMulticastMessage}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull SocialMulticastMessage toMulticastMessageFromUUIDsAndWeights(
+            final @NotNull Collection<UUIDWeightPair> destinations) {
+        var uuids = new UUID[destinations.size()];
+        var weights = new double[uuids.length];
+        var index = 0;
+        for (var destination : destinations) {
+            uuids[index] = destination.uuid();
+            weights[index++] = destination.weight();
+        }
+        return toMulticastMessage(uuids, null, weights);
+    }
+
     @Override
     public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
         return uuid;
     }
 
@@ -173,7 +246,7 @@ public class SocialMessageSpecification implements UUIDd {
     @Override
     public String toString() {
         return "SocialMessageSpecification{" +
-                "uuid=" + uuid +
+                "uuid=" + getUUID() +
                 ", sender=" + sender +
                 ", payload=" + payload +
                 '}';
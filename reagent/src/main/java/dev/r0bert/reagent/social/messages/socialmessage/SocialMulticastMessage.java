@@ -0,0 +1,196 @@
+package dev.r0bert.reagent.social.messages.socialmessage;
+
+import dev.r0bert.reagent.core.ids.Ids;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A {@link SocialMulticastMessage} is a {@link MulticastMessage} that sends one payload from a sender to many
+ * recipients in a {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork}, each with its own weight.
+ * <p>
+ * The sender and payload are held once, and the recipients, their handles and their weights are held in arrays. Each
+ * recipient is delivered a {@link SocialMessage}, which is only created when the {@link SocialMulticastMessage} is
+ * sent.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class SocialMulticastMessage implements MulticastMessage {
+    /**
+     * The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} that this {@link SocialMulticastMessage} is
+     * sent from.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull UUID sender;
+
+    /**
+     * The id that the {@link UUID} of this {@link SocialMulticastMessage} is created from, if it was not given one.
+     *
+     * @since v0.0.2
+     */
+    private final long id;
+
+    /**
+     * The {@link UUID} of this {@link SocialMulticastMessage}, or null until it is first asked for.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable UUID uuid;
+
+    /**
+     * The {@link Message} that is sent to each recipient.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Message payload;
+
+    /**
+     * The {@link UUID}s of the recipients.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull UUID[] recipients;
+
+    /**
+     * The handles of the recipients, or null if they are not known.
+     *
+     * @since v0.0.2
+     */
+    private final @Nullable int[] recipientHandles;
+
+    /**
+     * The weight of the {@link SocialMessage} to each recipient.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull double[] weights;
+
+    /**
+     * Create a new {@link SocialMulticastMessage}.
+     * If the {@link UUID} is null, a new {@link UUID} will be generated. The arrays are not copied, and must not be
+     * changed afterwards.
+     *
+     * @param sender           The {@link UUID} of the {@link dev.r0bert.reagent.core.agents.Agent} that this
+     *                         {@link SocialMulticastMessage} is sent from.
+     * @param uuid             The {@link UUID} of this {@link SocialMulticastMessage}.
+     * @param payload          The {@link Message} that is sent to each recipient.
+     * @param recipients       The {@link UUID}s of the recipients.
+     * @param recipientHandles The handles of the recipients, or null if they are not known.
+     * @param weights          The weight of the {@link SocialMessage} to each recipient.
+     * @throws IllegalArgumentException If the arrays are not all the same length.
+     * @author Robert Greener
+     * @see dev.r0bert.reagent.core.simulationmanager.SimulationManager#getAgentHandle(UUID)
+     * @since v0.0.2
+     */
+    public SocialMulticastMessage(final @NotNull UUID sender, final @Nullable UUID uuid,
+                                  final @NotNull Message payload, final @NotNull UUID[] recipients,
+                                  final @Nullable int[] recipientHandles, final @NotNull double[] weights) {
+        if (weights.length != recipients.length) {
+            throw new IllegalArgumentException("The number of weights is not the number of recipients");
+        }
+        if (recipientHandles != null && recipientHandles.length != recipients.length) {
+            throw new IllegalArgumentException("The number of handles is not the number of recipients");
+        }
+        this.sender = sender;
+        this.uuid = uuid;
+        this.id = uuid == null ? Ids.nextId() : 0;
+        this.payload = payload;
+        this.recipients = recipients;
+        this.recipientHandles = recipientHandles;
+        this.weights = weights;
+    }
+
+    @Override
+    public @NotNull UUID getSender() {
+        return sender;
+    }
+
+    @Override
+    public @NotNull UUID getUUID() {
+        var uuid = this.uuid;
+        if (uuid == null) {
+            uuid = Ids.toUUID(id);
+            this.uuid = uuid;
+        }
+        return uuid;
+    }
+
+    @Override
+    public int getRecipientCount() {
+        return recipients.length;
+    }
+
+    @Override
+    public @NotNull UUID getRecipient(final int index) {
+        return recipients[index];
+    }
+
+    /**
+     * Get the handle of a recipient.
+     *
+     * @param index The index of the recipient.
+     * @return The handle of the recipient, or -1 if it is not known.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getRecipientHandle(final int index) {
+        Objects.checkIndex(index, recipients.length);
+        return recipientHandles == null ? -1 : recipientHandles[index];
+    }
+
+    /**
+     * Get the weight of the {@link SocialMessage} to a recipient.
+     *
+     * @param index The index of the recipient.
+     * @return The weight.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getWeight(final int index) {
+        return weights[index];
+    }
+
+    /**
+     * Get the {@link Message} that is sent to each recipient.
+     *
+     * @return The {@link Message}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull Message getPayload() {
+        return payload;
+    }
+
+    /**
+     * Create the {@link SocialMessage} that is delivered to a recipient.
+     *
+     * @param index The index of the recipient.
+     * @return The {@link SocialMessage}.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public @NotNull SocialMessage getDelivery(final int index) {
+        return new SocialMessage(recipients[index], getRecipientHandle(index), sender, null, payload, weights[index]);
+    }
+
+    @Override
+    public String toString() {
+        return "SocialMulticastMessage{" +
+                "sender=" + sender +
+                ", uuid=" + getUUID() +
+                ", payload=" + payload +
+                ", recipients=" + recipients.length +
+                '}';
+    }
+}
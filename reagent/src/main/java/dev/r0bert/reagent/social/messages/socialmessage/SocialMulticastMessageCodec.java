@@ -0,0 +1,59 @@
+package dev.r0bert.reagent.social.messages.socialmessage;
+
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodec;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * The {@link CheckpointCodec} for a {@link SocialMulticastMessage}.
+ * <p>
+ * The payload is written with {@link CheckpointOutput#writeObject(Object)}, so a {@link CheckpointCodec} must also be
+ * registered for the class of the payload. The handles of the recipients are not written, as handles are only valid
+ * in the simulation that they were created in.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class SocialMulticastMessageCodec implements CheckpointCodec<SocialMulticastMessage> {
+    @Override
+    public void write(final @NotNull SocialMulticastMessage value, final @NotNull CheckpointOutput output)
+            throws IOException {
+        output.writeUUID(value.getSender());
+        output.writeUUID(value.getUUID());
+        output.writeObject(value.getPayload());
+        output.writeInt(value.getRecipientCount());
+        for (var i = 0; i < value.getRecipientCount(); i++) {
+            output.writeUUID(value.getRecipient(i));
+            output.writeDouble(value.getWeight(i));
+        }
+    }
+
+    @Override
+    public @NotNull SocialMulticastMessage read(final @NotNull CheckpointInput input) throws IOException {
+        var sender = input.readUUID();
+        var uuid = input.readUUID();
+        var payload = (Message) input.readObject();
+        var count = input.readInt();
+        if (count < 0) {
+            throw new IOException(String.format("The number of recipients %d is negative", count));
+        }
+        var recipients = new UUID[count];
+        var weights = new double[count];
+        for (var i = 0; i < count; i++) {
+            recipients[i] = input.readUUID();
+            weights[i] = input.readDouble();
+        }
+        return new SocialMulticastMessage(sender, uuid, payload, recipients, null, weights);
+    }
+
+    @Override
+    public String toString() {
+        return "SocialMulticastMessageCodec{}";
+    }
+}
@@ -2,6 +2,7 @@ package dev.r0bert.reagent.social.simulationmanager;
 
 import dev.r0bert.reagent.core.agents.Agent;
 import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import dev.r0bert.reagent.social.bsp.BspEngine;
 import dev.r0bert.reagent.social.socialnetwork.HasSocialNetwork;
 import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
 import org.jetbrains.annotations.NotNull;
@@ -50,6 +51,23 @@ public class SocialSimulationManager extends CoreSimulationManager implements Ha
         this.getSocialNetwork().addAgent(agent);
     }
 
+    /**
+     * Add a {@link BspEngine} over the {@link SocialNetwork} of this {@link SocialSimulationManager}, so that its
+     * supersteps can be scheduled as {@link dev.r0bert.reagent.core.messages.Message}s to it.
+     * Unlike {@link #addAgent(Agent)}, the {@link BspEngine} is not added to the {@link SocialNetwork}.
+     *
+     * @param engine The {@link BspEngine} to add.
+     * @throws IllegalArgumentException If the {@link BspEngine} runs over a different {@link SocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void addBspEngine(final @NotNull BspEngine engine) {
+        if (engine.getSocialNetwork() != socialNetwork) {
+            throw new IllegalArgumentException("The engine runs over a different social network");
+        }
+        super.addAgent(engine);
+    }
+
     @Override
     public String toString() {
         return "SocialSimulationManager{" +
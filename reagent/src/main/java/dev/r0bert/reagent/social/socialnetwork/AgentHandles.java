@@ -0,0 +1,134 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An {@link AgentHandles} caches the handles that a {@link SimulationManager} gives to the {@link Agent}s of a
+ * {@link SocialNetwork}, by position, so that the {@link SocialNetwork} can address its
+ * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s by handle without asking the
+ * {@link SimulationManager} for each one.
+ * <p>
+ * Handles are only valid in the {@link SimulationManager} that gave them, so the cache is emptied when it is used with
+ * a different {@link SimulationManager}, and it keeps a reference to the last one. A missing handle is not cached, so
+ * an {@link Agent} that is added to the {@link SimulationManager} later is asked for again. The cache is an
+ * {@code int[]} of the size it was created with, which is allocated when it is first used. It may be used from many
+ * threads at once: threads that race to cache the same handle write the same value.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class AgentHandles {
+    /**
+     * The number of positions.
+     *
+     * @since v0.0.2
+     */
+    private final int size;
+
+    /**
+     * The handles cached for the last {@link SimulationManager}, or null if this {@link AgentHandles} has not been
+     * used yet.
+     *
+     * @since v0.0.2
+     */
+    private volatile @Nullable Cache cache = null;
+
+    /**
+     * Create a new {@link AgentHandles}.
+     *
+     * @param size The number of positions.
+     * @throws IllegalArgumentException If the size is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public AgentHandles(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size is negative");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Get the handle of the {@link Agent} at a position, asking the {@link SimulationManager} for it if it is not
+     * cached.
+     *
+     * @param simulationManager The {@link SimulationManager} that the handle is for.
+     * @param position          The position of the {@link Agent}.
+     * @param agent             The {@link UUID} of the {@link Agent}.
+     * @return The handle, or {@link AgentRegistry#NO_HANDLE} if the {@link Agent} does not have one.
+     * @throws IndexOutOfBoundsException If the position is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int get(final @NotNull SimulationManager simulationManager, final int position, final @NotNull UUID agent) {
+        var handles = cacheFor(simulationManager).handles();
+        var handle = handles[position] - 1;
+        if (handle == AgentRegistry.NO_HANDLE) {
+            handle = simulationManager.getAgentHandle(agent);
+            handles[position] = handle + 1;
+        }
+        return handle;
+    }
+
+    /**
+     * Get the handles of the {@link Agent}s at the first positions, asking the {@link SimulationManager} for those
+     * that are not cached.
+     *
+     * @param simulationManager The {@link SimulationManager} that the handles are for.
+     * @param agents            The {@link UUID} of the {@link Agent} at each position.
+     * @return A new array of the handles, with {@link AgentRegistry#NO_HANDLE} for an {@link Agent} that does not
+     * have one.
+     * @throws IndexOutOfBoundsException If there are more {@link Agent}s than positions.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull int[] getAll(final @NotNull SimulationManager simulationManager, final @NotNull UUID[] agents) {
+        var handles = new int[agents.length];
+        for (var i = 0; i < agents.length; i++) {
+            handles[i] = get(simulationManager, i, agents[i]);
+        }
+        return handles;
+    }
+
+    /**
+     * Get the {@link Cache} for a {@link SimulationManager}, replacing the {@link Cache} of any other.
+     *
+     * @param simulationManager The {@link SimulationManager}.
+     * @return The {@link Cache}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull Cache cacheFor(final @NotNull SimulationManager simulationManager) {
+        var current = cache;
+        if (current == null || current.simulationManager() != simulationManager) {
+            current = new Cache(simulationManager, new int[size]);
+            cache = current;
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentHandles{" +
+                "size=" + size +
+                '}';
+    }
+
+    /**
+     * The handles cached for a {@link SimulationManager}.
+     *
+     * @param simulationManager The {@link SimulationManager} that gave the handles.
+     * @param handles           The handle at each position plus one, or zero if it is not cached.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record Cache(@NotNull SimulationManager simulationManager, @NotNull int[] handles) {
+    }
+}
@@ -0,0 +1,157 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * An {@link AliasTable} samples positions in proportion to their weights in constant time, by Vose's alias method.
+ * <p>
+ * A weight that is negative or not a number is treated as zero, and a position with a weight of zero is never
+ * sampled. An {@link AliasTable} is immutable once created, so it can be shared between threads.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class AliasTable {
+    /**
+     * The probability of keeping each column rather than taking its alias.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull double[] probabilities;
+
+    /**
+     * The alias of each column.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] aliases;
+
+    /**
+     * Whether the total weight is zero.
+     *
+     * @since v0.0.2
+     */
+    private final boolean empty;
+
+    /**
+     * Create a new {@link AliasTable} over a range of an array of weights. The array is not kept.
+     *
+     * @param weights The weights.
+     * @param from    The index of the first weight, inclusive.
+     * @param to      The index of the last weight, exclusive.
+     * @throws IndexOutOfBoundsException If the range is out of bounds.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public AliasTable(final @NotNull double[] weights, final int from, final int to) {
+        Objects.checkFromToIndex(from, to, weights.length);
+        var size = to - from;
+        this.probabilities = new double[size];
+        this.aliases = new int[size];
+
+        var total = 0.0;
+        for (var i = from; i < to; i++) {
+            total += weightOf(weights[i]);
+        }
+        this.empty = !(total > 0.0);
+        if (empty) {
+            return;
+        }
+
+        var small = new int[size];
+        var large = new int[size];
+        var smallCount = 0;
+        var largeCount = 0;
+        for (var i = 0; i < size; i++) {
+            probabilities[i] = weightOf(weights[from + i]) * size / total;
+            if (probabilities[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            var less = small[--smallCount];
+            var more = large[--largeCount];
+            aliases[less] = more;
+            probabilities[more] = probabilities[more] + probabilities[less] - 1.0;
+            if (probabilities[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            var more = large[--largeCount];
+            probabilities[more] = 1.0;
+            aliases[more] = more;
+        }
+        while (smallCount > 0) {
+            var less = small[--smallCount];
+            probabilities[less] = 1.0;
+            aliases[less] = less;
+        }
+    }
+
+    /**
+     * Get the weight that is sampled for a given weight.
+     *
+     * @param weight The weight.
+     * @return The weight, or zero if it is negative or not a number.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static double weightOf(final double weight) {
+        return weight > 0.0 ? weight : 0.0;
+    }
+
+    /**
+     * Get the number of positions.
+     *
+     * @return The number of positions.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Get whether no position can be sampled, as the total weight is zero.
+     *
+     * @return Whether no position can be sampled.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Sample a position in proportion to its weight.
+     *
+     * @param random The {@link RandomGenerator} to use.
+     * @return The position, relative to the start of the range that this {@link AliasTable} was created over.
+     * @throws IllegalStateException If no position can be sampled.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int sample(final @NotNull RandomGenerator random) {
+        if (empty) {
+            throw new IllegalStateException("The alias table has no weight to sample");
+        }
+        var column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+
+    @Override
+    public String toString() {
+        return "AliasTable{" +
+                "size=" + probabilities.length +
+                '}';
+    }
+}
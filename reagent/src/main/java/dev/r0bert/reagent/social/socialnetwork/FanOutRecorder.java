@@ -0,0 +1,125 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.metrics.SimulationMetrics;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@link FanOutRecorder} is a {@link SimulationManager} that records the {@link SocialMessage}s sent to it now,
+ * instead of sending them, so that the fan-out of {@link SocialNetwork#sendSocialMessages} can be found for a
+ * {@link SocialNetwork} that does not expose its edges. Everything else is passed to the {@link SimulationManager} it
+ * wraps.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class FanOutRecorder implements SimulationManager {
+    /**
+     * The {@link SimulationManager} that everything but the {@link SocialMessage}s is passed to.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull SimulationManager simulationManager;
+
+    /**
+     * The {@link SocialMessage}s that have been sent now, in the order they were sent.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull List<SocialMessage> messages = new ArrayList<>();
+
+    /**
+     * Create a new {@link FanOutRecorder}.
+     *
+     * @param simulationManager The {@link SimulationManager} that everything but the {@link SocialMessage}s is passed
+     *                          to.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    FanOutRecorder(final @NotNull SimulationManager simulationManager) {
+        this.simulationManager = simulationManager;
+    }
+
+    /**
+     * Get the {@link SocialMessage}s that have been sent now.
+     *
+     * @return The {@link SocialMessage}s, in the order they were sent.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull List<SocialMessage> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getStartTime() {
+        return simulationManager.getStartTime();
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getEndTime() {
+        return simulationManager.getEndTime();
+    }
+
+    @Override
+    public @NotNull ZonedDateTime getCurrentTime() {
+        return simulationManager.getCurrentTime();
+    }
+
+    @Override
+    public void scheduleMessage(final @NotNull Message message, final @NotNull ZonedDateTime time) {
+        simulationManager.scheduleMessage(message, time);
+    }
+
+    @Override
+    public void sendMessageNow(final @NotNull Message message) {
+        if (message instanceof SocialMessage socialMessage) {
+            messages.add(socialMessage);
+        } else {
+            simulationManager.sendMessageNow(message);
+        }
+    }
+
+    @Override
+    public void sendMessagesNow(final @NotNull Collection<? extends Message> messages) {
+        for (var message : messages) {
+            sendMessageNow(message);
+        }
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link FanOutRecorder} only records.
+     *
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void run() {
+        throw new UnsupportedOperationException("A FanOutRecorder can not be run");
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        simulationManager.addAgent(agent);
+    }
+
+    @Override
+    public int getAgentHandle(final @NotNull UUID agent) {
+        return simulationManager.getAgentHandle(agent);
+    }
+
+    @Override
+    public @NotNull SimulationMetrics getMetrics() {
+        return simulationManager.getMetrics();
+    }
+}
@@ -0,0 +1,110 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * An {@link IndexedSocialNetwork} is a {@link SocialNetwork} whose {@link Agent}s have dense {@code int} indices and
+ * whose edges have dense {@code long} positions, so that it can be walked without allocating.
+ * <p>
+ * The {@link Agent}s have the indices zero to {@link #getAgentCount()} (exclusive). The outgoing edges of the
+ * {@link Agent} with index {@code i} have the positions {@link #getEdgeStart(int)} (inclusive) to
+ * {@link #getEdgeEnd(int)} (exclusive), and are sorted by the index of their target.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface IndexedSocialNetwork extends SocialNetwork {
+    /**
+     * The index returned for a {@link UUID} that is not in an {@link IndexedSocialNetwork}.
+     *
+     * @since v0.0.2
+     */
+    int NO_INDEX = -1;
+
+    /**
+     * Get the number of {@link Agent}s in this {@link IndexedSocialNetwork}.
+     *
+     * @return The number of {@link Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getAgentCount();
+
+    /**
+     * Get the number of edges in this {@link IndexedSocialNetwork}.
+     *
+     * @return The number of edges.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long getEdgeCount();
+
+    /**
+     * Get the index of an {@link Agent}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The index, or {@link #NO_INDEX} if the {@link Agent} is not in this {@link IndexedSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int indexOf(final @NotNull UUID uuid);
+
+    /**
+     * Get the {@link UUID} of an {@link Agent} by index.
+     *
+     * @param index The index of the {@link Agent}.
+     * @return The {@link UUID} of the {@link Agent}.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull UUID getUUID(final int index);
+
+    /**
+     * Get the position of the first outgoing edge of an {@link Agent}.
+     *
+     * @param index The index of the {@link Agent}.
+     * @return The position of the first outgoing edge.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long getEdgeStart(final int index);
+
+    /**
+     * Get the position after the last outgoing edge of an {@link Agent}.
+     *
+     * @param index The index of the {@link Agent}.
+     * @return The position after the last outgoing edge.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    long getEdgeEnd(final int index);
+
+    /**
+     * Get the index of the target {@link Agent} of an edge.
+     *
+     * @param edge The position of the edge.
+     * @return The index of the target {@link Agent}.
+     * @throws IndexOutOfBoundsException If there is no edge at the position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    int getTarget(final long edge);
+
+    /**
+     * Get the weight of an edge.
+     *
+     * @param edge The position of the edge.
+     * @return The weight of the edge.
+     * @throws IndexOutOfBoundsException If there is no edge at the position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    double getEdgeWeight(final long edge);
+}
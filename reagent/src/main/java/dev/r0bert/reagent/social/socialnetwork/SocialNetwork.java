@@ -6,6 +6,9 @@ import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecificati
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
 /**
  * A {@link SocialNetwork} is a network of {@link Agent}s that can send
  * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s to each other.
@@ -102,4 +105,62 @@ public interface SocialNetwork {
      */
     void sendSocialMessages(final @NotNull SimulationManager simulationManager,
                             final @NotNull SocialMessageSpecification specification);
+
+    /**
+     * Send {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s to a sample of the {@link Agent}s
+     * that the sender has an edge to, chosen in proportion to the weights of the edges.
+     * <p>
+     * The {@link Agent}s are chosen with replacement, so an {@link Agent} that is chosen more than once receives one
+     * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage} per choice. An edge whose weight is not
+     * positive is never chosen, and nothing is sent if the sender has no edge with a positive weight.
+     * </p>
+     * <p>
+     * By default, the edges of the sender are found by recording the
+     * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s that
+     * {@link #sendSocialMessages(SimulationManager, SocialMessageSpecification)} sends, and a new {@link AliasTable} is
+     * built from their weights on every call; their destination handles are kept. Implementations should override this
+     * to cache the {@link AliasTable} of each sender, so that each call takes time proportional to the sample size.
+     * </p>
+     *
+     * @param simulationManager The {@link SimulationManager} to use to send the
+     *                          {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s.
+     * @param specification     The {@link SocialMessageSpecification} to use to send the
+     *                          {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s.
+     * @param sampleSize        The number of {@link Agent}s to choose.
+     * @param random            The {@link RandomGenerator} to choose the {@link Agent}s with.
+     * @throws IllegalArgumentException If the sample size is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    default void sendSampledSocialMessages(final @NotNull SimulationManager simulationManager,
+                                           final @NotNull SocialMessageSpecification specification,
+                                           final int sampleSize, final @NotNull RandomGenerator random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("The sample size is negative");
+        }
+        if (sampleSize == 0) {
+            return;
+        }
+        var recorder = new FanOutRecorder(simulationManager);
+        sendSocialMessages(recorder, specification);
+        var edges = recorder.getMessages();
+        var edgeWeights = new double[edges.size()];
+        for (var i = 0; i < edgeWeights.length; i++) {
+            edgeWeights[i] = edges.get(i).getWeight();
+        }
+        var table = new AliasTable(edgeWeights, 0, edgeWeights.length);
+        if (table.isEmpty()) {
+            return;
+        }
+        var destinations = new UUID[sampleSize];
+        var destinationHandles = new int[sampleSize];
+        var weights = new double[sampleSize];
+        for (var i = 0; i < sampleSize; i++) {
+            var edge = edges.get(table.sample(random));
+            destinations[i] = edge.getDestination();
+            destinationHandles[i] = edge.getDestinationHandle();
+            weights[i] = edge.getWeight();
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles, weights));
+    }
 }
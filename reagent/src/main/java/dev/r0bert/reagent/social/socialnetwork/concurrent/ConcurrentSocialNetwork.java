@@ -0,0 +1,506 @@
+package dev.r0bert.reagent.social.socialnetwork.concurrent;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.socialnetwork.AgentHandles;
+import dev.r0bert.reagent.social.socialnetwork.AliasTable;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link ConcurrentSocialNetwork} is a directed and weighted {@link SocialNetwork} that can be read and changed by
+ * many threads at once, such as by {@link Agent}s that rewire their ties while their messages are handled in parallel.
+ * <p>
+ * The outgoing edges of each {@link Agent} are held in an immutable snapshot, sorted by the {@link UUID} of their
+ * target, which is replaced whenever they change. Reads, including
+ * {@link #sendSocialMessages(SimulationManager, SocialMessageSpecification)}, take no locks and always see one whole
+ * snapshot, so a fan-out never sees an edge half-added or a weight half-set. The snapshot is sent without copying.
+ * Changes to the outgoing edges of an {@link Agent} are serialised by one of a fixed number of locks, chosen by the
+ * {@link UUID} of the {@link Agent}, so changes to different {@link Agent}s rarely wait for each other. The
+ * {@link AliasTable} for {@link #sendSampledSocialMessages(SimulationManager, SocialMessageSpecification, int,
+ * RandomGenerator)} is cached on the snapshot, so any change to the outgoing edges of an {@link Agent} discards it.
+ * </p>
+ * <p>
+ * Each {@link Agent} also keeps the set of {@link Agent}s with an edge to it, so that removing an {@link Agent} removes
+ * its incoming edges without scanning the whole {@link ConcurrentSocialNetwork}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class ConcurrentSocialNetwork implements SocialNetwork {
+    /**
+     * The number of locks used by {@link #ConcurrentSocialNetwork()}.
+     *
+     * @since v0.0.2
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    /**
+     * The {@link Vertex} of each {@link Agent}, by {@link UUID}.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ConcurrentHashMap<UUID, Vertex> vertices = new ConcurrentHashMap<>();
+
+    /**
+     * The locks that serialise changes to the outgoing edges of {@link Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ReentrantLock[] stripes;
+
+    /**
+     * Create a new {@link ConcurrentSocialNetwork} with {@link #DEFAULT_STRIPE_COUNT} locks.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ConcurrentSocialNetwork() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Create a new {@link ConcurrentSocialNetwork}.
+     *
+     * @param stripeCount The number of locks, which is rounded up to a power of two.
+     * @throws IllegalArgumentException If the number of locks is not positive, or is too large.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ConcurrentSocialNetwork(final int stripeCount) {
+        if (stripeCount <= 0 || stripeCount > 1 << 30) {
+            throw new IllegalArgumentException("The stripe count is not positive, or is too large");
+        }
+        this.stripes = new ReentrantLock[Integer.highestOneBit(stripeCount * 2 - 1)];
+        for (var i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the lock that serialises changes to the outgoing edges of an {@link Agent}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The lock.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull ReentrantLock stripeOf(final @NotNull UUID uuid) {
+        var hash = (uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * Get the {@link Vertex} of an {@link Agent}.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The {@link Vertex}.
+     * @throws IllegalArgumentException If the {@link Agent} is not in this {@link ConcurrentSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull Vertex vertexOf(final @NotNull UUID uuid) {
+        var vertex = vertices.get(uuid);
+        if (vertex == null) {
+            throw new IllegalArgumentException(String.format("The agent %s is not in the social network", uuid));
+        }
+        return vertex;
+    }
+
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        vertices.computeIfAbsent(agent.getUUID(), uuid -> new Vertex());
+    }
+
+    /**
+     * Add an edge between two {@link Agent}s in this {@link SocialNetwork}.
+     *
+     * @param source The source {@link Agent}.
+     * @param target The target {@link Agent}.
+     * @param weight The weight of the edge.
+     * @throws IllegalArgumentException If either {@link Agent} is not in this {@link ConcurrentSocialNetwork}, or the
+     *                                  edge already exists.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        var sourceUUID = source.getUUID();
+        var targetUUID = target.getUUID();
+        var sourceVertex = vertexOf(sourceUUID);
+        var targetVertex = vertexOf(targetUUID);
+        var stripe = stripeOf(sourceUUID);
+        stripe.lock();
+        try {
+            if (sourceVertex.removed) {
+                throw new IllegalArgumentException(String.format("The agent %s is not in the social network",
+                        sourceUUID));
+            }
+            var outgoing = sourceVertex.outgoing;
+            var position = Arrays.binarySearch(outgoing.targets, targetUUID);
+            if (position >= 0) {
+                throw new IllegalArgumentException(String.format("The edge from %s to %s already exists",
+                        sourceUUID, targetUUID));
+            }
+            // The source is recorded before the target is checked again, so that a concurrent removal of the target
+            // either fails this check or sees the source and removes the edge once this lock is released.
+            targetVertex.sources.add(sourceUUID);
+            if (vertices.get(targetUUID) != targetVertex) {
+                targetVertex.sources.remove(sourceUUID);
+                throw new IllegalArgumentException(String.format("The agent %s is not in the social network",
+                        targetUUID));
+            }
+            sourceVertex.outgoing = outgoing.withEdge(-position - 1, targetUUID, weight);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void removeAgent(final @NotNull Agent agent) {
+        var uuid = agent.getUUID();
+        var vertex = vertices.remove(uuid);
+        if (vertex == null) {
+            return;
+        }
+
+        var stripe = stripeOf(uuid);
+        stripe.lock();
+        try {
+            vertex.removed = true;
+            for (var target : vertex.outgoing.targets) {
+                var targetVertex = vertices.get(target);
+                if (targetVertex != null) {
+                    targetVertex.sources.remove(uuid);
+                }
+            }
+            vertex.outgoing = Adjacency.EMPTY;
+        } finally {
+            stripe.unlock();
+        }
+
+        for (var source : vertex.sources) {
+            var sourceVertex = vertices.get(source);
+            if (sourceVertex == null) {
+                continue;
+            }
+            var sourceStripe = stripeOf(source);
+            sourceStripe.lock();
+            try {
+                var outgoing = sourceVertex.outgoing;
+                var position = Arrays.binarySearch(outgoing.targets, uuid);
+                if (position >= 0) {
+                    sourceVertex.outgoing = outgoing.withoutEdge(position);
+                }
+            } finally {
+                sourceStripe.unlock();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable Double getWeight(final @NotNull Agent source, final @NotNull Agent target) {
+        var vertex = vertices.get(source.getUUID());
+        if (vertex == null) {
+            return null;
+        }
+        var outgoing = vertex.outgoing;
+        var position = Arrays.binarySearch(outgoing.targets, target.getUUID());
+        return position < 0 ? null : outgoing.weights[position];
+    }
+
+    /**
+     * Set the weight of an edge between two {@link Agent}s in this {@link SocialNetwork}.
+     *
+     * @param source The source {@link Agent}.
+     * @param target The target {@link Agent}.
+     * @param weight The weight of the edge.
+     * @throws IllegalArgumentException If there is no edge from the source to the target.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void setWeight(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        var sourceUUID = source.getUUID();
+        var vertex = vertexOf(sourceUUID);
+        var stripe = stripeOf(sourceUUID);
+        stripe.lock();
+        try {
+            var outgoing = vertex.outgoing;
+            var position = Arrays.binarySearch(outgoing.targets, target.getUUID());
+            if (position < 0) {
+                throw new IllegalArgumentException(String.format("There is no edge from %s to %s", sourceUUID,
+                        target.getUUID()));
+            }
+            vertex.outgoing = outgoing.withWeight(position, weight);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void sendSocialMessages(final @NotNull SimulationManager simulationManager,
+                                   final @NotNull SocialMessageSpecification specification) {
+        var vertex = vertices.get(specification.getSender());
+        if (vertex == null) {
+            return;
+        }
+        var outgoing = vertex.outgoing;
+        if (outgoing.targets.length == 0) {
+            return;
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(outgoing.targets,
+                outgoing.handles().getAll(simulationManager, outgoing.targets), outgoing.weights));
+    }
+
+    @Override
+    public void sendSampledSocialMessages(final @NotNull SimulationManager simulationManager,
+                                          final @NotNull SocialMessageSpecification specification,
+                                          final int sampleSize, final @NotNull RandomGenerator random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("The sample size is negative");
+        }
+        var vertex = vertices.get(specification.getSender());
+        if (vertex == null || sampleSize == 0) {
+            return;
+        }
+        var outgoing = vertex.outgoing;
+        var table = outgoing.aliasTable();
+        if (table.isEmpty()) {
+            return;
+        }
+        var handles = outgoing.handles();
+        var destinations = new UUID[sampleSize];
+        var destinationHandles = new int[sampleSize];
+        var weights = new double[sampleSize];
+        for (var i = 0; i < sampleSize; i++) {
+            var position = table.sample(random);
+            destinations[i] = outgoing.targets[position];
+            destinationHandles[i] = handles.get(simulationManager, position, destinations[i]);
+            weights[i] = outgoing.weights[position];
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles, weights));
+    }
+
+    /**
+     * Get the number of {@link Agent}s in this {@link ConcurrentSocialNetwork}.
+     *
+     * @return The number of {@link Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getAgentCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Get the number of outgoing edges of an {@link Agent}.
+     *
+     * @param agent The {@link Agent}.
+     * @return The number of outgoing edges, or zero if the {@link Agent} is not in this
+     * {@link ConcurrentSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getOutDegree(final @NotNull Agent agent) {
+        var vertex = vertices.get(agent.getUUID());
+        return vertex == null ? 0 : vertex.outgoing.targets.length;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentSocialNetwork{" +
+                "agentCount=" + vertices.size() +
+                ", stripeCount=" + stripes.length +
+                '}';
+    }
+
+    /**
+     * A {@link Vertex} is an {@link Agent} in a {@link ConcurrentSocialNetwork}.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Vertex {
+        /**
+         * The {@link UUID}s of the {@link Agent}s that have an edge to this {@link Vertex}.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull Set<UUID> sources = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The snapshot of the outgoing edges of this {@link Vertex}.
+         *
+         * @since v0.0.2
+         */
+        private volatile @NotNull Adjacency outgoing = Adjacency.EMPTY;
+
+        /**
+         * Whether this {@link Vertex} has been removed, which is only read and written under its lock.
+         *
+         * @since v0.0.2
+         */
+        private boolean removed = false;
+    }
+
+    /**
+     * An {@link Adjacency} is an immutable snapshot of the outgoing edges of a {@link Vertex}, sorted by target.
+     * The arrays are never changed once the {@link Adjacency} has been created, so they can be shared between
+     * {@link Adjacency}s and sent in messages.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Adjacency {
+        /**
+         * The {@link Adjacency} with no edges.
+         *
+         * @since v0.0.2
+         */
+        private static final @NotNull Adjacency EMPTY = new Adjacency(new UUID[0], new double[0]);
+
+        /**
+         * The {@link UUID} of the target of each edge, in order.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull UUID[] targets;
+
+        /**
+         * The weight of each edge.
+         *
+         * @since v0.0.2
+         */
+        private final @NotNull double[] weights;
+
+        /**
+         * The {@link AliasTable} over the weights, or null if it has not been needed yet.
+         *
+         * @since v0.0.2
+         */
+        private volatile @Nullable AliasTable aliasTable = null;
+
+        /**
+         * The handles of the targets, by edge, or null if they have not been needed yet.
+         *
+         * @since v0.0.2
+         */
+        private volatile @Nullable AgentHandles handles = null;
+
+        /**
+         * Create a new {@link Adjacency} from arrays, which are not copied.
+         *
+         * @param targets The {@link UUID} of the target of each edge, in order.
+         * @param weights The weight of each edge.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Adjacency(final @NotNull UUID[] targets, final @NotNull double[] weights) {
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        /**
+         * Get the {@link AliasTable} over the weights, creating it if it has not been needed yet. Two threads that
+         * race to create it both get a correct table.
+         *
+         * @return The {@link AliasTable}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull AliasTable aliasTable() {
+            var table = aliasTable;
+            if (table == null) {
+                table = new AliasTable(weights, 0, weights.length);
+                aliasTable = table;
+            }
+            return table;
+        }
+
+        /**
+         * Get the {@link AgentHandles} of the targets, creating it if it has not been needed yet. Two threads that
+         * race to create it both get a correct {@link AgentHandles}.
+         *
+         * @return The {@link AgentHandles}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull AgentHandles handles() {
+            var current = handles;
+            if (current == null) {
+                current = new AgentHandles(targets.length);
+                handles = current;
+            }
+            return current;
+        }
+
+        /**
+         * Create a copy of this {@link Adjacency} with an edge inserted.
+         *
+         * @param position The position to insert the edge at.
+         * @param target   The {@link UUID} of the target.
+         * @param weight   The weight of the edge.
+         * @return The new {@link Adjacency}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull Adjacency withEdge(final int position, final @NotNull UUID target, final double weight) {
+            var newTargets = new UUID[targets.length + 1];
+            var newWeights = new double[newTargets.length];
+            System.arraycopy(targets, 0, newTargets, 0, position);
+            System.arraycopy(weights, 0, newWeights, 0, position);
+            newTargets[position] = target;
+            newWeights[position] = weight;
+            System.arraycopy(targets, position, newTargets, position + 1, targets.length - position);
+            System.arraycopy(weights, position, newWeights, position + 1, weights.length - position);
+            return new Adjacency(newTargets, newWeights);
+        }
+
+        /**
+         * Create a copy of this {@link Adjacency} with an edge removed.
+         *
+         * @param position The position of the edge.
+         * @return The new {@link Adjacency}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull Adjacency withoutEdge(final int position) {
+            if (targets.length == 1) {
+                return EMPTY;
+            }
+            var newTargets = new UUID[targets.length - 1];
+            var newWeights = new double[newTargets.length];
+            System.arraycopy(targets, 0, newTargets, 0, position);
+            System.arraycopy(weights, 0, newWeights, 0, position);
+            System.arraycopy(targets, position + 1, newTargets, position, newTargets.length - position);
+            System.arraycopy(weights, position + 1, newWeights, position, newWeights.length - position);
+            return new Adjacency(newTargets, newWeights);
+        }
+
+        /**
+         * Create a copy of this {@link Adjacency} with the weight of an edge changed, sharing the targets.
+         *
+         * @param position The position of the edge.
+         * @param weight   The new weight.
+         * @return The new {@link Adjacency}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private @NotNull Adjacency withWeight(final int position, final double weight) {
+            var newWeights = weights.clone();
+            newWeights[position] = weight;
+            return new Adjacency(targets, newWeights);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains a {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork} that can be read and changed
+ * by many threads at once.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.concurrent;
@@ -0,0 +1,663 @@
+package dev.r0bert.reagent.social.socialnetwork.csr;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.socialnetwork.AgentHandles;
+import dev.r0bert.reagent.social.socialnetwork.AliasTable;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link CsrSocialNetwork} is an immutable, directed and weighted {@link SocialNetwork} that is stored in compressed
+ * sparse row arrays.
+ * <p>
+ * Each {@link Agent} has a dense index. The outgoing edges of the {@link Agent} with index {@code i} are at positions
+ * {@code offsets[i]} (inclusive) to {@code offsets[i + 1]} (exclusive) of the {@code targets} and {@code weights}
+ * arrays, sorted by the index of their target. No object is allocated per edge, so a {@link CsrSocialNetwork} takes a
+ * fraction of the memory of a
+ * {@link dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork}, and
+ * {@link #sendSocialMessages(SimulationManager, SocialMessageSpecification)} walks two arrays. The index of an
+ * {@link Agent} is looked up by {@link UUID} in an open-addressing table. The handle of each {@link Agent} in the
+ * {@link SimulationManager} is cached by index in {@link AgentHandles}, so messages are addressed by handle.
+ * </p>
+ * <p>
+ * A {@link CsrSocialNetwork} is created with a {@link Builder}, or by freezing a
+ * {@link dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork}. The methods that
+ * would change it throw an {@link UnsupportedOperationException}. As it is immutable, it is safe to read from many
+ * threads at once. An {@link Agent} that is already in it can be added again, so that it can be used by a
+ * {@link dev.r0bert.reagent.social.simulationmanager.SocialSimulationManager}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class CsrSocialNetwork implements IndexedSocialNetwork {
+    /**
+     * The {@link UUID} of each {@link Agent}, by index.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull UUID[] agents;
+
+    /**
+     * The position of the first outgoing edge of each {@link Agent}, by index, followed by the number of edges.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] offsets;
+
+    /**
+     * The index of the target of each edge.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] targets;
+
+    /**
+     * The weight of each edge.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull double[] weights;
+
+    /**
+     * The slots of the lookup table, each holding an index plus one, or zero if the slot is empty.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] slots;
+
+    /**
+     * The {@link AliasTable} of each {@link Agent}, by index, or null if it has not been needed yet. The tables are
+     * immutable, so two threads that race to create the same one both get a correct table.
+     *
+     * @since v0.0.2
+     */
+    private final @Nullable AliasTable[] aliasTables;
+
+    /**
+     * The handles of the {@link Agent}s, by index, in the {@link SimulationManager} that messages were last sent with.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AgentHandles handles;
+
+    /**
+     * Create a new {@link CsrSocialNetwork} from its arrays, which are not copied.
+     *
+     * @param agents  The {@link UUID} of each {@link Agent}, by index.
+     * @param offsets The position of the first outgoing edge of each {@link Agent}, followed by the number of edges.
+     * @param targets The index of the target of each edge, sorted within each {@link Agent}.
+     * @param weights The weight of each edge.
+     * @throws IllegalArgumentException If a {@link UUID} is given more than once.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private CsrSocialNetwork(final @NotNull UUID[] agents, final @NotNull int[] offsets, final @NotNull int[] targets,
+                             final @NotNull double[] weights) {
+        this.agents = agents;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.aliasTables = new AliasTable[agents.length];
+        this.handles = new AgentHandles(agents.length);
+        this.slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, agents.length) * 2 - 1) * 2)];
+        var mask = slots.length - 1;
+        for (var index = 0; index < agents.length; index++) {
+            var slot = slotOf(agents[index], mask);
+            while (slots[slot] != 0) {
+                if (agents[slots[slot] - 1].equals(agents[index])) {
+                    throw new IllegalArgumentException(String.format("The agent %s is given more than once",
+                            agents[index]));
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * Create a new {@link Builder}.
+     *
+     * @return The new {@link Builder}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a new {@link CsrSocialNetwork} from a list of edges, given by the indices of their {@link Agent}s.
+     * This does the same work as a {@link Builder} without looking up a {@link UUID} per edge, so it is the fastest way
+     * to create a {@link CsrSocialNetwork} when the indices are already known. The arrays are not kept.
+     *
+     * @param agents  The {@link UUID} of each {@link Agent}, by index.
+     * @param sources The index of the source {@link Agent} of each edge.
+     * @param targets The index of the target {@link Agent} of each edge.
+     * @param weights The weight of each edge.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IllegalArgumentException If the arrays of edges differ in length, an index is out of range, or a
+     *                                  {@link UUID} is given more than once.
+     * @throws IllegalStateException    If the same edge is given more than once.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull CsrSocialNetwork of(final @NotNull UUID[] agents, final @NotNull int[] sources,
+                                               final @NotNull int[] targets, final @NotNull double[] weights) {
+        if (sources.length != targets.length || sources.length != weights.length) {
+            throw new IllegalArgumentException("The arrays of edges differ in length");
+        }
+        for (var i = 0; i < sources.length; i++) {
+            if (sources[i] < 0 || sources[i] >= agents.length || targets[i] < 0 || targets[i] >= agents.length) {
+                throw new IllegalArgumentException(String.format("The edge %d refers to an agent that does not exist",
+                        i));
+            }
+        }
+        return fromEdges(agents.clone(), sources, targets, weights, sources.length);
+    }
+
+    /**
+     * Create a new {@link CsrSocialNetwork} from a list of edges, sorting them by source with a counting sort and then
+     * by target within each source.
+     *
+     * @param agents    The {@link UUID} of each {@link Agent}, by index, which is kept.
+     * @param sources   The index of the source {@link Agent} of each edge.
+     * @param targets   The index of the target {@link Agent} of each edge.
+     * @param weights   The weight of each edge.
+     * @param edgeCount The number of edges, which may be less than the length of the arrays.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IllegalStateException If the same edge is given more than once.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull CsrSocialNetwork fromEdges(final @NotNull UUID[] agents, final @NotNull int[] sources,
+                                                       final @NotNull int[] targets, final @NotNull double[] weights,
+                                                       final int edgeCount) {
+        var agentCount = agents.length;
+        var offsets = new int[agentCount + 1];
+        for (var i = 0; i < edgeCount; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (var i = 0; i < agentCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        var next = Arrays.copyOf(offsets, agentCount);
+        var sortedTargets = new int[edgeCount];
+        var sortedWeights = new double[edgeCount];
+        for (var i = 0; i < edgeCount; i++) {
+            var position = next[sources[i]]++;
+            sortedTargets[position] = targets[i];
+            sortedWeights[position] = weights[i];
+        }
+
+        var keys = new long[0];
+        var rowWeights = new double[0];
+        for (var agent = 0; agent < agentCount; agent++) {
+            var start = offsets[agent];
+            var degree = offsets[agent + 1] - start;
+            if (degree < 2) {
+                continue;
+            }
+            if (keys.length < degree) {
+                keys = new long[degree];
+                rowWeights = new double[degree];
+            }
+            for (var i = 0; i < degree; i++) {
+                keys[i] = ((long) sortedTargets[start + i] << Integer.SIZE) | i;
+                rowWeights[i] = sortedWeights[start + i];
+            }
+            Arrays.sort(keys, 0, degree);
+            for (var i = 0; i < degree; i++) {
+                var target = (int) (keys[i] >>> Integer.SIZE);
+                if (i > 0 && sortedTargets[start + i - 1] == target) {
+                    throw new IllegalStateException(String.format("The edge from %s to %s is given more than once",
+                            agents[agent], agents[target]));
+                }
+                sortedTargets[start + i] = target;
+                sortedWeights[start + i] = rowWeights[(int) keys[i]];
+            }
+        }
+
+        return new CsrSocialNetwork(agents, offsets, sortedTargets, sortedWeights);
+    }
+
+    /**
+     * Get the first slot to probe for a {@link UUID}.
+     *
+     * @param uuid The {@link UUID}.
+     * @param mask The number of slots minus one.
+     * @return The slot.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static int slotOf(final @NotNull UUID uuid, final int mask) {
+        var hash = (uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    @Override
+    public int indexOf(final @NotNull UUID uuid) {
+        var mask = slots.length - 1;
+        for (var slot = slotOf(uuid, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+            var index = slots[slot] - 1;
+            if (uuid.equals(agents[index])) {
+                return index;
+            }
+        }
+        return NO_INDEX;
+    }
+
+    @Override
+    public int getAgentCount() {
+        return agents.length;
+    }
+
+    @Override
+    public long getEdgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public @NotNull UUID getUUID(final int index) {
+        return agents[index];
+    }
+
+    @Override
+    public long getEdgeStart(final int index) {
+        Objects.checkIndex(index, agents.length);
+        return offsets[index];
+    }
+
+    @Override
+    public long getEdgeEnd(final int index) {
+        Objects.checkIndex(index, agents.length);
+        return offsets[index + 1];
+    }
+
+    @Override
+    public int getTarget(final long edge) {
+        return targets[Math.toIntExact(edge)];
+    }
+
+    @Override
+    public double getEdgeWeight(final long edge) {
+        return weights[Math.toIntExact(edge)];
+    }
+
+    /**
+     * Get the number of outgoing edges of an {@link Agent}.
+     *
+     * @param agent The {@link Agent}.
+     * @return The number of outgoing edges, or zero if the {@link Agent} is not in this {@link CsrSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getOutDegree(final @NotNull Agent agent) {
+        var index = indexOf(agent.getUUID());
+        return index == NO_INDEX ? 0 : offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Do nothing if the {@link Agent} is already in this {@link CsrSocialNetwork}, as it is immutable.
+     *
+     * @param agent The {@link Agent} to add to this {@link SocialNetwork}.
+     * @throws UnsupportedOperationException If the {@link Agent} is not in this {@link CsrSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        if (indexOf(agent.getUUID()) == NO_INDEX) {
+            throw new UnsupportedOperationException("A CsrSocialNetwork is immutable");
+        }
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link CsrSocialNetwork} is immutable.
+     *
+     * @param source The source {@link Agent} of the edge.
+     * @param target The target {@link Agent} of the edge.
+     * @param weight The weight of the edge.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        throw new UnsupportedOperationException("A CsrSocialNetwork is immutable");
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link CsrSocialNetwork} is immutable.
+     *
+     * @param agent The {@link Agent} to remove from this {@link SocialNetwork}.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void removeAgent(final @NotNull Agent agent) {
+        throw new UnsupportedOperationException("A CsrSocialNetwork is immutable");
+    }
+
+    @Override
+    public @Nullable Double getWeight(final @NotNull Agent source, final @NotNull Agent target) {
+        var sourceIndex = indexOf(source.getUUID());
+        var targetIndex = indexOf(target.getUUID());
+        if (sourceIndex == NO_INDEX || targetIndex == NO_INDEX) {
+            return null;
+        }
+        var position = Arrays.binarySearch(targets, offsets[sourceIndex], offsets[sourceIndex + 1], targetIndex);
+        return position < 0 ? null : weights[position];
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link CsrSocialNetwork} is immutable.
+     *
+     * @param source The source {@link Agent} of the edge.
+     * @param target The target {@link Agent} of the edge.
+     * @param weight The weight of the edge.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void setWeight(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        throw new UnsupportedOperationException("A CsrSocialNetwork is immutable");
+    }
+
+    @Override
+    public void sendSocialMessages(final @NotNull SimulationManager simulationManager,
+                                   final @NotNull SocialMessageSpecification specification) {
+        var index = indexOf(specification.getSender());
+        if (index == NO_INDEX) {
+            return;
+        }
+        var start = offsets[index];
+        var end = offsets[index + 1];
+        if (start == end) {
+            return;
+        }
+        var destinations = new UUID[end - start];
+        var destinationHandles = new int[destinations.length];
+        for (var i = start; i < end; i++) {
+            destinations[i - start] = agents[targets[i]];
+            destinationHandles[i - start] = handles.get(simulationManager, targets[i], agents[targets[i]]);
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles,
+                Arrays.copyOfRange(weights, start, end)));
+    }
+
+    @Override
+    public void sendSampledSocialMessages(final @NotNull SimulationManager simulationManager,
+                                          final @NotNull SocialMessageSpecification specification,
+                                          final int sampleSize, final @NotNull RandomGenerator random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("The sample size is negative");
+        }
+        var index = indexOf(specification.getSender());
+        if (index == NO_INDEX || sampleSize == 0) {
+            return;
+        }
+        var start = offsets[index];
+        var table = aliasTables[index];
+        if (table == null) {
+            table = new AliasTable(weights, start, offsets[index + 1]);
+            aliasTables[index] = table;
+        }
+        if (table.isEmpty()) {
+            return;
+        }
+        var destinations = new UUID[sampleSize];
+        var destinationHandles = new int[sampleSize];
+        var sampledWeights = new double[sampleSize];
+        for (var i = 0; i < sampleSize; i++) {
+            var edge = start + table.sample(random);
+            destinations[i] = agents[targets[edge]];
+            destinationHandles[i] = handles.get(simulationManager, targets[edge], destinations[i]);
+            sampledWeights[i] = weights[edge];
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles,
+                sampledWeights));
+    }
+
+    @Override
+    public String toString() {
+        return "CsrSocialNetwork{" +
+                "agents=" + agents.length +
+                ", edges=" + targets.length +
+                '}';
+    }
+
+    /**
+     * A {@link Builder} collects the {@link Agent}s and edges of a {@link CsrSocialNetwork}, and then freezes them into
+     * compressed sparse row arrays with {@link #build()}.
+     * <p>
+     * Edges are held in primitive arrays until {@link #build()}, which sorts them by source with a counting sort and
+     * then by target within each source. A {@link Builder} is not thread-safe.
+     * </p>
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static final class Builder {
+        /**
+         * The {@link UUID}s of the {@link Agent}s that have been added, by index.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull UUID[] agents = new UUID[16];
+
+        /**
+         * The number of {@link Agent}s that have been added.
+         *
+         * @since v0.0.2
+         */
+        private int agentCount = 0;
+
+        /**
+         * The slots of the lookup table, each holding an index plus one, or zero if the slot is empty.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] slots = new int[32];
+
+        /**
+         * The index of the source of each edge that has been added.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] sources = new int[16];
+
+        /**
+         * The index of the target of each edge that has been added.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] targets = new int[16];
+
+        /**
+         * The weight of each edge that has been added.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull double[] weights = new double[16];
+
+        /**
+         * The number of edges that have been added.
+         *
+         * @since v0.0.2
+         */
+        private int edgeCount = 0;
+
+        /**
+         * Create a new {@link Builder}.
+         *
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private Builder() {
+        }
+
+        /**
+         * Add an {@link Agent}. Adding an {@link Agent} that has already been added does nothing.
+         *
+         * @param uuid The {@link UUID} of the {@link Agent}.
+         * @return This {@link Builder}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public @NotNull Builder addAgent(final @NotNull UUID uuid) {
+            Objects.requireNonNull(uuid);
+            if (indexOf(uuid) != NO_INDEX) {
+                return this;
+            }
+            if (agentCount == agents.length) {
+                agents = Arrays.copyOf(agents, agentCount * 2);
+            }
+            if ((agentCount + 1) * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+            agents[agentCount] = uuid;
+            insert(uuid, agentCount++);
+            return this;
+        }
+
+        /**
+         * Add an {@link Agent}. Adding an {@link Agent} that has already been added does nothing.
+         *
+         * @param agent The {@link Agent}.
+         * @return This {@link Builder}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public @NotNull Builder addAgent(final @NotNull Agent agent) {
+            return addAgent(agent.getUUID());
+        }
+
+        /**
+         * Add an edge between two {@link Agent}s that have been added.
+         *
+         * @param source The {@link UUID} of the source {@link Agent} of the edge.
+         * @param target The {@link UUID} of the target {@link Agent} of the edge.
+         * @param weight The weight of the edge.
+         * @return This {@link Builder}.
+         * @throws IllegalArgumentException If either {@link Agent} has not been added.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public @NotNull Builder addEdge(final @NotNull UUID source, final @NotNull UUID target, final double weight) {
+            var sourceIndex = indexOf(source);
+            var targetIndex = indexOf(target);
+            if (sourceIndex == NO_INDEX || targetIndex == NO_INDEX) {
+                throw new IllegalArgumentException(String.format("The agent %s has not been added",
+                        sourceIndex == NO_INDEX ? source : target));
+            }
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                weights = Arrays.copyOf(weights, edgeCount * 2);
+            }
+            sources[edgeCount] = sourceIndex;
+            targets[edgeCount] = targetIndex;
+            weights[edgeCount++] = weight;
+            return this;
+        }
+
+        /**
+         * Add an edge between two {@link Agent}s that have been added.
+         *
+         * @param source The source {@link Agent} of the edge.
+         * @param target The target {@link Agent} of the edge.
+         * @param weight The weight of the edge.
+         * @return This {@link Builder}.
+         * @throws IllegalArgumentException If either {@link Agent} has not been added.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public @NotNull Builder addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+            return addEdge(source.getUUID(), target.getUUID(), weight);
+        }
+
+        /**
+         * Freeze the {@link Agent}s and edges that have been added into a {@link CsrSocialNetwork}.
+         * The {@link Builder} can still be used afterwards, and does not change the {@link CsrSocialNetwork}.
+         *
+         * @return The {@link CsrSocialNetwork}.
+         * @throws IllegalStateException If the same edge has been added more than once.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public @NotNull CsrSocialNetwork build() {
+            return fromEdges(Arrays.copyOf(agents, agentCount), sources, targets, weights, edgeCount);
+        }
+
+        /**
+         * Get the index of an {@link Agent} that has been added.
+         *
+         * @param uuid The {@link UUID} of the {@link Agent}.
+         * @return The index, or {@link IndexedSocialNetwork#NO_INDEX} if the {@link Agent} has not been added.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private int indexOf(final @NotNull UUID uuid) {
+            var mask = slots.length - 1;
+            for (var slot = slotOf(uuid, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+                var index = slots[slot] - 1;
+                if (uuid.equals(agents[index])) {
+                    return index;
+                }
+            }
+            return NO_INDEX;
+        }
+
+        /**
+         * Insert a {@link UUID} into the lookup table.
+         *
+         * @param uuid  The {@link UUID}.
+         * @param index The index of the {@link UUID}.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void insert(final @NotNull UUID uuid, final int index) {
+            var mask = slots.length - 1;
+            var slot = slotOf(uuid, mask);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+
+        /**
+         * Rebuild the lookup table with more slots.
+         *
+         * @param slotCount The new number of slots, a power of two.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void rehash(final int slotCount) {
+            slots = new int[slotCount];
+            for (var index = 0; index < agentCount; index++) {
+                insert(agents[index], index);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CsrSocialNetwork.Builder{" +
+                    "agents=" + agentCount +
+                    ", edges=" + edgeCount +
+                    '}';
+        }
+    }
+}
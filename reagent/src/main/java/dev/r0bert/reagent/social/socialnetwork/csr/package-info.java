@@ -0,0 +1,8 @@
+/**
+ * This package contains an immutable {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork} that is stored in
+ * compressed sparse row arrays.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.csr;
@@ -3,13 +3,19 @@ package dev.r0bert.reagent.social.socialnetwork.directedweighted;
 import dev.r0bert.reagent.core.agents.Agent;
 import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
 import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.socialnetwork.AgentHandles;
+import dev.r0bert.reagent.social.socialnetwork.AliasTable;
 import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jgrapht.graph.DefaultDirectedWeightedGraph;
 import org.jgrapht.graph.DefaultWeightedEdge;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
 
 /**
  * A {@link SocialNetwork} that is directed and weighted.
@@ -26,6 +32,14 @@ public class DirectedWeightedSocialNetwork implements SocialNetwork {
     private final DefaultDirectedWeightedGraph<UUID, DefaultWeightedEdge> network =
             new DefaultDirectedWeightedGraph<>(DefaultWeightedEdge.class);
 
+    /**
+     * The {@link Neighbourhood} of each {@link Agent} that has sent messages since its outgoing edges last changed.
+     * This is a {@link ConcurrentHashMap}, as messages may be sent by many {@link Agent}s at once.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Map<UUID, Neighbourhood> neighbourhoods = new ConcurrentHashMap<>();
+
     @Override
     public void addAgent(final @NotNull Agent agent) {
         network.addVertex(agent.getUUID());
@@ -35,11 +49,19 @@ public class DirectedWeightedSocialNetwork implements SocialNetwork {
     public void addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
         var edge = network.addEdge(source.getUUID(), target.getUUID());
         network.setEdgeWeight(edge, weight);
+        neighbourhoods.remove(source.getUUID());
     }
 
     @Override
     public void removeAgent(final @NotNull Agent agent) {
-        network.removeVertex(agent.getUUID());
+        var uuid = agent.getUUID();
+        if (!neighbourhoods.isEmpty() && network.containsVertex(uuid)) {
+            neighbourhoods.remove(uuid);
+            for (var edge : network.incomingEdgesOf(uuid)) {
+                neighbourhoods.remove(network.getEdgeSource(edge));
+            }
+        }
+        network.removeVertex(uuid);
     }
 
     @Override
@@ -52,20 +74,86 @@ public class DirectedWeightedSocialNetwork implements SocialNetwork {
     public void setWeight(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
         var edge = network.getEdge(source.getUUID(), target.getUUID());
         network.setEdgeWeight(edge, weight);
+        neighbourhoods.remove(source.getUUID());
     }
 
     @Override
     public void sendSocialMessages(final @NotNull SimulationManager simulationManager,
                                    final @NotNull SocialMessageSpecification specification) {
-        specification
-                .toSocialMessagesFromUUIDsAndWeights(
-                        network
-                                .outgoingEdgesOf(specification.getSender())
-                                .stream()
-                                .map(edge -> new SocialMessageSpecification.UUIDWeightPair(network.getEdgeTarget(edge), network.getEdgeWeight(edge)))
-                                .toList()
-                )
-                .forEach(simulationManager::sendMessageNow);
+        var neighbourhood = neighbourhoods.computeIfAbsent(specification.getSender(), this::neighbourhoodOf);
+        var targets = neighbourhood.targets();
+        if (targets.length == 0) {
+            return;
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(targets,
+                neighbourhood.handles().getAll(simulationManager, targets), neighbourhood.weights()));
+    }
+
+    @Override
+    public void sendSampledSocialMessages(final @NotNull SimulationManager simulationManager,
+                                          final @NotNull SocialMessageSpecification specification,
+                                          final int sampleSize, final @NotNull RandomGenerator random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("The sample size is negative");
+        }
+        if (sampleSize == 0) {
+            return;
+        }
+        var neighbourhood = neighbourhoods.computeIfAbsent(specification.getSender(), this::neighbourhoodOf);
+        if (neighbourhood.table().isEmpty()) {
+            return;
+        }
+        var destinations = new UUID[sampleSize];
+        var destinationHandles = new int[sampleSize];
+        var weights = new double[sampleSize];
+        for (var i = 0; i < sampleSize; i++) {
+            var position = neighbourhood.table().sample(random);
+            destinations[i] = neighbourhood.targets()[position];
+            destinationHandles[i] = neighbourhood.handles().get(simulationManager, position, destinations[i]);
+            weights[i] = neighbourhood.weights()[position];
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles, weights));
+    }
+
+    /**
+     * Create the {@link Neighbourhood} of an {@link Agent} from its outgoing edges.
+     *
+     * @param uuid The {@link UUID} of the {@link Agent}.
+     * @return The {@link Neighbourhood}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull Neighbourhood neighbourhoodOf(final @NotNull UUID uuid) {
+        var edges = network.outgoingEdgesOf(uuid);
+        var targets = new UUID[edges.size()];
+        var weights = new double[targets.length];
+        var index = 0;
+        for (var edge : edges) {
+            targets[index] = network.getEdgeTarget(edge);
+            weights[index++] = network.getEdgeWeight(edge);
+        }
+        return new Neighbourhood(targets, weights, new AliasTable(weights, 0, weights.length),
+                new AgentHandles(targets.length));
+    }
+
+    /**
+     * Freeze this {@link DirectedWeightedSocialNetwork} into a {@link CsrSocialNetwork} with the same {@link Agent}s,
+     * edges and weights. Later changes to this {@link DirectedWeightedSocialNetwork} do not change the
+     * {@link CsrSocialNetwork}.
+     *
+     * @return The {@link CsrSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull CsrSocialNetwork freeze() {
+        var builder = CsrSocialNetwork.builder();
+        for (var vertex : network.vertexSet()) {
+            builder.addAgent(vertex);
+        }
+        for (var edge : network.edgeSet()) {
+            builder.addEdge(network.getEdgeSource(edge), network.getEdgeTarget(edge), network.getEdgeWeight(edge));
+        }
+        return builder.build();
     }
 
     @Override
@@ -74,4 +162,19 @@ public class DirectedWeightedSocialNetwork implements SocialNetwork {
                 "network=" + network +
                 '}';
     }
+
+    /**
+     * A {@link Neighbourhood} is the outgoing edges of an {@link Agent}, with the {@link AliasTable} to sample them and
+     * the handles of their targets. The arrays are never changed, so they can be sent in messages.
+     *
+     * @param targets The {@link UUID} of the target of each edge.
+     * @param weights The weight of each edge.
+     * @param table   The {@link AliasTable} over the weights.
+     * @param handles The handles of the targets, by edge.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record Neighbourhood(@NotNull UUID[] targets, @NotNull double[] weights, @NotNull AliasTable table,
+                                 @NotNull AgentHandles handles) {
+    }
 }
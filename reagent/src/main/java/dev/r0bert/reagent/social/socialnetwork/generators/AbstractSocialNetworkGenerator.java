@@ -0,0 +1,308 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link AbstractSocialNetworkGenerator} generates the outgoing edges of blocks of {@link #BLOCK_SIZE} sources
+ * independently, so that the blocks can be generated in parallel.
+ * <p>
+ * Each block has its own {@link SplittableRandom}, which is split from a {@link SplittableRandom} with the seed in the
+ * order of the blocks, and the edges of the blocks are joined in the same order, so the edges do not depend on the
+ * {@link Executor} or the number of threads. If an {@link Executor} is set with {@link #setExecutor(Executor)}, the
+ * blocks are generated on it; otherwise they are generated on the thread that called {@link #generate()}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public abstract class AbstractSocialNetworkGenerator implements SocialNetworkGenerator {
+    /**
+     * The number of sources in each block.
+     *
+     * @since v0.0.2
+     */
+    public static final int BLOCK_SIZE = 4096;
+
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(AbstractSocialNetworkGenerator.class);
+
+    /**
+     * The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private final int agentCount;
+
+    /**
+     * The seed of the random numbers.
+     *
+     * @since v0.0.2
+     */
+    private final long seed;
+
+    /**
+     * The {@link Executor} that blocks are generated on, or null if they are generated on the thread that called
+     * {@link #generate()}.
+     *
+     * @since v0.0.2
+     */
+    private @Nullable Executor executor = null;
+
+    /**
+     * Create a new {@link AbstractSocialNetworkGenerator}.
+     *
+     * @param agentCount The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @param seed       The seed of the random numbers.
+     * @throws IllegalArgumentException If the number of {@link dev.r0bert.reagent.core.agents.Agent}s is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected AbstractSocialNetworkGenerator(final int agentCount, final long seed) {
+        if (agentCount < 0) {
+            throw new IllegalArgumentException("The agent count is negative");
+        }
+        this.agentCount = agentCount;
+        this.seed = seed;
+    }
+
+    /**
+     * Generate the outgoing edges of a block of sources.
+     *
+     * @param start  The index of the first source, inclusive.
+     * @param end    The index of the last source, exclusive.
+     * @param random The {@link SplittableRandom} of the block.
+     * @param edges  The {@link EdgeBuffer} to add the edges to.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected abstract void generateBlock(final int start, final int end, final @NotNull SplittableRandom random,
+                                          final @NotNull EdgeBuffer edges);
+
+    @Override
+    public @NotNull GeneratedEdges generate() {
+        var blockCount = (agentCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        var root = new SplittableRandom(seed);
+        var buffers = new EdgeBuffer[blockCount];
+        var tasks = new Runnable[blockCount];
+        for (var block = 0; block < blockCount; block++) {
+            var start = block * BLOCK_SIZE;
+            var end = Math.min(agentCount, start + BLOCK_SIZE);
+            var random = root.split();
+            var buffer = new EdgeBuffer();
+            buffers[block] = buffer;
+            tasks[block] = () -> generateBlock(start, end, random, buffer);
+        }
+
+        logger.atDebug().log("Generating {} blocks of {}", blockCount, this);
+        var executor = this.executor;
+        if (executor == null) {
+            for (var task : tasks) {
+                task.run();
+            }
+        } else {
+            var futures = new CompletableFuture<?>[blockCount];
+            for (var block = 0; block < blockCount; block++) {
+                futures[block] = CompletableFuture.runAsync(tasks[block], executor);
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                } else if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        var edgeCount = 0L;
+        for (var buffer : buffers) {
+            edgeCount += buffer.size;
+        }
+        if (edgeCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many edges were generated");
+        }
+        var sources = new int[(int) edgeCount];
+        var targets = new int[sources.length];
+        var position = 0;
+        for (var buffer : buffers) {
+            System.arraycopy(buffer.sources, 0, sources, position, buffer.size);
+            System.arraycopy(buffer.targets, 0, targets, position, buffer.size);
+            position += buffer.size;
+        }
+        return new GeneratedEdges(agentCount, sources, targets);
+    }
+
+    /**
+     * Get the number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     *
+     * @return The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Get the seed of the random numbers.
+     *
+     * @return The seed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generate blocks in parallel on an {@link Executor}.
+     *
+     * @param executor The {@link Executor} to generate blocks on, or null to generate them on the thread that called
+     *                 {@link #generate()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setExecutor(final @Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Get the {@link Executor} that blocks are generated on.
+     *
+     * @return The {@link Executor}, or null if blocks are generated on the thread that called {@link #generate()}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @Nullable Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the number of trials to skip before the next success of a Bernoulli process, by inverting the geometric
+     * distribution, so that a sparse network is generated in time proportional to its number of edges.
+     *
+     * @param random      The {@link SplittableRandom}.
+     * @param probability The probability of success, greater than zero and less than one.
+     * @return The number of trials to skip.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected static long skip(final @NotNull SplittableRandom random, final double probability) {
+        var skip = Math.floor(Math.log1p(-random.nextDouble()) / Math.log1p(-probability));
+        return skip >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) skip;
+    }
+
+    /**
+     * An {@link EdgeBuffer} collects the edges of a block in primitive arrays that grow as edges are added.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    protected static final class EdgeBuffer {
+        /**
+         * The index of the source of each edge.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] sources = new int[1024];
+
+        /**
+         * The index of the target of each edge.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] targets = new int[1024];
+
+        /**
+         * The number of edges.
+         *
+         * @since v0.0.2
+         */
+        private int size = 0;
+
+        /**
+         * Create a new {@link EdgeBuffer}.
+         *
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        EdgeBuffer() {
+        }
+
+        /**
+         * Add an edge.
+         *
+         * @param source The index of the source.
+         * @param target The index of the target.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public void add(final int source, final int target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size++] = target;
+        }
+
+        /**
+         * Check whether an edge to a target has been added since a position.
+         *
+         * @param from   The position.
+         * @param target The index of the target.
+         * @return True if an edge to the target has been added at or after the position.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public boolean containsTargetSince(final int from, final int target) {
+            for (var i = from; i < size; i++) {
+                if (targets[i] == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Get the index of the target of an edge.
+         *
+         * @param edge The position of the edge.
+         * @return The index of the target.
+         * @throws IndexOutOfBoundsException If there is no edge at the position.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public int getTarget(final int edge) {
+            Objects.checkIndex(edge, size);
+            return targets[edge];
+        }
+
+        /**
+         * Get the number of edges.
+         *
+         * @return The number of edges.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link BarabasiAlbertGenerator} generates a Barab\u00e1si-Albert scale-free network by preferential attachment.
+ * <p>
+ * Each {@link dev.r0bert.reagent.core.agents.Agent} in turn attaches {@code edgesPerAgent} edges to earlier
+ * {@link dev.r0bert.reagent.core.agents.Agent}s, chosen with probability proportional to their degree. Preferential
+ * attachment is usually sequential, so this uses the method of Sanders and Schulz: the edge list is seen as an array
+ * in which each edge has two entries, its source and its target, and the target of edge {@code j} is a uniformly
+ * random entry of the edges before it. If that entry is a source, it is known from its position; if it is a target,
+ * the target of that earlier edge is found in the same way. The random number of each edge is a hash of the seed and
+ * the index of the edge, so every edge can be resolved independently and in parallel. Self-loops and duplicate edges
+ * that this produces are dropped, so an {@link dev.r0bert.reagent.core.agents.Agent} can have fewer than
+ * {@code edgesPerAgent} edges.
+ * </p>
+ * <p>
+ * Edges point from the newer {@link dev.r0bert.reagent.core.agents.Agent} to the older one. If the network is
+ * bidirectional, each edge is also added in the other direction, which can never duplicate an edge.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class BarabasiAlbertGenerator extends AbstractSocialNetworkGenerator {
+    /**
+     * The number of edges that each {@link dev.r0bert.reagent.core.agents.Agent} attaches.
+     *
+     * @since v0.0.2
+     */
+    private final int edgesPerAgent;
+
+    /**
+     * Whether each edge is also added in the other direction.
+     *
+     * @since v0.0.2
+     */
+    private final boolean bidirectional;
+
+    /**
+     * Create a new {@link BarabasiAlbertGenerator}.
+     *
+     * @param agentCount    The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @param edgesPerAgent The number of edges that each {@link dev.r0bert.reagent.core.agents.Agent} attaches.
+     * @param bidirectional Whether each edge is also added in the other direction.
+     * @param seed          The seed of the random numbers.
+     * @throws IllegalArgumentException If an argument is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public BarabasiAlbertGenerator(final int agentCount, final int edgesPerAgent, final boolean bidirectional,
+                                   final long seed) {
+        super(agentCount, seed);
+        if (edgesPerAgent <= 0) {
+            throw new IllegalArgumentException("The number of edges per agent is not positive");
+        }
+        this.edgesPerAgent = edgesPerAgent;
+        this.bidirectional = bidirectional;
+    }
+
+    @Override
+    protected void generateBlock(final int start, final int end, final @NotNull SplittableRandom random,
+                                 final @NotNull EdgeBuffer edges) {
+        var reverseSources = bidirectional ? new int[edgesPerAgent] : null;
+        for (var source = start; source < end; source++) {
+            var rowStart = edges.size();
+            for (var k = 0; k < edgesPerAgent; k++) {
+                var target = resolveTarget((long) source * edgesPerAgent + k);
+                if (target != source && !edges.containsTargetSince(rowStart, target)) {
+                    edges.add(source, target);
+                }
+            }
+            if (reverseSources != null) {
+                var count = edges.size() - rowStart;
+                for (var i = 0; i < count; i++) {
+                    reverseSources[i] = edges.getTarget(rowStart + i);
+                }
+                for (var i = 0; i < count; i++) {
+                    edges.add(reverseSources[i], source);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the target of an edge.
+     *
+     * @param edge The index of the edge.
+     * @return The index of the target {@link dev.r0bert.reagent.core.agents.Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private int resolveTarget(final long edge) {
+        var current = edge;
+        while (current > 0) {
+            var entry = Long.remainderUnsigned(mix(getSeed() + current * 0x9E3779B97F4A7C15L), 2 * current);
+            if (entry % 2 == 0) {
+                return (int) (entry / 2 / edgesPerAgent);
+            }
+            current = entry / 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Mix the bits of a long, with the finaliser of SplitMix64.
+     *
+     * @param value The long.
+     * @return The mixed long.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long mix(final long value) {
+        var z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the number of edges that each {@link dev.r0bert.reagent.core.agents.Agent} attaches.
+     *
+     * @return The number of edges.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getEdgesPerAgent() {
+        return edgesPerAgent;
+    }
+
+    /**
+     * Get whether each edge is also added in the other direction.
+     *
+     * @return True if each edge is also added in the other direction.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public boolean isBidirectional() {
+        return bidirectional;
+    }
+
+    @Override
+    public String toString() {
+        return "BarabasiAlbertGenerator{" +
+                "agentCount=" + getAgentCount() +
+                ", edgesPerAgent=" + edgesPerAgent +
+                ", bidirectional=" + bidirectional +
+                ", seed=" + getSeed() +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * An {@link ErdosRenyiGenerator} generates a directed Erd\u0151s-R\u00e9nyi network, in which each of the possible
+ * edges between distinct {@link dev.r0bert.reagent.core.agents.Agent}s exists independently with the same probability.
+ * <p>
+ * The candidate targets of each source are skipped over with geometrically distributed gaps, so the time taken is
+ * proportional to the number of edges rather than the square of the number of
+ * {@link dev.r0bert.reagent.core.agents.Agent}s.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class ErdosRenyiGenerator extends AbstractSocialNetworkGenerator {
+    /**
+     * The probability of each edge.
+     *
+     * @since v0.0.2
+     */
+    private final double probability;
+
+    /**
+     * Create a new {@link ErdosRenyiGenerator}.
+     *
+     * @param agentCount  The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @param probability The probability of each edge.
+     * @param seed        The seed of the random numbers.
+     * @throws IllegalArgumentException If the number of {@link dev.r0bert.reagent.core.agents.Agent}s is negative, or
+     *                                  the probability is not between zero and one.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public ErdosRenyiGenerator(final int agentCount, final double probability, final long seed) {
+        super(agentCount, seed);
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            throw new IllegalArgumentException("The probability is not between zero and one");
+        }
+        this.probability = probability;
+    }
+
+    @Override
+    protected void generateBlock(final int start, final int end, final @NotNull SplittableRandom random,
+                                 final @NotNull EdgeBuffer edges) {
+        if (probability == 0.0) {
+            return;
+        }
+        var candidateCount = getAgentCount() - 1L;
+        for (var source = start; source < end; source++) {
+            var candidate = -1L;
+            while (true) {
+                candidate += probability == 1.0 ? 1 : 1 + skip(random, probability);
+                if (candidate < 0 || candidate >= candidateCount) {
+                    break;
+                }
+                edges.add(source, candidate < source ? (int) candidate : (int) candidate + 1);
+            }
+        }
+    }
+
+    /**
+     * Get the probability of each edge.
+     *
+     * @return The probability.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getProbability() {
+        return probability;
+    }
+
+    @Override
+    public String toString() {
+        return "ErdosRenyiGenerator{" +
+                "agentCount=" + getAgentCount() +
+                ", probability=" + probability +
+                ", seed=" + getSeed() +
+                '}';
+    }
+}
@@ -0,0 +1,165 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The {@link GeneratedEdges} are the edges of a random network, between {@link Agent}s that are given by index.
+ * <p>
+ * The edges are held in primitive arrays, in the order that they were generated, so they can be turned into a
+ * {@link CsrSocialNetwork} without looking up a {@link UUID} per edge, or added to any {@link SocialNetwork}. Every
+ * edge has a weight of 1.0, and there are no self-loops or duplicate edges.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class GeneratedEdges {
+    /**
+     * The number of {@link Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private final int agentCount;
+
+    /**
+     * The index of the source of each edge.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] sources;
+
+    /**
+     * The index of the target of each edge.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] targets;
+
+    /**
+     * Create new {@link GeneratedEdges} from arrays, which are not copied.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @param sources    The index of the source of each edge.
+     * @param targets    The index of the target of each edge.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    GeneratedEdges(final int agentCount, final @NotNull int[] sources, final @NotNull int[] targets) {
+        this.agentCount = agentCount;
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    /**
+     * Get the number of {@link Agent}s.
+     *
+     * @return The number of {@link Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return The number of edges.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getEdgeCount() {
+        return sources.length;
+    }
+
+    /**
+     * Get the index of the source of an edge.
+     *
+     * @param edge The index of the edge.
+     * @return The index of the source.
+     * @throws IndexOutOfBoundsException If there is no edge with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getSource(final int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * Get the index of the target of an edge.
+     *
+     * @param edge The index of the edge.
+     * @return The index of the target.
+     * @throws IndexOutOfBoundsException If there is no edge with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getTarget(final int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Create a {@link CsrSocialNetwork} with these edges.
+     *
+     * @param agents The {@link UUID} of each {@link Agent}, by index.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IllegalArgumentException If the number of {@link UUID}s is not the number of {@link Agent}s, or a
+     *                                  {@link UUID} is given more than once.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull CsrSocialNetwork toCsr(final @NotNull UUID[] agents) {
+        checkAgentCount(agents.length);
+        var weights = new double[sources.length];
+        Arrays.fill(weights, 1.0);
+        return CsrSocialNetwork.of(agents, sources, targets, weights);
+    }
+
+    /**
+     * Add the {@link Agent}s and these edges to a {@link SocialNetwork}.
+     *
+     * @param network The {@link SocialNetwork}.
+     * @param agents  The {@link Agent}s, by index.
+     * @throws IllegalArgumentException If the number of {@link Agent}s is wrong.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void addTo(final @NotNull SocialNetwork network, final @NotNull Agent[] agents) {
+        checkAgentCount(agents.length);
+        for (var agent : agents) {
+            network.addAgent(Objects.requireNonNull(agent));
+        }
+        for (var i = 0; i < sources.length; i++) {
+            network.addEdge(agents[sources[i]], agents[targets[i]], 1.0);
+        }
+    }
+
+    /**
+     * Check that a number of {@link Agent}s is the number that these edges are between.
+     *
+     * @param count The number of {@link Agent}s.
+     * @throws IllegalArgumentException If the number is wrong.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void checkAgentCount(final int count) {
+        if (count != agentCount) {
+            throw new IllegalArgumentException(String.format("There are %d agents, not %d", agentCount, count));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedEdges{" +
+                "agentCount=" + agentCount +
+                ", edgeCount=" + sources.length +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link SocialNetworkGenerator} generates the edges of a random network.
+ * <p>
+ * The same generator with the same seed always generates the same edges, however many threads it uses, so that runs
+ * can be repeated.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public interface SocialNetworkGenerator {
+    /**
+     * Generate the edges of a random network.
+     *
+     * @return The {@link GeneratedEdges}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @NotNull GeneratedEdges generate();
+}
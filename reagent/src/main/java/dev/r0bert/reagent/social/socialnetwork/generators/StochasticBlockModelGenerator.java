@@ -0,0 +1,143 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link StochasticBlockModelGenerator} generates a directed network from a stochastic block model.
+ * <p>
+ * The {@link dev.r0bert.reagent.core.agents.Agent}s are split into blocks of consecutive indices, and each possible
+ * edge between distinct {@link dev.r0bert.reagent.core.agents.Agent}s exists independently with the probability for
+ * the block of its source and the block of its target. As in the {@link ErdosRenyiGenerator}, the candidate targets
+ * in each block are skipped over with geometrically distributed gaps.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class StochasticBlockModelGenerator extends AbstractSocialNetworkGenerator {
+    /**
+     * The index of the first {@link dev.r0bert.reagent.core.agents.Agent} of each block, followed by the number of
+     * {@link dev.r0bert.reagent.core.agents.Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] blockStarts;
+
+    /**
+     * The probability of an edge from each block to each block.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull double[][] probabilities;
+
+    /**
+     * Create a new {@link StochasticBlockModelGenerator}.
+     *
+     * @param blockSizes    The number of {@link dev.r0bert.reagent.core.agents.Agent}s in each block.
+     * @param probabilities The probability of an edge from each block to each block, a square matrix.
+     * @param seed          The seed of the random numbers.
+     * @throws IllegalArgumentException If a block size is negative, the matrix is not square with a row for each
+     *                                  block, or a probability is not between zero and one.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public StochasticBlockModelGenerator(final @NotNull int[] blockSizes, final @NotNull double[][] probabilities,
+                                         final long seed) {
+        super(Arrays.stream(blockSizes).sum(), seed);
+        if (probabilities.length != blockSizes.length) {
+            throw new IllegalArgumentException("There is not a row of probabilities for each block");
+        }
+        this.blockStarts = new int[blockSizes.length + 1];
+        this.probabilities = new double[blockSizes.length][];
+        for (var block = 0; block < blockSizes.length; block++) {
+            if (blockSizes[block] < 0) {
+                throw new IllegalArgumentException("A block size is negative");
+            }
+            if (probabilities[block].length != blockSizes.length) {
+                throw new IllegalArgumentException("The matrix of probabilities is not square");
+            }
+            for (var probability : probabilities[block]) {
+                if (!(probability >= 0.0 && probability <= 1.0)) {
+                    throw new IllegalArgumentException("A probability is not between zero and one");
+                }
+            }
+            blockStarts[block + 1] = blockStarts[block] + blockSizes[block];
+            this.probabilities[block] = probabilities[block].clone();
+        }
+    }
+
+    @Override
+    protected void generateBlock(final int start, final int end, final @NotNull SplittableRandom random,
+                                 final @NotNull EdgeBuffer edges) {
+        var sourceBlock = blockOf(start);
+        for (var source = start; source < end; source++) {
+            while (source >= blockStarts[sourceBlock + 1]) {
+                sourceBlock++;
+            }
+            for (var targetBlock = 0; targetBlock < probabilities.length; targetBlock++) {
+                var probability = probabilities[sourceBlock][targetBlock];
+                if (probability == 0.0) {
+                    continue;
+                }
+                var first = blockStarts[targetBlock];
+                var last = blockStarts[targetBlock + 1];
+                var candidate = first - 1L;
+                while (true) {
+                    candidate += probability == 1.0 ? 1 : 1 + skip(random, probability);
+                    if (candidate < first || candidate >= last) {
+                        break;
+                    }
+                    if (candidate != source) {
+                        edges.add(source, (int) candidate);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the block of an {@link dev.r0bert.reagent.core.agents.Agent}.
+     *
+     * @param agent The index of the {@link dev.r0bert.reagent.core.agents.Agent}.
+     * @return The index of the block.
+     * @throws IndexOutOfBoundsException If there is no {@link dev.r0bert.reagent.core.agents.Agent} with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int blockOf(final int agent) {
+        if (agent < 0 || agent >= getAgentCount()) {
+            throw new IndexOutOfBoundsException(agent);
+        }
+        var index = Arrays.binarySearch(blockStarts, agent);
+        if (index < 0) {
+            return -index - 2;
+        }
+        while (blockStarts[index + 1] == agent) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Get the number of blocks.
+     *
+     * @return The number of blocks.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getBlockCount() {
+        return probabilities.length;
+    }
+
+    @Override
+    public String toString() {
+        return "StochasticBlockModelGenerator{" +
+                "agentCount=" + getAgentCount() +
+                ", blockCount=" + probabilities.length +
+                ", seed=" + getSeed() +
+                '}';
+    }
+}
@@ -0,0 +1,136 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link WattsStrogatzGenerator} generates a directed Watts-Strogatz small-world network.
+ * <p>
+ * The {@link dev.r0bert.reagent.core.agents.Agent}s are placed on a ring, and each has edges to the
+ * {@code neighbourCount / 2} {@link dev.r0bert.reagent.core.agents.Agent}s on either side of it. Each of these edges is
+ * then rewired, with the rewiring probability, to a uniformly random target that is not the source and not already a
+ * target of the source. As only the outgoing edges of a source are rewired, the sources are independent and are
+ * generated in parallel.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class WattsStrogatzGenerator extends AbstractSocialNetworkGenerator {
+    /**
+     * The number of outgoing edges of each {@link dev.r0bert.reagent.core.agents.Agent}.
+     *
+     * @since v0.0.2
+     */
+    private final int neighbourCount;
+
+    /**
+     * The probability that each edge is rewired.
+     *
+     * @since v0.0.2
+     */
+    private final double rewiringProbability;
+
+    /**
+     * Create a new {@link WattsStrogatzGenerator}.
+     *
+     * @param agentCount          The number of {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @param neighbourCount      The number of outgoing edges of each {@link dev.r0bert.reagent.core.agents.Agent},
+     *                            which must be even and less than the number of
+     *                            {@link dev.r0bert.reagent.core.agents.Agent}s.
+     * @param rewiringProbability The probability that each edge is rewired.
+     * @param seed                The seed of the random numbers.
+     * @throws IllegalArgumentException If an argument is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public WattsStrogatzGenerator(final int agentCount, final int neighbourCount, final double rewiringProbability,
+                                  final long seed) {
+        super(agentCount, seed);
+        if (neighbourCount < 0 || neighbourCount % 2 != 0 || (agentCount > 0 && neighbourCount >= agentCount)) {
+            throw new IllegalArgumentException("The neighbour count is not even and less than the agent count");
+        }
+        if (!(rewiringProbability >= 0.0 && rewiringProbability <= 1.0)) {
+            throw new IllegalArgumentException("The rewiring probability is not between zero and one");
+        }
+        this.neighbourCount = neighbourCount;
+        this.rewiringProbability = rewiringProbability;
+    }
+
+    @Override
+    protected void generateBlock(final int start, final int end, final @NotNull SplittableRandom random,
+                                 final @NotNull EdgeBuffer edges) {
+        var agentCount = getAgentCount();
+        var lattice = new int[neighbourCount];
+        for (var source = start; source < end; source++) {
+            for (var offset = 1; offset <= neighbourCount / 2; offset++) {
+                lattice[2 * offset - 2] = (source + offset) % agentCount;
+                lattice[2 * offset - 1] = (source - offset + agentCount) % agentCount;
+            }
+            var rowStart = edges.size();
+            for (var i = 0; i < neighbourCount; i++) {
+                var target = lattice[i];
+                if (random.nextDouble() < rewiringProbability) {
+                    do {
+                        target = random.nextInt(agentCount);
+                    } while (target == source || edges.containsTargetSince(rowStart, target)
+                            || isLaterLatticeTarget(lattice, i, target));
+                }
+                edges.add(source, target);
+            }
+        }
+    }
+
+    /**
+     * Check whether a target is one of the lattice targets that have not been added yet, so that rewiring never
+     * creates a duplicate edge.
+     *
+     * @param lattice The lattice targets of the source.
+     * @param index   The index of the lattice target that is being rewired.
+     * @param target  The index of the target.
+     * @return True if the target is a later lattice target.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static boolean isLaterLatticeTarget(final @NotNull int[] lattice, final int index, final int target) {
+        for (var i = index + 1; i < lattice.length; i++) {
+            if (lattice[i] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of outgoing edges of each {@link dev.r0bert.reagent.core.agents.Agent}.
+     *
+     * @return The number of outgoing edges.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getNeighbourCount() {
+        return neighbourCount;
+    }
+
+    /**
+     * Get the probability that each edge is rewired.
+     *
+     * @return The probability.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getRewiringProbability() {
+        return rewiringProbability;
+    }
+
+    @Override
+    public String toString() {
+        return "WattsStrogatzGenerator{" +
+                "agentCount=" + getAgentCount() +
+                ", neighbourCount=" + neighbourCount +
+                ", rewiringProbability=" + rewiringProbability +
+                ", seed=" + getSeed() +
+                '}';
+    }
+}
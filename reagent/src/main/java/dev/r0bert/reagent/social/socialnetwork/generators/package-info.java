@@ -0,0 +1,7 @@
+/**
+ * This package contains generators of random {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork}s.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.generators;
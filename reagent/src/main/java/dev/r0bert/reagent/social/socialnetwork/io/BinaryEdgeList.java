@@ -0,0 +1,273 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A {@link BinaryEdgeList} reads and writes a {@link SocialNetwork} as a compact binary edge list.
+ * <p>
+ * The file is a header, the {@link UUID} of each {@link Agent} by index, and then each edge as the index of its
+ * source, the index of its target and its weight, all in big-endian order. Every edge takes {@link #EDGE_SIZE} bytes,
+ * so a file can be split into ranges of edges without scanning it, and each range is read in parallel straight into
+ * the arrays that a {@link CsrSocialNetwork} is built from.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class BinaryEdgeList {
+    /**
+     * The value that every file starts with.
+     *
+     * @since v0.0.2
+     */
+    static final long MAGIC = 0x5245414745444745L;
+
+    /**
+     * The version of the format of the file.
+     *
+     * @since v0.0.2
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of bytes in the header of the file.
+     *
+     * @since v0.0.2
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * The number of bytes of each {@link Agent}.
+     *
+     * @since v0.0.2
+     */
+    static final int AGENT_SIZE = 2 * Long.BYTES;
+
+    /**
+     * The number of bytes of each edge.
+     *
+     * @since v0.0.2
+     */
+    static final int EDGE_SIZE = 2 * Integer.BYTES + Double.BYTES;
+
+    /**
+     * The largest number of bytes that are mapped at once.
+     *
+     * @since v0.0.2
+     */
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    /**
+     * This class is not instantiated.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private BinaryEdgeList() {
+    }
+
+    /**
+     * Write an {@link IndexedSocialNetwork} to a file, replacing the file if it exists.
+     * The network is written to a temporary file in the same directory, which is then moved over the file, so the file
+     * is never left half-written.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @param path    The {@link Path} of the file.
+     * @throws IOException If the file could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static void write(final @NotNull IndexedSocialNetwork network, final @NotNull Path path) throws IOException {
+        var directory = path.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new BinaryOutput(temporary)) {
+                output.writeLong(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(network.getAgentCount());
+                output.writeLong(network.getEdgeCount());
+                for (var index = 0; index < network.getAgentCount(); index++) {
+                    output.writeUUID(network.getUUID(index));
+                }
+                for (var index = 0; index < network.getAgentCount(); index++) {
+                    var end = network.getEdgeEnd(index);
+                    for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+                        output.writeInt(index);
+                        output.writeInt(network.getTarget(edge));
+                        output.writeDouble(network.getEdgeWeight(edge));
+                    }
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Read a file into a {@link CsrSocialNetwork} on the calling thread.
+     *
+     * @param path The {@link Path} of the file.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IOException If the file could not be read, or is not a binary edge list.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull CsrSocialNetwork read(final @NotNull Path path) throws IOException {
+        return read(path, Runnable::run, 1);
+    }
+
+    /**
+     * Read a file into a {@link CsrSocialNetwork}, reading ranges of edges in parallel on an {@link Executor}.
+     *
+     * @param path       The {@link Path} of the file.
+     * @param executor   The {@link Executor} to read the ranges on.
+     * @param chunkCount The number of ranges to split the edges into.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IOException              If the file could not be read, or is not a binary edge list.
+     * @throws IllegalArgumentException If the chunk count is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull CsrSocialNetwork read(final @NotNull Path path, final @NotNull Executor executor,
+                                                 final int chunkCount) throws IOException {
+        if (chunkCount <= 0) {
+            throw new IllegalArgumentException("The chunk count is not positive");
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var agents = readAgents(channel);
+            var edgeCount = (channel.size() - HEADER_SIZE - (long) AGENT_SIZE * agents.length) / EDGE_SIZE;
+            if (edgeCount > Integer.MAX_VALUE - 8) {
+                throw new IOException("The edge list has too many edges for a CsrSocialNetwork");
+            }
+
+            var sources = new int[(int) edgeCount];
+            var targets = new int[sources.length];
+            var weights = new double[sources.length];
+            var edgesPosition = HEADER_SIZE + (long) AGENT_SIZE * agents.length;
+            var count = (int) Math.max(chunkCount, edgeCount * EDGE_SIZE / CHUNK_SIZE + 1);
+            var tasks = new Runnable[count];
+            for (var i = 0; i < count; i++) {
+                var start = (int) (edgeCount * i / count);
+                var end = (int) (edgeCount * (i + 1) / count);
+                tasks[i] = () -> {
+                    try {
+                        var buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                edgesPosition + (long) EDGE_SIZE * start, (long) EDGE_SIZE * (end - start));
+                        for (var edge = start; edge < end; edge++) {
+                            var source = buffer.getInt();
+                            var target = buffer.getInt();
+                            if (source < 0 || source >= agents.length || target < 0 || target >= agents.length) {
+                                throw new IOException("The edge list is corrupt");
+                            }
+                            sources[edge] = source;
+                            targets[edge] = target;
+                            weights[edge] = buffer.getDouble();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            }
+            ParallelTasks.run(tasks, executor);
+            return CsrSocialNetwork.of(agents, sources, targets, weights);
+        }
+    }
+
+    /**
+     * Read a file into a {@link SocialNetwork}, adding each {@link Agent} and then each edge on the calling thread.
+     *
+     * @param path    The {@link Path} of the file.
+     * @param agents  The function that gets the {@link Agent} with a {@link UUID}.
+     * @param network The {@link SocialNetwork} to add the {@link Agent}s and edges to.
+     * @throws IOException If the file could not be read, or is not a binary edge list.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static void readInto(final @NotNull Path path, final @NotNull Function<UUID, ? extends Agent> agents,
+                                final @NotNull SocialNetwork network) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var uuids = readAgents(channel);
+            var resolved = new Agent[uuids.length];
+            for (var i = 0; i < uuids.length; i++) {
+                resolved[i] = agents.apply(uuids[i]);
+                network.addAgent(resolved[i]);
+            }
+
+            var position = HEADER_SIZE + (long) AGENT_SIZE * uuids.length;
+            var size = channel.size();
+            while (position < size) {
+                var length = Math.min(CHUNK_SIZE, size - position);
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                while (buffer.hasRemaining()) {
+                    var source = buffer.getInt();
+                    var target = buffer.getInt();
+                    if (source < 0 || source >= uuids.length || target < 0 || target >= uuids.length) {
+                        throw new IOException("The edge list is corrupt");
+                    }
+                    network.addEdge(resolved[source], resolved[target], buffer.getDouble());
+                }
+                position += length;
+            }
+        }
+    }
+
+    /**
+     * Read the header and the {@link UUID}s of the {@link Agent}s of a file, and check its size.
+     *
+     * @param channel The {@link FileChannel} of the file.
+     * @return The {@link UUID} of each {@link Agent}, by index.
+     * @throws IOException If the file could not be read, or is not a binary edge list.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull UUID[] readAgents(final @NotNull FileChannel channel) throws IOException {
+        var size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new IOException("The file is not a binary edge list");
+        }
+        var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getLong() != MAGIC) {
+            throw new IOException("The file is not a binary edge list");
+        }
+        var version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("The binary edge list version %d is not supported", version));
+        }
+        var agentCount = header.getInt();
+        var edgeCount = header.getLong();
+        if (agentCount < 0 || edgeCount < 0
+                || size != HEADER_SIZE + (long) AGENT_SIZE * agentCount + EDGE_SIZE * edgeCount) {
+            throw new IOException("The edge list is corrupt");
+        }
+
+        var agents = new UUID[agentCount];
+        var index = 0;
+        var position = (long) HEADER_SIZE;
+        while (index < agentCount) {
+            var count = (int) Math.min(agentCount - index, CHUNK_SIZE / AGENT_SIZE);
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) AGENT_SIZE * count);
+            for (var i = 0; i < count; i++) {
+                var mostSignificantBits = buffer.getLong();
+                agents[index++] = new UUID(mostSignificantBits, buffer.getLong());
+            }
+            position += (long) AGENT_SIZE * count;
+        }
+        return agents;
+    }
+}
@@ -0,0 +1,195 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * A {@link BinaryOutput} writes primitive values to a file in big-endian order.
+ * <p>
+ * Values are written into a direct {@link ByteBuffer}, which is written to a {@link FileChannel} whenever it fills,
+ * so no stream or object is allocated per value. A {@link BinaryOutput} keeps count of the bytes that it has written,
+ * so that a format can align its values with {@link #pad(long)}. It is not thread-safe.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class BinaryOutput implements Closeable {
+    /**
+     * The number of bytes that are buffered before they are written to the file.
+     *
+     * @since v0.0.2
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The {@link FileChannel} that the file is written to.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * The buffer of bytes that have not yet been written to the file.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * The number of bytes that have been written, including those in the buffer.
+     *
+     * @since v0.0.2
+     */
+    private long position = 0;
+
+    /**
+     * Create a new {@link BinaryOutput}, replacing the file if it exists.
+     *
+     * @param path The {@link Path} of the file.
+     * @throws IOException If the file could not be opened.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public BinaryOutput(final @NotNull Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Make sure that there is room in the buffer for a number of bytes, writing it to the file if there is not.
+     *
+     * @param bytes The number of bytes.
+     * @throws IOException If the buffer could not be written to the file.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void ensureRemaining(final int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        position += bytes;
+    }
+
+    /**
+     * Write the buffer to the file.
+     *
+     * @throws IOException If the buffer could not be written to the file.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Get the number of bytes that have been written.
+     *
+     * @return The number of bytes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Write an int.
+     *
+     * @param value The int.
+     * @throws IOException If the int could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeInt(final int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Write a long.
+     *
+     * @param value The long.
+     * @throws IOException If the long could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeLong(final long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Write a double.
+     *
+     * @param value The double.
+     * @throws IOException If the double could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeDouble(final double value) throws IOException {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Write a {@link UUID}, as its most significant bits followed by its least significant bits.
+     *
+     * @param value The {@link UUID}.
+     * @throws IOException If the {@link UUID} could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void writeUUID(final @NotNull UUID value) throws IOException {
+        writeLong(value.getMostSignificantBits());
+        writeLong(value.getLeastSignificantBits());
+    }
+
+    /**
+     * Write zero bytes up to a position.
+     *
+     * @param target The position.
+     * @throws IOException If the bytes could not be written.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void pad(final long target) throws IOException {
+        while (position < target) {
+            ensureRemaining(Byte.BYTES);
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Write the rest of the buffer to the file, force it to the storage device, and close the file.
+     *
+     * @throws IOException If the file could not be written to or closed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryOutput{" +
+                "position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,517 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An {@link EdgeListReader} reads a {@link SocialNetwork} from a delimited text file, such as a CSV or TSV file, with
+ * one edge per line.
+ * <p>
+ * Each line is the external id of the source, the delimiter, the external id of the target, and optionally the
+ * delimiter and the weight, which is 1.0 if it is missing. Empty lines are skipped, and the first line is skipped if
+ * the file has a header. Fields are not quoted or trimmed.
+ * </p>
+ * <p>
+ * The file is memory-mapped and split into chunks at line boundaries, and the chunks are parsed in parallel on an
+ * {@link Executor}. Each external id is mapped once, however many edges it is in, and is given a dense {@code int}
+ * index as it is mapped, so each chunk collects its edges into primitive arrays of indices. A
+ * {@link CsrSocialNetwork} is then filled from those arrays in parallel, with each {@link Agent} indexed in the order
+ * that it first appears in the file, so the index of each {@link Agent} does not depend on the number of chunks.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public class EdgeListReader {
+    /**
+     * The largest number of bytes in a chunk.
+     *
+     * @since v0.0.2
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * The character that separates the fields of a line.
+     *
+     * @since v0.0.2
+     */
+    private final char delimiter;
+
+    /**
+     * Whether the first line of the file is a header.
+     *
+     * @since v0.0.2
+     */
+    private final boolean header;
+
+    /**
+     * The {@link Executor} that chunks are parsed on.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The number of chunks that the file is split into.
+     *
+     * @since v0.0.2
+     */
+    private final int chunkCount;
+
+    /**
+     * Create a new {@link EdgeListReader} that parses the file on the calling thread.
+     *
+     * @param delimiter The character that separates the fields of a line, which must be ASCII.
+     * @param header    Whether the first line of the file is a header.
+     * @throws IllegalArgumentException If the delimiter is not ASCII or is a line break.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public EdgeListReader(final char delimiter, final boolean header) {
+        this(delimiter, header, Runnable::run, 1);
+    }
+
+    /**
+     * Create a new {@link EdgeListReader} that parses chunks of the file in parallel on an {@link Executor}.
+     *
+     * @param delimiter  The character that separates the fields of a line, which must be ASCII.
+     * @param header     Whether the first line of the file is a header.
+     * @param executor   The {@link Executor} to parse chunks on.
+     * @param chunkCount The number of chunks to split the file into.
+     * @throws IllegalArgumentException If the delimiter is not ASCII or is a line break, or the chunk count is not
+     *                                  positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public EdgeListReader(final char delimiter, final boolean header, final @NotNull Executor executor,
+                          final int chunkCount) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("The delimiter is not an ASCII character other than a line break");
+        }
+        if (chunkCount <= 0) {
+            throw new IllegalArgumentException("The chunk count is not positive");
+        }
+        this.delimiter = delimiter;
+        this.header = header;
+        this.executor = executor;
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * Read a file into a {@link CsrSocialNetwork}.
+     *
+     * @param path The {@link Path} of the file.
+     * @param ids  The function that maps an external id to the {@link UUID} of an {@link Agent}. It is called once
+     *             per external id, possibly from many threads at once.
+     * @return The {@link CsrSocialNetwork}.
+     * @throws IOException              If the file could not be read, a line is malformed, or there are too many
+     *                                  edges for a {@link CsrSocialNetwork}.
+     * @throws IllegalArgumentException If two external ids are mapped to the same {@link UUID}.
+     * @throws IllegalStateException    If the same edge is in the file more than once.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull CsrSocialNetwork read(final @NotNull Path path, final @NotNull Function<String, UUID> ids)
+            throws IOException {
+        var parsed = parse(path, ids);
+        var chunks = parsed.chunks();
+
+        var indices = new int[parsed.values().length];
+        Arrays.fill(indices, -1);
+        var agentCount = 0;
+        var edgeCount = 0L;
+        for (var chunk : chunks) {
+            for (var i = 0; i < chunk.size; i++) {
+                if (indices[chunk.sources[i]] < 0) {
+                    indices[chunk.sources[i]] = agentCount++;
+                }
+                if (indices[chunk.targets[i]] < 0) {
+                    indices[chunk.targets[i]] = agentCount++;
+                }
+            }
+            edgeCount += chunk.size;
+        }
+        if (edgeCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("The edge list has too many edges for a CsrSocialNetwork");
+        }
+        var agents = new UUID[agentCount];
+        for (var id = 0; id < indices.length; id++) {
+            if (indices[id] >= 0) {
+                agents[indices[id]] = (UUID) parsed.values()[id];
+            }
+        }
+
+        var sources = new int[(int) edgeCount];
+        var targets = new int[sources.length];
+        var weights = new double[sources.length];
+        var tasks = new Runnable[chunks.length];
+        var offset = 0;
+        for (var c = 0; c < chunks.length; c++) {
+            var chunk = chunks[c];
+            var start = offset;
+            tasks[c] = () -> {
+                for (var i = 0; i < chunk.size; i++) {
+                    sources[start + i] = indices[chunk.sources[i]];
+                    targets[start + i] = indices[chunk.targets[i]];
+                }
+                System.arraycopy(chunk.weights, 0, weights, start, chunk.size);
+            };
+            offset += chunk.size;
+        }
+        ParallelTasks.run(tasks, executor);
+        return CsrSocialNetwork.of(agents, sources, targets, weights);
+    }
+
+    /**
+     * Read a file into a {@link SocialNetwork}.
+     * Each {@link Agent} is added to the network before its first edge, and the edges are added on the calling thread,
+     * as a {@link SocialNetwork} need not be thread-safe.
+     *
+     * @param path    The {@link Path} of the file.
+     * @param agents  The function that maps an external id to an {@link Agent}. It is called once per external id,
+     *                possibly from many threads at once.
+     * @param network The {@link SocialNetwork} to add the {@link Agent}s and edges to.
+     * @throws IOException If the file could not be read, or a line is malformed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void readInto(final @NotNull Path path, final @NotNull Function<String, ? extends Agent> agents,
+                         final @NotNull SocialNetwork network) throws IOException {
+        var parsed = parse(path, agents);
+        var values = parsed.values();
+        var seen = new boolean[values.length];
+        var added = Collections.newSetFromMap(new IdentityHashMap<Agent, Boolean>());
+        for (var chunk : parsed.chunks()) {
+            for (var i = 0; i < chunk.size; i++) {
+                var source = (Agent) values[chunk.sources[i]];
+                var target = (Agent) values[chunk.targets[i]];
+                if (!seen[chunk.sources[i]]) {
+                    seen[chunk.sources[i]] = true;
+                    if (added.add(source)) {
+                        network.addAgent(source);
+                    }
+                }
+                if (!seen[chunk.targets[i]]) {
+                    seen[chunk.targets[i]] = true;
+                    if (added.add(target)) {
+                        network.addAgent(target);
+                    }
+                }
+                network.addEdge(source, target, chunk.weights[i]);
+            }
+        }
+    }
+
+    /**
+     * Parse the chunks of a file in parallel, giving each external id an index as it is mapped.
+     * The indices are dense, but depend on the order that the chunks are parsed in.
+     *
+     * @param path   The {@link Path} of the file.
+     * @param mapper The function that maps an external id to its value.
+     * @return The edges of each chunk, in the order of the file, and the value of each index.
+     * @throws IOException If the file could not be read, or a line is malformed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull ParsedEdges parse(final @NotNull Path path, final @NotNull Function<String, ?> mapper)
+            throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var boundaries = split(channel);
+            var cache = new ConcurrentHashMap<String, MappedId>();
+            var nextIndex = new AtomicInteger();
+            var chunks = new Chunk[boundaries.length - 1];
+            var tasks = new Runnable[chunks.length];
+            for (var i = 0; i < chunks.length; i++) {
+                var index = i;
+                chunks[i] = new Chunk();
+                tasks[i] = () -> {
+                    try {
+                        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, boundaries[index],
+                                boundaries[index + 1] - boundaries[index]);
+                        parseChunk(buffer, boundaries[index], header && index == 0,
+                                id -> new MappedId(nextIndex.getAndIncrement(), mapper.apply(id)), cache,
+                                chunks[index]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            }
+            ParallelTasks.run(tasks, executor);
+
+            var values = new Object[nextIndex.get()];
+            for (var mapped : cache.values()) {
+                values[mapped.index()] = mapped.value();
+            }
+            return new ParsedEdges(chunks, values);
+        }
+    }
+
+    /**
+     * Split a file into chunks that start at the beginning of a line.
+     *
+     * @param channel The {@link FileChannel} of the file.
+     * @return The position of the start of each chunk, followed by the size of the file.
+     * @throws IOException If the file could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull long[] split(final @NotNull FileChannel channel) throws IOException {
+        var size = channel.size();
+        var count = (int) Math.max(chunkCount, size / (MAX_CHUNK_SIZE / 2) + 1);
+        var boundaries = new long[count + 1];
+        var scratch = ByteBuffer.allocate(4096);
+        var length = 1;
+        for (var i = 1; i < count; i++) {
+            var position = Math.max(boundaries[length - 1], size * i / count);
+            position = position == 0 ? 0 : nextLine(channel, position - 1, scratch);
+            if (position > boundaries[length - 1] && position < size) {
+                boundaries[length++] = position;
+            }
+        }
+        boundaries[length++] = size;
+        var result = Arrays.copyOf(boundaries, length);
+        for (var i = 0; i + 1 < result.length; i++) {
+            if (result[i + 1] - result[i] > MAX_CHUNK_SIZE) {
+                throw new IOException("A line of the edge list is too long");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the start of the line after a position.
+     *
+     * @param channel  The {@link FileChannel} of the file.
+     * @param position The position.
+     * @param scratch  A buffer to read into.
+     * @return The position after the first line break at or after the position, or the size of the file.
+     * @throws IOException If the file could not be read.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long nextLine(final @NotNull FileChannel channel, final long position,
+                                 final @NotNull ByteBuffer scratch) throws IOException {
+        var current = position;
+        while (true) {
+            scratch.clear();
+            var read = channel.read(scratch, current);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (var i = 0; i < read; i++) {
+                if (scratch.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+    }
+
+    /**
+     * Parse the lines of a chunk.
+     *
+     * @param buffer     The chunk.
+     * @param offset     The position of the chunk in the file, for error messages.
+     * @param skipHeader Whether to skip the first line.
+     * @param mapper     The function that maps an external id to its {@link MappedId}.
+     * @param cache      The {@link MappedId} of each external id that has been mapped.
+     * @param chunk      The {@link Chunk} to add the edges to.
+     * @throws IOException If a line is malformed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private void parseChunk(final @NotNull MappedByteBuffer buffer, final long offset, final boolean skipHeader,
+                            final @NotNull Function<String, MappedId> mapper,
+                            final @NotNull ConcurrentHashMap<String, MappedId> cache, final @NotNull Chunk chunk)
+            throws IOException {
+        var limit = buffer.limit();
+        var scratch = new byte[64];
+        var fieldStarts = new int[3];
+        var fieldEnds = new int[3];
+        var lineStart = 0;
+        var first = true;
+        while (lineStart < limit) {
+            var lineEnd = lineStart;
+            var fieldCount = 0;
+            var fieldStart = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                if (buffer.get(lineEnd) == delimiter) {
+                    if (fieldCount < 3) {
+                        fieldStarts[fieldCount] = fieldStart;
+                        fieldEnds[fieldCount] = lineEnd;
+                    }
+                    fieldCount++;
+                    fieldStart = lineEnd + 1;
+                }
+                lineEnd++;
+            }
+            var contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (fieldCount < 3) {
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = Math.max(fieldStart, contentEnd);
+            }
+            fieldCount++;
+
+            var skip = first && skipHeader;
+            first = false;
+            if (!skip && contentEnd > lineStart) {
+                if (fieldCount < 2 || fieldCount > 3 || fieldEnds[0] == fieldStarts[0]
+                        || fieldEnds[1] == fieldStarts[1]) {
+                    throw new IOException(String.format("The line at byte %d is malformed", offset + lineStart));
+                }
+                if (fieldEnds[0] - fieldStarts[0] > scratch.length || fieldEnds[1] - fieldStarts[1] > scratch.length) {
+                    scratch = new byte[Math.max(fieldEnds[0] - fieldStarts[0], fieldEnds[1] - fieldStarts[1])];
+                }
+                var source = map(buffer, fieldStarts[0], fieldEnds[0], scratch, mapper, cache);
+                var target = map(buffer, fieldStarts[1], fieldEnds[1], scratch, mapper, cache);
+                var weight = 1.0;
+                if (fieldCount == 3) {
+                    var length = fieldEnds[2] - fieldStarts[2];
+                    if (length > scratch.length) {
+                        scratch = new byte[length];
+                    }
+                    buffer.get(fieldStarts[2], scratch, 0, length);
+                    try {
+                        weight = Double.parseDouble(new String(scratch, 0, length, StandardCharsets.US_ASCII));
+                    } catch (NumberFormatException e) {
+                        throw new IOException(String.format("The line at byte %d has a malformed weight",
+                                offset + lineStart), e);
+                    }
+                }
+                chunk.add(source, target, weight);
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Map an external id to its index, mapping each external id only once.
+     *
+     * @param buffer  The chunk that holds the external id.
+     * @param start   The position of the external id in the chunk.
+     * @param end     The position after the external id in the chunk.
+     * @param scratch A buffer to copy the external id into, at least as long as the external id.
+     * @param mapper  The function that maps an external id to its {@link MappedId}.
+     * @param cache   The {@link MappedId} of each external id that has been mapped.
+     * @return The index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static int map(final @NotNull MappedByteBuffer buffer, final int start, final int end,
+                           final @NotNull byte[] scratch, final @NotNull Function<String, MappedId> mapper,
+                           final @NotNull ConcurrentHashMap<String, MappedId> cache) {
+        buffer.get(start, scratch, 0, end - start);
+        var id = new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+        var mapped = cache.get(id);
+        if (mapped == null) {
+            mapped = cache.computeIfAbsent(id, mapper);
+        }
+        return mapped.index();
+    }
+
+    @Override
+    public String toString() {
+        return "EdgeListReader{" +
+                "delimiter=" + delimiter +
+                ", header=" + header +
+                ", chunkCount=" + chunkCount +
+                '}';
+    }
+
+    /**
+     * The index that an external id was given when it was mapped, and the value that it was mapped to.
+     *
+     * @param index The index.
+     * @param value The value.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record MappedId(int index, @NotNull Object value) {
+    }
+
+    /**
+     * The edges of each chunk of a file, and the value of each index that they refer to.
+     *
+     * @param chunks The edges of each chunk, in the order of the file.
+     * @param values The value of each index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record ParsedEdges(@NotNull Chunk[] chunks, @NotNull Object[] values) {
+    }
+
+    /**
+     * The edges of one chunk of a file, in primitive arrays that grow as edges are added.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static final class Chunk {
+        /**
+         * The index of the source of each edge.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] sources = new int[1024];
+
+        /**
+         * The index of the target of each edge.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull int[] targets = new int[1024];
+
+        /**
+         * The weight of each edge.
+         *
+         * @since v0.0.2
+         */
+        private @NotNull double[] weights = new double[1024];
+
+        /**
+         * The number of edges.
+         *
+         * @since v0.0.2
+         */
+        private int size = 0;
+
+        /**
+         * Add an edge.
+         *
+         * @param source The index of the source of the edge.
+         * @param target The index of the target of the edge.
+         * @param weight The weight of the edge.
+         * @author Robert Greener
+         * @since v0.0.2
+         */
+        private void add(final int source, final int target, final double weight) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            weights[size++] = weight;
+        }
+    }
+}
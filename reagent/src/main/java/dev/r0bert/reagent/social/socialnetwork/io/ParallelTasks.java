@@ -0,0 +1,55 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The tasks of a reader that are run in parallel on an {@link Executor}.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+final class ParallelTasks {
+    /**
+     * This class is not instantiated.
+     *
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private ParallelTasks() {
+    }
+
+    /**
+     * Run tasks on an {@link Executor} and wait for all of them to finish.
+     * An {@link UncheckedIOException} that is thrown by a task is rethrown as its {@link IOException}.
+     *
+     * @param tasks    The tasks.
+     * @param executor The {@link Executor} to run the tasks on.
+     * @throws IOException If a task throws an {@link UncheckedIOException}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static void run(final @NotNull Runnable[] tasks, final @NotNull Executor executor) throws IOException {
+        var futures = new CompletableFuture<?>[tasks.length];
+        for (var i = 0; i < tasks.length; i++) {
+            futures[i] = CompletableFuture.runAsync(tasks[i], executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
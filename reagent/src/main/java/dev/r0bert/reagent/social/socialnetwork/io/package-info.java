@@ -0,0 +1,8 @@
+/**
+ * This package contains the readers and writers of the file formats of
+ * {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork}s.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.io;
@@ -0,0 +1,698 @@
+package dev.r0bert.reagent.social.socialnetwork.mapped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.socialnetwork.AgentHandles;
+import dev.r0bert.reagent.social.socialnetwork.AliasTable;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.io.BinaryOutput;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link MappedSocialNetwork} is a read-only, directed and weighted {@link SocialNetwork} that is stored in a
+ * memory-mapped file.
+ * <p>
+ * The file holds the same compressed sparse row arrays as a
+ * {@link dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork}, with {@code long} offsets so that a network can
+ * have more than {@link Integer#MAX_VALUE} edges, and the open-addressing table that maps each {@link UUID} to its
+ * index. Nothing is read when the file is opened except its header, so opening is instant, and the operating system's
+ * page cache holds the parts of the network that are used. The file is mapped in chunks of {@link #CHUNK_SIZE} bytes,
+ * as a {@link MappedByteBuffer} can not be larger than {@link Integer#MAX_VALUE} bytes; every value is aligned to its
+ * size, so no value crosses two chunks.
+ * </p>
+ * <p>
+ * A file is written with {@link #write(IndexedSocialNetwork, Path)} and opened with {@link #open(Path)}. The methods
+ * that would change a {@link MappedSocialNetwork} throw an {@link UnsupportedOperationException}, except that an
+ * {@link Agent} that is already in it can be added again, so that it can be used by a
+ * {@link dev.r0bert.reagent.social.simulationmanager.SocialSimulationManager}. As it is read-only, it is safe to read
+ * from many threads at once.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class MappedSocialNetwork implements IndexedSocialNetwork {
+    /**
+     * The value that every file starts with.
+     *
+     * @since v0.0.2
+     */
+    static final long MAGIC = 0x52454147454E544EL;
+
+    /**
+     * The version of the format of the file.
+     *
+     * @since v0.0.2
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of bytes in the header of the file.
+     *
+     * @since v0.0.2
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * The largest number of {@link Agent}s in a file, so that the lookup table has at most {@code 2^30} slots.
+     *
+     * @since v0.0.2
+     */
+    public static final int MAX_AGENT_COUNT = 1 << 29;
+
+    /**
+     * The number of bytes that are mapped at once.
+     *
+     * @since v0.0.2
+     */
+    static final long CHUNK_SIZE = 1L << 30;
+
+    /**
+     * The number of {@link AliasTable}s that are cached at once.
+     *
+     * @since v0.0.2
+     */
+    static final int ALIAS_TABLE_CACHE_SIZE = 1 << 12;
+
+    /**
+     * The {@link Path} of the file.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull Path path;
+
+    /**
+     * The chunks of the file.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull MappedByteBuffer[] chunks;
+
+    /**
+     * The number of {@link Agent}s.
+     *
+     * @since v0.0.2
+     */
+    private final int agentCount;
+
+    /**
+     * The number of edges.
+     *
+     * @since v0.0.2
+     */
+    private final long edgeCount;
+
+    /**
+     * The number of slots of the lookup table minus one.
+     *
+     * @since v0.0.2
+     */
+    private final int slotMask;
+
+    /**
+     * The position of the lookup table in the file.
+     *
+     * @since v0.0.2
+     */
+    private final long slotsPosition;
+
+    /**
+     * The position of the offsets in the file.
+     *
+     * @since v0.0.2
+     */
+    private final long offsetsPosition;
+
+    /**
+     * The position of the targets in the file.
+     *
+     * @since v0.0.2
+     */
+    private final long targetsPosition;
+
+    /**
+     * The position of the weights in the file.
+     *
+     * @since v0.0.2
+     */
+    private final long weightsPosition;
+
+    /**
+     * The {@link AliasTable}s of the {@link Agent}s that have recently sent sampled messages, in the slot given by the
+     * low bits of their index. As the network may be much larger than the heap, at most
+     * {@link #ALIAS_TABLE_CACHE_SIZE} {@link AliasTable}s are kept, and an {@link AliasTable} is replaced by the next
+     * one built for the same slot. A slot is read and written without synchronisation: a {@link CachedAliasTable} is
+     * immutable, so two threads that race both get a correct {@link AliasTable}, and one of them is kept.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull CachedAliasTable[] aliasTables = new CachedAliasTable[ALIAS_TABLE_CACHE_SIZE];
+
+    /**
+     * The handles of the {@link Agent}s, by index, in the {@link SimulationManager} that messages were last sent with.
+     * This takes four bytes of heap per {@link Agent} once messages have been sent.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull AgentHandles handles;
+
+    /**
+     * Create a new {@link MappedSocialNetwork}.
+     *
+     * @param path       The {@link Path} of the file.
+     * @param chunks     The chunks of the file.
+     * @param agentCount The number of {@link Agent}s.
+     * @param edgeCount  The number of edges.
+     * @param slotCount  The number of slots of the lookup table.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private MappedSocialNetwork(final @NotNull Path path, final @NotNull MappedByteBuffer[] chunks,
+                                final int agentCount, final long edgeCount, final int slotCount) {
+        this.path = path;
+        this.chunks = chunks;
+        this.agentCount = agentCount;
+        this.edgeCount = edgeCount;
+        this.slotMask = slotCount - 1;
+        this.slotsPosition = slotsPosition(agentCount);
+        this.offsetsPosition = offsetsPosition(agentCount, slotCount);
+        this.targetsPosition = targetsPosition(agentCount, slotCount);
+        this.weightsPosition = weightsPosition(agentCount, slotCount, edgeCount);
+        this.handles = new AgentHandles(agentCount);
+    }
+
+    /**
+     * Open a file that was written with {@link #write(IndexedSocialNetwork, Path)}.
+     *
+     * @param path The {@link Path} of the file.
+     * @return The {@link MappedSocialNetwork}.
+     * @throws IOException If the file could not be opened or mapped, or is not a network.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull MappedSocialNetwork open(final @NotNull Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("The file is not a network");
+            }
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException("The file is not a network");
+            }
+            var version = header.getInt(8);
+            if (version != VERSION) {
+                throw new IOException(String.format("The network version %d is not supported", version));
+            }
+            var agentCount = header.getInt(12);
+            var edgeCount = header.getLong(16);
+            var slotCount = header.getInt(24);
+            if (agentCount < 0 || edgeCount < 0 || slotCount <= agentCount || Integer.bitCount(slotCount) != 1
+                    || size != fileSize(agentCount, slotCount, edgeCount)) {
+                throw new IOException("The network is corrupt");
+            }
+
+            var chunks = new MappedByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (var i = 0; i < chunks.length; i++) {
+                var start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+            }
+            return new MappedSocialNetwork(path, chunks, agentCount, edgeCount, slotCount);
+        }
+    }
+
+    /**
+     * Write an {@link IndexedSocialNetwork} to a file that can be opened with {@link #open(Path)}, replacing the file
+     * if it exists.
+     * The network is written to a temporary file in the same directory, which is then moved over the file, so the file
+     * is never left half-written.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @param path    The {@link Path} of the file.
+     * @throws IOException              If the file could not be written.
+     * @throws IllegalArgumentException If the network has more than {@link #MAX_AGENT_COUNT} {@link Agent}s.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static void write(final @NotNull IndexedSocialNetwork network, final @NotNull Path path) throws IOException {
+        var agentCount = network.getAgentCount();
+        if (agentCount > MAX_AGENT_COUNT) {
+            throw new IllegalArgumentException(String.format("A network can not have more than %d agents",
+                    MAX_AGENT_COUNT));
+        }
+        var edgeCount = network.getEdgeCount();
+        var slotCount = slotCount(agentCount);
+
+        var slots = new int[slotCount];
+        for (var index = 0; index < agentCount; index++) {
+            var slot = slotOf(network.getUUID(index), slotCount - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = index + 1;
+        }
+
+        var directory = path.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new BinaryOutput(temporary)) {
+                output.writeLong(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(agentCount);
+                output.writeLong(edgeCount);
+                output.writeInt(slotCount);
+                output.writeInt(0);
+                for (var index = 0; index < agentCount; index++) {
+                    output.writeUUID(network.getUUID(index));
+                }
+                for (var slot : slots) {
+                    output.writeInt(slot);
+                }
+                output.pad(offsetsPosition(agentCount, slotCount));
+                for (var index = 0; index < agentCount; index++) {
+                    output.writeLong(network.getEdgeStart(index));
+                }
+                output.writeLong(edgeCount);
+                for (var edge = 0L; edge < edgeCount; edge++) {
+                    output.writeInt(network.getTarget(edge));
+                }
+                output.pad(weightsPosition(agentCount, slotCount, edgeCount));
+                for (var edge = 0L; edge < edgeCount; edge++) {
+                    output.writeDouble(network.getEdgeWeight(edge));
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Get the number of slots of the lookup table for a number of {@link Agent}s, the smallest power of two that is at
+     * least twice the number of {@link Agent}s.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @return The number of slots.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static int slotCount(final int agentCount) {
+        var slotCount = 2;
+        while (slotCount < 2L * agentCount) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+
+    /**
+     * Get the position of the lookup table in a file.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @return The position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long slotsPosition(final int agentCount) {
+        return HEADER_SIZE + 2L * Long.BYTES * agentCount;
+    }
+
+    /**
+     * Get the position of the offsets in a file.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @param slotCount  The number of slots of the lookup table.
+     * @return The position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long offsetsPosition(final int agentCount, final int slotCount) {
+        return align(slotsPosition(agentCount) + (long) Integer.BYTES * slotCount);
+    }
+
+    /**
+     * Get the position of the targets in a file.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @param slotCount  The number of slots of the lookup table.
+     * @return The position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long targetsPosition(final int agentCount, final int slotCount) {
+        return offsetsPosition(agentCount, slotCount) + (long) Long.BYTES * (agentCount + 1L);
+    }
+
+    /**
+     * Get the position of the weights in a file.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @param slotCount  The number of slots of the lookup table.
+     * @param edgeCount  The number of edges.
+     * @return The position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long weightsPosition(final int agentCount, final int slotCount, final long edgeCount) {
+        return align(targetsPosition(agentCount, slotCount) + Integer.BYTES * edgeCount);
+    }
+
+    /**
+     * Get the size of a file.
+     *
+     * @param agentCount The number of {@link Agent}s.
+     * @param slotCount  The number of slots of the lookup table.
+     * @param edgeCount  The number of edges.
+     * @return The size in bytes.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long fileSize(final int agentCount, final int slotCount, final long edgeCount) {
+        return weightsPosition(agentCount, slotCount, edgeCount) + Double.BYTES * edgeCount;
+    }
+
+    /**
+     * Round a position up to a multiple of eight bytes.
+     *
+     * @param position The position.
+     * @return The rounded position.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static long align(final long position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Get the first slot to probe for a {@link UUID}.
+     * This is part of the format of the file, so it must not change without changing {@link #VERSION}.
+     *
+     * @param uuid The {@link UUID}.
+     * @param mask The number of slots minus one.
+     * @return The slot.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static int slotOf(final @NotNull UUID uuid, final int mask) {
+        return slotOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), mask);
+    }
+
+    /**
+     * Get the first slot to probe for a {@link UUID}.
+     *
+     * @param mostSignificantBits  The most significant bits of the {@link UUID}.
+     * @param leastSignificantBits The least significant bits of the {@link UUID}.
+     * @param mask                 The number of slots minus one.
+     * @return The slot.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static int slotOf(final long mostSignificantBits, final long leastSignificantBits, final int mask) {
+        var hash = (mostSignificantBits ^ leastSignificantBits) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * Read an int from the file.
+     *
+     * @param position The position of the int, a multiple of four.
+     * @return The int.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private int readInt(final long position) {
+        return chunks[(int) (position / CHUNK_SIZE)].getInt((int) (position % CHUNK_SIZE));
+    }
+
+    /**
+     * Read a long from the file.
+     *
+     * @param position The position of the long, a multiple of eight.
+     * @return The long.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private long readLong(final long position) {
+        return chunks[(int) (position / CHUNK_SIZE)].getLong((int) (position % CHUNK_SIZE));
+    }
+
+    /**
+     * Read a double from the file.
+     *
+     * @param position The position of the double, a multiple of eight.
+     * @return The double.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private double readDouble(final long position) {
+        return chunks[(int) (position / CHUNK_SIZE)].getDouble((int) (position % CHUNK_SIZE));
+    }
+
+    @Override
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    @Override
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int indexOf(final @NotNull UUID uuid) {
+        var mostSignificantBits = uuid.getMostSignificantBits();
+        var leastSignificantBits = uuid.getLeastSignificantBits();
+        for (var slot = slotOf(mostSignificantBits, leastSignificantBits, slotMask); ; slot = (slot + 1) & slotMask) {
+            var index = readInt(slotsPosition + (long) Integer.BYTES * slot) - 1;
+            if (index < 0) {
+                return NO_INDEX;
+            }
+            var position = HEADER_SIZE + 2L * Long.BYTES * index;
+            if (readLong(position) == mostSignificantBits && readLong(position + Long.BYTES) == leastSignificantBits) {
+                return index;
+            }
+        }
+    }
+
+    @Override
+    public @NotNull UUID getUUID(final int index) {
+        Objects.checkIndex(index, agentCount);
+        var position = HEADER_SIZE + 2L * Long.BYTES * index;
+        return new UUID(readLong(position), readLong(position + Long.BYTES));
+    }
+
+    @Override
+    public long getEdgeStart(final int index) {
+        Objects.checkIndex(index, agentCount);
+        return readLong(offsetsPosition + (long) Long.BYTES * index);
+    }
+
+    @Override
+    public long getEdgeEnd(final int index) {
+        Objects.checkIndex(index, agentCount);
+        return readLong(offsetsPosition + (long) Long.BYTES * (index + 1L));
+    }
+
+    @Override
+    public int getTarget(final long edge) {
+        Objects.checkIndex(edge, edgeCount);
+        return readInt(targetsPosition + Integer.BYTES * edge);
+    }
+
+    @Override
+    public double getEdgeWeight(final long edge) {
+        Objects.checkIndex(edge, edgeCount);
+        return readDouble(weightsPosition + Double.BYTES * edge);
+    }
+
+    /**
+     * Do nothing if the {@link Agent} is already in this {@link MappedSocialNetwork}, as it is read-only.
+     *
+     * @param agent The {@link Agent} to add to this {@link SocialNetwork}.
+     * @throws UnsupportedOperationException If the {@link Agent} is not in this {@link MappedSocialNetwork}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void addAgent(final @NotNull Agent agent) {
+        if (indexOf(agent.getUUID()) == NO_INDEX) {
+            throw new UnsupportedOperationException("A MappedSocialNetwork is read-only");
+        }
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link MappedSocialNetwork} is read-only.
+     *
+     * @param source The source {@link Agent} of the edge.
+     * @param target The target {@link Agent} of the edge.
+     * @param weight The weight of the edge.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        throw new UnsupportedOperationException("A MappedSocialNetwork is read-only");
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link MappedSocialNetwork} is read-only.
+     *
+     * @param agent The {@link Agent} to remove from this {@link SocialNetwork}.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void removeAgent(final @NotNull Agent agent) {
+        throw new UnsupportedOperationException("A MappedSocialNetwork is read-only");
+    }
+
+    @Override
+    public @Nullable Double getWeight(final @NotNull Agent source, final @NotNull Agent target) {
+        var sourceIndex = indexOf(source.getUUID());
+        var targetIndex = indexOf(target.getUUID());
+        if (sourceIndex == NO_INDEX || targetIndex == NO_INDEX) {
+            return null;
+        }
+        var low = getEdgeStart(sourceIndex);
+        var high = getEdgeEnd(sourceIndex) - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var middleTarget = readInt(targetsPosition + Integer.BYTES * middle);
+            if (middleTarget < targetIndex) {
+                low = middle + 1;
+            } else if (middleTarget > targetIndex) {
+                high = middle - 1;
+            } else {
+                return readDouble(weightsPosition + Double.BYTES * middle);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as a {@link MappedSocialNetwork} is read-only.
+     *
+     * @param source The source {@link Agent} of the edge.
+     * @param target The target {@link Agent} of the edge.
+     * @param weight The weight of the edge.
+     * @throws UnsupportedOperationException Always.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    @Override
+    public void setWeight(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+        throw new UnsupportedOperationException("A MappedSocialNetwork is read-only");
+    }
+
+    @Override
+    public void sendSocialMessages(final @NotNull SimulationManager simulationManager,
+                                   final @NotNull SocialMessageSpecification specification) {
+        var index = indexOf(specification.getSender());
+        if (index == NO_INDEX) {
+            return;
+        }
+        var start = getEdgeStart(index);
+        var degree = Math.toIntExact(getEdgeEnd(index) - start);
+        if (degree == 0) {
+            return;
+        }
+        var destinations = new UUID[degree];
+        var destinationHandles = new int[degree];
+        var weights = new double[degree];
+        for (var i = 0; i < degree; i++) {
+            var target = readInt(targetsPosition + Integer.BYTES * (start + i));
+            destinations[i] = getUUID(target);
+            destinationHandles[i] = handles.get(simulationManager, target, destinations[i]);
+            weights[i] = readDouble(weightsPosition + Double.BYTES * (start + i));
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles, weights));
+    }
+
+    @Override
+    public void sendSampledSocialMessages(final @NotNull SimulationManager simulationManager,
+                                          final @NotNull SocialMessageSpecification specification,
+                                          final int sampleSize, final @NotNull RandomGenerator random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("The sample size is negative");
+        }
+        var index = indexOf(specification.getSender());
+        if (index == NO_INDEX || sampleSize == 0) {
+            return;
+        }
+        var start = getEdgeStart(index);
+        var table = getAliasTable(index, start);
+        if (table.isEmpty()) {
+            return;
+        }
+        var destinations = new UUID[sampleSize];
+        var destinationHandles = new int[sampleSize];
+        var weights = new double[sampleSize];
+        for (var i = 0; i < sampleSize; i++) {
+            var edge = start + table.sample(random);
+            var target = readInt(targetsPosition + Integer.BYTES * edge);
+            destinations[i] = getUUID(target);
+            destinationHandles[i] = handles.get(simulationManager, target, destinations[i]);
+            weights[i] = readDouble(weightsPosition + Double.BYTES * edge);
+        }
+        simulationManager.sendMulticastNow(specification.toMulticastMessage(destinations, destinationHandles, weights));
+    }
+
+    /**
+     * Get the {@link AliasTable} of the edges of an {@link Agent}, building it from the file if it is not cached.
+     *
+     * @param index The index of the {@link Agent}.
+     * @param start The index of the first edge of the {@link Agent}.
+     * @return The {@link AliasTable}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private @NotNull AliasTable getAliasTable(final int index, final long start) {
+        var slot = index & (ALIAS_TABLE_CACHE_SIZE - 1);
+        var cached = aliasTables[slot];
+        if (cached != null && cached.index() == index) {
+            return cached.table();
+        }
+        var weights = new double[Math.toIntExact(getEdgeEnd(index) - start)];
+        for (var i = 0; i < weights.length; i++) {
+            weights[i] = readDouble(weightsPosition + Double.BYTES * (start + i));
+        }
+        var table = new AliasTable(weights, 0, weights.length);
+        aliasTables[slot] = new CachedAliasTable(index, table);
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedSocialNetwork{" +
+                "path=" + path +
+                ", agents=" + agentCount +
+                ", edges=" + edgeCount +
+                '}';
+    }
+
+    /**
+     * An {@link AliasTable} cached for an {@link Agent}.
+     *
+     * @param index The index of the {@link Agent}.
+     * @param table The {@link AliasTable} of the edges of the {@link Agent}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record CachedAliasTable(int index, @NotNull AliasTable table) {
+    }
+}
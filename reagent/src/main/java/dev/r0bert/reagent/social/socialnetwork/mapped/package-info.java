@@ -0,0 +1,8 @@
+/**
+ * This package contains a read-only {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork} that is stored in a
+ * memory-mapped file, for networks that are too large for the heap.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.mapped;
@@ -0,0 +1,344 @@
+package dev.r0bert.reagent.social.socialnetwork.partition;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link LabelPropagationPartitioner} places the {@link Agent}s of an {@link IndexedSocialNetwork} on partitions by
+ * size-constrained label propagation.
+ * <p>
+ * The {@link Agent}s are first split into contiguous ranges of indices of about equal load. Then, in each round, every
+ * {@link Agent} is visited in a random order and moved to the partition that holds the most weight of its edges, in
+ * either direction, as long as that does not push the load of the partition above the mean load times one plus the
+ * imbalance tolerance. So heavy edges, which carry the most
+ * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s, are the first to be kept in a partition.
+ * An {@link Agent} whose edges are split evenly moves only if that makes the partitions more balanced. The rounds stop
+ * when no {@link Agent} moves, or after the maximum number of rounds. A weight that is negative or not a number is
+ * treated as zero.
+ * </p>
+ * <p>
+ * Each round takes time linear in the number of edges, and the same seed always gives the same
+ * {@link SocialNetworkPartitioning}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @see SocialNetworkPartitioning
+ * @since v0.0.2
+ */
+public final class LabelPropagationPartitioner {
+    /**
+     * The {@link Logger} for this class.
+     *
+     * @since v0.0.2
+     */
+    private final static @NotNull Logger logger = LogManager.getLogger(LabelPropagationPartitioner.class);
+
+    /**
+     * The number of partitions.
+     *
+     * @since v0.0.2
+     */
+    private final int partitionCount;
+
+    /**
+     * The seed of the random order that {@link Agent}s are visited in.
+     *
+     * @since v0.0.2
+     */
+    private final long seed;
+
+    /**
+     * The maximum number of rounds.
+     *
+     * @since v0.0.2
+     */
+    private int maximumRounds = 20;
+
+    /**
+     * The fraction that the load of a partition may exceed the mean load by.
+     *
+     * @since v0.0.2
+     */
+    private double imbalanceTolerance = 0.03;
+
+    /**
+     * Create a new {@link LabelPropagationPartitioner}.
+     *
+     * @param partitionCount The number of partitions.
+     * @param seed           The seed of the random order that {@link Agent}s are visited in.
+     * @throws IllegalArgumentException If the number of partitions is not positive.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public LabelPropagationPartitioner(final int partitionCount, final long seed) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partition count is not positive");
+        }
+        this.partitionCount = partitionCount;
+        this.seed = seed;
+    }
+
+    /**
+     * Partition the {@link Agent}s of an {@link IndexedSocialNetwork}.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @return The {@link SocialNetworkPartitioning}.
+     * @throws IllegalArgumentException If the {@link IndexedSocialNetwork} has too many edges to be partitioned.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public @NotNull SocialNetworkPartitioning partition(final @NotNull IndexedSocialNetwork network) {
+        var agentCount = network.getAgentCount();
+        if (network.getEdgeCount() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The social network has too many edges to be partitioned");
+        }
+        var incoming = incomingEdges(network);
+
+        var partitions = new int[agentCount];
+        var loads = new double[partitionCount];
+        var agentLoads = new double[agentCount];
+        var total = 0.0;
+        for (var index = 0; index < agentCount; index++) {
+            agentLoads[index] = loadOf(network, index);
+            total += agentLoads[index];
+        }
+        var prefix = 0.0;
+        for (var index = 0; index < agentCount; index++) {
+            var load = agentLoads[index];
+            var partition = (int) Math.min(partitionCount - 1, (prefix + load / 2) * partitionCount / total);
+            partitions[index] = partition;
+            loads[partition] += load;
+            prefix += load;
+        }
+        var capacity = (1.0 + imbalanceTolerance) * total / partitionCount;
+
+        var random = new SplittableRandom(seed);
+        var order = new int[agentCount];
+        for (var index = 0; index < agentCount; index++) {
+            order[index] = index;
+        }
+        var scores = new double[partitionCount];
+        var isTouched = new boolean[partitionCount];
+        var touched = new int[partitionCount];
+        for (var round = 0; round < maximumRounds; round++) {
+            for (var i = agentCount - 1; i > 0; i--) {
+                var j = random.nextInt(i + 1);
+                var swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+
+            var moved = 0;
+            for (var index : order) {
+                var touchedCount = 0;
+                var end = network.getEdgeEnd(index);
+                for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+                    var partition = partitions[network.getTarget(edge)];
+                    scores[partition] += SocialNetworkPartitioning.weightOf(network, edge);
+                    if (!isTouched[partition]) {
+                        isTouched[partition] = true;
+                        touched[touchedCount++] = partition;
+                    }
+                }
+                for (var edge = incoming.offsets[index]; edge < incoming.offsets[index + 1]; edge++) {
+                    var partition = partitions[incoming.sources[edge]];
+                    scores[partition] += incoming.weights[edge];
+                    if (!isTouched[partition]) {
+                        isTouched[partition] = true;
+                        touched[touchedCount++] = partition;
+                    }
+                }
+
+                var current = partitions[index];
+                var load = agentLoads[index];
+                var best = current;
+                var bestScore = scores[current];
+                var bestLoad = loads[current];
+                for (var i = 0; i < touchedCount; i++) {
+                    var partition = touched[i];
+                    var loadAfter = loads[partition] + load;
+                    if (partition == current || loadAfter > capacity) {
+                        continue;
+                    }
+                    if (scores[partition] > bestScore || scores[partition] == bestScore && loadAfter < bestLoad) {
+                        best = partition;
+                        bestScore = scores[partition];
+                        bestLoad = loadAfter;
+                    }
+                }
+                for (var i = 0; i < touchedCount; i++) {
+                    scores[touched[i]] = 0.0;
+                    isTouched[touched[i]] = false;
+                }
+
+                if (best != current) {
+                    partitions[index] = best;
+                    loads[current] -= load;
+                    loads[best] += load;
+                    moved++;
+                }
+            }
+
+            logger.atDebug().log("Moved {} agents in round {}", moved, round);
+            if (moved == 0) {
+                break;
+            }
+        }
+        return new SocialNetworkPartitioning(network, partitionCount, partitions);
+    }
+
+    /**
+     * Get the load of an {@link Agent}, which is one plus the total weight of its outgoing edges.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @param index   The index of the {@link Agent}.
+     * @return The load.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static double loadOf(final @NotNull IndexedSocialNetwork network, final int index) {
+        var load = 1.0;
+        var end = network.getEdgeEnd(index);
+        for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+            load += SocialNetworkPartitioning.weightOf(network, edge);
+        }
+        return load;
+    }
+
+    /**
+     * Find the incoming edges of every {@link Agent} of an {@link IndexedSocialNetwork}.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @return The {@link IncomingEdges}.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private static @NotNull IncomingEdges incomingEdges(final @NotNull IndexedSocialNetwork network) {
+        var agentCount = network.getAgentCount();
+        var offsets = new int[agentCount + 1];
+        for (var index = 0; index < agentCount; index++) {
+            var end = network.getEdgeEnd(index);
+            for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+                offsets[network.getTarget(edge) + 1]++;
+            }
+        }
+        for (var index = 0; index < agentCount; index++) {
+            offsets[index + 1] += offsets[index];
+        }
+        var positions = new int[agentCount];
+        System.arraycopy(offsets, 0, positions, 0, agentCount);
+        var sources = new int[offsets[agentCount]];
+        var weights = new double[sources.length];
+        for (var index = 0; index < agentCount; index++) {
+            var end = network.getEdgeEnd(index);
+            for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+                var position = positions[network.getTarget(edge)]++;
+                sources[position] = index;
+                weights[position] = SocialNetworkPartitioning.weightOf(network, edge);
+            }
+        }
+        return new IncomingEdges(offsets, sources, weights);
+    }
+
+    /**
+     * Get the number of partitions.
+     *
+     * @return The number of partitions.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Get the seed of the random order that {@link Agent}s are visited in.
+     *
+     * @return The seed.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set the maximum number of rounds of label propagation.
+     *
+     * @param maximumRounds The maximum number of rounds.
+     * @throws IllegalArgumentException If the maximum number of rounds is negative.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setMaximumRounds(final int maximumRounds) {
+        if (maximumRounds < 0) {
+            throw new IllegalArgumentException("The maximum number of rounds is negative");
+        }
+        this.maximumRounds = maximumRounds;
+    }
+
+    /**
+     * Get the maximum number of rounds of label propagation.
+     *
+     * @return The maximum number of rounds.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getMaximumRounds() {
+        return maximumRounds;
+    }
+
+    /**
+     * Set the fraction that the load of a partition may exceed the mean load by.
+     *
+     * @param imbalanceTolerance The imbalance tolerance.
+     * @throws IllegalArgumentException If the imbalance tolerance is negative or not a number.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public void setImbalanceTolerance(final double imbalanceTolerance) {
+        if (!(imbalanceTolerance >= 0.0)) {
+            throw new IllegalArgumentException("The imbalance tolerance is negative");
+        }
+        this.imbalanceTolerance = imbalanceTolerance;
+    }
+
+    /**
+     * Get the fraction that the load of a partition may exceed the mean load by.
+     *
+     * @return The imbalance tolerance.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getImbalanceTolerance() {
+        return imbalanceTolerance;
+    }
+
+    @Override
+    public String toString() {
+        return "LabelPropagationPartitioner{" +
+                "partitionCount=" + partitionCount +
+                ", seed=" + seed +
+                ", maximumRounds=" + maximumRounds +
+                ", imbalanceTolerance=" + imbalanceTolerance +
+                '}';
+    }
+
+    /**
+     * The incoming edges of every {@link Agent} of an {@link IndexedSocialNetwork}.
+     *
+     * @param offsets The offsets of the incoming edges of each {@link Agent}, by index, followed by the number of
+     *                incoming edges.
+     * @param sources The index of the source of each incoming edge.
+     * @param weights The weight of each incoming edge, or zero if it is negative or not a number.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    private record IncomingEdges(@NotNull int[] offsets, @NotNull int[] sources, @NotNull double[] weights) {
+    }
+}
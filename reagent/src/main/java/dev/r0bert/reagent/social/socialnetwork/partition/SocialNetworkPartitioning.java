@@ -0,0 +1,245 @@
+package dev.r0bert.reagent.social.socialnetwork.partition;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.simulationmanager.partition.PartitionAssignment;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A {@link SocialNetworkPartitioning} is a {@link PartitionAssignment} that places each {@link Agent} of an
+ * {@link IndexedSocialNetwork} on a given partition, and measures how good the placement is.
+ * <p>
+ * The load of an {@link Agent} is one plus the total weight of its outgoing edges, as an {@link Agent} costs one event
+ * to run and its {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s are sent in proportion to the
+ * weights of its edges. The edge-cut is the total weight of the edges whose source and target are on different
+ * partitions, which is the weight of the messages that cross partitions when every {@link Agent} fans out once. The
+ * imbalance is the load of the heaviest partition over the mean load of a partition, minus one. A weight that is
+ * negative or not a number is treated as zero.
+ * </p>
+ * <p>
+ * An {@link Agent} that is not in the {@link IndexedSocialNetwork} is placed by the hash of its {@link UUID}, as by a
+ * {@link dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment}.
+ * </p>
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+public final class SocialNetworkPartitioning implements PartitionAssignment {
+    /**
+     * The {@link IndexedSocialNetwork} that is partitioned.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull IndexedSocialNetwork network;
+
+    /**
+     * The number of partitions.
+     *
+     * @since v0.0.2
+     */
+    private final int partitionCount;
+
+    /**
+     * The partition of each {@link Agent}, by index.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] partitions;
+
+    /**
+     * The number of {@link Agent}s on each partition.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull int[] sizes;
+
+    /**
+     * The load of each partition.
+     *
+     * @since v0.0.2
+     */
+    private final @NotNull double[] loads;
+
+    /**
+     * The total weight of the edges between partitions.
+     *
+     * @since v0.0.2
+     */
+    private final double edgeCut;
+
+    /**
+     * Create a new {@link SocialNetworkPartitioning}.
+     *
+     * @param network        The {@link IndexedSocialNetwork} that is partitioned.
+     * @param partitionCount The number of partitions.
+     * @param partitions     The partition of each {@link Agent}, by index, which is copied.
+     * @throws IllegalArgumentException If the number of partitions is not positive, there is not one partition per
+     *                                  {@link Agent}, or a partition is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public SocialNetworkPartitioning(final @NotNull IndexedSocialNetwork network, final int partitionCount,
+                                     final @NotNull int[] partitions) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partition count is not positive");
+        }
+        if (partitions.length != network.getAgentCount()) {
+            throw new IllegalArgumentException("There is not one partition per agent");
+        }
+        this.network = network;
+        this.partitionCount = partitionCount;
+        this.partitions = partitions.clone();
+        this.sizes = new int[partitionCount];
+        this.loads = new double[partitionCount];
+
+        var cut = 0.0;
+        for (var index = 0; index < this.partitions.length; index++) {
+            var partition = this.partitions[index];
+            if (partition < 0 || partition >= partitionCount) {
+                throw new IllegalArgumentException(String.format("The partition %d is out of range", partition));
+            }
+            var end = network.getEdgeEnd(index);
+            sizes[partition]++;
+            loads[partition] += 1.0;
+            for (var edge = network.getEdgeStart(index); edge < end; edge++) {
+                var weight = weightOf(network, edge);
+                loads[partition] += weight;
+                if (this.partitions[network.getTarget(edge)] != partition) {
+                    cut += weight;
+                }
+            }
+        }
+        this.edgeCut = cut;
+    }
+
+    /**
+     * Get the weight of an edge, as it counts towards the load and the edge-cut.
+     *
+     * @param network The {@link IndexedSocialNetwork}.
+     * @param edge    The position of the edge.
+     * @return The weight of the edge, or zero if it is negative or not a number.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    static double weightOf(final @NotNull IndexedSocialNetwork network, final long edge) {
+        var weight = network.getEdgeWeight(edge);
+        return weight > 0.0 ? weight : 0.0;
+    }
+
+    /**
+     * Measure how a {@link PartitionAssignment} places the {@link Agent}s of an {@link IndexedSocialNetwork}.
+     *
+     * @param network    The {@link IndexedSocialNetwork}.
+     * @param assignment The {@link PartitionAssignment}.
+     * @return The {@link SocialNetworkPartitioning} with the same placement as the {@link PartitionAssignment}.
+     * @throws IllegalArgumentException If the {@link PartitionAssignment} returns a partition that is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public static @NotNull SocialNetworkPartitioning of(final @NotNull IndexedSocialNetwork network,
+                                                        final @NotNull PartitionAssignment assignment) {
+        var partitions = new int[network.getAgentCount()];
+        for (var index = 0; index < partitions.length; index++) {
+            partitions[index] = assignment.getPartition(network.getUUID(index));
+        }
+        return new SocialNetworkPartitioning(network, assignment.getPartitionCount(), partitions);
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    @Override
+    public int getPartition(final @NotNull UUID agent) {
+        var index = network.indexOf(agent);
+        if (index == IndexedSocialNetwork.NO_INDEX) {
+            return Math.floorMod(agent.hashCode(), partitionCount);
+        }
+        return partitions[index];
+    }
+
+    /**
+     * Get the partition of an {@link Agent} by index.
+     *
+     * @param index The index of the {@link Agent} in the {@link IndexedSocialNetwork}.
+     * @return The partition.
+     * @throws IndexOutOfBoundsException If there is no {@link Agent} with the index.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getPartitionOf(final int index) {
+        return partitions[Objects.checkIndex(index, partitions.length)];
+    }
+
+    /**
+     * Get the number of {@link Agent}s on a partition.
+     *
+     * @param partition The partition.
+     * @return The number of {@link Agent}s.
+     * @throws IndexOutOfBoundsException If the partition is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public int getSize(final int partition) {
+        return sizes[Objects.checkIndex(partition, partitionCount)];
+    }
+
+    /**
+     * Get the load of a partition, which is the number of {@link Agent}s on it plus the total weight of their outgoing
+     * edges.
+     *
+     * @param partition The partition.
+     * @return The load.
+     * @throws IndexOutOfBoundsException If the partition is out of range.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getLoad(final int partition) {
+        return loads[Objects.checkIndex(partition, partitionCount)];
+    }
+
+    /**
+     * Get the total weight of the edges whose source and target are on different partitions.
+     *
+     * @return The edge-cut.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getEdgeCut() {
+        return edgeCut;
+    }
+
+    /**
+     * Get the imbalance, which is the load of the heaviest partition over the mean load of a partition, minus one.
+     * A perfectly balanced placement has an imbalance of zero.
+     *
+     * @return The imbalance.
+     * @author Robert Greener
+     * @since v0.0.2
+     */
+    public double getImbalance() {
+        var total = 0.0;
+        var maximum = 0.0;
+        for (var load : loads) {
+            total += load;
+            maximum = Math.max(maximum, load);
+        }
+        if (total == 0.0) {
+            return 0.0;
+        }
+        return maximum * partitionCount / total - 1.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SocialNetworkPartitioning{" +
+                "partitionCount=" + partitionCount +
+                ", edgeCut=" + edgeCut +
+                ", imbalance=" + getImbalance() +
+                '}';
+    }
+}
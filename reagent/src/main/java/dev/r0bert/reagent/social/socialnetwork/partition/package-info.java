@@ -0,0 +1,9 @@
+/**
+ * This package contains the partitioners that place the {@link dev.r0bert.reagent.core.agents.Agent}s of a
+ * {@link dev.r0bert.reagent.social.socialnetwork.SocialNetwork} on partitions, so that most of the
+ * {@link dev.r0bert.reagent.social.messages.socialmessage.SocialMessage}s stay inside one partition.
+ *
+ * @author Robert Greener
+ * @since v0.0.2
+ */
+package dev.r0bert.reagent.social.socialnetwork.partition;
@@ -0,0 +1,103 @@
+package dev.r0bert.reagent.core.agents;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AgentRegistryTest {
+    @Test
+    public void register_WhenAgentsRegistered_AssignsDenseHandles() {
+        var registry = new AgentRegistry();
+        var agents = new ArrayList<Agent>();
+        for (var i = 0; i < 1000; i++) {
+            var agent = mock(Agent.class);
+            when(agent.getUUID()).thenReturn(UUID.randomUUID());
+            agents.add(agent);
+            assertEquals(i, registry.register(agent));
+        }
+
+        assertEquals(1000, registry.size());
+        for (var i = 0; i < agents.size(); i++) {
+            var agent = agents.get(i);
+            assertEquals(i, registry.getHandle(agent.getUUID()));
+            assertSame(agent, registry.getAgent(i));
+            assertSame(agent, registry.getAgent(agent.getUUID()));
+            assertEquals(agent.getUUID(), registry.getUUID(i));
+        }
+    }
+
+    @Test
+    public void register_WhenUUIDAlreadyRegistered_ReplacesAgentAndKeepsHandle() {
+        var registry = new AgentRegistry();
+        var uuid = UUID.randomUUID();
+        var agent1 = mock(Agent.class);
+        when(agent1.getUUID()).thenReturn(uuid);
+        var agent2 = mock(Agent.class);
+        when(agent2.getUUID()).thenReturn(uuid);
+
+        assertEquals(0, registry.register(agent1));
+        assertEquals(0, registry.register(agent2));
+        assertEquals(1, registry.size());
+        assertSame(agent2, registry.getAgent(uuid));
+    }
+
+    @Test
+    public void register_WhenUUIDNull_RegistersAgent() {
+        var registry = new AgentRegistry();
+        var agent = mock(Agent.class);
+        when(agent.getUUID()).thenReturn(null);
+
+        assertEquals(0, registry.register(agent));
+        assertEquals(0, registry.getHandle(null));
+        assertSame(agent, registry.getAgent((UUID) null));
+    }
+
+    @Test
+    public void getHandle_WhenNotRegistered_ReturnsNoHandle() {
+        var registry = new AgentRegistry();
+        assertEquals(AgentRegistry.NO_HANDLE, registry.getHandle(UUID.randomUUID()));
+        assertNull(registry.getAgent(UUID.randomUUID()));
+    }
+
+    @Test
+    public void getAgent_WhenHandleOutOfRange_ThrowsException() {
+        var registry = new AgentRegistry();
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.getAgent(0));
+    }
+
+    @Test
+    public void getDestination_WhenHandleMatches_ReturnsAgent() {
+        var registry = new AgentRegistry();
+        var agent = mock(Agent.class);
+        var uuid = UUID.randomUUID();
+        when(agent.getUUID()).thenReturn(uuid);
+        var handle = registry.register(agent);
+        var message = mock(Message.class);
+        when(message.getDestination()).thenReturn(uuid);
+        when(message.getDestinationHandle()).thenReturn(handle);
+
+        assertSame(agent, registry.getDestination(message));
+    }
+
+    @Test
+    public void getDestination_WhenHandleIsForAnotherAgent_LooksUpByUUID() {
+        var registry = new AgentRegistry();
+        var agent1 = mock(Agent.class);
+        when(agent1.getUUID()).thenReturn(UUID.randomUUID());
+        var agent2 = mock(Agent.class);
+        var uuid = UUID.randomUUID();
+        when(agent2.getUUID()).thenReturn(uuid);
+        registry.register(agent1);
+        registry.register(agent2);
+        var message = mock(Message.class);
+        when(message.getDestination()).thenReturn(uuid);
+        when(message.getDestinationHandle()).thenReturn(0);
+
+        assertSame(agent2, registry.getDestination(message));
+    }
+}
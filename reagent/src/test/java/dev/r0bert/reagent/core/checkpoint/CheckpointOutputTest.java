@@ -0,0 +1,126 @@
+package dev.r0bert.reagent.core.checkpoint;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.messages.wakeup.WakeUpMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CheckpointOutputTest {
+    @Test
+    public void writeAndRead_Always_ReturnsSameValues() throws IOException {
+        var path = Files.createTempFile("checkpoint", ".bin");
+        var uuid = UUID.randomUUID();
+        var time = ZonedDateTime.of(2023, 6, 1, 12, 30, 15, 123456789, ZoneId.of("Europe/London"));
+        var longString = "\u00e9".repeat(CheckpointOutput.BUFFER_SIZE);
+        try {
+            try (var output = new CheckpointOutput(path, CheckpointCodecs.withDefaults())) {
+                output.writeByte((byte) -3);
+                output.writeBoolean(true);
+                output.writeInt(42);
+                output.writeLong(Long.MIN_VALUE);
+                output.writeDouble(0.25);
+                output.writeUUID(uuid);
+                output.writeString(longString);
+                output.writeTime(time);
+            }
+
+            try (var input = new CheckpointInput(path, CheckpointCodecs.withDefaults(), agent -> null)) {
+                assertEquals((byte) -3, input.readByte());
+                assertTrue(input.readBoolean());
+                assertEquals(42, input.readInt());
+                assertEquals(Long.MIN_VALUE, input.readLong());
+                assertEquals(0.25, input.readDouble());
+                assertEquals(uuid, input.readUUID());
+                assertEquals(longString, input.readString());
+                assertEquals(time, input.readTime());
+                assertThrows(EOFException.class, input::readByte);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void writeObjectAndReadObject_WhenRegistered_ReturnsEqualObject() throws IOException {
+        var path = Files.createTempFile("checkpoint", ".bin");
+        var agent = mock(Agent.class);
+        when(agent.getUUID()).thenReturn(UUID.randomUUID());
+        var regularEventMessage = new RegularEventMessage(agent, null);
+        var wakeUpMessage = new WakeUpMessage(agent.getUUID(), UUID.randomUUID(), ZonedDateTime.now());
+        try {
+            try (var output = new CheckpointOutput(path, CheckpointCodecs.withDefaults())) {
+                output.writeObject(regularEventMessage);
+                output.writeObject(wakeUpMessage);
+            }
+
+            try (var input = new CheckpointInput(path, CheckpointCodecs.withDefaults(), uuid -> null)) {
+                var readRegularEventMessage = (RegularEventMessage) input.readObject();
+                assertEquals(regularEventMessage.getUUID(), readRegularEventMessage.getUUID());
+                assertEquals(agent.getUUID(), readRegularEventMessage.getDestination());
+                var readWakeUpMessage = (WakeUpMessage) input.readObject();
+                assertEquals(wakeUpMessage.getUUID(), readWakeUpMessage.getUUID());
+                assertEquals(wakeUpMessage.getWakeTime(), readWakeUpMessage.getWakeTime());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void writeObject_WhenNotRegistered_ThrowsException() throws IOException {
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try (var output = new CheckpointOutput(path, new CheckpointCodecs())) {
+            assertThrows(IllegalArgumentException.class, () -> output.writeObject("value"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void readObject_WhenNotRegistered_ThrowsException() throws IOException {
+        var path = Files.createTempFile("checkpoint", ".bin");
+        var agent = mock(Agent.class);
+        when(agent.getUUID()).thenReturn(UUID.randomUUID());
+        try {
+            try (var output = new CheckpointOutput(path, CheckpointCodecs.withDefaults())) {
+                output.writeObject(new RegularEventMessage(agent, null));
+            }
+
+            try (var input = new CheckpointInput(path, new CheckpointCodecs(), uuid -> null)) {
+                assertThrows(IllegalArgumentException.class, input::readObject);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void newCheckpointInput_WhenNotCheckpoint_ThrowsException() throws IOException {
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+            assertThrows(IOException.class, () -> new CheckpointInput(path, new CheckpointCodecs(), uuid -> null));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void register_WhenAlreadyRegistered_ThrowsException() {
+        var codecs = CheckpointCodecs.withDefaults();
+
+        assertThrows(IllegalArgumentException.class, () -> codecs.register(RegularEventMessage.class,
+                mock(CheckpointCodec.class)));
+    }
+}
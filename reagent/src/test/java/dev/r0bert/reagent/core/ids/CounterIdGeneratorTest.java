@@ -0,0 +1,110 @@
+package dev.r0bert.reagent.core.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CounterIdGeneratorTest {
+    @Test
+    public void nextId_WhenSameSeed_GeneratesSameIds() {
+        var generator1 = new CounterIdGenerator(42);
+        var generator2 = new CounterIdGenerator(42);
+        for (var i = 0; i < 100; i++) {
+            assertEquals(generator1.nextId(), generator2.nextId());
+        }
+    }
+
+    @Test
+    public void nextId_WhenDifferentSeed_GeneratesDifferentIds() {
+        var generator1 = new CounterIdGenerator(1);
+        var generator2 = new CounterIdGenerator(2);
+        var ids1 = LongStream.range(0, 100).map(i -> generator1.nextId()).boxed().toList();
+        var ids2 = LongStream.range(0, 100).map(i -> generator2.nextId()).boxed().toList();
+        assertNotEquals(ids1, ids2);
+    }
+
+    @Test
+    public void nextId_WhenCalledOnManyThreads_GeneratesUniqueIds() throws InterruptedException {
+        var generator = new CounterIdGenerator(0);
+        var ids = ConcurrentHashMap.<Long>newKeySet();
+        var threads = new ArrayList<Thread>();
+        for (var t = 0; t < 8; t++) {
+            var thread = new Thread(() -> {
+                for (var i = 0; i < 10000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000, ids.size());
+    }
+
+    @Test
+    public void nextId_WhenStreamRunsOut_ContinuesWithNewStream() {
+        var generator = new CounterIdGenerator(7, 0, 4);
+        var ids = LongStream.range(0, 12).map(i -> generator.nextId()).boxed().collect(Collectors.toSet());
+
+        assertEquals(12, ids.size());
+        assertEquals(3, generator.getStreamCount());
+    }
+
+    @Test
+    public void nextId_WhenStreamsRunOut_ThrowsExceptionInsteadOfRepeating() {
+        var generator = new CounterIdGenerator(7, Long.MAX_VALUE, 1);
+
+        generator.nextId();
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    public void nextId_WhenSameThreadsInSameOrder_GeneratesSameIds() throws InterruptedException {
+        assertEquals(idsOfThreads(new CounterIdGenerator(42)), idsOfThreads(new CounterIdGenerator(42)));
+    }
+
+    @Test
+    public void nextId_WhenCalledOnManyShortLivedThreads_GeneratesUniqueIds() throws InterruptedException {
+        var generator = new CounterIdGenerator(0);
+        var ids = ConcurrentHashMap.<Long>newKeySet();
+        for (var t = 0; t < 1000; t++) {
+            var thread = new Thread(() -> {
+                for (var i = 0; i < 10; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        assertEquals(10000, ids.size());
+    }
+
+    /**
+     * Generate ids on four threads, one after the other, and return the ids of each thread.
+     */
+    private static List<List<Long>> idsOfThreads(final CounterIdGenerator generator) throws InterruptedException {
+        var ids = new ArrayList<List<Long>>();
+        for (var t = 0; t < 4; t++) {
+            var threadIds = new ArrayList<Long>();
+            var thread = new Thread(() -> {
+                for (var i = 0; i < 10; i++) {
+                    threadIds.add(generator.nextId());
+                }
+            });
+            thread.start();
+            thread.join();
+            ids.add(threadIds);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.r0bert.reagent.core.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdsTest {
+    @Test
+    public void toUUID_WhenDifferentIds_ReturnsDifferentUUIDs() {
+        var uuids = new HashSet<>();
+        var ids = List.of(0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 62, 1L << 62 | 1L, 3L << 62,
+                2L << 62 | 1L);
+        for (var id : ids) {
+            var uuid = Ids.toUUID(id);
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(uuid, Ids.toUUID(id));
+            uuids.add(uuid);
+        }
+        assertEquals(ids.size(), uuids.size());
+    }
+
+    @Test
+    public void setIdGenerator_WhenSet_IsUsedByNextId() {
+        var previous = Ids.getIdGenerator();
+        try {
+            Ids.setIdGenerator(() -> 7);
+            assertEquals(7, Ids.nextId());
+        } finally {
+            Ids.setIdGenerator(previous);
+        }
+    }
+}
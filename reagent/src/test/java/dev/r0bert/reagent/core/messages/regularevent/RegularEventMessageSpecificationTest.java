@@ -1,6 +1,7 @@
 package dev.r0bert.reagent.core.messages.regularevent;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.simulationmanager.Recurrence;
 import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
 import org.junit.jupiter.api.Test;
 
@@ -91,7 +92,7 @@ class RegularEventMessageSpecificationTest {
     }
 
     @Test
-    public void createAndScheduleRegularEventMessages_WhenValid_CreatesAndSchedules() {
+    public void createAndScheduleRegularEventMessages_WhenValid_SchedulesRecurrence() {
         var agent = mock(Agent.class);
         when(agent.getUUID()).thenReturn(UUID.randomUUID());
         var simulationManager = mock(SimulationManager.class);
@@ -100,7 +101,33 @@ class RegularEventMessageSpecificationTest {
         var interval = Duration.ofSeconds(1);
         var spec = new RegularEventMessageSpecification(agent, null);
         spec.createAndScheduleRegularEventMessages(simulationManager, interval, startTime, endTime);
+        verify(simulationManager, times(1)).scheduleRecurringMessages(eq(new Recurrence(spec, interval, startTime, endTime)));
+    }
+
+    @Test
+    public void createAndScheduleRegularEventMessages_WhenSchedulingEagerly_CreatesAndSchedules() {
+        var agent = mock(Agent.class);
+        when(agent.getUUID()).thenReturn(UUID.randomUUID());
+        var simulationManager = mock(SimulationManager.class);
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusSeconds(2);
+        var interval = Duration.ofSeconds(1);
+        when(simulationManager.getEndTime()).thenReturn(endTime);
+        doCallRealMethod().when(simulationManager).scheduleRecurringMessages(any(Recurrence.class));
+        var spec = new RegularEventMessageSpecification(agent, null);
+        spec.createAndScheduleRegularEventMessages(simulationManager, interval, startTime, endTime);
         verify(simulationManager, times(1)).scheduleMessage(any(RegularEventMessage.class), eq(startTime));
         verify(simulationManager, times(1)).scheduleMessage(any(RegularEventMessage.class), eq(startTime.plusSeconds(1)));
+        verify(simulationManager, never()).scheduleMessage(any(RegularEventMessage.class), eq(endTime));
+    }
+
+    @Test
+    public void createMessage_Always_CreatesMessageForAgent() {
+        var agent = mock(Agent.class);
+        var uuid = UUID.randomUUID();
+        when(agent.getUUID()).thenReturn(uuid);
+        var spec = new RegularEventMessageSpecification(agent, null);
+        var message = spec.createMessage(ZonedDateTime.now());
+        assertEquals(uuid, message.getDestination());
     }
 }
\ No newline at end of file
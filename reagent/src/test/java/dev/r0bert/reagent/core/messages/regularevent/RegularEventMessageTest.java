@@ -29,6 +29,14 @@ class RegularEventMessageTest {
         assertEquals(uuid, message.getUUID());
     }
 
+    @Test
+    public void getUUID_WhenUUIDNull_ReturnsSameUUIDEachTime() {
+        var agent = mock(Agent.class);
+        when(agent.getUUID()).thenReturn(UUID.randomUUID());
+        var message = new RegularEventMessage(agent, null);
+        assertSame(message.getUUID(), message.getUUID());
+    }
+
     @Test
     public void getDestination_Always_ReturnsAgentUUID() {
         var agent = mock(Agent.class);
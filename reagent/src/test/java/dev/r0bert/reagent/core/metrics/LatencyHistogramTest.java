@@ -0,0 +1,70 @@
+package dev.r0bert.reagent.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    public void bucketOf_Always_IsWithinBoundsOfBucket() {
+        for (var nanos : new long[]{0, 1, 3, 4, 5, 7, 8, 9, 15, 16, 1000, 123_456_789, Long.MAX_VALUE}) {
+            var bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(bucket >= 0 && bucket < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(LatencyHistogram.lowerBoundOf(bucket) <= nanos);
+            if (bucket + 1 < LatencyHistogram.BUCKET_COUNT) {
+                assertTrue(nanos < LatencyHistogram.lowerBoundOf(bucket + 1));
+            }
+        }
+    }
+
+    @Test
+    public void snapshot_AfterRecording_ReturnsCountTotalAndMax() {
+        var histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(-5);
+
+        var snapshot = histogram.snapshot();
+
+        assertEquals(3, snapshot.count());
+        assertEquals(30, snapshot.totalNanos());
+        assertEquals(20, snapshot.maxNanos());
+        assertEquals(10.0, snapshot.meanNanos());
+    }
+
+    @Test
+    public void percentileNanos_Always_ReturnsUpperBoundOfBucket() {
+        var histogram = new LatencyHistogram();
+        for (var i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1_000_000);
+
+        var snapshot = histogram.snapshot();
+
+        var p50 = snapshot.percentileNanos(50);
+        assertTrue(p50 >= 100 && p50 <= 125);
+        assertEquals(1_000_000, snapshot.percentileNanos(100));
+    }
+
+    @Test
+    public void percentileNanos_WhenEmpty_ReturnsZero() {
+        assertEquals(0, new LatencyHistogram().snapshot().percentileNanos(99));
+    }
+
+    @Test
+    public void percentileNanos_WhenOutOfRange_ThrowsException() {
+        var snapshot = new LatencyHistogram().snapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentileNanos(101));
+    }
+
+    @Test
+    public void toString_AfterRecording_ReturnsCountAndMax() {
+        var histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(20);
+
+        assertEquals("LatencyHistogram{count=2, max=20}", histogram.toString());
+    }
+}
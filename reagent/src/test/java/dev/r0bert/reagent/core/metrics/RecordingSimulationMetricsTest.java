@@ -0,0 +1,55 @@
+package dev.r0bert.reagent.core.metrics;
+
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.messages.wakeup.WakeUpMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingSimulationMetricsTest {
+    @Test
+    public void snapshot_AfterMessages_ReturnsCountsPerMessageClass() {
+        var metrics = new RecordingSimulationMetrics();
+        metrics.messageScheduled(RegularEventMessage.class);
+        metrics.messageScheduled(RegularEventMessage.class);
+        metrics.messageScheduled(WakeUpMessage.class);
+        metrics.messageDispatched(RegularEventMessage.class, 100);
+
+        var snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.messageTypes().size());
+        var regularEvents = snapshot.messageTypes().get(RegularEventMessage.class);
+        assertEquals(2, regularEvents.scheduled());
+        assertEquals(1, regularEvents.sent());
+        assertEquals(1, regularEvents.handler().count());
+        assertEquals(100, regularEvents.handler().maxNanos());
+        assertEquals(1, snapshot.messageTypes().get(WakeUpMessage.class).scheduled());
+    }
+
+    @Test
+    public void snapshot_AfterTimeAdvanced_ReturnsQueueGauges() {
+        var metrics = new RecordingSimulationMetrics();
+        metrics.timeAdvanced(1_000, 42, 7);
+
+        var snapshot = metrics.snapshot();
+
+        assertEquals(42, snapshot.pendingMessages());
+        assertEquals(7, snapshot.pendingTicks());
+        assertEquals(1_000, snapshot.simulatedNanos());
+    }
+
+    @Test
+    public void snapshot_AfterRun_ReturnsWallTimeAndRatio() throws InterruptedException {
+        var metrics = new RecordingSimulationMetrics();
+        metrics.runStarted();
+        metrics.timeAdvanced(3_600_000_000_000L, 0, 0);
+        Thread.sleep(2);
+        metrics.runFinished();
+
+        var snapshot = metrics.snapshot();
+
+        assertTrue(snapshot.wallNanos() > 0);
+        assertTrue(snapshot.simulatedToWallRatio() > 1);
+        assertEquals(snapshot.wallNanos(), metrics.snapshot().wallNanos());
+    }
+}
@@ -1,12 +1,32 @@
 package dev.r0bert.reagent.core.simulationmanager;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.CheckpointableAgent;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodecs;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.ids.CounterIdGenerator;
+import dev.r0bert.reagent.core.ids.Ids;
 import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessageSpecification;
+import dev.r0bert.reagent.core.messages.wakeup.WakeUpMessage;
+import dev.r0bert.reagent.core.metrics.RecordingSimulationMetrics;
+import dev.r0bert.reagent.core.simulationmanager.eventqueue.CalendarEventQueue;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -196,4 +216,736 @@ class CoreSimulationManagerTest {
         simulationManager.runForTime(startTime.plusHours(3));
         verify(agent, times(1)).handleMessage(message);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void setDispatchExecutor_WhenPartitionCountNotPositive_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.setDispatchExecutor(Runnable::run, 0));
+    }
+
+    @Test
+    public void run_WhenDispatchingInParallel_SendsMessagesToEachAgentInOrder() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var executor = Executors.newFixedThreadPool(4);
+        simulationManager.setDispatchExecutor(executor, 8);
+        var agents = new ArrayList<RecordingAgent>();
+        for (var i = 0; i < 20; i++) {
+            var agent = new RecordingAgent(message -> {
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        var expected = new ArrayList<List<Message>>();
+        agents.forEach(agent -> expected.add(new ArrayList<>()));
+        for (var i = 0; i < 50; i++) {
+            for (var j = 0; j < agents.size(); j++) {
+                var message = new RegularEventMessage(agents.get(j), null);
+                expected.get(j).add(message);
+                simulationManager.scheduleMessage(message, startTime.plusHours(1));
+            }
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var j = 0; j < agents.size(); j++) {
+            assertEquals(expected.get(j), agents.get(j).received);
+        }
+    }
+
+    @Test
+    public void run_WhenDispatchingInParallelAndMessageSentNow_SendsMessageAtSameTime() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var executor = Executors.newFixedThreadPool(2);
+        simulationManager.setDispatchExecutor(executor);
+        var receiver = new RecordingAgent(message -> {
+        });
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        var sender = new RecordingAgent(message -> {
+            receivedAt.add(simulationManager.getCurrentTime());
+            simulationManager.sendMessageNow(new RegularEventMessage(receiver, null));
+        });
+        simulationManager.addAgent(sender);
+        simulationManager.addAgent(receiver);
+        simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, receiver.received.size());
+        assertEquals(List.of(startTime.plusHours(1)), receivedAt);
+        assertEquals(startTime.plusHours(1), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void run_WithMessageCombiner_CombinesMessagesForSameDestinationAndTime() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        simulationManager.setMessageCombiner(RegularEventMessage.class, (first, second) -> first);
+        var first = new RecordingAgent(message -> {
+        });
+        var second = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(first);
+        simulationManager.addAgent(second);
+        var combined = new RegularEventMessage(first, null);
+        simulationManager.scheduleMessage(combined, startTime.plusHours(1));
+        for (var i = 0; i < 10; i++) {
+            simulationManager.scheduleMessage(new RegularEventMessage(first, null), startTime.plusHours(1));
+            simulationManager.scheduleMessage(new RegularEventMessage(second, null), startTime.plusHours(1));
+        }
+        var wakeUp = new WakeUpMessage(simulationManager, null, first, startTime.plusHours(1));
+        var later = new RegularEventMessage(first, null);
+        simulationManager.scheduleMessage(later, startTime.plusHours(2));
+
+        simulationManager.run();
+
+        assertEquals(List.of(combined, wakeUp, later), first.received);
+        assertEquals(1, second.received.size());
+    }
+
+    @Test
+    public void run_WithMessageCombinerWhenDispatchingInParallel_CombinesMessagesForSameDestination() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var executor = Executors.newFixedThreadPool(4);
+        simulationManager.setDispatchExecutor(executor, 8);
+        simulationManager.setMessageCombiner(RegularEventMessage.class, (first, second) -> first);
+        var agents = new ArrayList<RecordingAgent>();
+        for (var i = 0; i < 20; i++) {
+            var agent = new RecordingAgent(message -> {
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+            for (var j = 0; j < 5; j++) {
+                simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+            }
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var agent : agents) {
+            assertEquals(1, agent.received.size());
+        }
+    }
+
+    @Test
+    public void setMessageCombiner_WhenNull_RemovesMessageCombiner() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        simulationManager.setMessageCombiner(RegularEventMessage.class, (first, second) -> first);
+
+        simulationManager.setMessageCombiner(RegularEventMessage.class, null);
+
+        assertNull(simulationManager.getMessageCombiner(RegularEventMessage.class));
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenValid_QueuesOnlyNextOccurrence() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var queueSizes = new ArrayList<Long>();
+        var agent = new RecordingAgent(message -> queueSizes.add(simulationManager.getMessageQueue().size()));
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleRecurringMessages(new Recurrence(time -> new RegularEventMessage(agent, null),
+                Duration.ofHours(1), startTime.plusHours(1), startTime.plusHours(5)));
+
+        assertEquals(1, simulationManager.getMessageQueue().size());
+
+        simulationManager.run();
+
+        assertEquals(4, agent.received.size());
+        assertEquals(List.of(1L, 1L, 1L, 0L), queueSizes);
+        assertEquals(startTime.plusHours(4), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenRecurrenceEndsAfterEndTime_StopsAtEndTime() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusHours(3);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var createdAt = new ArrayList<ZonedDateTime>();
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleRecurringMessages(new Recurrence(time -> {
+            createdAt.add(time);
+            return new RegularEventMessage(agent, null);
+        }, Duration.ofHours(1), startTime, startTime.plusDays(1)));
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime, startTime.plusHours(1), startTime.plusHours(2), startTime.plusHours(3)),
+                createdAt);
+        assertEquals(4, agent.received.size());
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenOtherMessagesAtSameTime_QueuesLaterOccurrencesWhenPreviousSent() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        var occurrences = new ArrayList<Message>();
+        var beforeFirst = new RegularEventMessage(agent, null);
+        var beforeSecond = new RegularEventMessage(agent, null);
+        var afterFirst = new RegularEventMessage(agent, null);
+        var afterSecond = new RegularEventMessage(agent, null);
+        simulationManager.scheduleMessage(beforeFirst, startTime.plusHours(1));
+        simulationManager.scheduleMessage(beforeSecond, startTime.plusHours(2));
+        simulationManager.scheduleRecurringMessages(new Recurrence(time -> {
+            var message = new RegularEventMessage(agent, null);
+            occurrences.add(message);
+            return message;
+        }, Duration.ofHours(1), startTime.plusHours(1), startTime.plusHours(3)));
+        simulationManager.scheduleMessage(afterFirst, startTime.plusHours(1));
+        simulationManager.scheduleMessage(afterSecond, startTime.plusHours(2));
+
+        simulationManager.run();
+
+        assertEquals(2, occurrences.size());
+        assertEquals(List.of(beforeFirst, occurrences.get(0), afterFirst, beforeSecond, afterSecond,
+                occurrences.get(1)), agent.received);
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenDispatchingInParallel_SendsEachOccurrence() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new CoreSimulationManager(startTime, endTime);
+        var executor = Executors.newFixedThreadPool(2);
+        simulationManager.setDispatchExecutor(executor);
+        var agents = new ArrayList<RecordingAgent>();
+        for (var i = 0; i < 8; i++) {
+            var agent = new RecordingAgent(message -> {
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+            simulationManager.scheduleRecurringMessages(new Recurrence(time -> new RegularEventMessage(agent, null),
+                    Duration.ofMinutes(30), startTime, startTime.plusHours(12)));
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var agent : agents) {
+            assertEquals(24, agent.received.size());
+        }
+    }
+
+    @Test
+    public void getAgentHandle_WhenAgentAdded_ReturnsHandle() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var agent1 = new RecordingAgent(message -> {
+        });
+        var agent2 = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent1);
+        simulationManager.addAgent(agent2);
+
+        assertEquals(0, simulationManager.getAgentHandle(agent1.getUUID()));
+        assertEquals(1, simulationManager.getAgentHandle(agent2.getUUID()));
+        assertEquals(-1, simulationManager.getAgentHandle(UUID.randomUUID()));
+    }
+
+    @Test
+    public void run_WhenMessageHasWrongHandle_SendsMessageToDestination() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var agent1 = new RecordingAgent(message -> {
+        });
+        var agent2 = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent1);
+        simulationManager.addAgent(agent2);
+        var message = new HandleMessage(agent2.getUUID(), simulationManager.getAgentHandle(agent1.getUUID()));
+        simulationManager.scheduleMessage(message, startTime.plusHours(1));
+
+        simulationManager.run();
+
+        assertEquals(List.of(), agent1.received);
+        assertEquals(List.of(message), agent2.received);
+    }
+
+    @Test
+    public void runUntil_WhenValid_SendsOnlyMessagesBeforeTime() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        var message1 = new RegularEventMessage(agent, null);
+        var message2 = new RegularEventMessage(agent, null);
+        simulationManager.scheduleMessage(message1, startTime.plusHours(1));
+        simulationManager.scheduleMessage(message2, startTime.plusHours(2));
+
+        simulationManager.runUntil(startTime.plusHours(2));
+
+        assertEquals(List.of(message1), agent.received);
+        assertEquals(startTime.plusHours(1), simulationManager.getCurrentTime());
+
+        simulationManager.run();
+
+        assertEquals(List.of(message1, message2), agent.received);
+    }
+
+    @Test
+    public void checkpointAndRestore_WhenHalfwayThrough_FinishesLikeUninterruptedRun() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var agentUuid = UUID.randomUUID();
+
+        var uninterrupted = new CoreSimulationManager(startTime, endTime);
+        var uninterruptedAgent = new CountingAgent(agentUuid);
+        scheduleCountingScenario(uninterrupted, uninterruptedAgent, startTime);
+        uninterrupted.run();
+
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            var first = new CoreSimulationManager(startTime, endTime);
+            var firstAgent = new CountingAgent(agentUuid);
+            scheduleCountingScenario(first, firstAgent, startTime);
+            first.runUntil(startTime.plusHours(12));
+            first.checkpoint(path, codecs());
+
+            var restored = new CoreSimulationManager(startTime, endTime);
+            var restoredAgent = new CountingAgent(agentUuid);
+            restored.addAgent(restoredAgent);
+            restored.restore(path, codecs());
+
+            assertEquals(first.getCurrentTime(), restored.getCurrentTime());
+            assertEquals(first.getMessageQueue().size(), restored.getMessageQueue().size());
+            assertEquals(firstAgent.count, restoredAgent.count);
+
+            restored.run();
+
+            assertEquals(uninterruptedAgent.count, restoredAgent.count);
+            assertEquals(uninterrupted.getCurrentTime(), restored.getCurrentTime());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void restore_WhenIdGeneratorRestarted_GeneratesNoRepeatedIds() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var previous = Ids.getIdGenerator();
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            Ids.setIdGenerator(new CounterIdGenerator(42));
+            var first = new CoreSimulationManager(startTime, endTime);
+            var agent = new RecordingAgent(message -> {
+            });
+            first.addAgent(agent);
+            var uuids = new HashSet<UUID>();
+            for (var i = 0; i < 5; i++) {
+                var message = new RegularEventMessage(agent, null);
+                uuids.add(message.getUUID());
+                first.scheduleMessage(message, startTime.plusHours(1));
+            }
+            first.checkpoint(path, codecs());
+
+            Ids.setIdGenerator(new CounterIdGenerator(42));
+            var restored = new CoreSimulationManager(startTime, endTime);
+            restored.addAgent(agent);
+            restored.restore(path, codecs());
+
+            for (var i = 0; i < 5; i++) {
+                assertTrue(uuids.add(new RegularEventMessage(agent, null).getUUID()));
+            }
+            assertEquals(2, ((CounterIdGenerator) Ids.getIdGenerator()).getStreamCount());
+        } finally {
+            Ids.setIdGenerator(previous);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void restore_WhenMessagesScheduled_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            new CoreSimulationManager(startTime, endTime).checkpoint(path, codecs());
+            var simulationManager = new CoreSimulationManager(startTime, endTime);
+            var agent = new RecordingAgent(message -> {
+            });
+            simulationManager.addAgent(agent);
+            simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+
+            assertThrows(IllegalStateException.class, () -> simulationManager.restore(path, codecs()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void scheduleMessage_WhenTimeTooFarForClock_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusYears(1000));
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleMessage(
+                new RegularEventMessage(agent, null), startTime.plusYears(500)));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusYears(100));
+
+        simulationManager.run();
+
+        assertEquals(1, agent.received.size());
+        assertEquals(startTime.plusYears(100), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void run_WithCoarseClock_SendsMessagesAtTickTimes() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofSeconds(1)),
+                startTime.plusDays(1), new CalendarEventQueue());
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        var agent = new RecordingAgent(message -> receivedAt.add(simulationManager.getCurrentTime()));
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusSeconds(2));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusSeconds(1));
+
+        simulationManager.run();
+
+        assertEquals(2, agent.received.size());
+        assertEquals(List.of(startTime.plusSeconds(1), startTime.plusSeconds(2)), receivedAt);
+        assertEquals(Duration.ofSeconds(1), simulationManager.getClock().getResolution());
+    }
+
+    @Test
+    public void scheduleMessage_WhenTimeNotOnTick_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofSeconds(1)),
+                startTime.plusDays(1), new CalendarEventQueue());
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleMessage(
+                new RegularEventMessage(agent, null), startTime.plusNanos(1_700_000_000)));
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleRecurringMessages(
+                new Recurrence(time -> new RegularEventMessage(agent, null), Duration.ofSeconds(1),
+                        startTime.plusNanos(1_000_000), startTime.plusHours(1))));
+        assertEquals(0, simulationManager.getMessageQueue().size());
+    }
+
+    @Test
+    public void scheduleRecurringMessages_IntervalShorterThanResolution_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofSeconds(1)),
+                startTime.plusDays(1), new CalendarEventQueue());
+        var specification = new RegularEventMessageSpecification(new RecordingAgent(message -> {
+        }), null);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleRecurringMessages(
+                new Recurrence(specification, Duration.ofMillis(10), startTime, startTime.plusHours(1))));
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenIntervalTooLongForClock_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var specification = new RegularEventMessageSpecification(new RecordingAgent(message -> {
+        }), null);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleRecurringMessages(
+                new Recurrence(specification, Duration.ofDays(365L * 1000), startTime, startTime.plusHours(1))));
+        assertEquals(0, simulationManager.getMessageQueue().size());
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenIntervalNotWholeTicks_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofMinutes(1)),
+                startTime.plusDays(1), new CalendarEventQueue());
+        var specification = new RegularEventMessageSpecification(new RecordingAgent(message -> {
+        }), null);
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleRecurringMessages(
+                new Recurrence(specification, Duration.ofSeconds(90), startTime, startTime.plusHours(1))));
+        assertEquals(0, simulationManager.getMessageQueue().size());
+
+        simulationManager.scheduleRecurringMessages(
+                new Recurrence(specification, Duration.ofMinutes(2), startTime, startTime.plusHours(1)));
+        assertEquals(1, simulationManager.getMessageQueue().size());
+    }
+
+    @Test
+    public void scheduleRecurringMessages_WhenStartTimeBeforeCurrentTime_ThrowsExceptionAndCreatesNothing() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(2));
+        simulationManager.run();
+        var created = new ArrayList<ZonedDateTime>();
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleRecurringMessages(
+                new Recurrence(time -> {
+                    created.add(time);
+                    return new RegularEventMessage(agent, null);
+                }, Duration.ofHours(1), startTime.plusHours(1), startTime.plusHours(5))));
+        assertEquals(List.of(), created);
+        assertEquals(0, simulationManager.getMessageQueue().size());
+    }
+
+    @Test
+    public void restore_WhenResolutionsDiffer_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            new CoreSimulationManager(startTime, startTime.plusDays(1)).checkpoint(path, codecs());
+            var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofMillis(1)),
+                    startTime.plusDays(1), new CalendarEventQueue());
+
+            assertThrows(IllegalArgumentException.class, () -> simulationManager.restore(path, codecs()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void restore_WhenTimesDiffer_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            new CoreSimulationManager(startTime, startTime.plusDays(1)).checkpoint(path, codecs());
+            var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(2));
+
+            assertThrows(IllegalArgumentException.class, () -> simulationManager.restore(path, codecs()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void restore_WhenCheckpointableAgentNotAdded_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            var simulationManager = new CoreSimulationManager(startTime, endTime);
+            simulationManager.addAgent(new CountingAgent(UUID.randomUUID()));
+            simulationManager.checkpoint(path, codecs());
+
+            assertThrows(IllegalStateException.class,
+                    () -> new CoreSimulationManager(startTime, endTime).restore(path, codecs()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void setMetrics_WhenRun_ReportsScheduledAndSentMessages() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var metrics = new RecordingSimulationMetrics();
+        simulationManager.setMetrics(metrics);
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        var snapshot = metrics.snapshot();
+        var regularEvents = snapshot.messageTypes().get(RegularEventMessage.class);
+        assertEquals(3, regularEvents.scheduled());
+        assertEquals(3, regularEvents.sent());
+        assertEquals(3, regularEvents.handler().count());
+        assertEquals(1, snapshot.pendingMessages());
+        assertEquals(1, snapshot.pendingTicks());
+        assertEquals(Duration.ofHours(2).toNanos(), snapshot.simulatedNanos());
+        assertSame(metrics, simulationManager.getMetrics());
+    }
+
+    @Test
+    public void setMetrics_WithSecondsResolution_ReportsSimulatedTimeInNanoseconds() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(new SimulationClock(startTime, Duration.ofSeconds(1)),
+                startTime.plusDays(1), new CalendarEventQueue());
+        var metrics = new RecordingSimulationMetrics();
+        simulationManager.setMetrics(metrics);
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        assertEquals(Duration.ofHours(2).toNanos(), metrics.snapshot().simulatedNanos());
+    }
+
+    @Test
+    public void scheduleMessages_WhenValid_SendsMessagesInOrder() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var agent = new RecordingAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        var message1 = new RegularEventMessage(agent, null);
+        var message2 = new RegularEventMessage(agent, null);
+        var message3 = new RegularEventMessage(agent, null);
+        simulationManager.scheduleMessage(message1, startTime.plusHours(1));
+        simulationManager.scheduleMessages(List.of(message2, message3), startTime.plusHours(1));
+
+        simulationManager.run();
+
+        assertEquals(List.of(message1, message2, message3), agent.received);
+    }
+
+    @Test
+    public void scheduleMessages_WhenTimeAfterEndTime_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> simulationManager.scheduleMessages(
+                List.of(mock(Message.class)), startTime.plusDays(2)));
+        assertEquals(0, simulationManager.getMessageQueue().size());
+    }
+
+    @Test
+    public void sendMessagesNow_WhenDispatchingInParallel_SendsMessagesAtSameTime() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var executor = Executors.newFixedThreadPool(2);
+        simulationManager.setDispatchExecutor(executor, 2);
+        var target = new RecordingAgent(message -> {
+        });
+        var sender = new RecordingAgent(message -> simulationManager.sendMessagesNow(List.of(
+                new RegularEventMessage(target, null), new RegularEventMessage(target, null))));
+        simulationManager.addAgent(target);
+        simulationManager.addAgent(sender);
+        simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2, target.received.size());
+        assertEquals(startTime.plusHours(1), simulationManager.getCurrentTime());
+    }
+
+    /**
+     * Get the {@link CheckpointCodecs} for the tests.
+     */
+    private static CheckpointCodecs codecs() {
+        return CheckpointCodecs.withDefaults();
+    }
+
+    /**
+     * Schedule an hourly recurrence and some wake-ups for a {@link CountingAgent}.
+     */
+    private static void scheduleCountingScenario(final @NotNull CoreSimulationManager simulationManager,
+                                                 final @NotNull CountingAgent agent,
+                                                 final @NotNull ZonedDateTime startTime) {
+        simulationManager.addAgent(agent);
+        new RegularEventMessageSpecification(agent, null).createAndScheduleRegularEventMessages(simulationManager,
+                Duration.ofHours(1), startTime, startTime.plusHours(20));
+        for (var hours = 3; hours < 24; hours += 5) {
+            new WakeUpMessage(simulationManager, null, agent, startTime.plusHours(hours).plusMinutes(30));
+        }
+    }
+
+    /**
+     * A {@link CheckpointableAgent} that counts the {@link Message}s it receives.
+     */
+    private static final class CountingAgent implements CheckpointableAgent {
+        private final @NotNull UUID uuid;
+        private long count = 0;
+
+        private CountingAgent(final @NotNull UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            count = count * 31 + message.getClass().getSimpleName().length();
+        }
+
+        @Override
+        public void writeState(final @NotNull CheckpointOutput output) throws IOException {
+            output.writeLong(count);
+        }
+
+        @Override
+        public void readState(final @NotNull CheckpointInput input) throws IOException {
+            count = input.readLong();
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+
+    /**
+     * A {@link Message} with a {@link Message#getDestinationHandle()}.
+     */
+    private record HandleMessage(@NotNull UUID getDestination, int getDestinationHandle) implements Message {
+        @Override
+        public @NotNull UUID getSender() {
+            return getDestination;
+        }
+
+        @Override
+        public UUID getUUID() {
+            return getDestination;
+        }
+    }
+
+    /**
+     * An {@link Agent} that records the {@link Message}s it receives.
+     */
+    private static final class RecordingAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull List<Message> received = new ArrayList<>();
+        private final @NotNull Consumer<Message> onMessage;
+
+        private RecordingAgent(final @NotNull Consumer<Message> onMessage) {
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add(message);
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
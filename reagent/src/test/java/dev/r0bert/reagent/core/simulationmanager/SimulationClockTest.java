@@ -0,0 +1,87 @@
+package dev.r0bert.reagent.core.simulationmanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationClockTest {
+    @Test
+    public void toTick_DefaultResolution_ReturnsNanosecondsSinceStart() {
+        var startTime = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 500, ZoneId.of("Europe/London"));
+        var clock = new SimulationClock(startTime);
+
+        assertEquals(0, clock.toTick(startTime));
+        assertEquals(3_600_000_000_000L + 1, clock.toTick(startTime.plusHours(1).plusNanos(1)));
+        assertEquals(-1, clock.toTick(startTime.minusNanos(1)));
+        assertEquals(Duration.ofNanos(1), clock.getResolution());
+    }
+
+    @Test
+    public void toTick_CoarseResolution_RoundsDown() {
+        var startTime = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        var clock = new SimulationClock(startTime, Duration.ofMillis(1));
+
+        assertEquals(1_500, clock.toTick(startTime.plusSeconds(1).plusNanos(500_999_999)));
+        assertEquals(-1, clock.toTick(startTime.minusNanos(1)));
+        assertEquals(2, clock.toTicks(Duration.ofNanos(2_999_999)));
+        assertEquals(startTime.plusSeconds(1).plusNanos(500_000_000), clock.toTime(1_500));
+    }
+
+    @Test
+    public void isOnTick_CoarseResolution_ReturnsWhetherTimeIsWholeTicksFromStart() {
+        var startTime = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        var clock = new SimulationClock(startTime, Duration.ofMillis(1));
+
+        assertTrue(clock.isOnTick(startTime.plusNanos(1_500_000_000)));
+        assertTrue(clock.isOnTick(startTime.minusNanos(1_000_000)));
+        assertFalse(clock.isOnTick(startTime.plusNanos(1_500_000_001)));
+        assertFalse(clock.isOnTick(startTime.minusNanos(1)));
+        assertTrue(new SimulationClock(startTime).isOnTick(startTime.plusNanos(1)));
+    }
+
+    @Test
+    public void toNanos_CoarseResolution_ReturnsNanosecondsAndSaturates() {
+        var startTime = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        var clock = new SimulationClock(startTime, Duration.ofSeconds(1));
+
+        assertEquals(90_000_000_000L, clock.toNanos(90));
+        assertEquals(-1_000_000_000L, clock.toNanos(-1));
+        assertEquals(Long.MAX_VALUE, clock.toNanos(Long.MAX_VALUE / 1_000_000_000L + 1));
+        assertEquals(Long.MIN_VALUE, clock.toNanos(Long.MIN_VALUE / 1_000_000_000L - 1));
+    }
+
+    @Test
+    public void toTime_AcrossDaylightSavingChange_ReturnsCorrectTime() {
+        var zone = ZoneId.of("Europe/London");
+        var startTime = ZonedDateTime.of(2024, 3, 30, 12, 0, 0, 0, zone);
+        var clock = new SimulationClock(startTime, Duration.ofSeconds(1));
+
+        var time = clock.toTime(Duration.ofDays(1).toSeconds());
+
+        assertEquals(ZonedDateTime.of(2024, 3, 31, 13, 0, 0, 0, zone), time);
+        assertEquals(zone, time.getZone());
+        assertEquals(Duration.ofDays(1).toSeconds(), clock.toTick(time));
+    }
+
+    @Test
+    public void toTime_SameTick_ReturnsCachedTime() {
+        var clock = new SimulationClock(ZonedDateTime.now());
+
+        var time = clock.toTime(42);
+
+        assertSame(time, clock.toTime(42));
+        assertNotSame(time, clock.toTime(43));
+    }
+
+    @Test
+    public void constructor_NotPositiveResolution_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> new SimulationClock(startTime, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationClock(startTime, Duration.ofSeconds(-1)));
+    }
+}
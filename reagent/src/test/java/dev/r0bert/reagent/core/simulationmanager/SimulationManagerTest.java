@@ -0,0 +1,38 @@
+package dev.r0bert.reagent.core.simulationmanager;
+
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.MulticastMessage;
+import dev.r0bert.reagent.core.metrics.RecordingSimulationMetrics;
+import dev.r0bert.reagent.core.metrics.SimulationMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SimulationManagerTest {
+    @Test
+    public void setMetrics_ByDefault_DoesNothing() {
+        var simulationManager = mock(SimulationManager.class, CALLS_REAL_METHODS);
+
+        assertDoesNotThrow(() -> simulationManager.setMetrics(new RecordingSimulationMetrics()));
+        assertSame(SimulationMetrics.NONE, simulationManager.getMetrics());
+    }
+
+    @Test
+    public void sendMulticastNow_ByDefault_SendsEachDelivery() {
+        var simulationManager = mock(SimulationManager.class, CALLS_REAL_METHODS);
+        var first = mock(Message.class);
+        var second = mock(Message.class);
+        var multicast = mock(MulticastMessage.class);
+        when(multicast.getRecipientCount()).thenReturn(2);
+        when(multicast.getDelivery(0)).thenReturn(first);
+        when(multicast.getDelivery(1)).thenReturn(second);
+
+        simulationManager.sendMulticastNow(multicast);
+
+        var inOrder = inOrder(simulationManager);
+        inOrder.verify(simulationManager).sendMessageNow(first);
+        inOrder.verify(simulationManager).sendMessageNow(second);
+        verify(simulationManager, never()).sendMessageNow(multicast);
+    }
+}
@@ -0,0 +1,199 @@
+package dev.r0bert.reagent.core.simulationmanager.actor;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorSimulationManagerTest {
+    @Test
+    public void run_WhenMessagesScheduled_SendsEachAgentItsMessagesInOrder() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1));
+        var agents = new ArrayList<TestAgent>();
+        var expected = new ArrayList<List<Message>>();
+        for (var i = 0; i < 10; i++) {
+            var agent = new TestAgent(message -> {
+            });
+            agents.add(agent);
+            expected.add(new ArrayList<>());
+            simulationManager.addAgent(agent);
+        }
+        for (var hour = 1; hour <= 3; hour++) {
+            for (var i = 0; i < 20; i++) {
+                for (var j = 0; j < agents.size(); j++) {
+                    var message = new RegularEventMessage(agents.get(j), null);
+                    expected.get(j).add(message);
+                    simulationManager.scheduleMessage(message, startTime.plusHours(hour));
+                }
+            }
+        }
+
+        simulationManager.run();
+
+        for (var j = 0; j < agents.size(); j++) {
+            assertEquals(expected.get(j), agents.get(j).received);
+        }
+        assertEquals(startTime.plusHours(3), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void run_WhenAgentsBlock_HandlesMessagesConcurrently() {
+        var startTime = ZonedDateTime.now();
+        var executor = Executors.newCachedThreadPool();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1), executor);
+        var agentCount = 16;
+        var latch = new CountDownLatch(agentCount);
+        var released = Collections.synchronizedList(new ArrayList<Boolean>());
+        for (var i = 0; i < agentCount; i++) {
+            var agent = new TestAgent(message -> {
+                latch.countDown();
+                try {
+                    released.add(latch.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            simulationManager.addAgent(agent);
+            simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Collections.nCopies(agentCount, true), released);
+    }
+
+    @Test
+    public void run_WhenMailboxLongerThanBatch_LetsOtherMailboxesDrainOnSameThread() {
+        var startTime = ZonedDateTime.now();
+        var executor = Executors.newSingleThreadExecutor();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1), executor);
+        var handled = Collections.synchronizedList(new ArrayList<String>());
+        var receiver = new TestAgent(message -> handled.add("receiver"));
+        var busy = new TestAgent(message -> handled.add("busy"));
+        var sender = new TestAgent(message -> {
+            for (var i = 0; i < 4 * ActorSimulationManager.DRAIN_BATCH_SIZE; i++) {
+                simulationManager.sendMessageNow(new RegularEventMessage(busy, null));
+            }
+            simulationManager.sendMessageNow(new RegularEventMessage(receiver, null));
+        });
+        simulationManager.addAgent(sender);
+        simulationManager.addAgent(busy);
+        simulationManager.addAgent(receiver);
+        simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4 * ActorSimulationManager.DRAIN_BATCH_SIZE, busy.received.size());
+        assertEquals(1, receiver.received.size());
+        assertTrue(handled.indexOf("receiver") <= ActorSimulationManager.DRAIN_BATCH_SIZE);
+    }
+
+    @Test
+    public void run_WhenMessageSentNow_HandlesMessageBeforeTimeAdvances() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1));
+        var receivedAt = Collections.synchronizedList(new ArrayList<ZonedDateTime>());
+        var receiver = new TestAgent(message -> receivedAt.add(simulationManager.getCurrentTime()));
+        var sender = new TestAgent(message -> simulationManager.sendMessageNow(new RegularEventMessage(receiver, null)));
+        simulationManager.addAgent(sender);
+        simulationManager.addAgent(receiver);
+        simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(receiver, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime.plusHours(1), startTime.plusHours(2)), receivedAt);
+    }
+
+    @Test
+    public void run_WhenAgentThrows_RethrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1));
+        var agent = new TestAgent(message -> {
+            throw new IllegalStateException("Test");
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+
+        var exception = assertThrows(IllegalStateException.class, simulationManager::run);
+        assertEquals("Test", exception.getMessage());
+    }
+
+    @Test
+    public void runUntil_WithoutExecutor_DoesNotDrainMailboxesOnCommonPool() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ActorSimulationManager(startTime, startTime.plusDays(1));
+        var threads = Collections.synchronizedList(new ArrayList<Thread>());
+        for (var i = 0; i < 4; i++) {
+            var agent = new TestAgent(message -> threads.add(Thread.currentThread()));
+            simulationManager.addAgent(agent);
+            simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+            simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(3));
+        }
+
+        simulationManager.runUntil(startTime.plusHours(2));
+
+        assertEquals(4, threads.size());
+        for (var thread : threads) {
+            assertFalse(thread instanceof ForkJoinWorkerThread);
+            assertNotSame(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void toString_Always_ReturnsCorrectRepresentation() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new ActorSimulationManager(startTime, endTime);
+        var expected = "ActorSimulationManager{startTime=" + startTime + ", endTime=" + endTime + ", currentTime=" +
+                startTime + ", executor=null}";
+        assertEquals(expected, simulationManager.toString());
+    }
+
+    /**
+     * An {@link Agent} that records the {@link Message}s it receives.
+     */
+    private static final class TestAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull List<Message> received = new ArrayList<>();
+        private final @NotNull Consumer<Message> onMessage;
+
+        private TestAgent(final @NotNull Consumer<Message> onMessage) {
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add(message);
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
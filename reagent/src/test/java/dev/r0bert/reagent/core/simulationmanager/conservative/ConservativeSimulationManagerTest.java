@@ -0,0 +1,242 @@
+package dev.r0bert.reagent.core.simulationmanager.conservative;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.metrics.RecordingSimulationMetrics;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConservativeSimulationManagerTest {
+    @Test
+    public void constructor_WhenLookaheadIsNegative_ThrowsIllegalArgumentException() {
+        var startTime = ZonedDateTime.now();
+        assertThrows(IllegalArgumentException.class, () -> new ConservativeSimulationManager(startTime,
+                startTime.plusDays(1), 2, partition -> Duration.ofMinutes(-1)));
+    }
+
+    @Test
+    public void run_WhenAgentsSendMessagesAcrossPartitions_MatchesCoreSimulationManager() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var expected = runHopModel(new CoreSimulationManager(startTime, endTime), startTime);
+            var actual = runHopModel(new ConservativeSimulationManager(startTime, endTime,
+                    new HashPartitionAssignment(4), partition -> Duration.ofMinutes(1), executor), startTime);
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void run_WhenLookaheadIsZero_DeliversMessagesSentNow() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ConservativeSimulationManager(startTime, startTime.plusDays(1), 4,
+                partition -> Duration.ZERO);
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        var agents = new ArrayList<TestAgent>();
+        for (var i = 0; i < 8; i++) {
+            var index = i;
+            var agent = new TestAgent(message -> {
+                if (index + 1 < agents.size()) {
+                    simulationManager.sendMessageNow(new RegularEventMessage(agents.get(index + 1), null));
+                } else {
+                    receivedAt.add(simulationManager.getCurrentTime());
+                }
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        simulationManager.scheduleMessage(new RegularEventMessage(agents.get(0), null), startTime.plusHours(1));
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime.plusHours(1)), receivedAt);
+        for (var agent : agents) {
+            assertEquals(1, agent.received.size());
+        }
+    }
+
+    @Test
+    public void run_WhenMessageToOtherPartitionIsWithinLookahead_ThrowsIllegalArgumentException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ConservativeSimulationManager(startTime, startTime.plusDays(1),
+                new HashPartitionAssignment(2), new MessageTypeLookahead(Map.of(), Duration.ofMinutes(5)),
+                Runnable::run);
+        TestAgent receiver;
+        do {
+            receiver = new TestAgent(message -> {
+            });
+        } while (simulationManager.getPartitionAssignment().getPartition(receiver.getUUID()) != 1);
+        var target = receiver;
+        TestAgent sender;
+        do {
+            sender = new TestAgent(message -> simulationManager.scheduleMessage(new RegularEventMessage(target, null),
+                    simulationManager.getCurrentTime().plusMinutes(1)));
+        } while (simulationManager.getPartitionAssignment().getPartition(sender.getUUID()) != 0);
+        simulationManager.addAgent(sender);
+        simulationManager.addAgent(receiver);
+        simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+
+        assertThrows(IllegalArgumentException.class, simulationManager::run);
+    }
+
+    @Test
+    public void run_WhenAgentThrows_RethrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ConservativeSimulationManager(startTime, startTime.plusDays(1), 2,
+                partition -> Duration.ofMinutes(1));
+        var agent = new TestAgent(message -> {
+            throw new IllegalStateException("Test");
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+
+        var exception = assertThrows(IllegalStateException.class, simulationManager::run);
+        assertEquals("Test", exception.getMessage());
+    }
+
+    @Test
+    public void getCurrentTime_WhenHandlingMessage_ReturnsTimeOfMessage() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ConservativeSimulationManager(startTime, startTime.plusDays(1), 4,
+                partition -> Duration.ofHours(1));
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        var agent = new TestAgent(message -> receivedAt.add(simulationManager.getCurrentTime()));
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusMinutes(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusMinutes(2));
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime.plusMinutes(1), startTime.plusMinutes(2)), receivedAt);
+    }
+
+    @Test
+    public void setMetrics_WhenRun_ReportsScheduledAndSentMessages() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new ConservativeSimulationManager(startTime, startTime.plusDays(1), 2,
+                partition -> Duration.ofMinutes(1));
+        var metrics = new RecordingSimulationMetrics();
+        simulationManager.setMetrics(metrics);
+        var agent = new TestAgent(message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        var snapshot = metrics.snapshot();
+        var regularEvents = snapshot.messageTypes().get(RegularEventMessage.class);
+        assertEquals(3, regularEvents.scheduled());
+        assertEquals(3, regularEvents.sent());
+        assertEquals(3, regularEvents.handler().count());
+        assertEquals(3, snapshot.pendingMessages());
+        assertEquals(2, snapshot.pendingTicks());
+        assertEquals(Duration.ofHours(1).toNanos(), snapshot.simulatedNanos());
+        assertSame(metrics, simulationManager.getMetrics());
+    }
+
+    @Test
+    public void toString_Always_ReturnsCorrectRepresentation() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new ConservativeSimulationManager(startTime, endTime, 3,
+                partition -> Duration.ZERO);
+        var expected = "ConservativeSimulationManager{startTime=" + startTime + ", endTime=" + endTime +
+                ", currentTime=" + startTime + ", partitionCount=3}";
+        assertEquals(expected, simulationManager.toString());
+    }
+
+    /**
+     * Run a model where each {@link Agent} forwards a {@link HopMessage} to another {@link Agent} until its hops run
+     * out, and return the times that each {@link Agent} received its {@link Message}s.
+     */
+    private static @NotNull List<List<ZonedDateTime>> runHopModel(final @NotNull SimulationManager simulationManager,
+                                                                  final @NotNull ZonedDateTime startTime) {
+        var agentCount = 32;
+        var agents = new ArrayList<TestAgent>();
+        var receivedAt = new ArrayList<List<ZonedDateTime>>();
+        for (var i = 0; i < agentCount; i++) {
+            var index = i;
+            var times = new ArrayList<ZonedDateTime>();
+            receivedAt.add(times);
+            var agent = new TestAgent(message -> {
+                times.add(simulationManager.getCurrentTime());
+                var hops = ((HopMessage) message).hops();
+                if (hops > 0) {
+                    var target = agents.get((index * 7 + hops) % agentCount);
+                    simulationManager.scheduleMessage(new HopMessage(target.getUUID(), hops - 1),
+                            simulationManager.getCurrentTime().plusMinutes(1 + hops % 3));
+                }
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        for (var i = 0; i < agentCount; i++) {
+            simulationManager.scheduleMessage(new HopMessage(agents.get(i).getUUID(), 20),
+                    startTime.plusMinutes(i % 5));
+        }
+
+        simulationManager.run();
+
+        return receivedAt;
+    }
+
+    /**
+     * A {@link Message} that is forwarded a number of times.
+     */
+    private record HopMessage(@NotNull UUID getDestination, int hops) implements Message {
+        @Override
+        public @NotNull UUID getSender() {
+            return getDestination;
+        }
+
+        @Override
+        public UUID getUUID() {
+            return getDestination;
+        }
+    }
+
+    /**
+     * An {@link Agent} that records the {@link Message}s it receives.
+     */
+    private static final class TestAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull List<Message> received = new ArrayList<>();
+        private final @NotNull Consumer<Message> onMessage;
+
+        private TestAgent(final @NotNull Consumer<Message> onMessage) {
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add(message);
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.r0bert.reagent.core.simulationmanager.conservative;
+
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.messages.wakeup.WakeUpMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTypeLookaheadTest {
+    @Test
+    public void constructor_WhenLookaheadIsNegative_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageTypeLookahead(
+                Map.of(WakeUpMessage.class, Duration.ofMinutes(-1)), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void getLookahead_WhenTypeIsMapped_ReturnsMappedLookahead() {
+        var lookahead = new MessageTypeLookahead(Map.of(WakeUpMessage.class, Duration.ofMinutes(1)),
+                Duration.ofMinutes(5));
+        assertEquals(Duration.ofMinutes(1), lookahead.getLookahead(0, WakeUpMessage.class));
+    }
+
+    @Test
+    public void getLookahead_WhenTypeIsNotMapped_ReturnsDefaultLookahead() {
+        var lookahead = new MessageTypeLookahead(Map.of(WakeUpMessage.class, Duration.ofMinutes(1)),
+                Duration.ofMinutes(5));
+        assertEquals(Duration.ofMinutes(5), lookahead.getLookahead(0, RegularEventMessage.class));
+    }
+
+    @Test
+    public void getMinimumLookahead_Always_ReturnsSmallestLookahead() {
+        var lookahead = new MessageTypeLookahead(Map.of(WakeUpMessage.class, Duration.ofMinutes(1)),
+                Duration.ofMinutes(5));
+        assertEquals(Duration.ofMinutes(1), lookahead.getMinimumLookahead(3));
+    }
+}
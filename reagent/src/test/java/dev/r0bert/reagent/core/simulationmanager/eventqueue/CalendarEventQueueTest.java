@@ -0,0 +1,186 @@
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CalendarEventQueueTest {
+    @Test
+    public void constructor_WhenBucketWidthNotPositive_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CalendarEventQueue(0));
+    }
+
+    @Test
+    public void isEmpty_WhenNew_ReturnsTrue() {
+        var queue = new CalendarEventQueue();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.distinctTickCount());
+    }
+
+    @Test
+    public void peekTick_WhenEmpty_ThrowsException() {
+        var queue = new CalendarEventQueue();
+        assertThrows(NoSuchElementException.class, queue::peekTick);
+    }
+
+    @Test
+    public void poll_WhenTickHasNoMessages_ReturnsNull() {
+        var queue = new CalendarEventQueue();
+        queue.add(10, mock(Message.class));
+        assertNull(queue.poll(11));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void poll_WhenSameTick_ReturnsMessagesInOrderAdded() {
+        var queue = new CalendarEventQueue();
+        var message1 = mock(Message.class);
+        var message2 = mock(Message.class);
+        var message3 = mock(Message.class);
+        queue.add(5, message1);
+        queue.add(5, message2);
+        queue.add(5, message3);
+
+        assertEquals(1, queue.distinctTickCount());
+        assertSame(message1, queue.poll(5));
+        assertSame(message2, queue.poll(5));
+        queue.add(5, message1);
+        assertSame(message3, queue.poll(5));
+        assertSame(message1, queue.poll(5));
+        assertNull(queue.poll(5));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void peekTick_WhenAddedOutOfOrder_ReturnsEarliestTick() {
+        var queue = new CalendarEventQueue();
+        queue.add(300, mock(Message.class));
+        queue.add(7, mock(Message.class));
+        queue.add(1_000_000_000_000L, mock(Message.class));
+
+        assertEquals(7, queue.peekTick());
+        queue.poll(7);
+        assertEquals(300, queue.peekTick());
+        queue.poll(300);
+        assertEquals(1_000_000_000_000L, queue.peekTick());
+    }
+
+    @Test
+    public void peekTick_WhenEarlierTickAddedAfterPeek_ReturnsNewEarliestTick() {
+        var queue = new CalendarEventQueue();
+        queue.add(50, mock(Message.class));
+        assertEquals(50, queue.peekTick());
+        queue.add(20, mock(Message.class));
+        assertEquals(20, queue.peekTick());
+    }
+
+    @Test
+    public void pollAndPeekTick_WhenManyTicks_MatchTreeMapEventQueue() {
+        var random = new Random(42);
+        var messages = new Message[8];
+        for (var i = 0; i < messages.length; i++) {
+            messages[i] = mock(Message.class);
+        }
+        var calendar = new CalendarEventQueue();
+        var reference = new TreeMapEventQueue();
+        var now = 0L;
+
+        for (var step = 0; step < 20_000; step++) {
+            if (random.nextInt(3) > 0 || reference.isEmpty()) {
+                var tick = now + (random.nextBoolean() ? random.nextInt(10) : random.nextInt(1_000_000));
+                var message = messages[random.nextInt(messages.length)];
+                calendar.add(tick, message);
+                reference.add(tick, message);
+            } else {
+                now = reference.peekTick();
+                assertEquals(now, calendar.peekTick());
+                assertSame(reference.poll(now), calendar.poll(now));
+            }
+            assertEquals(reference.size(), calendar.size());
+            assertEquals(reference.distinctTickCount(), calendar.distinctTickCount());
+        }
+
+        while (!reference.isEmpty()) {
+            now = reference.peekTick();
+            assertEquals(now, calendar.peekTick());
+            assertSame(reference.poll(now), calendar.poll(now));
+        }
+        assertTrue(calendar.isEmpty());
+    }
+
+    @Test
+    public void add_WhenNegativeTicks_OrdersCorrectly() {
+        var queue = new CalendarEventQueue(3);
+        queue.add(-10, mock(Message.class));
+        queue.add(-1, mock(Message.class));
+        queue.add(-100, mock(Message.class));
+
+        assertEquals(-100, queue.peekTick());
+        queue.poll(-100);
+        assertEquals(-10, queue.peekTick());
+    }
+
+    @Test
+    public void forEach_Always_VisitsEachMessageInOrderPerTick() {
+        var queue = new CalendarEventQueue(2);
+        var messages = new ArrayList<Message>();
+        for (var i = 0; i < 100; i++) {
+            var message = mock(Message.class);
+            messages.add(message);
+            queue.add(i % 7 * 13, message);
+        }
+        queue.poll(0);
+
+        var expected = new HashMap<Long, List<Message>>();
+        for (var i = 1; i < 100; i++) {
+            expected.computeIfAbsent((long) (i % 7 * 13), t -> new ArrayList<>()).add(messages.get(i));
+        }
+        var visited = new HashMap<Long, List<Message>>();
+        queue.forEach((tick, message) -> visited.computeIfAbsent(tick, t -> new ArrayList<>()).add(message));
+
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void addAll_WhenEntryHasBeenPolled_AddsMessagesAfterExistingInOrder() {
+        var queue = new CalendarEventQueue();
+        var messages = new ArrayList<Message>();
+        for (var i = 0; i < 6; i++) {
+            messages.add(mock(Message.class));
+        }
+        queue.add(5, messages.get(0));
+        queue.add(5, messages.get(1));
+        queue.add(5, messages.get(2));
+        assertSame(messages.get(0), queue.poll(5));
+        queue.addAll(5, messages.subList(3, 6));
+        queue.addAll(9, List.of());
+
+        assertEquals(5, queue.size());
+        assertEquals(1, queue.distinctTickCount());
+        for (var i = 1; i < 6; i++) {
+            assertSame(messages.get(i), queue.poll(5));
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void addAll_WhenManyTicks_KeepsTicksInOrder() {
+        var queue = new CalendarEventQueue();
+        for (var tick = 100L; tick > 0; tick--) {
+            queue.addAll(tick * 1_000, List.of(mock(Message.class), mock(Message.class)));
+        }
+
+        assertEquals(200, queue.size());
+        assertEquals(100, queue.distinctTickCount());
+        for (var tick = 1L; tick <= 100; tick++) {
+            assertEquals(tick * 1_000, queue.peekTick());
+            assertNotNull(queue.poll(tick * 1_000));
+            assertNotNull(queue.poll(tick * 1_000));
+        }
+    }
+}
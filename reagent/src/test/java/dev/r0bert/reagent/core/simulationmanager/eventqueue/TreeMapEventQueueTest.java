@@ -0,0 +1,59 @@
+package dev.r0bert.reagent.core.simulationmanager.eventqueue;
+
+import dev.r0bert.reagent.core.messages.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TreeMapEventQueueTest {
+    @Test
+    public void peekTick_WhenEmpty_ThrowsException() {
+        var queue = new TreeMapEventQueue();
+        assertThrows(NoSuchElementException.class, queue::peekTick);
+    }
+
+    @Test
+    public void poll_WhenTickHasNoMessages_ReturnsNull() {
+        var queue = new TreeMapEventQueue();
+        assertNull(queue.poll(1));
+    }
+
+    @Test
+    public void poll_WhenSameTick_ReturnsMessagesInOrderAdded() {
+        var queue = new TreeMapEventQueue();
+        var message1 = mock(Message.class);
+        var message2 = mock(Message.class);
+        queue.add(5, message1);
+        queue.add(5, message2);
+        queue.add(2, mock(Message.class));
+
+        assertEquals(2, queue.peekTick());
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.distinctTickCount());
+        assertSame(message1, queue.poll(5));
+        assertSame(message2, queue.poll(5));
+        assertNull(queue.poll(5));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void addAll_Always_AddsMessagesAfterExistingInOrder() {
+        var queue = new TreeMapEventQueue();
+        var message1 = mock(Message.class);
+        var message2 = mock(Message.class);
+        var message3 = mock(Message.class);
+        queue.add(5, message1);
+        queue.addAll(5, List.of(message2, message3));
+        queue.addAll(7, List.of());
+
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.distinctTickCount());
+        assertSame(message1, queue.poll(5));
+        assertSame(message2, queue.poll(5));
+        assertSame(message3, queue.poll(5));
+    }
+}
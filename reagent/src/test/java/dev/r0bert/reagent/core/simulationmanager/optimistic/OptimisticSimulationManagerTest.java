@@ -0,0 +1,306 @@
+package dev.r0bert.reagent.core.simulationmanager.optimistic;
+
+import dev.r0bert.reagent.core.agents.StatefulAgent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.metrics.RecordingSimulationMetrics;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticSimulationManagerTest {
+    @Test
+    public void constructor_WhenBatchSizeIsNotPositive_ThrowsIllegalArgumentException() {
+        var startTime = ZonedDateTime.now();
+        assertThrows(IllegalArgumentException.class, () -> new OptimisticSimulationManager(startTime,
+                startTime.plusDays(1), new HashPartitionAssignment(2), Runnable::run, 0));
+    }
+
+    @Test
+    public void run_WhenStragglersArrive_RollsBackAndMatchesCoreSimulationManager() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var expected = runHopModel(new CoreSimulationManager(startTime, endTime), startTime);
+        var simulationManager = new OptimisticSimulationManager(startTime, endTime, new HashPartitionAssignment(4),
+                Runnable::run, 1024);
+
+        var actual = runHopModel(simulationManager, startTime);
+
+        assertEquals(expected, actual);
+        assertTrue(simulationManager.getRollbackCount() > 0);
+    }
+
+    @Test
+    public void run_WhenRunInParallel_MatchesCoreSimulationManager() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var expected = runHopModel(new CoreSimulationManager(startTime, endTime), startTime);
+            var actual = runHopModel(new OptimisticSimulationManager(startTime, endTime,
+                    new HashPartitionAssignment(4), executor, 16), startTime);
+            assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void run_WhenRunTwiceInParallel_CommitsTheSameOrder() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var expected = runFanInModel(new OptimisticSimulationManager(startTime, endTime,
+                    new HashPartitionAssignment(4), executor, 4), startTime);
+            for (var i = 0; i < 4; i++) {
+                var actual = runFanInModel(new OptimisticSimulationManager(startTime, endTime,
+                        new HashPartitionAssignment(4), executor, 4), startTime);
+                assertEquals(expected, actual);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void run_WhenMessagesSentNow_DeliversThemAtTheSameTime() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new OptimisticSimulationManager(startTime, startTime.plusDays(1), 4);
+        var agents = new ArrayList<TestAgent>();
+        for (var i = 0; i < 8; i++) {
+            var index = i;
+            var agent = new TestAgent(simulationManager, message -> {
+                if (index + 1 < agents.size()) {
+                    simulationManager.sendMessageNow(new RegularEventMessage(agents.get(index + 1), null));
+                }
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        simulationManager.scheduleMessage(new RegularEventMessage(agents.get(0), null), startTime.plusHours(1));
+
+        simulationManager.run();
+
+        for (var agent : agents) {
+            assertEquals(List.of(startTime.plusHours(1)), agent.receivedAt);
+        }
+        assertEquals(startTime.plusHours(1), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void run_WhenAgentThrows_RethrowsException() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new OptimisticSimulationManager(startTime, startTime.plusDays(1), 2);
+        var agent = new TestAgent(simulationManager, message -> {
+            throw new IllegalStateException("Test");
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+
+        var exception = assertThrows(IllegalStateException.class, simulationManager::run);
+        assertEquals("Test", exception.getMessage());
+    }
+
+    @Test
+    public void setMetrics_WhenRun_ReportsScheduledAndSentMessages() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new OptimisticSimulationManager(startTime, startTime.plusDays(1), 2);
+        var metrics = new RecordingSimulationMetrics();
+        simulationManager.setMetrics(metrics);
+        var agent = new TestAgent(simulationManager, message -> {
+        });
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        var snapshot = metrics.snapshot();
+        var regularEvents = snapshot.messageTypes().get(RegularEventMessage.class);
+        assertEquals(3, regularEvents.scheduled());
+        assertEquals(3, regularEvents.sent());
+        assertEquals(3, regularEvents.handler().count());
+        assertEquals(3, snapshot.pendingMessages());
+        assertEquals(2, snapshot.pendingTicks());
+        assertEquals(Duration.ofHours(1).toNanos(), snapshot.simulatedNanos());
+        assertSame(metrics, simulationManager.getMetrics());
+    }
+
+    @Test
+    public void toString_Always_ReturnsCorrectRepresentation() {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var simulationManager = new OptimisticSimulationManager(startTime, endTime, 3);
+        var expected = "OptimisticSimulationManager{startTime=" + startTime + ", endTime=" + endTime +
+                ", currentTime=" + startTime + ", partitionCount=3, batchSize=" +
+                OptimisticSimulationManager.DEFAULT_BATCH_SIZE + "}";
+        assertEquals(expected, simulationManager.toString());
+    }
+
+    /**
+     * Run a model where each agent forwards a {@link HopMessage} to another agent until its hops run out, and return
+     * the times that each agent received its {@link Message}s.
+     */
+    private static @NotNull List<List<ZonedDateTime>> runHopModel(final @NotNull SimulationManager simulationManager,
+                                                                  final @NotNull ZonedDateTime startTime) {
+        var agentCount = 32;
+        var agents = new ArrayList<TestAgent>();
+        for (var i = 0; i < agentCount; i++) {
+            var index = i;
+            var agent = new TestAgent(simulationManager, message -> {
+                var hops = ((HopMessage) message).hops();
+                if (hops > 0) {
+                    var target = agents.get((index * 7 + hops) % agentCount);
+                    simulationManager.scheduleMessage(new HopMessage(target.getUUID(), hops - 1),
+                            simulationManager.getCurrentTime().plusMinutes(hops % 3));
+                }
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        for (var i = 0; i < agentCount; i++) {
+            simulationManager.scheduleMessage(new HopMessage(agents.get(i).getUUID(), 20),
+                    startTime.plusMinutes(i % 5));
+        }
+
+        simulationManager.run();
+
+        return agents.stream().map(agent -> agent.receivedAt).toList();
+    }
+
+    /**
+     * Run a model where many agents send {@link HopMessage}s to a few agents at the same times, and return the hops of
+     * the {@link Message}s that each agent received, in the order that it received them.
+     */
+    private static @NotNull List<List<Integer>> runFanInModel(final @NotNull SimulationManager simulationManager,
+                                                              final @NotNull ZonedDateTime startTime) {
+        var agentCount = 64;
+        var agents = new ArrayList<FanInAgent>();
+        for (var i = 0; i < agentCount; i++) {
+            var index = i;
+            var agent = new FanInAgent(new UUID(0, i), hops -> {
+                for (var j = 0; j < 3; j++) {
+                    var target = agents.get((index * 7 + j) % 8);
+                    simulationManager.scheduleMessage(new HopMessage(target.getUUID(), hops - 1),
+                            simulationManager.getCurrentTime().plusMinutes(hops % 2));
+                }
+            });
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+        for (var i = 0; i < agentCount; i++) {
+            simulationManager.scheduleMessage(new HopMessage(agents.get(i).getUUID(), 3 + i % 2),
+                    startTime.plusMinutes(i % 3));
+        }
+
+        simulationManager.run();
+
+        return agents.stream().map(agent -> agent.hopsReceived).toList();
+    }
+
+    /**
+     * A {@link Message} that is forwarded a number of times.
+     */
+    private record HopMessage(@NotNull UUID getDestination, int hops) implements Message {
+        @Override
+        public @NotNull UUID getSender() {
+            return getDestination;
+        }
+
+        @Override
+        public UUID getUUID() {
+            return getDestination;
+        }
+    }
+
+    /**
+     * A {@link StatefulAgent} whose state is the times that it received its {@link Message}s.
+     */
+    private static final class TestAgent implements StatefulAgent<List<ZonedDateTime>> {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull SimulationManager simulationManager;
+        private final @NotNull Consumer<Message> onMessage;
+        private @NotNull List<ZonedDateTime> receivedAt = new ArrayList<>();
+
+        private TestAgent(final @NotNull SimulationManager simulationManager,
+                          final @NotNull Consumer<Message> onMessage) {
+            this.simulationManager = simulationManager;
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            receivedAt.add(simulationManager.getCurrentTime());
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull List<ZonedDateTime> saveState() {
+            return List.copyOf(receivedAt);
+        }
+
+        @Override
+        public void restoreState(final @NotNull List<ZonedDateTime> state) {
+            receivedAt = new ArrayList<>(state);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+
+    /**
+     * A {@link StatefulAgent} whose state is the hops of the {@link HopMessage}s that it received, and that forwards
+     * each {@link HopMessage} that has hops left.
+     */
+    private static final class FanInAgent implements StatefulAgent<List<Integer>> {
+        private final @NotNull UUID uuid;
+        private final @NotNull IntConsumer forward;
+        private @NotNull List<Integer> hopsReceived = new ArrayList<>();
+
+        private FanInAgent(final @NotNull UUID uuid, final @NotNull IntConsumer forward) {
+            this.uuid = uuid;
+            this.forward = forward;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            var hops = ((HopMessage) message).hops();
+            hopsReceived.add(hops);
+            if (hops > 0) {
+                forward.accept(hops);
+            }
+        }
+
+        @Override
+        public @NotNull List<Integer> saveState() {
+            return List.copyOf(hopsReceived);
+        }
+
+        @Override
+        public void restoreState(final @NotNull List<Integer> state) {
+            hopsReceived = new ArrayList<>(state);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package dev.r0bert.reagent.core.simulationmanager.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashPartitionAssignmentTest {
+    @Test
+    public void constructor_WhenPartitionCountIsNotPositive_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new HashPartitionAssignment(0));
+    }
+
+    @Test
+    public void getPartition_Always_ReturnsPartitionInRange() {
+        var partitionAssignment = new HashPartitionAssignment(7);
+        for (var i = 0; i < 1000; i++) {
+            var partition = partitionAssignment.getPartition(UUID.randomUUID());
+            assertTrue(partition >= 0 && partition < 7);
+        }
+    }
+
+    @Test
+    public void getPartition_WhenCalledTwice_ReturnsSamePartition() {
+        var partitionAssignment = new HashPartitionAssignment(7);
+        var uuid = UUID.randomUUID();
+        assertEquals(partitionAssignment.getPartition(uuid), partitionAssignment.getPartition(uuid));
+    }
+
+    @Test
+    public void getPartitionCount_Always_ReturnsPartitionCount() {
+        assertEquals(7, new HashPartitionAssignment(7).getPartitionCount());
+    }
+}
@@ -0,0 +1,63 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RandomActivationTest {
+    private static AgentRegistry registry(final int size) {
+        var registry = new AgentRegistry();
+        for (var i = 0; i < size; i++) {
+            var agent = mock(Agent.class);
+            when(agent.getUUID()).thenReturn(UUID.randomUUID());
+            registry.register(agent);
+        }
+        return registry;
+    }
+
+    @Test
+    public void schedule_ReturnsOneStageThatIsNotIndependent() {
+        var stages = new RandomActivation(1).schedule(0, registry(10));
+
+        assertEquals(1, stages.size());
+        assertFalse(stages.get(0).independent());
+    }
+
+    @Test
+    public void schedule_ReturnsPermutationOfHandles() {
+        var handles = new RandomActivation(1).schedule(5, registry(100)).get(0).handles().clone();
+
+        Arrays.sort(handles);
+        for (var i = 0; i < handles.length; i++) {
+            assertEquals(i, handles[i]);
+        }
+    }
+
+    @Test
+    public void schedule_WithSameSeedAndTick_ReturnsSameOrder() {
+        var registry = registry(100);
+
+        var first = new RandomActivation(42).schedule(7, registry).get(0).handles();
+        var second = new RandomActivation(42).schedule(7, registry).get(0).handles();
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void schedule_AtDifferentTicks_ReturnsDifferentOrders() {
+        var registry = registry(100);
+        var activation = new RandomActivation(42);
+
+        var first = activation.schedule(7, registry).get(0).handles();
+        var second = activation.schedule(8, registry).get(0).handles();
+
+        assertFalse(Arrays.equals(first, second));
+    }
+}
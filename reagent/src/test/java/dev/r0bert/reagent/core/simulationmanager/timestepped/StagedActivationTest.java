@@ -0,0 +1,54 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StagedActivationTest {
+    private static AgentRegistry registry(final int size) {
+        var registry = new AgentRegistry();
+        for (var i = 0; i < size; i++) {
+            var agent = mock(Agent.class);
+            when(agent.getUUID()).thenReturn(UUID.randomUUID());
+            registry.register(agent);
+        }
+        return registry;
+    }
+
+    @Test
+    public void constructor_WithNoStages_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, StagedActivation::new);
+    }
+
+    @Test
+    public void schedule_ReturnsEveryAgentInEachStage() {
+        var stages = new StagedActivation(true, false).schedule(0, registry(3));
+
+        assertEquals(2, stages.size());
+        assertArrayEquals(new int[]{0, 1, 2}, stages.get(0).handles());
+        assertTrue(stages.get(0).independent());
+        assertArrayEquals(new int[]{0, 1, 2}, stages.get(1).handles());
+        assertFalse(stages.get(1).independent());
+    }
+
+    @Test
+    public void schedule_WithSeed_ShufflesOnceForEveryStage() {
+        var registry = registry(100);
+
+        var stages = new StagedActivation(3, false, false).schedule(0, registry);
+
+        assertArrayEquals(stages.get(0).handles(), stages.get(1).handles());
+        assertArrayEquals(new RandomActivation(3).schedule(0, registry).get(0).handles(), stages.get(0).handles());
+    }
+
+    @Test
+    public void getStageCount_ReturnsNumberOfStages() {
+        assertEquals(3, new StagedActivation(true, true, false).getStageCount());
+    }
+}
@@ -0,0 +1,381 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodec;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodecs;
+import dev.r0bert.reagent.core.checkpoint.CheckpointInput;
+import dev.r0bert.reagent.core.checkpoint.CheckpointOutput;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.simulationmanager.SimulationClock;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSteppedSimulationManagerTest {
+    @Test
+    public void run_WhenAgentsReadEachOther_ReadStatesFromPreviousStep() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(2),
+                Duration.ofHours(1));
+        simulationManager.setStepExecutor(null);
+        var first = new TestAgent(0);
+        var second = new TestAgent(0);
+        first.onStep = context -> context.setState(context.getState(second.getUUID()) + 1);
+        second.onStep = context -> context.setState(context.getState(first.getUUID()) + 1);
+        simulationManager.addAgent(first);
+        simulationManager.addAgent(second);
+
+        simulationManager.run();
+
+        assertEquals(3, (int) simulationManager.getState(first.getUUID()));
+        assertEquals(3, (int) simulationManager.getState(second.getUUID()));
+        assertEquals(startTime.plusHours(2), simulationManager.getCurrentTime());
+    }
+
+    @Test
+    public void run_WhenAgentDoesNotSetState_KeepsState() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(2),
+                Duration.ofHours(1));
+        var agent = new TestAgent(7);
+        simulationManager.addAgent(agent);
+
+        simulationManager.run();
+
+        assertEquals(7, (int) simulationManager.getState(agent.getUUID()));
+        assertEquals(3, agent.steps);
+    }
+
+    @Test
+    public void run_WithExecutor_StepsEveryAgentAtEveryStep() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(9),
+                Duration.ofHours(1));
+        var executor = Executors.newFixedThreadPool(4);
+        simulationManager.setStepExecutor(executor, 7);
+        var agents = new ArrayList<TestAgent>();
+        for (var i = 0; i < 100; i++) {
+            var agent = new TestAgent(i);
+            agent.onStep = context -> context.setState(context.getState() + 1);
+            agents.add(agent);
+            simulationManager.addAgent(agent);
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var i = 0; i < agents.size(); i++) {
+            assertEquals(i + 10, (int) simulationManager.getState(agents.get(i).getUUID()));
+        }
+    }
+
+    @Test
+    public void run_WhenAgentSendsMessage_SendsItBeforeNextStep() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(2),
+                Duration.ofHours(1));
+        var agent = new TestAgent(0);
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        var receivedBeforeStep = new ArrayList<Integer>();
+        agent.onMessage = message -> receivedAt.add(simulationManager.getCurrentTime());
+        agent.onStep = context -> {
+            receivedBeforeStep.add(agent.received.size());
+            context.send(new RegularEventMessage(agent, null));
+        };
+        simulationManager.addAgent(agent);
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime.plusHours(1), startTime.plusHours(2)), receivedAt);
+        assertEquals(List.of(0, 1, 2), receivedBeforeStep);
+    }
+
+    @Test
+    public void run_WhenMessageScheduledBetweenSteps_SendsItAtItsTime() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(2),
+                Duration.ofHours(1));
+        var agent = new TestAgent(0);
+        var receivedAt = new ArrayList<ZonedDateTime>();
+        agent.onMessage = message -> receivedAt.add(simulationManager.getCurrentTime());
+        simulationManager.addAgent(agent);
+        simulationManager.scheduleMessage(new RegularEventMessage(agent, null), startTime.plusMinutes(90));
+
+        simulationManager.run();
+
+        assertEquals(List.of(startTime.plusMinutes(90)), receivedAt);
+        assertEquals(3, agent.steps);
+    }
+
+    @Test
+    public void run_WhenStateIsReused_ReturnsStateFromTwoStepsAgo() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(3),
+                Duration.ofHours(1));
+        var agent = new TestAgent(1000);
+        var reusable = new ArrayList<Integer>();
+        agent.onStep = context -> {
+            reusable.add(context.getReusableState());
+            context.setState(context.getTick() == 0 ? 0 : context.getState() + 1);
+        };
+        simulationManager.addAgent(agent);
+
+        simulationManager.run();
+
+        var expected = new ArrayList<Integer>();
+        expected.add(null);
+        expected.add(1000);
+        expected.add(0);
+        expected.add(1);
+        assertEquals(expected, reusable);
+    }
+
+    @Test
+    public void run_WithStagedActivation_LaterStagesReadStatesOfEarlierStages() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(1),
+                Duration.ofHours(1));
+        simulationManager.setActivationScheduler(new StagedActivation(true, false));
+        var first = new TestAgent(0);
+        var second = new TestAgent(10);
+        var read = new ArrayList<Integer>();
+        first.onStep = context -> {
+            if (context.getStage() == 0) {
+                context.setState(context.getState() + 1);
+            } else {
+                read.add(context.getStagedState(second.getUUID()));
+                read.add(context.getState(second.getUUID()));
+            }
+        };
+        second.onStep = context -> {
+            if (context.getStage() == 0) {
+                context.setState(context.getState() + 1);
+            }
+        };
+        simulationManager.addAgent(first);
+        simulationManager.addAgent(second);
+
+        simulationManager.run();
+
+        assertEquals(List.of(11, 10, 12, 11), read);
+        assertEquals(4, first.steps);
+        assertEquals(2, (int) simulationManager.getState(first.getUUID()));
+    }
+
+    @Test
+    public void run_WithRandomActivation_StepsAgentsInScheduledOrder() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusMinutes(30),
+                Duration.ofHours(1));
+        simulationManager.setActivationScheduler(new RandomActivation(5));
+        var registry = new AgentRegistry();
+        var agents = new ArrayList<TestAgent>();
+        var order = new ArrayList<TestAgent>();
+        for (var i = 0; i < 20; i++) {
+            var agent = new TestAgent(0);
+            agent.onStep = context -> order.add(agent);
+            agents.add(agent);
+            registry.register(agent);
+            simulationManager.addAgent(agent);
+        }
+
+        simulationManager.run();
+
+        var expected = new ArrayList<TestAgent>();
+        for (var handle : new RandomActivation(5).schedule(0, registry).get(0).handles()) {
+            expected.add(agents.get(handle));
+        }
+        assertEquals(expected, order);
+    }
+
+    @Test
+    public void run_WhenAgentNotInAnyStage_KeepsState() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(2),
+                Duration.ofHours(1));
+        simulationManager.setActivationScheduler((tick, agents) -> List.of(new ActivationStage(new int[]{0}, true)));
+        var stepped = new TestAgent(0);
+        stepped.onStep = context -> context.setState(context.getState() + 1);
+        var skipped = new TestAgent(5);
+        simulationManager.addAgent(stepped);
+        simulationManager.addAgent(skipped);
+
+        simulationManager.run();
+
+        assertEquals(3, (int) simulationManager.getState(stepped.getUUID()));
+        assertEquals(5, (int) simulationManager.getState(skipped.getUUID()));
+        assertEquals(0, skipped.steps);
+    }
+
+    @Test
+    public void constructor_WhenStepIntervalShorterThanResolution_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var clock = new SimulationClock(startTime, Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeSteppedSimulationManager<Integer>(clock, startTime.plusHours(1), Duration.ofMillis(10)));
+    }
+
+    @Test
+    public void constructor_WhenStepIntervalNotWholeTicks_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var clock = new SimulationClock(startTime, Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new TimeSteppedSimulationManager<Integer>(clock,
+                startTime.plusHours(1), Duration.ofMillis(1500)));
+    }
+
+    @Test
+    public void getStepInterval_ReturnsStepInterval() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(1),
+                Duration.ofMinutes(5));
+
+        assertEquals(Duration.ofMinutes(5), simulationManager.getStepInterval());
+    }
+
+    @Test
+    public void checkpointAndRestore_WhenHalfwayThrough_FinishesLikeUninterruptedRun() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusHours(6);
+        var uuid = UUID.randomUUID();
+
+        var uninterrupted = new TimeSteppedSimulationManager<Integer>(startTime, endTime, Duration.ofHours(1));
+        var uninterruptedAgent = new TestAgent(uuid, 1);
+        uninterruptedAgent.onStep = context -> context.setState(2 * context.getState());
+        uninterrupted.addAgent(uninterruptedAgent);
+        uninterrupted.run();
+
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            var first = new TimeSteppedSimulationManager<Integer>(startTime, endTime, Duration.ofHours(1));
+            var firstAgent = new TestAgent(uuid, 1);
+            firstAgent.onStep = context -> context.setState(2 * context.getState());
+            first.addAgent(firstAgent);
+            first.runUntil(startTime.plusHours(3));
+            first.checkpoint(path, codecs());
+
+            var restored = new TimeSteppedSimulationManager<Integer>(startTime, endTime, Duration.ofHours(1));
+            var restoredAgent = new TestAgent(uuid, 1);
+            restoredAgent.onStep = context -> context.setState(2 * context.getState());
+            restored.addAgent(restoredAgent);
+            restored.restore(path, codecs());
+
+            assertEquals(first.getCurrentTime(), restored.getCurrentTime());
+            assertEquals(first.getState(uuid), restored.getState(uuid));
+
+            restored.run();
+
+            assertEquals(128, (int) uninterrupted.getState(uuid));
+            assertEquals(uninterrupted.getState(uuid), restored.getState(uuid));
+            assertEquals(uninterruptedAgent.steps, firstAgent.steps + restoredAgent.steps);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void checkpoint_WhenNoCodecForState_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new TimeSteppedSimulationManager<Integer>(startTime, startTime.plusHours(1),
+                Duration.ofMinutes(5));
+        simulationManager.addAgent(new TestAgent(0));
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> simulationManager.checkpoint(path, CheckpointCodecs.withDefaults()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void restore_WhenSteppedAgentNotAdded_ThrowsException() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusHours(1);
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            var first = new TimeSteppedSimulationManager<Integer>(startTime, endTime, Duration.ofMinutes(5));
+            first.addAgent(new TestAgent(0));
+            first.checkpoint(path, codecs());
+
+            var restored = new TimeSteppedSimulationManager<Integer>(startTime, endTime, Duration.ofMinutes(5));
+
+            assertThrows(IllegalStateException.class, () -> restored.restore(path, codecs()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static CheckpointCodecs codecs() {
+        return CheckpointCodecs.withDefaults().register(Integer.class, new CheckpointCodec<>() {
+            @Override
+            public void write(final @NotNull Integer value, final @NotNull CheckpointOutput output)
+                    throws IOException {
+                output.writeInt(value);
+            }
+
+            @Override
+            public @NotNull Integer read(final @NotNull CheckpointInput input) throws IOException {
+                return input.readInt();
+            }
+        });
+    }
+
+    private static final class TestAgent implements SteppedAgent<Integer> {
+        private final @NotNull UUID uuid;
+        private final @NotNull List<Message> received = new ArrayList<>();
+        private final int initialState;
+        private @NotNull Consumer<Message> onMessage = message -> {
+        };
+        private @NotNull Consumer<StepContext<Integer>> onStep = context -> {
+        };
+        private int steps = 0;
+
+        private TestAgent(final int initialState) {
+            this(UUID.randomUUID(), initialState);
+        }
+
+        private TestAgent(final @NotNull UUID uuid, final int initialState) {
+            this.uuid = uuid;
+            this.initialState = initialState;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add(message);
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull Integer getInitialState() {
+            return initialState;
+        }
+
+        @Override
+        public void step(final @NotNull StepContext<Integer> context) {
+            steps++;
+            onStep.accept(context);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
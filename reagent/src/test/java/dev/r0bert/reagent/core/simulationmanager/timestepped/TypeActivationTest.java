@@ -0,0 +1,64 @@
+package dev.r0bert.reagent.core.simulationmanager.timestepped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.messages.Message;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeActivationTest {
+    @Test
+    public void schedule_ReturnsOneStagePerTypeAndOneForOtherAgents() {
+        var registry = new AgentRegistry();
+        registry.register(new Prey());
+        registry.register(new Predator());
+        registry.register(new OtherAgent());
+        registry.register(new Prey());
+        var activation = new TypeActivation(List.of(Predator.class, Prey.class), true);
+
+        var stages = activation.schedule(0, registry);
+
+        assertEquals(3, stages.size());
+        assertArrayEquals(new int[]{1}, stages.get(0).handles());
+        assertArrayEquals(new int[]{0, 3}, stages.get(1).handles());
+        assertArrayEquals(new int[]{2}, stages.get(2).handles());
+        assertTrue(stages.get(0).independent());
+    }
+
+    @Test
+    public void schedule_WhenAgentIsInstanceOfTwoTypes_PutsItInFirstStage() {
+        var registry = new AgentRegistry();
+        registry.register(new Predator());
+        var activation = new TypeActivation(List.of(Agent.class, Predator.class), false);
+
+        var stages = activation.schedule(0, registry);
+
+        assertArrayEquals(new int[]{0}, stages.get(0).handles());
+        assertArrayEquals(new int[0], stages.get(1).handles());
+        assertFalse(stages.get(0).independent());
+    }
+
+    private static class OtherAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+
+    private static final class Prey extends OtherAgent {
+    }
+
+    private static final class Predator extends OtherAgent {
+    }
+}
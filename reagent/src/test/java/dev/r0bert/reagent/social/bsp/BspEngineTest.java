@@ -0,0 +1,226 @@
+package dev.r0bert.reagent.social.bsp;
+
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.partition.SocialNetworkPartitioning;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BspEngineTest {
+    private static UUID[] agents(final int count) {
+        var agents = new UUID[count];
+        for (var i = 0; i < count; i++) {
+            agents[i] = UUID.randomUUID();
+        }
+        return agents;
+    }
+
+    private static CsrSocialNetwork ring(final UUID[] agents) {
+        var sources = new int[agents.length];
+        var targets = new int[agents.length];
+        var weights = new double[agents.length];
+        for (var i = 0; i < agents.length; i++) {
+            sources[i] = i;
+            targets[i] = (i + 1) % agents.length;
+            weights[i] = 1.0;
+        }
+        return CsrSocialNetwork.of(agents, sources, targets, weights);
+    }
+
+    private static CsrSocialNetwork star(final UUID[] agents) {
+        var sources = new int[agents.length - 1];
+        var targets = new int[agents.length - 1];
+        var weights = new double[agents.length - 1];
+        for (var i = 1; i < agents.length; i++) {
+            sources[i - 1] = i;
+            weights[i - 1] = 0.5;
+        }
+        return CsrSocialNetwork.of(agents, sources, targets, weights);
+    }
+
+    private static VertexProgram maximum(final CsrSocialNetwork network) {
+        return new VertexProgram() {
+            @Override
+            public double getInitialValue(final UUID agent) {
+                return network.indexOf(agent);
+            }
+
+            @Override
+            public void compute(final VertexContext context) {
+                var maximum = context.getValue();
+                for (var i = 0; i < context.getMessageCount(); i++) {
+                    maximum = Math.max(maximum, context.getMessage(i));
+                }
+                if (context.getSuperstep() == 0 || maximum > context.getValue()) {
+                    context.setValue(maximum);
+                    context.sendToOutEdges(maximum);
+                }
+                context.voteToHalt();
+            }
+        };
+    }
+
+    @Test
+    public void run_WhenVerticesVoteToHalt_SpreadsMaximumAndHalts() {
+        var agents = agents(8);
+        var network = ring(agents);
+        var engine = new BspEngine(network, maximum(network), 3);
+
+        var supersteps = engine.run(100);
+
+        assertTrue(engine.isHalted());
+        assertEquals(9, supersteps);
+        assertEquals(9, engine.getSuperstep());
+        for (var agent : agents) {
+            assertEquals(7.0, engine.getValue(agent));
+        }
+        assertFalse(engine.superstep());
+        assertEquals(9, engine.getSuperstep());
+    }
+
+    @Test
+    public void superstep_WithoutCombiner_DeliversEveryMessage() {
+        var agents = agents(11);
+        var engine = new BspEngine(star(agents), context -> {
+            if (context.getSuperstep() == 0) {
+                context.sendWeightedToOutEdges(1.0);
+            } else {
+                var sum = 0.0;
+                for (var i = 0; i < context.getMessageCount(); i++) {
+                    sum += context.getMessage(i);
+                }
+                context.setValue(context.getMessageCount() + sum / 100);
+            }
+            context.voteToHalt();
+        }, 4);
+
+        engine.run(10);
+
+        assertEquals(10.05, engine.getValue(0), 1e-12);
+        assertEquals(0.0, engine.getValue(1));
+        assertTrue(engine.isHalted());
+    }
+
+    @Test
+    public void superstep_WithCombiner_DeliversOneCombinedMessage() {
+        var agents = agents(11);
+        var engine = new BspEngine(star(agents), context -> {
+            if (context.getSuperstep() == 0) {
+                context.sendWeightedToOutEdges(1.0);
+            } else {
+                context.setValue(context.getMessageCount() + context.getMessage(0) / 100);
+            }
+            context.voteToHalt();
+        }, 4);
+        engine.setCombiner(Double::sum);
+
+        engine.run(10);
+
+        assertEquals(1.05, engine.getValue(0), 1e-12);
+    }
+
+    @Test
+    public void run_WithExecutor_MatchesSinglePartition() {
+        var agents = agents(200);
+        var sources = new int[1000];
+        var targets = new int[1000];
+        var weights = new double[1000];
+        for (var i = 0; i < sources.length; i++) {
+            sources[i] = i % agents.length;
+            targets[i] = (i % agents.length + 1 + 7 * (i / agents.length)) % agents.length;
+            weights[i] = 1.0;
+        }
+        var network = CsrSocialNetwork.of(agents, sources, targets, weights);
+        VertexProgram pageRank = context -> {
+            if (context.getSuperstep() > 0) {
+                var sum = 0.0;
+                for (var i = 0; i < context.getMessageCount(); i++) {
+                    sum += context.getMessage(i);
+                }
+                context.setValue(0.15 / 200 + 0.85 * sum);
+            } else {
+                context.setValue(1.0 / 200);
+            }
+            if (context.getSuperstep() < 10) {
+                context.sendToOutEdges(context.getValue() / context.getOutDegree());
+            } else {
+                context.voteToHalt();
+            }
+        };
+        var serial = new BspEngine(network, pageRank, 1);
+        serial.setExecutor(null);
+        var parallel = new BspEngine(network, pageRank, 7);
+        var executor = Executors.newFixedThreadPool(4);
+        parallel.setExecutor(executor);
+
+        serial.run(20);
+        try {
+            parallel.run(20);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(11, serial.getSuperstep());
+        assertEquals(11, parallel.getSuperstep());
+        for (var vertex = 0; vertex < agents.length; vertex++) {
+            assertEquals(serial.getValue(vertex), parallel.getValue(vertex));
+        }
+    }
+
+    @Test
+    public void constructor_WithPartitioning_UsesItsPartitions() {
+        var agents = agents(4);
+        var network = ring(agents);
+        var partitioning = new SocialNetworkPartitioning(network, 2, new int[]{1, 0, 1, 0});
+
+        var engine = new BspEngine(network, maximum(network), partitioning);
+        engine.run(100);
+
+        assertEquals(2, engine.getPartitionCount());
+        for (var vertex = 0; vertex < agents.length; vertex++) {
+            assertEquals(3.0, engine.getValue(vertex));
+        }
+    }
+
+    @Test
+    public void constructor_WithPartitioningOfDifferentNetwork_ThrowsException() {
+        var partitioning = new SocialNetworkPartitioning(ring(agents(3)), 2, new int[]{1, 0, 1});
+
+        var network = ring(agents(4));
+
+        assertThrows(IllegalArgumentException.class, () -> new BspEngine(network, maximum(network), partitioning));
+    }
+
+    @Test
+    public void constructor_WhenPartitionCountNotPositive_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new BspEngine(ring(agents(4)), context -> {
+        }, 0));
+    }
+
+    @Test
+    public void run_WhenMaximumSuperstepsNegative_ThrowsException() {
+        var network = ring(agents(4));
+        var engine = new BspEngine(network, maximum(network), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.run(-1));
+    }
+
+    @Test
+    public void getValue_WhenAgentNotInNetwork_ThrowsException() {
+        var network = ring(agents(4));
+        var engine = new BspEngine(network, maximum(network), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.getValue(UUID.randomUUID()));
+    }
+
+    @Test
+    public void getMessage_WhenIndexOutOfRange_ThrowsException() {
+        var engine = new BspEngine(ring(agents(2)), context -> context.getMessage(0), 1);
+        engine.setExecutor(null);
+
+        assertThrows(IndexOutOfBoundsException.class, engine::superstep);
+    }
+}
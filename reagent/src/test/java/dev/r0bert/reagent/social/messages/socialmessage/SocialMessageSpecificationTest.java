@@ -153,6 +153,25 @@ class SocialMessageSpecificationTest {
         }
     }
 
+    @Test
+    public void toMulticastMessageFromUUIDsAndWeights_MultipleDestinations_ReturnsCorrectMessage() {
+        var specification = new SocialMessageSpecification(UUID.randomUUID(), UUID.randomUUID(), mock(Message.class));
+        var destinationsAndWeights = new ArrayList<SocialMessageSpecification.UUIDWeightPair>();
+        destinationsAndWeights.add(new SocialMessageSpecification.UUIDWeightPair(UUID.randomUUID(), 1.1));
+        destinationsAndWeights.add(new SocialMessageSpecification.UUIDWeightPair(UUID.randomUUID(), 2.2));
+
+        var multicast = specification.toMulticastMessageFromUUIDsAndWeights(destinationsAndWeights);
+
+        assertEquals(destinationsAndWeights.size(), multicast.getRecipientCount());
+        assertEquals(specification.getSender(), multicast.getSender());
+        assertSame(specification.getPayload(), multicast.getPayload());
+        for (var i = 0; i < multicast.getRecipientCount(); i++) {
+            var delivery = multicast.getDelivery(i);
+            assertEquals(destinationsAndWeights.get(i), new SocialMessageSpecification.UUIDWeightPair(
+                    delivery.getDestination(), delivery.getWeight()));
+        }
+    }
+
     @Test
     public void AgentWeightPairConstructor_Always_Works() {
         var agent = mock(Agent.class);
@@ -56,6 +56,28 @@ class SocialMessageTest {
         assertEquals(payload, socialMessage.getPayload());
     }
 
+    @Test
+    public void constructor_WithoutHandle_AssignsNoHandle() {
+        var payload = mock(Message.class);
+        var socialMessage = new SocialMessage(UUID.randomUUID(), UUID.randomUUID(), null, payload, 0.5);
+        assertEquals(-1, socialMessage.getDestinationHandle());
+    }
+
+    @Test
+    public void constructor_WithHandle_AssignsCorrectly() {
+        var destination = UUID.randomUUID();
+        var sender = UUID.randomUUID();
+        var uuid = UUID.randomUUID();
+        var payload = mock(Message.class);
+        var socialMessage = new SocialMessage(destination, 7, sender, uuid, payload, 0.5);
+        assertEquals(7, socialMessage.getDestinationHandle());
+        assertEquals(0.5, socialMessage.getWeight());
+        assertEquals(destination, socialMessage.getDestination());
+        assertEquals(sender, socialMessage.getSender());
+        assertEquals(uuid, socialMessage.getUUID());
+        assertEquals(payload, socialMessage.getPayload());
+    }
+
     @Test
     public void constructor_WithWeightButNullUUID_AssignsRandomUUID() {
         var destination = UUID.randomUUID();
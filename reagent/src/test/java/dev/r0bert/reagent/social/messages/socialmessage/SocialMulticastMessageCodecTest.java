@@ -0,0 +1,84 @@
+package dev.r0bert.reagent.social.messages.socialmessage;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.checkpoint.CheckpointCodecs;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocialMulticastMessageCodecTest {
+    @Test
+    public void checkpointAndRestore_WhenMulticastPending_DeliversItAfterRestore() throws IOException {
+        var startTime = ZonedDateTime.now();
+        var endTime = startTime.plusDays(1);
+        var sender = UUID.randomUUID();
+        var recipients = new UUID[]{UUID.randomUUID(), UUID.randomUUID()};
+        var codecs = CheckpointCodecs.withDefaults()
+                .register(SocialMulticastMessage.class, new SocialMulticastMessageCodec());
+
+        var path = Files.createTempFile("checkpoint", ".bin");
+        try {
+            var first = new CoreSimulationManager(startTime, endTime);
+            for (var recipient : recipients) {
+                first.addAgent(new CollectingAgent(recipient, new ArrayList<>()));
+            }
+            var payload = new RegularEventMessage(recipients[0], UUID.randomUUID());
+            var multicast = new SocialMessageSpecification(null, sender, payload).toMulticastMessage(recipients, null,
+                    new double[]{0.25, 0.75});
+            first.scheduleMessage(multicast, startTime.plusHours(1));
+            first.checkpoint(path, codecs);
+
+            var restored = new CoreSimulationManager(startTime, endTime);
+            var received = new ArrayList<SocialMessage>();
+            for (var recipient : recipients) {
+                restored.addAgent(new CollectingAgent(recipient, received));
+            }
+            restored.restore(path, codecs);
+            restored.run();
+
+            assertEquals(List.of(recipients[0], recipients[1]),
+                    received.stream().map(SocialMessage::getDestination).toList());
+            assertEquals(List.of(0.25, 0.75), received.stream().map(SocialMessage::getWeight).toList());
+            for (var message : received) {
+                assertEquals(sender, message.getSender());
+                assertEquals(payload.getUUID(), message.getPayload().getUUID());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * An {@link Agent} that collects the {@link SocialMessage}s it receives.
+     */
+    private static final class CollectingAgent implements Agent {
+        private final @NotNull UUID uuid;
+        private final @NotNull List<SocialMessage> received;
+
+        private CollectingAgent(final @NotNull UUID uuid, final @NotNull List<SocialMessage> received) {
+            this.uuid = uuid;
+            this.received = received;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add((SocialMessage) message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.r0bert.reagent.social.messages.socialmessage;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SocialMulticastMessageTest {
+    @Test
+    public void constructor_WhenWeightsLengthDiffers_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SocialMulticastMessage(UUID.randomUUID(), null,
+                mock(Message.class), new UUID[]{UUID.randomUUID()}, null, new double[0]));
+    }
+
+    @Test
+    public void constructor_WhenHandlesLengthDiffers_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SocialMulticastMessage(UUID.randomUUID(), null,
+                mock(Message.class), new UUID[]{UUID.randomUUID()}, new int[2], new double[1]));
+    }
+
+    @Test
+    public void getDelivery_Always_ReturnsSocialMessageToRecipient() {
+        var sender = UUID.randomUUID();
+        var recipient1 = UUID.randomUUID();
+        var recipient2 = UUID.randomUUID();
+        var payload = mock(Message.class);
+        var multicast = new SocialMulticastMessage(sender, null, payload, new UUID[]{recipient1, recipient2},
+                new int[]{3, 4}, new double[]{0.25, 0.75});
+
+        var delivery = multicast.getDelivery(1);
+
+        assertEquals(2, multicast.getRecipientCount());
+        assertEquals(sender, multicast.getDestination());
+        assertEquals(recipient2, delivery.getDestination());
+        assertEquals(4, delivery.getDestinationHandle());
+        assertEquals(sender, delivery.getSender());
+        assertSame(payload, delivery.getPayload());
+        assertEquals(0.75, delivery.getWeight());
+        assertNotEquals(multicast.getUUID(), delivery.getUUID());
+    }
+
+    @Test
+    public void getRecipientHandle_WhenHandlesNotKnown_ReturnsMinusOne() {
+        var multicast = new SocialMulticastMessage(UUID.randomUUID(), null, mock(Message.class),
+                new UUID[]{UUID.randomUUID()}, null, new double[]{1.0});
+
+        assertEquals(-1, multicast.getRecipientHandle(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> multicast.getRecipientHandle(1));
+    }
+
+    @Test
+    public void run_WhenMulticastScheduled_DeliversSocialMessageToEachRecipient() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var received = new ArrayList<SocialMessage>();
+        var recipients = new UUID[3];
+        for (var i = 0; i < recipients.length; i++) {
+            var agent = new CollectingAgent(received);
+            recipients[i] = agent.getUUID();
+            simulationManager.addAgent(agent);
+        }
+        var specification = new SocialMessageSpecification(null, UUID.randomUUID(), mock(Message.class));
+        simulationManager.scheduleMessage(specification.toMulticastMessage(recipients, null,
+                new double[]{0.1, 0.2, 0.3}), startTime.plusHours(1));
+
+        simulationManager.run();
+
+        assertEquals(3, received.size());
+        assertEquals(List.of(recipients[0], recipients[1], recipients[2]),
+                received.stream().map(SocialMessage::getDestination).toList());
+        assertEquals(List.of(0.1, 0.2, 0.3), received.stream().map(SocialMessage::getWeight).toList());
+    }
+
+    /**
+     * An {@link Agent} that collects the {@link SocialMessage}s it receives.
+     */
+    private static final class CollectingAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull List<SocialMessage> received;
+
+        private CollectingAgent(final @NotNull List<SocialMessage> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add((SocialMessage) message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
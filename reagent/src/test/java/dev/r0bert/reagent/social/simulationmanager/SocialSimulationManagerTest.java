@@ -1,11 +1,18 @@
 package dev.r0bert.reagent.social.simulationmanager;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.social.bsp.BspEngine;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessage;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
 import dev.r0bert.reagent.social.socialnetwork.SocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.Test;
 
 import java.time.ZonedDateTime;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +44,60 @@ class SocialSimulationManagerTest {
         verify(socialNetwork, times(1)).addAgent(agent);
     }
 
+    @Test
+    public void run_WithMessageCombiner_SendsOneSocialMessageWithSummedWeight() {
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new SocialSimulationManager(startTime, startTime.plusDays(1),
+                mock(SocialNetwork.class));
+        simulationManager.setMessageCombiner(SocialMessage.class, (first, second) ->
+                new SocialMessage(first.getDestination(), first.getSender(), null, first.getPayload(),
+                        first.getWeight() + second.getWeight()));
+        var target = mock(Agent.class);
+        when(target.getUUID()).thenReturn(UUID.randomUUID());
+        simulationManager.addAgent(target);
+        var payload = mock(Message.class);
+        for (var i = 0; i < 50; i++) {
+            simulationManager.scheduleMessage(new SocialMulticastMessage(UUID.randomUUID(), null, payload,
+                    new UUID[]{target.getUUID()}, null, new double[]{0.5}), startTime.plusHours(1));
+        }
+
+        simulationManager.run();
+
+        verify(target, times(1)).handleMessage(argThat(message ->
+                message instanceof SocialMessage socialMessage && socialMessage.getWeight() == 25.0));
+        verify(target, times(1)).handleMessage(any());
+    }
+
+    @Test
+    public void addBspEngine_WhenSuperstepsScheduled_RunsSuperstepForEachMessage() {
+        var startTime = ZonedDateTime.now();
+        var network = CsrSocialNetwork.of(new UUID[]{UUID.randomUUID(), UUID.randomUUID()}, new int[]{0},
+                new int[]{1}, new double[]{1.0});
+        var simulationManager = new SocialSimulationManager(startTime, startTime.plusDays(1), network);
+        var engine = new BspEngine(network, context -> context.setValue(context.getValue() + 1), 1);
+        simulationManager.addBspEngine(engine);
+        simulationManager.scheduleMessage(new RegularEventMessage(engine, null), startTime.plusHours(1));
+        simulationManager.scheduleMessage(new RegularEventMessage(engine, null), startTime.plusHours(2));
+
+        simulationManager.run();
+
+        assertEquals(2, engine.getSuperstep());
+        assertEquals(2.0, engine.getValue(1));
+        assertEquals(2, network.getAgentCount());
+    }
+
+    @Test
+    public void addBspEngine_WhenEngineRunsOverDifferentNetwork_ThrowsException() {
+        var startTime = ZonedDateTime.now();
+        var network = CsrSocialNetwork.of(new UUID[]{UUID.randomUUID()}, new int[0], new int[0], new double[0]);
+        var simulationManager = new SocialSimulationManager(startTime, startTime.plusDays(1),
+                mock(SocialNetwork.class));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> simulationManager.addBspEngine(new BspEngine(network, context -> {
+                }, 1)));
+    }
+
     @Test
     public void toString_Always_ReturnsCorrectRepresentation() throws IllegalAccessException {
         var startTime = ZonedDateTime.now();
@@ -0,0 +1,69 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import dev.r0bert.reagent.core.agents.AgentRegistry;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AgentHandlesTest {
+    @Test
+    public void constructor_WhenSizeIsNegative_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new AgentHandles(-1));
+    }
+
+    @Test
+    public void get_WhenCalledTwice_AsksSimulationManagerOnce() {
+        var handles = new AgentHandles(2);
+        var uuid = UUID.randomUUID();
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(uuid)).thenReturn(4);
+
+        assertEquals(4, handles.get(simulationManager, 1, uuid));
+        assertEquals(4, handles.get(simulationManager, 1, uuid));
+
+        verify(simulationManager, times(1)).getAgentHandle(uuid);
+    }
+
+    @Test
+    public void get_WhenAgentHasNoHandle_AsksAgain() {
+        var handles = new AgentHandles(1);
+        var uuid = UUID.randomUUID();
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(uuid)).thenReturn(AgentRegistry.NO_HANDLE);
+
+        assertEquals(AgentRegistry.NO_HANDLE, handles.get(simulationManager, 0, uuid));
+        assertEquals(AgentRegistry.NO_HANDLE, handles.get(simulationManager, 0, uuid));
+
+        verify(simulationManager, times(2)).getAgentHandle(uuid);
+    }
+
+    @Test
+    public void get_WhenSimulationManagerChanges_AsksNewSimulationManager() {
+        var handles = new AgentHandles(1);
+        var uuid = UUID.randomUUID();
+        var first = mock(SimulationManager.class);
+        when(first.getAgentHandle(uuid)).thenReturn(1);
+        var second = mock(SimulationManager.class);
+        when(second.getAgentHandle(uuid)).thenReturn(2);
+
+        assertEquals(1, handles.get(first, 0, uuid));
+        assertEquals(2, handles.get(second, 0, uuid));
+    }
+
+    @Test
+    public void getAll_Always_ReturnsHandleOfEachAgent() {
+        var handles = new AgentHandles(3);
+        var uuid1 = UUID.randomUUID();
+        var uuid2 = UUID.randomUUID();
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(uuid1)).thenReturn(7);
+        when(simulationManager.getAgentHandle(uuid2)).thenReturn(AgentRegistry.NO_HANDLE);
+
+        assertArrayEquals(new int[]{7, AgentRegistry.NO_HANDLE}, handles.getAll(simulationManager,
+                new UUID[]{uuid1, uuid2}));
+    }
+}
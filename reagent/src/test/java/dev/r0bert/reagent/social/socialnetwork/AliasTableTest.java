@@ -0,0 +1,51 @@
+package dev.r0bert.reagent.social.socialnetwork;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+    @Test
+    public void sample_Always_SamplesInProportionToWeights() {
+        var table = new AliasTable(new double[]{9.0, 1.0, 2.0, 0.0, 7.0, 9.0}, 1, 5);
+        var random = new SplittableRandom(1);
+        var counts = new int[4];
+
+        for (var i = 0; i < 100_000; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(4, table.size());
+        assertFalse(table.isEmpty());
+        assertEquals(10_000, counts[0], 600);
+        assertEquals(20_000, counts[1], 800);
+        assertEquals(0, counts[2]);
+        assertEquals(70_000, counts[3], 1_000);
+    }
+
+    @Test
+    public void sample_NonPositiveWeights_NeverSamplesThem() {
+        var table = new AliasTable(new double[]{-1.0, Double.NaN, 3.0}, 0, 3);
+        var random = new SplittableRandom(2);
+
+        for (var i = 0; i < 1_000; i++) {
+            assertEquals(2, table.sample(random));
+        }
+    }
+
+    @Test
+    public void sample_NoWeight_ThrowsException() {
+        var table = new AliasTable(new double[]{0.0, -1.0}, 0, 2);
+
+        assertTrue(table.isEmpty());
+        assertThrows(IllegalStateException.class, () -> table.sample(new SplittableRandom(3)));
+        assertTrue(new AliasTable(new double[0], 0, 0).isEmpty());
+    }
+
+    @Test
+    public void constructor_RangeOutOfBounds_ThrowsException() {
+        assertThrows(IndexOutOfBoundsException.class, () -> new AliasTable(new double[2], 1, 3));
+    }
+}
@@ -1,8 +1,20 @@
 package dev.r0bert.reagent.social.socialnetwork;
 
 import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class SocialNetworkTest {
@@ -27,4 +39,87 @@ class SocialNetworkTest {
         socialNetwork.setWeight(source, target);
         verify(socialNetwork, times(1)).setWeight(source, target, 1.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sendSampledSocialMessages_ByDefault_SamplesFanOutByWeight() {
+        var source = mock(Agent.class);
+        when(source.getUUID()).thenReturn(UUID.randomUUID());
+        var target1 = mock(Agent.class);
+        when(target1.getUUID()).thenReturn(UUID.randomUUID());
+        var target2 = mock(Agent.class);
+        when(target2.getUUID()).thenReturn(UUID.randomUUID());
+        var socialNetwork = new EdgeMapSocialNetwork();
+        socialNetwork.addEdge(source, target1, 0.0);
+        socialNetwork.addEdge(source, target2, 2.0);
+        var simulationManager = mock(SimulationManager.class);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 10, new SplittableRandom(1));
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> {
+            if (!(message instanceof SocialMulticastMessage multicast) || multicast.getRecipientCount() != 10) {
+                return false;
+            }
+            for (var i = 0; i < 10; i++) {
+                if (!multicast.getRecipient(i).equals(target2.getUUID()) || multicast.getWeight(i) != 2.0) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+        verify(simulationManager, never()).sendMessageNow(any());
+    }
+
+    @Test
+    public void sendSampledSocialMessages_ByDefaultWithoutEdges_SendsNothing() {
+        var socialNetwork = new EdgeMapSocialNetwork();
+        var simulationManager = mock(SimulationManager.class);
+        var specification = new SocialMessageSpecification(null, UUID.randomUUID(), mock(Message.class));
+
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 10, new SplittableRandom(1));
+
+        verify(simulationManager, never()).sendMulticastNow(any());
+        verify(simulationManager, never()).sendMessageNow(any());
+        assertThrows(IllegalArgumentException.class, () -> socialNetwork.sendSampledSocialMessages(simulationManager,
+                specification, -1, new SplittableRandom(1)));
+    }
+
+    private static final class EdgeMapSocialNetwork implements SocialNetwork {
+        private final Map<UUID, Map<UUID, Double>> edges = new LinkedHashMap<>();
+
+        @Override
+        public void addAgent(final @NotNull Agent agent) {
+            edges.putIfAbsent(agent.getUUID(), new LinkedHashMap<>());
+        }
+
+        @Override
+        public void addEdge(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+            edges.computeIfAbsent(source.getUUID(), uuid -> new LinkedHashMap<>()).put(target.getUUID(), weight);
+        }
+
+        @Override
+        public void removeAgent(final @NotNull Agent agent) {
+            edges.remove(agent.getUUID());
+        }
+
+        @Override
+        public @Nullable Double getWeight(final @NotNull Agent source, final @NotNull Agent target) {
+            return edges.getOrDefault(source.getUUID(), Map.of()).get(target.getUUID());
+        }
+
+        @Override
+        public void setWeight(final @NotNull Agent source, final @NotNull Agent target, final double weight) {
+            addEdge(source, target, weight);
+        }
+
+        @Override
+        public void sendSocialMessages(final @NotNull SimulationManager simulationManager,
+                                       final @NotNull SocialMessageSpecification specification) {
+            specification.toSocialMessagesFromUUIDsAndWeights(edges.getOrDefault(specification.getSender(), Map.of())
+                            .entrySet().stream()
+                            .map(edge -> new SocialMessageSpecification.UUIDWeightPair(edge.getKey(), edge.getValue()))
+                            .toList())
+                    .forEach(simulationManager::sendMessageNow);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package dev.r0bert.reagent.social.socialnetwork.concurrent;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrentSocialNetworkTest {
+    @Test
+    public void addEdge_Always_StoresEdge() {
+        var source = new TestAgent();
+        var target = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        network.addAgent(target);
+        network.addAgent(source);
+
+        network.addEdge(source, target, 0.4);
+
+        assertEquals(2, network.getAgentCount());
+        assertEquals(1, network.getOutDegree(source));
+        assertEquals(0.4, network.getWeight(source, target));
+        assertNull(network.getWeight(target, source));
+    }
+
+    @Test
+    public void addEdge_InvalidEdge_ThrowsException() {
+        var source = new TestAgent();
+        var target = new TestAgent();
+        var network = new ConcurrentSocialNetwork(3);
+        network.addAgent(source);
+
+        assertThrows(IllegalArgumentException.class, () -> network.addEdge(source, target, 1.0));
+        network.addAgent(target);
+        network.addEdge(source, target, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> network.addEdge(source, target, 2.0));
+        assertEquals(1.0, network.getWeight(source, target));
+    }
+
+    @Test
+    public void setWeight_Always_ChangesWeight() {
+        var source = new TestAgent();
+        var target = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        network.addAgent(target);
+        network.addEdge(source, target, 0.4);
+
+        network.setWeight(source, target, 0.9);
+
+        assertEquals(0.9, network.getWeight(source, target));
+        assertThrows(IllegalArgumentException.class, () -> network.setWeight(target, source, 0.1));
+    }
+
+    @Test
+    public void removeAgent_Always_RemovesIncomingAndOutgoingEdges() {
+        var first = new TestAgent();
+        var second = new TestAgent();
+        var third = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(first);
+        network.addAgent(second);
+        network.addAgent(third);
+        network.addEdge(first, second, 1.0);
+        network.addEdge(second, first, 1.0);
+        network.addEdge(second, third, 1.0);
+        network.addEdge(third, second, 1.0);
+
+        network.removeAgent(second);
+        network.removeAgent(second);
+
+        assertEquals(2, network.getAgentCount());
+        assertEquals(0, network.getOutDegree(first));
+        assertEquals(0, network.getOutDegree(third));
+        assertNull(network.getWeight(second, first));
+        network.addAgent(second);
+        assertEquals(0, network.getOutDegree(second));
+    }
+
+    @Test
+    public void sendSocialMessages_Always_SendsOneMulticastMessage() {
+        var source = new TestAgent();
+        var first = new TestAgent();
+        var second = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        network.addAgent(first);
+        network.addAgent(second);
+        network.addEdge(source, first, 0.2);
+        network.addEdge(source, second, 0.8);
+        var simulationManager = mock(SimulationManager.class);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+        network.sendSocialMessages(simulationManager, specification);
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> {
+            if (!(message instanceof SocialMulticastMessage multicast) || multicast.getRecipientCount() != 2) {
+                return false;
+            }
+            for (var i = 0; i < 2; i++) {
+                var expected = multicast.getRecipient(i).equals(first.getUUID()) ? 0.2 : 0.8;
+                if (multicast.getWeight(i) != expected) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    @Test
+    public void sendSocialMessages_WhenSentTwice_AddressesTargetsByCachedHandle() {
+        var source = new TestAgent();
+        var target = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        network.addAgent(target);
+        network.addEdge(source, target, 1.0);
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(target.getUUID())).thenReturn(5);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+        network.sendSocialMessages(simulationManager, specification);
+        network.sendSampledSocialMessages(simulationManager, specification, 2, new SplittableRandom(1));
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                && m.getRecipientCount() == 1 && m.getRecipientHandle(0) == 5));
+        verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                && m.getRecipientCount() == 2 && m.getRecipientHandle(0) == 5 && m.getRecipientHandle(1) == 5));
+        verify(simulationManager, times(1)).getAgentHandle(target.getUUID());
+    }
+
+    @Test
+    public void sendSocialMessages_NoEdges_SendsNothing() {
+        var source = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        var simulationManager = mock(SimulationManager.class);
+
+        network.sendSocialMessages(simulationManager, new SocialMessageSpecification(null, source.getUUID(),
+                mock(Message.class)));
+        network.sendSocialMessages(simulationManager, new SocialMessageSpecification(null, UUID.randomUUID(),
+                mock(Message.class)));
+
+        verify(simulationManager, never()).sendMulticastNow(any());
+    }
+
+    @Test
+    public void sendSampledSocialMessages_EdgesChanged_SamplesNewEdges() {
+        var source = new TestAgent();
+        var first = new TestAgent();
+        var second = new TestAgent();
+        var network = new ConcurrentSocialNetwork();
+        network.addAgent(source);
+        network.addAgent(first);
+        network.addAgent(second);
+        network.addEdge(source, first, 1.0);
+        var simulationManager = mock(SimulationManager.class);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+        var random = new SplittableRandom(1);
+
+        network.sendSampledSocialMessages(simulationManager, specification, 10, random);
+        network.addEdge(source, second, 2.0);
+        network.setWeight(source, first, 0.0);
+        network.sendSampledSocialMessages(simulationManager, specification, 20, random);
+        network.sendSampledSocialMessages(simulationManager, specification, 0, random);
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> allSentTo(message, 10, first.getUUID(), 1.0)));
+        verify(simulationManager).sendMulticastNow(argThat(message -> allSentTo(message, 20, second.getUUID(), 2.0)));
+        verify(simulationManager, times(2)).sendMulticastNow(any());
+    }
+
+    private static boolean allSentTo(final Message message, final int count, final UUID recipient,
+                                     final double weight) {
+        if (!(message instanceof SocialMulticastMessage multicast) || multicast.getRecipientCount() != count) {
+            return false;
+        }
+        for (var i = 0; i < count; i++) {
+            if (!multicast.getRecipient(i).equals(recipient) || multicast.getWeight(i) != weight) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void addEdge_WhileRemovingAgents_LeavesNoEdgesToRemovedAgents() {
+        var agents = new TestAgent[200];
+        var network = new ConcurrentSocialNetwork(8);
+        for (var i = 0; i < agents.length; i++) {
+            agents[i] = new TestAgent();
+            network.addAgent(agents[i]);
+        }
+        var threadCount = 8;
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        for (var thread = 0; thread < threadCount; thread++) {
+            var first = thread;
+            futures.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                for (var i = first; i < agents.length; i += threadCount) {
+                    for (var j = 0; j < agents.length; j++) {
+                        if (i != j) {
+                            try {
+                                network.addEdge(agents[i], agents[j], 1.0);
+                                network.setWeight(agents[i], agents[j], 2.0);
+                            } catch (IllegalArgumentException e) {
+                                assertTrue(i % 10 == 0 || j % 10 == 0);
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        futures.add(CompletableFuture.runAsync(() -> {
+            await(start);
+            for (var i = 0; i < agents.length; i += 10) {
+                network.removeAgent(agents[i]);
+            }
+        }));
+        start.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(180, network.getAgentCount());
+        for (var i = 0; i < agents.length; i++) {
+            if (i % 10 == 0) {
+                assertEquals(0, network.getOutDegree(agents[i]));
+                continue;
+            }
+            assertEquals(179, network.getOutDegree(agents[i]));
+            for (var j = 0; j < agents.length; j++) {
+                if (i != j) {
+                    assertEquals(j % 10 == 0 ? null : 2.0, network.getWeight(agents[i], agents[j]));
+                }
+            }
+        }
+    }
+
+    private static void await(final @NotNull CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TestAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package dev.r0bert.reagent.social.socialnetwork.csr;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessage;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
+import dev.r0bert.reagent.social.simulationmanager.SocialSimulationManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CsrSocialNetworkTest {
+    private static Agent mockAgent() {
+        var agent = mock(Agent.class);
+        var uuid = UUID.randomUUID();
+        when(agent.getUUID()).thenReturn(uuid);
+        return agent;
+    }
+
+    @Test
+    public void build_Always_StoresAgentsAndEdges() {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var isolated = mockAgent();
+
+        var network = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addAgent(isolated)
+                .addEdge(source, target2, 0.7)
+                .addEdge(source, target1, 0.3)
+                .addEdge(target1, source, 0.1)
+                .build();
+
+        assertEquals(4, network.getAgentCount());
+        assertEquals(3, network.getEdgeCount());
+        assertEquals(2, network.getOutDegree(source));
+        assertEquals(1, network.getOutDegree(target1));
+        assertEquals(0, network.getOutDegree(isolated));
+        assertEquals(0.3, network.getWeight(source, target1));
+        assertEquals(0.7, network.getWeight(source, target2));
+        assertEquals(0.1, network.getWeight(target1, source));
+        assertNull(network.getWeight(target2, source));
+        assertNull(network.getWeight(source, mockAgent()));
+    }
+
+    @Test
+    public void addAgent_WhenAlreadyAdded_DoesNothing() {
+        var agent = mockAgent();
+
+        var network = CsrSocialNetwork.builder().addAgent(agent).addAgent(agent).build();
+
+        assertEquals(1, network.getAgentCount());
+        assertEquals(0, network.indexOf(agent.getUUID()));
+    }
+
+    @Test
+    public void addEdge_WhenAgentNotAdded_ThrowsException() {
+        var builder = CsrSocialNetwork.builder().addAgent(mockAgent());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(mockAgent(), mockAgent(), 1.0));
+    }
+
+    @Test
+    public void build_WhenEdgeAddedTwice_ThrowsException() {
+        var source = mockAgent();
+        var target = mockAgent();
+        var builder = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target)
+                .addEdge(source, target, 0.1)
+                .addEdge(source, target, 0.2);
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void build_WithManyAgents_FindsEveryAgent() {
+        var builder = CsrSocialNetwork.builder();
+        var uuids = new UUID[1000];
+        for (var i = 0; i < uuids.length; i++) {
+            uuids[i] = UUID.randomUUID();
+            builder.addAgent(uuids[i]);
+        }
+        for (var i = 0; i < uuids.length; i++) {
+            builder.addEdge(uuids[i], uuids[(i * 7 + 3) % uuids.length], i);
+        }
+
+        var network = builder.build();
+
+        for (var i = 0; i < uuids.length; i++) {
+            assertEquals(i, network.indexOf(uuids[i]));
+        }
+        assertEquals(CsrSocialNetwork.NO_INDEX, network.indexOf(UUID.randomUUID()));
+    }
+
+    @Test
+    public void addAgent_WhenInNetwork_DoesNothing() {
+        var agent = mockAgent();
+        var network = CsrSocialNetwork.builder().addAgent(agent).build();
+
+        network.addAgent(agent);
+
+        assertEquals(1, network.getAgentCount());
+    }
+
+    @Test
+    public void of_Always_SortsEdgesBySourceAndTarget() {
+        var agents = new UUID[]{UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        var network = CsrSocialNetwork.of(agents, new int[]{2, 0, 0, 1}, new int[]{0, 2, 1, 0},
+                new double[]{0.1, 0.2, 0.3, 0.4});
+
+        assertEquals(0, network.getEdgeStart(0));
+        assertEquals(2, network.getEdgeStart(1));
+        assertEquals(3, network.getEdgeStart(2));
+        assertEquals(4, network.getEdgeEnd(2));
+        assertEquals(1, network.getTarget(0));
+        assertEquals(0.3, network.getEdgeWeight(0));
+        assertEquals(2, network.getTarget(1));
+        assertEquals(0.2, network.getEdgeWeight(1));
+        assertEquals(0.4, network.getEdgeWeight(2));
+        assertEquals(0.1, network.getEdgeWeight(3));
+    }
+
+    @Test
+    public void of_InvalidArguments_ThrowsException() {
+        var uuid = UUID.randomUUID();
+        var agents = new UUID[]{uuid, UUID.randomUUID()};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrSocialNetwork.of(agents, new int[]{0}, new int[]{1, 0}, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrSocialNetwork.of(agents, new int[]{0}, new int[]{2}, new double[]{1.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrSocialNetwork.of(new UUID[]{uuid, uuid}, new int[0], new int[0], new double[0]));
+    }
+
+    @Test
+    public void mutators_Always_ThrowException() {
+        var agent = mockAgent();
+        var network = CsrSocialNetwork.builder().addAgent(agent).build();
+
+        assertThrows(UnsupportedOperationException.class, () -> network.addAgent(mockAgent()));
+        assertThrows(UnsupportedOperationException.class, () -> network.addEdge(agent, agent, 1.0));
+        assertThrows(UnsupportedOperationException.class, () -> network.removeAgent(agent));
+        assertThrows(UnsupportedOperationException.class, () -> network.setWeight(agent, agent, 1.0));
+    }
+
+    @Test
+    public void sendSocialMessages_Always_SendsMulticastInTargetOrder() {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var network = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addEdge(source, target2, 0.7)
+                .addEdge(source, target1, 0.3)
+                .build();
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+        var simulationManager = mock(SimulationManager.class);
+
+        network.sendSocialMessages(simulationManager, specification);
+
+        verify(simulationManager).sendMulticastNow(argThat(message ->
+                message instanceof SocialMulticastMessage multicast
+                && multicast.getRecipientCount() == 2
+                && multicast.getDelivery(0).getDestination().equals(target1.getUUID())
+                && multicast.getWeight(0) == 0.3
+                && multicast.getDelivery(1).getDestination().equals(target2.getUUID())
+                && multicast.getWeight(1) == 0.7));
+    }
+
+    @Test
+    public void sendSocialMessages_WhenNoEdges_SendsNothing() {
+        var source = mockAgent();
+        var network = CsrSocialNetwork.builder().addAgent(source).build();
+        var simulationManager = mock(SimulationManager.class);
+
+        network.sendSocialMessages(simulationManager,
+                new SocialMessageSpecification(null, source.getUUID(), mock(Message.class)));
+        network.sendSocialMessages(simulationManager,
+                new SocialMessageSpecification(null, UUID.randomUUID(), mock(Message.class)));
+
+        verify(simulationManager, never()).sendMulticastNow(any());
+    }
+
+    @Test
+    public void sendSampledSocialMessages_Always_SamplesByWeight() {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var target3 = mockAgent();
+        var network = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addAgent(target3)
+                .addEdge(source, target1, 1.0)
+                .addEdge(source, target2, 0.0)
+                .addEdge(source, target3, 3.0)
+                .addEdge(target1, source, 0.0)
+                .build();
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+        var simulationManager = mock(SimulationManager.class);
+
+        network.sendSampledSocialMessages(simulationManager, specification, 4_000, new SplittableRandom(1));
+        network.sendSampledSocialMessages(simulationManager,
+                new SocialMessageSpecification(null, target1.getUUID(), mock(Message.class)), 5,
+                new SplittableRandom(1));
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> {
+            if (!(message instanceof SocialMulticastMessage multicast) || multicast.getRecipientCount() != 4_000) {
+                return false;
+            }
+            var count1 = 0;
+            for (var i = 0; i < 4_000; i++) {
+                var recipient = multicast.getRecipient(i);
+                if (recipient.equals(target1.getUUID()) && multicast.getWeight(i) == 1.0) {
+                    count1++;
+                } else if (!recipient.equals(target3.getUUID()) || multicast.getWeight(i) != 3.0) {
+                    return false;
+                }
+            }
+            return Math.abs(count1 - 1_000) < 150;
+        }));
+        verify(simulationManager, times(1)).sendMulticastNow(any());
+    }
+
+    @Test
+    public void sendSocialMessages_WhenSentWithSimulationManager_AddressesDestinationsByHandle() {
+        var source = new RecordingAgent();
+        var target1 = new RecordingAgent();
+        var target2 = new RecordingAgent();
+        var network = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addEdge(source, target1, 1.0)
+                .addEdge(source, target2, 2.0)
+                .build();
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new SocialSimulationManager(startTime, startTime.plusDays(1), network);
+        simulationManager.addAgent(source);
+        simulationManager.addAgent(target1);
+        simulationManager.addAgent(target2);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+        network.sendSocialMessages(simulationManager, specification);
+        network.sendSampledSocialMessages(simulationManager, specification, 2, new SplittableRandom(1));
+        simulationManager.run();
+
+        assertTrue(source.received.isEmpty());
+        assertEquals(4, target1.received.size() + target2.received.size());
+        for (var target : List.of(target1, target2)) {
+            for (var message : target.received) {
+                assertEquals(simulationManager.getAgentHandle(target.getUUID()), message.getDestinationHandle());
+            }
+        }
+    }
+
+    @Test
+    public void sendSocialMessages_WhenSentTwice_AsksForEachHandleOnce() {
+        var source = mockAgent();
+        var target = mockAgent();
+        var network = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target)
+                .addEdge(source, target, 1.0)
+                .build();
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(target.getUUID())).thenReturn(7);
+        var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+        network.sendSocialMessages(simulationManager, specification);
+        network.sendSocialMessages(simulationManager, specification);
+
+        verify(simulationManager, times(2)).sendMulticastNow(argThat(message ->
+                message instanceof SocialMulticastMessage multicast && multicast.getRecipientHandle(0) == 7));
+        verify(simulationManager, times(1)).getAgentHandle(target.getUUID());
+    }
+
+    @Test
+    public void toString_Always_ReturnsCorrectRepresentation() {
+        var network = CsrSocialNetwork.builder().addAgent(mockAgent()).build();
+
+        assertEquals("CsrSocialNetwork{agents=1, edges=0}", network.toString());
+    }
+
+    /**
+     * An {@link Agent} that records the {@link SocialMessage}s it receives.
+     */
+    private static final class RecordingAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private final @NotNull List<SocialMessage> received = new ArrayList<>();
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            received.add((SocialMessage) message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
@@ -2,15 +2,26 @@ package dev.r0bert.reagent.social.socialnetwork.directedweighted;
 
 import dev.r0bert.reagent.core.agents.Agent;
 import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.messages.regularevent.RegularEventMessage;
+import dev.r0bert.reagent.core.simulationmanager.CoreSimulationManager;
 import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
 import dev.r0bert.reagent.social.messages.socialmessage.SocialMessage;
 import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.jetbrains.annotations.NotNull;
 import org.jgrapht.graph.DefaultDirectedWeightedGraph;
 import org.jgrapht.graph.DefaultWeightedEdge;
 import org.junit.jupiter.api.Test;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -141,7 +152,189 @@ class DirectedWeightedSocialNetworkTest {
         var simulationManager = mock(SimulationManager.class);
 
         socialNetwork.sendSocialMessages(simulationManager, specification);
-        verify(simulationManager, times(2)).sendMessageNow(any(SocialMessage.class));
+        verify(simulationManager).sendMulticastNow(argThat(message ->
+                message instanceof SocialMulticastMessage multicast
+                && multicast.getRecipientCount() == 2 && multicast.getSender().equals(sourceUuid)));
+        verify(simulationManager, never()).sendMessageNow(any(SocialMessage.class));
+    }
+
+    @Test
+    public void sendSocialMessages_SimulationManagerWithoutMulticast_SendsMessagePerEdge() {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var source = mock(Agent.class);
+        var sourceUuid = UUID.randomUUID();
+        when(source.getUUID()).thenReturn(sourceUuid);
+        var target1 = mock(Agent.class);
+        var target1Uuid = UUID.randomUUID();
+        when(target1.getUUID()).thenReturn(target1Uuid);
+        var target2 = mock(Agent.class);
+        var target2Uuid = UUID.randomUUID();
+        when(target2.getUUID()).thenReturn(target2Uuid);
+        socialNetwork.addAgent(source);
+        socialNetwork.addAgent(target1);
+        socialNetwork.addAgent(target2);
+        socialNetwork.addEdge(source, target1, 0.3);
+        socialNetwork.addEdge(source, target2, 0.7);
+        var payload = mock(Message.class);
+        var specification = new SocialMessageSpecification(null, sourceUuid, payload);
+        var simulationManager = mock(SimulationManager.class, CALLS_REAL_METHODS);
+
+        socialNetwork.sendSocialMessages(simulationManager, specification);
+
+        verify(simulationManager).sendMessageNow(argThat(message -> message instanceof SocialMessage socialMessage
+                && socialMessage.getDestination().equals(target1Uuid) && socialMessage.getSender().equals(sourceUuid)
+                && socialMessage.getPayload() == payload && socialMessage.getWeight() == 0.3));
+        verify(simulationManager).sendMessageNow(argThat(message -> message instanceof SocialMessage socialMessage
+                && socialMessage.getDestination().equals(target2Uuid) && socialMessage.getSender().equals(sourceUuid)
+                && socialMessage.getPayload() == payload && socialMessage.getWeight() == 0.7));
+        verify(simulationManager, never()).sendMessageNow(any(SocialMulticastMessage.class));
+    }
+
+    @Test
+    public void sendSocialMessages_WhenSentTwice_AddressesTargetsByCachedHandle() {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var source = mock(Agent.class);
+        var sourceUuid = UUID.randomUUID();
+        when(source.getUUID()).thenReturn(sourceUuid);
+        var target = mock(Agent.class);
+        var targetUuid = UUID.randomUUID();
+        when(target.getUUID()).thenReturn(targetUuid);
+        socialNetwork.addAgent(source);
+        socialNetwork.addAgent(target);
+        socialNetwork.addEdge(source, target, 1.0);
+        var specification = new SocialMessageSpecification(null, sourceUuid, mock(Message.class));
+        var simulationManager = mock(SimulationManager.class);
+        when(simulationManager.getAgentHandle(targetUuid)).thenReturn(3);
+
+        socialNetwork.sendSocialMessages(simulationManager, specification);
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 2, new SplittableRandom(1));
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                && m.getRecipientCount() == 1 && m.getRecipientHandle(0) == 3));
+        verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                && m.getRecipientCount() == 2 && m.getRecipientHandle(0) == 3 && m.getRecipientHandle(1) == 3));
+        verify(simulationManager, times(1)).getAgentHandle(targetUuid);
+    }
+
+    @Test
+    public void sendSampledSocialMessages_WeightsChanged_SamplesByNewWeights() {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var source = mock(Agent.class);
+        var sourceUuid = UUID.randomUUID();
+        when(source.getUUID()).thenReturn(sourceUuid);
+        var target1 = mock(Agent.class);
+        var target1Uuid = UUID.randomUUID();
+        when(target1.getUUID()).thenReturn(target1Uuid);
+        var target2 = mock(Agent.class);
+        var target2Uuid = UUID.randomUUID();
+        when(target2.getUUID()).thenReturn(target2Uuid);
+        socialNetwork.addAgent(source);
+        socialNetwork.addAgent(target1);
+        socialNetwork.addAgent(target2);
+        socialNetwork.addEdge(source, target1, 1.0);
+        socialNetwork.addEdge(source, target2, 0.0);
+        var specification = new SocialMessageSpecification(null, sourceUuid, mock(Message.class));
+        var random = new SplittableRandom(1);
+        var simulationManager = mock(SimulationManager.class);
+
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 20, random);
+        socialNetwork.setWeight(source, target1, 0.0);
+        socialNetwork.setWeight(source, target2, 1.0);
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 30, random);
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> allSentTo(message, 20, target1Uuid)));
+        verify(simulationManager).sendMulticastNow(argThat(message -> allSentTo(message, 30, target2Uuid)));
+    }
+
+    @Test
+    public void sendSampledSocialMessages_TargetRemoved_NeverSamplesIt() {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var source = mock(Agent.class);
+        var sourceUuid = UUID.randomUUID();
+        when(source.getUUID()).thenReturn(sourceUuid);
+        var target1 = mock(Agent.class);
+        var target1Uuid = UUID.randomUUID();
+        when(target1.getUUID()).thenReturn(target1Uuid);
+        var target2 = mock(Agent.class);
+        when(target2.getUUID()).thenReturn(UUID.randomUUID());
+        socialNetwork.addAgent(source);
+        socialNetwork.addAgent(target1);
+        socialNetwork.addAgent(target2);
+        socialNetwork.addEdge(source, target1, 1.0);
+        socialNetwork.addEdge(source, target2, 1.0);
+        var specification = new SocialMessageSpecification(null, sourceUuid, mock(Message.class));
+        var random = new SplittableRandom(1);
+        var simulationManager = mock(SimulationManager.class);
+
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 5, random);
+        socialNetwork.removeAgent(target2);
+        socialNetwork.sendSampledSocialMessages(simulationManager, specification, 40, random);
+
+        verify(simulationManager).sendMulticastNow(argThat(message -> allSentTo(message, 40, target1Uuid)));
+        assertThrows(IllegalArgumentException.class,
+                () -> socialNetwork.sendSampledSocialMessages(simulationManager, specification, -1, random));
+    }
+
+    @Test
+    public void sendSampledSocialMessages_WhenDispatchingInParallel_SamplesEveryNeighbourhood()
+            throws IllegalAccessException {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var startTime = ZonedDateTime.now();
+        var simulationManager = new CoreSimulationManager(startTime, startTime.plusDays(1));
+        var executor = Executors.newFixedThreadPool(4);
+        simulationManager.setDispatchExecutor(executor, 16);
+        var payload = mock(Message.class);
+        var received = new AtomicInteger();
+        var targets = new ArrayList<Agent>();
+        for (var i = 0; i < 50; i++) {
+            var target = new TestAgent(message -> received.incrementAndGet());
+            targets.add(target);
+            socialNetwork.addAgent(target);
+            simulationManager.addAgent(target);
+        }
+        var senderCount = 500;
+        for (var i = 0; i < senderCount; i++) {
+            var seed = i;
+            var sender = new TestAgent(null);
+            sender.onMessage = message -> socialNetwork.sendSampledSocialMessages(simulationManager,
+                    new SocialMessageSpecification(null, sender.getUUID(), payload), 10, new SplittableRandom(seed));
+            socialNetwork.addAgent(sender);
+            simulationManager.addAgent(sender);
+            for (var j = 0; j < 5; j++) {
+                socialNetwork.addEdge(sender, targets.get((i + j * 7) % targets.size()), 1.0 + j);
+            }
+            simulationManager.scheduleMessage(new RegularEventMessage(sender, null), startTime.plusHours(1));
+        }
+
+        try {
+            simulationManager.run();
+        } finally {
+            executor.shutdown();
+        }
+
+        var neighbourhoods = (Map<?, ?>) FieldUtils.readField(socialNetwork, "neighbourhoods", true);
+        assertEquals(senderCount, neighbourhoods.size());
+        assertEquals(senderCount * 10, received.get());
+    }
+
+    @Test
+    public void freeze_Always_ReturnsCsrSocialNetworkWithSameEdges() {
+        var socialNetwork = new DirectedWeightedSocialNetwork();
+        var source = mock(Agent.class);
+        when(source.getUUID()).thenReturn(UUID.randomUUID());
+        var target = mock(Agent.class);
+        when(target.getUUID()).thenReturn(UUID.randomUUID());
+        socialNetwork.addAgent(source);
+        socialNetwork.addAgent(target);
+        socialNetwork.addEdge(source, target, 0.3);
+
+        var frozen = socialNetwork.freeze();
+        socialNetwork.setWeight(source, target, 0.5);
+
+        assertEquals(2, frozen.getAgentCount());
+        assertEquals(1, frozen.getEdgeCount());
+        assertEquals(0.3, frozen.getWeight(source, target));
+        assertNull(frozen.getWeight(target, source));
     }
 
     @Test
@@ -169,4 +362,41 @@ class DirectedWeightedSocialNetworkTest {
         var expected = "DirectedWeightedSocialNetwork{network=" + network + "}";
         assertEquals(expected, socialNetwork.toString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether a {@link Message} is a {@link SocialMulticastMessage} to the same recipient a number of times.
+     */
+    private static boolean allSentTo(final @NotNull Message message, final int count, final @NotNull UUID recipient) {
+        if (!(message instanceof SocialMulticastMessage multicast) || multicast.getRecipientCount() != count) {
+            return false;
+        }
+        for (var i = 0; i < count; i++) {
+            if (!multicast.getRecipient(i).equals(recipient)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An {@link Agent} that handles its {@link Message}s with a {@link Consumer}.
+     */
+    private static final class TestAgent implements Agent {
+        private final @NotNull UUID uuid = UUID.randomUUID();
+        private Consumer<Message> onMessage;
+
+        private TestAgent(final Consumer<Message> onMessage) {
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void handleMessage(final @NotNull Message message) {
+            onMessage.accept(message);
+        }
+
+        @Override
+        public @NotNull UUID getUUID() {
+            return uuid;
+        }
+    }
+}
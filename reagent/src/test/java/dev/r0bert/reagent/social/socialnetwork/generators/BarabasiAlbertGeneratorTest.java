@@ -0,0 +1,68 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarabasiAlbertGeneratorTest {
+    @Test
+    public void generate_Always_AttachesToEarlierAgentsWithoutDuplicates() {
+        var edges = new BarabasiAlbertGenerator(10_000, 3, false, 42).generate();
+
+        var seen = new HashSet<Long>();
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertTrue(edges.getTarget(i) < edges.getSource(i));
+            assertTrue(seen.add((long) edges.getSource(i) << 32 | edges.getTarget(i)));
+        }
+        assertTrue(edges.getEdgeCount() > 0.9 * 3 * 10_000);
+        assertTrue(edges.getEdgeCount() <= 3 * 10_000);
+    }
+
+    @Test
+    public void generate_Always_HasHubs() {
+        var edges = new BarabasiAlbertGenerator(10_000, 3, false, 42).generate();
+
+        var inDegrees = new int[edges.getAgentCount()];
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            inDegrees[edges.getTarget(i)]++;
+        }
+        var maximum = 0;
+        for (var inDegree : inDegrees) {
+            maximum = Math.max(maximum, inDegree);
+        }
+        assertTrue(maximum > 20 * 3, "The largest in-degree is " + maximum);
+    }
+
+    @Test
+    public void generate_Bidirectional_AddsReverseEdges() {
+        var directed = new BarabasiAlbertGenerator(1_000, 2, false, 3).generate();
+        var bidirectional = new BarabasiAlbertGenerator(1_000, 2, true, 3).generate();
+
+        assertEquals(2 * directed.getEdgeCount(), bidirectional.getEdgeCount());
+        var seen = new HashSet<Long>();
+        for (var i = 0; i < bidirectional.getEdgeCount(); i++) {
+            assertTrue(seen.add((long) bidirectional.getSource(i) << 32 | bidirectional.getTarget(i)));
+        }
+        for (var i = 0; i < directed.getEdgeCount(); i++) {
+            assertTrue(seen.contains((long) directed.getTarget(i) << 32 | directed.getSource(i)));
+        }
+    }
+
+    @Test
+    public void generate_WithExecutor_GeneratesSameEdges() {
+        var sequential = new BarabasiAlbertGenerator(20_000, 4, false, 9).generate();
+        var generator = new BarabasiAlbertGenerator(20_000, 4, false, 9);
+        generator.setExecutor(ForkJoinPool.commonPool());
+
+        var parallel = generator.generate();
+
+        assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+        for (var i = 0; i < sequential.getEdgeCount(); i++) {
+            assertEquals(sequential.getSource(i), parallel.getSource(i));
+            assertEquals(sequential.getTarget(i), parallel.getTarget(i));
+        }
+    }
+}
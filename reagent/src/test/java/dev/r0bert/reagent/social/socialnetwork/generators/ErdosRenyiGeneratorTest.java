@@ -0,0 +1,63 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErdosRenyiGeneratorTest {
+    @Test
+    public void generate_ProbabilityZero_GeneratesNoEdges() {
+        var edges = new ErdosRenyiGenerator(100, 0.0, 1).generate();
+
+        assertEquals(100, edges.getAgentCount());
+        assertEquals(0, edges.getEdgeCount());
+    }
+
+    @Test
+    public void generate_ProbabilityOne_GeneratesCompleteNetwork() {
+        var edges = new ErdosRenyiGenerator(20, 1.0, 1).generate();
+
+        assertEquals(20 * 19, edges.getEdgeCount());
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertNotEquals(edges.getSource(i), edges.getTarget(i));
+        }
+    }
+
+    @Test
+    public void generate_Always_HasExpectedEdgeCountWithoutDuplicates() {
+        var edges = new ErdosRenyiGenerator(10_000, 0.001, 42).generate();
+
+        var expected = 10_000 * 9_999 * 0.001;
+        assertEquals(expected, edges.getEdgeCount(), 5 * Math.sqrt(expected));
+        var seen = new HashSet<Long>();
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertNotEquals(edges.getSource(i), edges.getTarget(i));
+            assertTrue(seen.add((long) edges.getSource(i) << 32 | edges.getTarget(i)));
+        }
+    }
+
+    @Test
+    public void generate_WithExecutor_GeneratesSameEdges() {
+        var sequential = new ErdosRenyiGenerator(20_000, 0.0005, 7).generate();
+        var generator = new ErdosRenyiGenerator(20_000, 0.0005, 7);
+        generator.setExecutor(ForkJoinPool.commonPool());
+
+        var parallel = generator.generate();
+
+        assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+        for (var i = 0; i < sequential.getEdgeCount(); i++) {
+            assertEquals(sequential.getSource(i), parallel.getSource(i));
+            assertEquals(sequential.getTarget(i), parallel.getTarget(i));
+        }
+    }
+
+    @Test
+    public void constructor_InvalidProbability_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ErdosRenyiGenerator(10, 1.5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ErdosRenyiGenerator(10, Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ErdosRenyiGenerator(-1, 0.5, 1));
+    }
+}
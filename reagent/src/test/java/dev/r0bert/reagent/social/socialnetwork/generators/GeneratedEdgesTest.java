@@ -0,0 +1,50 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeneratedEdgesTest {
+    @Test
+    public void toCsr_Always_ReturnsNetworkWithEdges() {
+        var edges = new GeneratedEdges(3, new int[]{0, 2}, new int[]{1, 0});
+        var agents = new UUID[]{UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        var network = edges.toCsr(agents);
+
+        assertEquals(3, network.getAgentCount());
+        assertEquals(2, network.getEdgeCount());
+        assertEquals(1, network.getTarget(network.getEdgeStart(0)));
+        assertEquals(0, network.getTarget(network.getEdgeStart(2)));
+        assertEquals(1.0, network.getEdgeWeight(0));
+    }
+
+    @Test
+    public void toCsr_WrongNumberOfAgents_ThrowsException() {
+        var edges = new GeneratedEdges(3, new int[0], new int[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> edges.toCsr(new UUID[2]));
+    }
+
+    @Test
+    public void addTo_Always_AddsAgentsAndEdges() {
+        var edges = new GeneratedEdges(2, new int[]{1}, new int[]{0});
+        var agents = new Agent[2];
+        for (var i = 0; i < agents.length; i++) {
+            agents[i] = mock(Agent.class);
+            when(agents[i].getUUID()).thenReturn(UUID.randomUUID());
+        }
+        var network = new DirectedWeightedSocialNetwork();
+
+        edges.addTo(network, agents);
+
+        assertEquals(1.0, network.getWeight(agents[1], agents[0]));
+        assertNull(network.getWeight(agents[0], agents[1]));
+    }
+}
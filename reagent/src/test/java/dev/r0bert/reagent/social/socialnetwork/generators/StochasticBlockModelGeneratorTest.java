@@ -0,0 +1,52 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StochasticBlockModelGeneratorTest {
+    @Test
+    public void generate_DiagonalProbabilities_OnlyGeneratesEdgesWithinBlocks() {
+        var generator = new StochasticBlockModelGenerator(new int[]{5, 0, 7},
+                new double[][]{{1.0, 0.0, 0.0}, {0.0, 1.0, 0.0}, {0.0, 0.0, 1.0}}, 1);
+
+        var edges = generator.generate();
+
+        assertEquals(12, edges.getAgentCount());
+        assertEquals(5 * 4 + 7 * 6, edges.getEdgeCount());
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertEquals(generator.blockOf(edges.getSource(i)), generator.blockOf(edges.getTarget(i)));
+            assertNotEquals(edges.getSource(i), edges.getTarget(i));
+        }
+    }
+
+    @Test
+    public void generate_OffDiagonalProbabilities_OnlyGeneratesEdgesBetweenBlocks() {
+        var edges = new StochasticBlockModelGenerator(new int[]{3, 4}, new double[][]{{0.0, 1.0}, {0.0, 0.0}}, 1)
+                .generate();
+
+        assertEquals(12, edges.getEdgeCount());
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertTrue(edges.getSource(i) < 3);
+            assertTrue(edges.getTarget(i) >= 3);
+        }
+    }
+
+    @Test
+    public void blockOf_Always_ReturnsBlock() {
+        var generator = new StochasticBlockModelGenerator(new int[]{2, 0, 3},
+                new double[][]{{0.0, 0.0, 0.0}, {0.0, 0.0, 0.0}, {0.0, 0.0, 0.0}}, 1);
+
+        assertEquals(0, generator.blockOf(0));
+        assertEquals(0, generator.blockOf(1));
+        assertEquals(2, generator.blockOf(2));
+        assertEquals(2, generator.blockOf(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.blockOf(5));
+    }
+
+    @Test
+    public void constructor_NotSquare_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StochasticBlockModelGenerator(new int[]{2, 2}, new double[][]{{0.5, 0.5}}, 1));
+    }
+}
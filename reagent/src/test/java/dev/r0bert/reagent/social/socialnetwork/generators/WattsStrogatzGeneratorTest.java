@@ -0,0 +1,44 @@
+package dev.r0bert.reagent.social.socialnetwork.generators;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WattsStrogatzGeneratorTest {
+    @Test
+    public void generate_NoRewiring_GeneratesRingLattice() {
+        var edges = new WattsStrogatzGenerator(10, 4, 0.0, 1).generate();
+
+        assertEquals(40, edges.getEdgeCount());
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            var distance = Math.floorMod(edges.getTarget(i) - edges.getSource(i), 10);
+            assertTrue(distance == 1 || distance == 2 || distance == 8 || distance == 9);
+        }
+    }
+
+    @Test
+    public void generate_FullRewiring_KeepsOutDegreeWithoutDuplicates() {
+        var edges = new WattsStrogatzGenerator(1_000, 6, 1.0, 5).generate();
+
+        assertEquals(6_000, edges.getEdgeCount());
+        var seen = new HashSet<Long>();
+        var outDegrees = new int[1_000];
+        for (var i = 0; i < edges.getEdgeCount(); i++) {
+            assertNotEquals(edges.getSource(i), edges.getTarget(i));
+            assertTrue(seen.add((long) edges.getSource(i) << 32 | edges.getTarget(i)));
+            outDegrees[edges.getSource(i)]++;
+        }
+        for (var outDegree : outDegrees) {
+            assertEquals(6, outDegree);
+        }
+    }
+
+    @Test
+    public void constructor_InvalidNeighbourCount_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new WattsStrogatzGenerator(10, 3, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new WattsStrogatzGenerator(10, 10, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new WattsStrogatzGenerator(10, 4, -0.1, 1));
+    }
+}
@@ -0,0 +1,96 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BinaryEdgeListTest {
+    private static CsrSocialNetwork createNetwork() {
+        var builder = CsrSocialNetwork.builder();
+        var uuids = new UUID[300];
+        for (var i = 0; i < uuids.length; i++) {
+            uuids[i] = UUID.randomUUID();
+            builder.addAgent(uuids[i]);
+        }
+        for (var i = 0; i < uuids.length; i++) {
+            for (var j = 1; j <= i % 4; j++) {
+                builder.addEdge(uuids[i], uuids[(i + j * 17) % uuids.length], i * 0.5 + j);
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void read_AfterWrite_ReturnsSameNetwork() throws IOException {
+        var network = createNetwork();
+        var path = Files.createTempFile("edges", ".bin");
+        try {
+            BinaryEdgeList.write(network, path);
+
+            assertEquals(BinaryEdgeList.HEADER_SIZE + BinaryEdgeList.AGENT_SIZE * 300L
+                    + BinaryEdgeList.EDGE_SIZE * network.getEdgeCount(), Files.size(path));
+            for (var read : new CsrSocialNetwork[]{BinaryEdgeList.read(path),
+                    BinaryEdgeList.read(path, ForkJoinPool.commonPool(), 5)}) {
+                assertEquals(network.getAgentCount(), read.getAgentCount());
+                assertEquals(network.getEdgeCount(), read.getEdgeCount());
+                for (var i = 0; i < network.getAgentCount(); i++) {
+                    assertEquals(network.getUUID(i), read.getUUID(i));
+                    assertEquals(network.getEdgeStart(i), read.getEdgeStart(i));
+                }
+                for (var edge = 0L; edge < network.getEdgeCount(); edge++) {
+                    assertEquals(network.getTarget(edge), read.getTarget(edge));
+                    assertEquals(network.getEdgeWeight(edge), read.getEdgeWeight(edge));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void readInto_Always_AddsAgentsAndEdges() throws IOException {
+        var source = mock(Agent.class);
+        when(source.getUUID()).thenReturn(UUID.randomUUID());
+        var target = mock(Agent.class);
+        when(target.getUUID()).thenReturn(UUID.randomUUID());
+        var agents = new HashMap<UUID, Agent>();
+        agents.put(source.getUUID(), source);
+        agents.put(target.getUUID(), target);
+        var path = Files.createTempFile("edges", ".bin");
+        try {
+            BinaryEdgeList.write(CsrSocialNetwork.builder().addAgent(source).addAgent(target)
+                    .addEdge(source, target, 0.75).build(), path);
+            var network = new DirectedWeightedSocialNetwork();
+
+            BinaryEdgeList.readInto(path, agents::get, network);
+
+            assertEquals(0.75, network.getWeight(source, target));
+            assertNull(network.getWeight(target, source));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_WhenNotBinaryEdgeList_ThrowsException() throws IOException {
+        var path = Files.createTempFile("edges", ".bin");
+        try {
+            Files.write(path, new byte[40]);
+
+            assertThrows(IOException.class, () -> BinaryEdgeList.read(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
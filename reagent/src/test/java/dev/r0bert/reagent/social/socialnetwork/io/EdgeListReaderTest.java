@@ -0,0 +1,170 @@
+package dev.r0bert.reagent.social.socialnetwork.io;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.social.socialnetwork.directedweighted.DirectedWeightedSocialNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EdgeListReaderTest {
+    private static UUID uuidOf(final String id) {
+        return UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void read_CsvWithHeader_ReadsEdges() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            Files.writeString(path, "source,target,weight\r\na,b,0.5\r\nb,c,2\r\n\r\nc,a\r\n");
+
+            var network = new EdgeListReader(',', true).read(path, EdgeListReaderTest::uuidOf);
+
+            assertEquals(3, network.getAgentCount());
+            assertEquals(3, network.getEdgeCount());
+            assertEquals(0, network.indexOf(uuidOf("a")));
+            assertEquals(1, network.indexOf(uuidOf("b")));
+            assertEquals(2, network.indexOf(uuidOf("c")));
+            assertEquals(0.5, network.getEdgeWeight(network.getEdgeStart(0)));
+            assertEquals(2.0, network.getEdgeWeight(network.getEdgeStart(1)));
+            assertEquals(1.0, network.getEdgeWeight(network.getEdgeStart(2)));
+            assertEquals(0, network.getTarget(network.getEdgeStart(2)));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_InParallel_ReturnsSameNetworkAsSequential() throws IOException {
+        var path = Files.createTempFile("edges", ".tsv");
+        try {
+            var text = new StringBuilder();
+            for (var i = 0; i < 2000; i++) {
+                text.append(i).append('\t').append((i * 37 + 11) % 2000).append('\t').append(i / 4.0).append('\n');
+            }
+            Files.writeString(path, text);
+
+            var sequential = new EdgeListReader('\t', false).read(path, EdgeListReaderTest::uuidOf);
+            var parallel = new EdgeListReader('\t', false, ForkJoinPool.commonPool(), 7)
+                    .read(path, EdgeListReaderTest::uuidOf);
+
+            assertEquals(2000, parallel.getAgentCount());
+            assertEquals(2000, parallel.getEdgeCount());
+            for (var i = 0; i < sequential.getAgentCount(); i++) {
+                assertEquals(sequential.getUUID(i), parallel.getUUID(i));
+                assertEquals(sequential.getEdgeStart(i), parallel.getEdgeStart(i));
+            }
+            for (var edge = 0L; edge < sequential.getEdgeCount(); edge++) {
+                assertEquals(sequential.getTarget(edge), parallel.getTarget(edge));
+                assertEquals(sequential.getEdgeWeight(edge), parallel.getEdgeWeight(edge));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_InParallel_MapsEachExternalIdOnce() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            var text = new StringBuilder();
+            for (var i = 0; i < 3000; i++) {
+                text.append(i % 100).append(',').append((i / 100 + i) % 100 + 100).append('\n');
+            }
+            Files.writeString(path, text);
+            var calls = new ConcurrentHashMap<String, AtomicInteger>();
+
+            var network = new EdgeListReader(',', false, ForkJoinPool.commonPool(), 9).read(path, id -> {
+                calls.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+                return uuidOf(id);
+            });
+
+            assertEquals(200, network.getAgentCount());
+            assertEquals(3000, network.getEdgeCount());
+            assertEquals(200, calls.size());
+            for (var count : calls.values()) {
+                assertEquals(1, count.get());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_WhenTwoExternalIdsHaveSameUuid_ThrowsException() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            Files.writeString(path, "a,b\nA,c\n");
+
+            var reader = new EdgeListReader(',', false);
+            assertThrows(IllegalArgumentException.class, () -> reader.read(path, id -> uuidOf(id.toLowerCase())));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_MalformedLine_ThrowsException() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            Files.writeString(path, "a,b\nc\n");
+
+            var reader = new EdgeListReader(',', false);
+            assertThrows(IOException.class, () -> reader.read(path, EdgeListReaderTest::uuidOf));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void read_MalformedWeight_ThrowsException() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            Files.writeString(path, "a,b,heavy\n");
+
+            var reader = new EdgeListReader(',', false);
+            assertThrows(IOException.class, () -> reader.read(path, EdgeListReaderTest::uuidOf));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void readInto_Always_AddsAgentsAndEdges() throws IOException {
+        var path = Files.createTempFile("edges", ".csv");
+        try {
+            Files.writeString(path, "a,b,0.5\nb,a,0.25\n");
+            var agents = new HashMap<String, Agent>();
+            for (var id : new String[]{"a", "b"}) {
+                var agent = mock(Agent.class);
+                when(agent.getUUID()).thenReturn(uuidOf(id));
+                agents.put(id, agent);
+            }
+            var network = new DirectedWeightedSocialNetwork();
+
+            new EdgeListReader(',', false).readInto(path, agents::get, network);
+
+            assertEquals(0.5, network.getWeight(agents.get("a"), agents.get("b")));
+            assertEquals(0.25, network.getWeight(agents.get("b"), agents.get("a")));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void constructor_InvalidArguments_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListReader('\n', false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EdgeListReader(',', false, ForkJoinPool.commonPool(), 0));
+    }
+}
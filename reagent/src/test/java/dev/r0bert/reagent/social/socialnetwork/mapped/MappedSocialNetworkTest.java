@@ -0,0 +1,267 @@
+package dev.r0bert.reagent.social.socialnetwork.mapped;
+
+import dev.r0bert.reagent.core.agents.Agent;
+import dev.r0bert.reagent.core.messages.Message;
+import dev.r0bert.reagent.core.simulationmanager.SimulationManager;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMessageSpecification;
+import dev.r0bert.reagent.social.messages.socialmessage.SocialMulticastMessage;
+import dev.r0bert.reagent.social.simulationmanager.SocialSimulationManager;
+import dev.r0bert.reagent.social.socialnetwork.IndexedSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MappedSocialNetworkTest {
+    private static Agent mockAgent() {
+        var agent = mock(Agent.class);
+        var uuid = UUID.randomUUID();
+        when(agent.getUUID()).thenReturn(uuid);
+        return agent;
+    }
+
+    private static MappedSocialNetwork writeAndOpen(final CsrSocialNetwork network, final Path path)
+            throws IOException {
+        MappedSocialNetwork.write(network, path);
+        return MappedSocialNetwork.open(path);
+    }
+
+    @Test
+    public void open_AfterWrite_HasSameAgentsAndEdges() throws IOException {
+        var builder = CsrSocialNetwork.builder();
+        var uuids = new UUID[500];
+        for (var i = 0; i < uuids.length; i++) {
+            uuids[i] = UUID.randomUUID();
+            builder.addAgent(uuids[i]);
+        }
+        for (var i = 0; i < uuids.length; i++) {
+            for (var j = 1; j <= i % 5; j++) {
+                builder.addEdge(uuids[i], uuids[(i + j * 31) % uuids.length], i + j / 10.0);
+            }
+        }
+        var csr = builder.build();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(csr, path);
+
+            assertEquals(csr.getAgentCount(), mapped.getAgentCount());
+            assertEquals(csr.getEdgeCount(), mapped.getEdgeCount());
+            for (var i = 0; i < uuids.length; i++) {
+                assertEquals(i, mapped.indexOf(uuids[i]));
+                assertEquals(uuids[i], mapped.getUUID(i));
+                assertEquals(csr.getEdgeStart(i), mapped.getEdgeStart(i));
+                assertEquals(csr.getEdgeEnd(i), mapped.getEdgeEnd(i));
+            }
+            for (var edge = 0L; edge < csr.getEdgeCount(); edge++) {
+                assertEquals(csr.getTarget(edge), mapped.getTarget(edge));
+                assertEquals(csr.getEdgeWeight(edge), mapped.getEdgeWeight(edge));
+            }
+            assertEquals(IndexedSocialNetwork.NO_INDEX, mapped.indexOf(UUID.randomUUID()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void getWeight_Always_ReturnsWeightOrNull() throws IOException {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var csr = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addEdge(source, target1, 0.3)
+                .addEdge(source, target2, 0.7)
+                .build();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(csr, path);
+
+            assertEquals(0.3, mapped.getWeight(source, target1));
+            assertEquals(0.7, mapped.getWeight(source, target2));
+            assertNull(mapped.getWeight(target1, source));
+            assertNull(mapped.getWeight(source, mockAgent()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void sendSocialMessages_Always_SendsMulticast() throws IOException {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var csr = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addEdge(source, target1, 0.3)
+                .addEdge(source, target2, 0.7)
+                .build();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(csr, path);
+            var simulationManager = mock(SimulationManager.class);
+
+            mapped.sendSocialMessages(simulationManager,
+                    new SocialMessageSpecification(null, source.getUUID(), mock(Message.class)));
+
+            verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                    && m.getRecipientCount() == 2
+                    && m.getDelivery(0).getDestination().equals(target1.getUUID()) && m.getWeight(0) == 0.3
+                    && m.getDelivery(1).getDestination().equals(target2.getUUID()) && m.getWeight(1) == 0.7));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void sendSocialMessages_WhenSentTwice_AddressesTargetsByCachedHandle() throws IOException {
+        var source = mockAgent();
+        var target = mockAgent();
+        var csr = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target)
+                .addEdge(source, target, 1.0)
+                .build();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(csr, path);
+            var simulationManager = mock(SimulationManager.class);
+            when(simulationManager.getAgentHandle(target.getUUID())).thenReturn(9);
+            var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+            mapped.sendSocialMessages(simulationManager, specification);
+            mapped.sendSampledSocialMessages(simulationManager, specification, 2, new SplittableRandom(1));
+
+            verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                    && m.getRecipientCount() == 1 && m.getRecipientHandle(0) == 9));
+            verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                    && m.getRecipientCount() == 2 && m.getRecipientHandle(0) == 9 && m.getRecipientHandle(1) == 9));
+            verify(simulationManager, times(1)).getAgentHandle(target.getUUID());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void sendSampledSocialMessages_Always_SamplesPositiveWeights() throws IOException {
+        var source = mockAgent();
+        var target1 = mockAgent();
+        var target2 = mockAgent();
+        var csr = CsrSocialNetwork.builder()
+                .addAgent(source)
+                .addAgent(target1)
+                .addAgent(target2)
+                .addEdge(source, target1, 0.0)
+                .addEdge(source, target2, 0.7)
+                .build();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(csr, path);
+            var simulationManager = mock(SimulationManager.class);
+            var specification = new SocialMessageSpecification(null, source.getUUID(), mock(Message.class));
+
+            mapped.sendSampledSocialMessages(simulationManager, specification, 3, new SplittableRandom(1));
+
+            verify(simulationManager).sendMulticastNow(argThat(message -> message instanceof SocialMulticastMessage m
+                    && m.getRecipientCount() == 3
+                    && Arrays.stream(new int[]{0, 1, 2}).allMatch(i -> m.getRecipient(i).equals(target2.getUUID())
+                    && m.getWeight(i) == 0.7)));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void sendSampledSocialMessages_WhenSendersShareCacheSlot_SamplesEdgesOfEachSender() throws IOException {
+        var builder = CsrSocialNetwork.builder();
+        var uuids = new UUID[MappedSocialNetwork.ALIAS_TABLE_CACHE_SIZE + 3];
+        for (var i = 0; i < uuids.length; i++) {
+            uuids[i] = UUID.randomUUID();
+            builder.addAgent(uuids[i]);
+        }
+        var first = uuids[0];
+        var second = uuids[MappedSocialNetwork.ALIAS_TABLE_CACHE_SIZE];
+        var firstTarget = uuids[1];
+        var secondTarget = uuids[2];
+        builder.addEdge(first, firstTarget, 1.0);
+        builder.addEdge(second, secondTarget, 1.0);
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(builder.build(), path);
+            var simulationManager = mock(SimulationManager.class);
+            var random = new SplittableRandom(1);
+
+            for (var sender : new UUID[]{first, second, first}) {
+                mapped.sendSampledSocialMessages(simulationManager,
+                        new SocialMessageSpecification(null, sender, mock(Message.class)), 1, random);
+            }
+
+            verify(simulationManager, times(2)).sendMulticastNow(argThat(message ->
+                    message instanceof SocialMulticastMessage m && m.getRecipient(0).equals(firstTarget)));
+            verify(simulationManager, times(1)).sendMulticastNow(argThat(message ->
+                    message instanceof SocialMulticastMessage m && m.getRecipient(0).equals(secondTarget)));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void addAgent_Always_OnlyAcceptsAgentsInNetwork() throws IOException {
+        var agent = mockAgent();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            var mapped = writeAndOpen(CsrSocialNetwork.builder().addAgent(agent).build(), path);
+            var startTime = ZonedDateTime.now();
+            var simulationManager = new SocialSimulationManager(startTime, startTime.plusDays(1), mapped);
+
+            simulationManager.addAgent(agent);
+
+            assertThrows(UnsupportedOperationException.class, () -> mapped.addAgent(mockAgent()));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.addEdge(agent, agent, 1.0));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.removeAgent(agent));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.setWeight(agent, agent, 1.0));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void open_WhenNotNetwork_ThrowsException() throws IOException {
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            Files.write(path, new byte[64]);
+
+            assertThrows(IOException.class, () -> MappedSocialNetwork.open(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void open_WhenTruncated_ThrowsException() throws IOException {
+        var agent = mockAgent();
+        var path = Files.createTempFile("network", ".bin");
+        try {
+            MappedSocialNetwork.write(CsrSocialNetwork.builder().addAgent(agent).addEdge(agent, agent, 1.0).build(),
+                    path);
+            var bytes = Files.readAllBytes(path);
+            Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+
+            assertThrows(IOException.class, () -> MappedSocialNetwork.open(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
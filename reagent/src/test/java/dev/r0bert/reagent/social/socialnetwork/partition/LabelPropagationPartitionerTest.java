@@ -0,0 +1,140 @@
+package dev.r0bert.reagent.social.socialnetwork.partition;
+
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import dev.r0bert.reagent.social.socialnetwork.generators.StochasticBlockModelGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LabelPropagationPartitionerTest {
+    private static CsrSocialNetwork communities() {
+        var blockCount = 4;
+        var blockSizes = new int[blockCount];
+        Arrays.fill(blockSizes, 500);
+        var probabilities = new double[blockCount][blockCount];
+        for (var i = 0; i < blockCount; i++) {
+            Arrays.fill(probabilities[i], 0.0005);
+            probabilities[i][i] = 0.02;
+        }
+        var edges = new StochasticBlockModelGenerator(blockSizes, probabilities, 11).generate();
+
+        var random = new SplittableRandom(5);
+        var permutation = new int[edges.getAgentCount()];
+        for (var i = 0; i < permutation.length; i++) {
+            var j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+        var agents = new UUID[edges.getAgentCount()];
+        for (var i = 0; i < agents.length; i++) {
+            agents[i] = UUID.randomUUID();
+        }
+        var sources = new int[edges.getEdgeCount()];
+        var targets = new int[sources.length];
+        var weights = new double[sources.length];
+        for (var i = 0; i < sources.length; i++) {
+            sources[i] = permutation[edges.getSource(i)];
+            targets[i] = permutation[edges.getTarget(i)];
+            weights[i] = 1.0;
+        }
+        return CsrSocialNetwork.of(agents, sources, targets, weights);
+    }
+
+    @Test
+    public void partition_Communities_CutsFewerEdgesThanHashing() {
+        var network = communities();
+        var partitioner = new LabelPropagationPartitioner(4, 1);
+
+        var partitioning = partitioner.partition(network);
+        var hashed = SocialNetworkPartitioning.of(network, new HashPartitionAssignment(4));
+
+        assertTrue(partitioning.getEdgeCut() * 2 < hashed.getEdgeCut(),
+                partitioning + " does not cut fewer edges than " + hashed);
+        assertTrue(partitioning.getImbalance() <= partitioner.getImbalanceTolerance() + 0.01,
+                partitioning + " is not balanced");
+    }
+
+    @Test
+    public void partition_WeightedCommunities_KeepsHeavyEdgesInsidePartitions() {
+        var agentCount = 2000;
+        var random = new SplittableRandom(7);
+        var agents = new UUID[agentCount];
+        var communities = new int[agentCount];
+        for (var i = 0; i < agentCount; i++) {
+            agents[i] = UUID.randomUUID();
+            communities[i] = random.nextInt(4);
+        }
+        var sources = new int[10 * agentCount];
+        var targets = new int[sources.length];
+        var weights = new double[sources.length];
+        var unweighted = new double[sources.length];
+        for (var i = 0; i < sources.length; i++) {
+            sources[i] = i / 10;
+            targets[i] = (sources[i] + 1 + i % 10 * 199 + random.nextInt(199)) % agentCount;
+            weights[i] = communities[sources[i]] == communities[targets[i]] ? 1.0 : 0.01;
+            unweighted[i] = 1.0;
+        }
+        var network = CsrSocialNetwork.of(agents, sources, targets, weights);
+        var sameEdges = CsrSocialNetwork.of(agents, sources, targets, unweighted);
+        var partitioner = new LabelPropagationPartitioner(4, 1);
+
+        var partitioning = partitioner.partition(network);
+        var partitions = new int[agentCount];
+        var unweightedPartitioning = partitioner.partition(sameEdges);
+        for (var index = 0; index < agentCount; index++) {
+            partitions[index] = unweightedPartitioning.getPartition(network.getUUID(index));
+        }
+        var ignoringWeights = new SocialNetworkPartitioning(network, 4, partitions);
+
+        assertTrue(partitioning.getEdgeCut() * 4 < ignoringWeights.getEdgeCut() * 3,
+                partitioning + " does not cut less weight than " + ignoringWeights);
+        assertTrue(partitioning.getImbalance() <= partitioner.getImbalanceTolerance() + 0.01,
+                partitioning + " is not balanced");
+    }
+
+    @Test
+    public void partition_SameSeed_ReturnsSamePlacement() {
+        var network = communities();
+
+        var first = new LabelPropagationPartitioner(4, 3).partition(network);
+        var second = new LabelPropagationPartitioner(4, 3).partition(network);
+
+        for (var index = 0; index < network.getAgentCount(); index++) {
+            assertEquals(first.getPartitionOf(index), second.getPartitionOf(index));
+        }
+    }
+
+    @Test
+    public void partition_NoRounds_ReturnsContiguousRanges() {
+        var agents = new UUID[]{UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        var network = CsrSocialNetwork.of(agents, new int[0], new int[0], new double[0]);
+        var partitioner = new LabelPropagationPartitioner(2, 1);
+        partitioner.setMaximumRounds(0);
+
+        var partitioning = partitioner.partition(network);
+
+        assertEquals(0, partitioning.getPartitionOf(0));
+        assertEquals(0, partitioning.getPartitionOf(1));
+        assertEquals(1, partitioning.getPartitionOf(2));
+        assertEquals(1, partitioning.getPartitionOf(3));
+        assertEquals(0.0, partitioning.getImbalance());
+    }
+
+    @Test
+    public void constructor_InvalidPartitionCount_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LabelPropagationPartitioner(0, 1));
+    }
+
+    @Test
+    public void setImbalanceTolerance_Negative_ThrowsException() {
+        var partitioner = new LabelPropagationPartitioner(2, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> partitioner.setImbalanceTolerance(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> partitioner.setMaximumRounds(-1));
+    }
+}
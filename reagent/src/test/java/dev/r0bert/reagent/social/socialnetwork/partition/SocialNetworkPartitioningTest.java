@@ -0,0 +1,72 @@
+package dev.r0bert.reagent.social.socialnetwork.partition;
+
+import dev.r0bert.reagent.core.simulationmanager.partition.HashPartitionAssignment;
+import dev.r0bert.reagent.social.socialnetwork.csr.CsrSocialNetwork;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocialNetworkPartitioningTest {
+    private static final UUID[] agents = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+    private static CsrSocialNetwork network() {
+        return CsrSocialNetwork.of(agents, new int[]{0, 0, 1, 2, 3}, new int[]{1, 2, 0, 3, 2},
+                new double[]{1.0, 1.0, 1.0, 1.0, 1.0});
+    }
+
+    @Test
+    public void constructor_Always_MeasuresPlacement() {
+        var partitioning = new SocialNetworkPartitioning(network(), 2, new int[]{0, 0, 1, 1});
+
+        assertEquals(2, partitioning.getPartitionCount());
+        assertEquals(1.0, partitioning.getEdgeCut());
+        assertEquals(2, partitioning.getSize(0));
+        assertEquals(5.0, partitioning.getLoad(0));
+        assertEquals(4.0, partitioning.getLoad(1));
+        assertEquals(5.0 * 2 / 9 - 1.0, partitioning.getImbalance(), 1e-12);
+    }
+
+    @Test
+    public void constructor_WeightedEdges_WeighsLoadAndEdgeCut() {
+        var network = CsrSocialNetwork.of(agents, new int[]{0, 0, 1, 2, 3}, new int[]{1, 2, 0, 3, 2},
+                new double[]{0.5, 4.0, 2.0, -1.0, Double.NaN});
+
+        var partitioning = new SocialNetworkPartitioning(network, 2, new int[]{0, 0, 1, 1});
+
+        assertEquals(4.0, partitioning.getEdgeCut());
+        assertEquals(8.5, partitioning.getLoad(0));
+        assertEquals(2.0, partitioning.getLoad(1));
+    }
+
+    @Test
+    public void constructor_InvalidPartitions_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SocialNetworkPartitioning(network(), 0, new int[4]));
+        assertThrows(IllegalArgumentException.class, () -> new SocialNetworkPartitioning(network(), 2, new int[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SocialNetworkPartitioning(network(), 2, new int[]{0, 1, 2, 0}));
+    }
+
+    @Test
+    public void getPartition_Always_ReturnsPartition() {
+        var partitioning = new SocialNetworkPartitioning(network(), 2, new int[]{1, 0, 0, 1});
+        var unknown = UUID.randomUUID();
+
+        assertEquals(1, partitioning.getPartition(agents[0]));
+        assertEquals(0, partitioning.getPartition(agents[2]));
+        assertEquals(0, partitioning.getPartitionOf(1));
+        assertEquals(Math.floorMod(unknown.hashCode(), 2), partitioning.getPartition(unknown));
+    }
+
+    @Test
+    public void of_Always_HasSamePlacement() {
+        var assignment = new HashPartitionAssignment(3);
+
+        var partitioning = SocialNetworkPartitioning.of(network(), assignment);
+
+        for (var agent : agents) {
+            assertEquals(assignment.getPartition(agent), partitioning.getPartition(agent));
+        }
+    }
+}